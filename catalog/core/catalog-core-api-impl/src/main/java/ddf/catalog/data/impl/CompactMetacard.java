@@ -0,0 +1,371 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.data.impl;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.AttributeDescriptor;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.MetacardType;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link MetacardImpl} that holds its attribute values in an array instead of a map of {@link
+ * Attribute}s, for metacards that are held in memory in large numbers, such as query results.
+ *
+ * <p>The position of each attribute in the array is defined by a layout built once per {@link
+ * MetacardType} and shared by all the metacards of that type. A single value is held as is, and
+ * only attributes with several values are held in an array. Attributes that are not defined by the
+ * metacard type are held in a map that is only created when one is set.
+ *
+ * <p>The {@link Attribute}s returned by {@link #getAttribute(String)} are created on request and
+ * their values cannot be modified. Changing the values of an attribute requires setting it again.
+ */
+public class CompactMetacard extends MetacardImpl {
+
+  private static final long serialVersionUID = 1L;
+
+  /** Layouts of the metacard types in use, compared by identity and released with the type. */
+  private static final LoadingCache<MetacardType, Layout> LAYOUTS =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .build(
+              new CacheLoader<MetacardType, Layout>() {
+                @Override
+                public Layout load(MetacardType type) {
+                  return new Layout(type);
+                }
+              });
+
+  private transient Layout layout;
+
+  private transient Object[] values;
+
+  private transient Map<String, Object> extraValues;
+
+  public CompactMetacard() {
+    this(BASIC_METACARD);
+  }
+
+  public CompactMetacard(MetacardType type) {
+    super(type);
+    layout = LAYOUTS.getUnchecked(type);
+    values = new Object[layout.size()];
+  }
+
+  /**
+   * Creates a compact copy of a metacard, holding the attributes defined by its {@link
+   * MetacardType}.
+   *
+   * @param metacard the metacard to copy
+   */
+  public CompactMetacard(Metacard metacard) {
+    this(metacard.getMetacardType());
+    setSourceId(metacard.getSourceId());
+    for (AttributeDescriptor descriptor : metacard.getMetacardType().getAttributeDescriptors()) {
+      setAttribute(metacard.getAttribute(descriptor.getName()));
+    }
+  }
+
+  @Override
+  public Attribute getAttribute(String name) {
+    Object value = getValue(name);
+    return value == null ? null : new CompactAttribute(name, value);
+  }
+
+  @Override
+  public void setAttribute(String name, Serializable value) {
+    if (name == null) {
+      return;
+    }
+
+    if (value instanceof List) {
+      setValue(name, toValue((List<?>) value));
+    } else {
+      setValue(name, value);
+    }
+  }
+
+  @Override
+  public void setAttribute(Attribute attribute) {
+    if (attribute == null || attribute.getName() == null) {
+      return;
+    }
+
+    if (attribute instanceof CompactAttribute) {
+      setValue(attribute.getName(), ((CompactAttribute) attribute).value);
+    } else if (attribute.getValue() == null) {
+      setValue(attribute.getName(), null);
+    } else {
+      setValue(attribute.getName(), toValue(attribute.getValues()));
+    }
+  }
+
+  @Override
+  public void setType(MetacardType type) {
+    if (type == null) {
+      throw new IllegalArgumentException(
+          MetacardType.class.getName() + " instance should not be null.");
+    }
+
+    Layout previousLayout = layout;
+    Object[] previousValues = values;
+    Map<String, Object> previousExtraValues = extraValues;
+
+    super.setType(type);
+    layout = LAYOUTS.getUnchecked(type);
+    values = new Object[layout.size()];
+    extraValues = null;
+
+    for (int i = 0; i < previousValues.length; i++) {
+      setValue(previousLayout.names[i], previousValues[i]);
+    }
+    if (previousExtraValues != null) {
+      previousExtraValues.forEach(this::setValue);
+    }
+  }
+
+  @Override
+  protected <T> T requestData(String attributeName, Class<T> returnType) {
+    Object value = getValue(attributeName);
+    if (value instanceof MultiValue) {
+      value = ((MultiValue) value).values[0];
+    }
+    return returnType.isInstance(value) ? returnType.cast(value) : null;
+  }
+
+  private Object getValue(String name) {
+    int index = layout.indexOf(name);
+    if (index >= 0) {
+      return values[index];
+    }
+    return extraValues == null ? null : extraValues.get(name);
+  }
+
+  private void setValue(String name, Object value) {
+    int index = layout.indexOf(name);
+    if (index >= 0) {
+      values[index] = value;
+    } else if (value != null) {
+      if (extraValues == null) {
+        extraValues = new HashMap<>();
+      }
+      extraValues.put(name, value);
+    } else if (extraValues != null) {
+      extraValues.remove(name);
+    }
+  }
+
+  /** Returns the value held for a list of values, or {@code null} if there are none. */
+  private static Object toValue(List<?> list) {
+    if (list.isEmpty() || list.get(0) == null) {
+      return null;
+    }
+    if (list.size() == 1) {
+      return list.get(0);
+    }
+    return new MultiValue(list.toArray(new Serializable[list.size()]));
+  }
+
+  /**
+   * Writes the attributes as a count followed by the name and values of each attribute, after the
+   * metacard type and source id written by {@link MetacardImpl}.
+   */
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+
+    int count = extraValues == null ? 0 : extraValues.size();
+    for (Object value : values) {
+      if (value != null) {
+        count++;
+      }
+    }
+    stream.writeInt(count);
+
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        writeValue(stream, layout.names[i], values[i]);
+      }
+    }
+    if (extraValues != null) {
+      for (Map.Entry<String, Object> entry : extraValues.entrySet()) {
+        writeValue(stream, entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private static void writeValue(ObjectOutputStream stream, String name, Object value)
+      throws IOException {
+    stream.writeUTF(name);
+    if (value instanceof MultiValue) {
+      Serializable[] multiValues = ((MultiValue) value).values;
+      stream.writeInt(multiValues.length);
+      for (Serializable multiValue : multiValues) {
+        stream.writeObject(multiValue);
+      }
+    } else {
+      stream.writeInt(1);
+      stream.writeObject(value);
+    }
+  }
+
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+
+    layout = LAYOUTS.getUnchecked(getMetacardType());
+    values = new Object[layout.size()];
+
+    int count = stream.readInt();
+    for (int i = 0; i < count; i++) {
+      String name = stream.readUTF();
+      int size = stream.readInt();
+      if (size < 1) {
+        throw new InvalidObjectException("Attribute " + name + " was written without values.");
+      }
+
+      if (size == 1) {
+        setValue(name, stream.readObject());
+      } else {
+        Serializable[] multiValues = new Serializable[size];
+        for (int j = 0; j < size; j++) {
+          multiValues[j] = (Serializable) stream.readObject();
+        }
+        setValue(name, new MultiValue(multiValues));
+      }
+    }
+  }
+
+  /** The position of each attribute of a {@link MetacardType} in the array of values. */
+  private static final class Layout {
+
+    private final String[] names;
+
+    private final Map<String, Integer> indexes;
+
+    private Layout(MetacardType type) {
+      names =
+          type.getAttributeDescriptors()
+              .stream()
+              .map(AttributeDescriptor::getName)
+              .filter(Objects::nonNull)
+              .distinct()
+              .sorted()
+              .toArray(String[]::new);
+
+      Map<String, Integer> nameIndexes = new HashMap<>();
+      for (int i = 0; i < names.length; i++) {
+        nameIndexes.put(names[i], i);
+      }
+      indexes = Collections.unmodifiableMap(nameIndexes);
+    }
+
+    private int size() {
+      return names.length;
+    }
+
+    private int indexOf(String name) {
+      Integer index = indexes.get(name);
+      return index == null ? -1 : index;
+    }
+  }
+
+  /** The values of an attribute that has more than one. */
+  private static final class MultiValue {
+
+    private final Serializable[] values;
+
+    private MultiValue(Serializable[] values) {
+      this.values = values;
+    }
+  }
+
+  /**
+   * An {@link Attribute} view of the value held by a {@link CompactMetacard}. It is serialized as
+   * an {@link AttributeImpl}.
+   */
+  private static final class CompactAttribute implements Attribute {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+
+    private final transient Object value;
+
+    private CompactAttribute(String name, Object value) {
+      this.name = name;
+      this.value = value;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public Serializable getValue() {
+      return value instanceof MultiValue ? ((MultiValue) value).values[0] : (Serializable) value;
+    }
+
+    @Override
+    public List<Serializable> getValues() {
+      if (value instanceof MultiValue) {
+        return Collections.unmodifiableList(Arrays.asList(((MultiValue) value).values));
+      }
+      return Collections.singletonList((Serializable) value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+
+      if (!(o instanceof Attribute)) {
+        return false;
+      }
+
+      Attribute attribute = (Attribute) o;
+
+      return Objects.equals(name, attribute.getName())
+          && Objects.equals(getValues(), attribute.getValues());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, getValues());
+    }
+
+    @Override
+    public String toString() {
+      return getClass().getName() + " {name=" + name + ", values=" + getValues() + "}";
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+      return new AttributeImpl(name, getValues());
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.data.impl;
+
+import ddf.catalog.data.StreamingBinaryContent;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.activation.MimeType;
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.commons.lang.builder.ToStringBuilder;
+
+/**
+ * This class is a common implementation of the {@link StreamingBinaryContent} interface, which
+ * produces its content with a {@link ContentWriter}.
+ *
+ * <p>For callers that read the content with {@link #getInputStream()} or {@link #getByteArray()},
+ * the content is first written to memory, as a regular {@link BinaryContentImpl} would hold it, and
+ * can then be read any number of times. Content written directly with {@link
+ * #writeTo(OutputStream)} is not kept in memory, so it can only be written once.
+ */
+public class StreamingBinaryContentImpl implements StreamingBinaryContent {
+
+  private final ContentWriter contentWriter;
+
+  private final MimeType mimeType;
+
+  private final AtomicBoolean written = new AtomicBoolean(false);
+
+  private volatile byte[] byteArray = null;
+
+  /** Writes the content of a {@link StreamingBinaryContentImpl}. */
+  @FunctionalInterface
+  public interface ContentWriter {
+    void write(OutputStream outputStream) throws IOException;
+  }
+
+  /**
+   * Instantiates a new streaming binary content.
+   *
+   * @param contentWriter writes the content when it is accessed
+   * @param mimeType the mime type of the content
+   */
+  public StreamingBinaryContentImpl(ContentWriter contentWriter, MimeType mimeType) {
+    this.contentWriter = contentWriter;
+    this.mimeType = mimeType;
+  }
+
+  @Override
+  public void writeTo(OutputStream outputStream) throws IOException {
+    if (byteArray != null) {
+      outputStream.write(byteArray);
+      return;
+    }
+    if (!written.compareAndSet(false, true)) {
+      throw new IllegalStateException("The content has already been written.");
+    }
+    contentWriter.write(outputStream);
+    outputStream.flush();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UncheckedIOException if the content could not be produced
+   */
+  @Override
+  public InputStream getInputStream() {
+    try {
+      return new ByteArrayInputStream(getByteArray());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to write content.", e);
+    }
+  }
+
+  @Override
+  public MimeType getMimeType() {
+    return mimeType;
+  }
+
+  @Override
+  public String getMimeTypeValue() {
+    return mimeType != null ? mimeType.getBaseType() : null;
+  }
+
+  @Override
+  public long getSize() {
+    return byteArray == null ? BinaryContentImpl.UNKNOWN_SIZE : byteArray.length;
+  }
+
+  @Override
+  public synchronized byte[] getByteArray() throws IOException {
+    if (byteArray == null) {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      writeTo(outputStream);
+      byteArray = outputStream.toByteArray();
+    }
+    return byteArray;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder.reflectionToString(this);
+  }
+}
@@ -27,8 +27,11 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,12 +47,16 @@ public class QueryResponseImpl extends ResponseImpl<QueryRequest> implements Que
 
   protected boolean isQueueClosed = false;
 
-  LinkedBlockingQueue<Result> queue = null;
+  BlockingQueue<Result> queue = null;
 
   List<Result> resultList = null;
 
   private long timeoutMillis = 300000;
 
+  private int queueCapacity = 0;
+
+  private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
   /**
    * Instantiates a new QueryResponseImpl with a $(@link QueryRequest)
    *
@@ -70,6 +77,30 @@ public QueryResponseImpl(QueryRequest request, Map<String, Serializable> propert
     this(request, null, false, 0, properties);
   }
 
+  /**
+   * Instantiates a new QueryResponseImpl with a $(@link QueryRequest), a ${@link Map} of properties
+   * and a bounded result queue. Once the queue holds {@code queueCapacity} results, producers
+   * adding results block until the results are taken, for up to the timeout of the query.
+   *
+   * @param request the request
+   * @param queueCapacity the maximum number of results the queue holds, or 0 for an unbounded queue
+   * @param properties the properties
+   */
+  public QueryResponseImpl(
+      QueryRequest request, int queueCapacity, Map<String, Serializable> properties) {
+    super(request, properties);
+    this.queueCapacity = Math.max(0, queueCapacity);
+    queue =
+        this.queueCapacity > 0
+            ? new ArrayBlockingQueue<Result>(this.queueCapacity)
+            : new LinkedBlockingQueue<Result>();
+    resultList = new ArrayList<Result>();
+
+    if (request != null && request.getQuery() != null) {
+      timeoutMillis = request.getQuery().getTimeoutMillis();
+    }
+  }
+
   /**
    * Instantiates a new QueryResponseImpl with a $(@link QueryRequest) and and a ${@link List} of
    * results
@@ -115,6 +146,7 @@ public QueryResponseImpl(
         results == null
             ? new LinkedBlockingQueue<Result>()
             : new LinkedBlockingQueue<Result>(results);
+    updateMaxQueueDepth();
     resultList = new ArrayList<Result>();
     if (closeResultQueue) {
       closeResultQueue();
@@ -205,10 +237,10 @@ public void addResult(Result result, boolean closeQueue) {
         throw new IllegalStateException("Cannot add new Results after the Queue has been closed");
       } else {
         if (closeQueue) {
-          queue.add(result);
+          enqueue(result);
           closeResultQueue();
         } else {
-          queue.add(result);
+          enqueue(result);
         }
       }
     } else {
@@ -228,11 +260,15 @@ public void addResults(List<Result> results, boolean closeQueue) {
       if (isQueueClosed) {
         throw new IllegalStateException("Cannot add new Results after the Queue has been closed");
       } else {
-        if (closeQueue) {
-          queue.addAll(results);
-          closeResultQueue();
+        if (queueCapacity > 0) {
+          results.forEach(this::enqueue);
         } else {
           queue.addAll(results);
+          updateMaxQueueDepth();
+        }
+
+        if (closeQueue) {
+          closeResultQueue();
         }
       }
     }
@@ -243,9 +279,79 @@ public boolean hasMoreResults() {
     return !queue.isEmpty() || !isQueueClosed;
   }
 
+  /**
+   * Closes the result queue. The marker that tells consumers the queue is closed is never
+   * discarded: if a bounded queue is still full once the query timeout has passed, or the wait for
+   * room is interrupted, the oldest results are discarded to make room for it instead.
+   */
   public void closeResultQueue() {
     isQueueClosed = true;
-    queue.add(POISON_PILL_RESULT);
+    if (queueCapacity > 0) {
+      try {
+        if (timeoutMillis < 1) {
+          queue.put(POISON_PILL_RESULT);
+          return;
+        } else if (queue.offer(POISON_PILL_RESULT, timeoutMillis, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+        LOGGER.debug("Timed out waiting for results to be taken from the result queue.");
+      } catch (InterruptedException e) {
+        LOGGER.debug("Interrupted waiting for results to be taken from the result queue.");
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    while (!queue.offer(POISON_PILL_RESULT)) {
+      queue.poll();
+    }
+  }
+
+  /** @return the number of results currently waiting in the result queue */
+  public int getQueueDepth() {
+    int depth = queue.size();
+    return isQueueClosed && depth > 0 ? depth - 1 : depth;
+  }
+
+  /** @return the largest number of results that have been waiting in the result queue at once */
+  public int getMaxQueueDepth() {
+    return maxQueueDepth.get();
+  }
+
+  /** @return the capacity of the result queue, or 0 if the queue is unbounded */
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /**
+   * Adds a result to the queue. If the queue is bounded and full, blocks until there is room for up
+   * to the query timeout, after which the result is discarded since nothing is taking results
+   * anymore.
+   */
+  private void enqueue(Result result) {
+    if (queueCapacity < 1) {
+      queue.add(result);
+    } else {
+      try {
+        if (timeoutMillis < 1) {
+          queue.put(result);
+        } else if (!queue.offer(result, timeoutMillis, TimeUnit.MILLISECONDS)) {
+          LOGGER.debug("Timed out waiting for results to be taken from the result queue.");
+          return;
+        }
+      } catch (InterruptedException e) {
+        LOGGER.debug("Interrupted waiting for results to be taken from the result queue.");
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+
+    if (result != POISON_PILL_RESULT) {
+      updateMaxQueueDepth();
+    }
+  }
+
+  private void updateMaxQueueDepth() {
+    maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
   }
 
   @Override
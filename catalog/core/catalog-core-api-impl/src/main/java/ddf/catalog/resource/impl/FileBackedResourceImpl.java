@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource.impl;
+
+import ddf.catalog.resource.FileBackedResource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.activation.MimeType;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.builder.ToStringBuilder;
+
+/**
+ * This class is a common implementation of the {@link FileBackedResource} interface, for a
+ * resource read from a local file. A new channel to the file is opened each time the content is
+ * accessed.
+ */
+public class FileBackedResourceImpl implements FileBackedResource {
+
+  private static final long UNKNOWN_SIZE = -1;
+
+  private final Path path;
+
+  private final long offset;
+
+  private final MimeType mimeType;
+
+  private final String name;
+
+  /**
+   * Instantiates a new {@link FileBackedResource} holding the whole file.
+   *
+   * @param path the file holding the content of the resource
+   * @param mimeType the {@link MimeType} of the resource
+   * @param name the name of the resource
+   */
+  public FileBackedResourceImpl(Path path, MimeType mimeType, String name) {
+    this(path, 0, mimeType, name);
+  }
+
+  /**
+   * Instantiates a new {@link FileBackedResource} holding the bytes of the file that follow {@code
+   * offset}.
+   *
+   * @param path the file holding the content of the resource
+   * @param offset the number of bytes at the start of the file to skip
+   * @param mimeType the {@link MimeType} of the resource
+   * @param name the name of the resource
+   * @throws IllegalArgumentException if the offset is negative
+   */
+  public FileBackedResourceImpl(Path path, long offset, MimeType mimeType, String name) {
+    if (offset < 0) {
+      throw new IllegalArgumentException("Offset cannot be negative: " + offset);
+    }
+    this.path = path;
+    this.offset = offset;
+    this.mimeType = mimeType;
+    this.name = name;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UncheckedIOException if the file could not be opened
+   */
+  @Override
+  public InputStream getInputStream() {
+    try {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+      try {
+        channel.position(offset);
+      } catch (IOException e) {
+        channel.close();
+        throw e;
+      }
+      return Channels.newInputStream(channel);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to open " + path, e);
+    }
+  }
+
+  @Override
+  public long transferTo(long position, long count, WritableByteChannel target)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long start = offset + position;
+      long end = Math.min(channel.size(), start + count);
+      long transferred = 0;
+      while (start + transferred < end) {
+        long bytes = channel.transferTo(start + transferred, end - start - transferred, target);
+        if (bytes <= 0) {
+          break;
+        }
+        transferred += bytes;
+      }
+      return transferred;
+    }
+  }
+
+  @Override
+  public MimeType getMimeType() {
+    return mimeType;
+  }
+
+  @Override
+  public String getMimeTypeValue() {
+    return mimeType != null ? mimeType.getBaseType() : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @return the number of bytes of the file that follow the offset, or -1 if the size of the file
+   *     could not be read
+   */
+  @Override
+  public long getSize() {
+    try {
+      return Math.max(0, Files.size(path) - offset);
+    } catch (IOException e) {
+      return UNKNOWN_SIZE;
+    }
+  }
+
+  @Override
+  public byte[] getByteArray() throws IOException {
+    try (InputStream inputStream = getInputStream()) {
+      return IOUtils.toByteArray(inputStream);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder.reflectionToString(this);
+  }
+}
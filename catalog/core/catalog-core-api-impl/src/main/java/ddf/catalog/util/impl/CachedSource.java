@@ -28,6 +28,8 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -123,6 +125,16 @@ public SourceResponse query(QueryRequest request) throws UnsupportedQueryExcepti
     return source.query(request);
   }
 
+  @Override
+  public boolean isAsyncQuerySupported() {
+    return source.isAsyncQuerySupported();
+  }
+
+  @Override
+  public CompletionStage<SourceResponse> queryAsync(QueryRequest request, Executor executor) {
+    return source.queryAsync(request, executor);
+  }
+
   @Override
   public Set<ContentType> getContentTypes() {
     return cachedContentTypes;
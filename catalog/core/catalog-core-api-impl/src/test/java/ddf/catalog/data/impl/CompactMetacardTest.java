@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.data.impl;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.Metacard;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.junit.Test;
+
+public class CompactMetacardTest {
+
+  private static final String SERIALIZATION_FILE_LOCATION = "target/compactMetacard.ser";
+
+  private static final String EXTRA_ATTRIBUTE = "extra-attribute";
+
+  @Test
+  public void testSingleValuedAttributes() throws Exception {
+    Date created = new Date();
+    CompactMetacard metacard = new CompactMetacard();
+    metacard.setId("id");
+    metacard.setTitle("title");
+    metacard.setCreatedDate(created);
+    metacard.setResourceURI(new URI("http://example.com"));
+
+    assertThat(metacard.getId(), is("id"));
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getCreatedDate(), is(created));
+    assertThat(metacard.getResourceURI(), is(new URI("http://example.com")));
+    assertThat(
+        metacard.getAttribute(Metacard.TITLE), is(new AttributeImpl(Metacard.TITLE, "title")));
+    assertThat(metacard.getAttribute(Metacard.DESCRIPTION), is(nullValue()));
+  }
+
+  @Test
+  public void testMultiValuedAttributes() {
+    CompactMetacard metacard = new CompactMetacard();
+    List<Serializable> tags = Arrays.asList("resource", "workspace");
+    metacard.setAttribute(new AttributeImpl(Metacard.TAGS, tags));
+
+    Attribute attribute = metacard.getAttribute(Metacard.TAGS);
+    assertThat(attribute.getValue(), is("resource"));
+    assertThat(attribute.getValues(), contains("resource", "workspace"));
+    assertThat(attribute, is(new AttributeImpl(Metacard.TAGS, tags)));
+    assertThat(metacard.getTags(), containsInAnyOrder("resource", "workspace"));
+  }
+
+  @Test
+  public void testSetNullRemovesAttribute() {
+    CompactMetacard metacard = new CompactMetacard();
+    metacard.setTitle("title");
+    metacard.setAttribute(EXTRA_ATTRIBUTE, "value");
+
+    metacard.setAttribute(new AttributeImpl(Metacard.TITLE, (Serializable) null));
+    metacard.setAttribute(EXTRA_ATTRIBUTE, null);
+
+    assertThat(metacard.getAttribute(Metacard.TITLE), is(nullValue()));
+    assertThat(metacard.getAttribute(EXTRA_ATTRIBUTE), is(nullValue()));
+  }
+
+  @Test
+  public void testAttributeNotDefinedByType() {
+    CompactMetacard metacard = new CompactMetacard();
+    metacard.setAttribute(EXTRA_ATTRIBUTE, "value");
+
+    assertThat(metacard.getAttribute(EXTRA_ATTRIBUTE).getValue(), is("value"));
+  }
+
+  @Test
+  public void testCopyMetacard() {
+    MetacardImpl original = new MetacardImpl();
+    original.setId("id");
+    original.setTitle("title");
+    original.setSourceId("source");
+    original.setAttribute(new AttributeImpl(Metacard.TAGS, Arrays.asList("a", "b")));
+
+    CompactMetacard copy = new CompactMetacard(original);
+
+    assertThat(copy.getId(), is("id"));
+    assertThat(copy.getTitle(), is("title"));
+    assertThat(copy.getSourceId(), is("source"));
+    assertThat(copy.getAttribute(Metacard.TAGS), is(original.getAttribute(Metacard.TAGS)));
+    assertThat(copy.getMetacardType(), is(original.getMetacardType()));
+  }
+
+  @Test
+  public void testSetTypeKeepsValues() {
+    CompactMetacard metacard = new CompactMetacard();
+    metacard.setTitle("title");
+    metacard.setAttribute(EXTRA_ATTRIBUTE, "value");
+
+    metacard.setType(new MetacardTypeImpl("empty", Collections.emptySet()));
+
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getAttribute(EXTRA_ATTRIBUTE).getValue(), is("value"));
+  }
+
+  @Test
+  public void testSerialization() throws IOException, ClassNotFoundException {
+    CompactMetacard metacard = new CompactMetacard();
+    metacard.setId("id");
+    metacard.setTitle("title");
+    metacard.setSourceId("source");
+    metacard.setThumbnail(new byte[] {-86});
+    metacard.setAttribute(new AttributeImpl(Metacard.TAGS, Arrays.asList("a", "b")));
+    metacard.setAttribute(EXTRA_ATTRIBUTE, "value");
+
+    Serializer<Metacard> serializer = new Serializer<>();
+    serializer.serialize(metacard, SERIALIZATION_FILE_LOCATION);
+    Metacard readMetacard = serializer.deserialize(SERIALIZATION_FILE_LOCATION);
+
+    assertThat(readMetacard, instanceOf(CompactMetacard.class));
+    assertThat(readMetacard.getId(), is("id"));
+    assertThat(readMetacard.getTitle(), is("title"));
+    assertThat(readMetacard.getSourceId(), is("source"));
+    assertThat(readMetacard.getThumbnail(), is(new byte[] {-86}));
+    assertThat(readMetacard.getAttribute(Metacard.TAGS).getValues(), contains("a", "b"));
+    assertThat(readMetacard.getAttribute(EXTRA_ATTRIBUTE).getValue(), is("value"));
+    assertThat(readMetacard.getMetacardType().getName(), is(metacard.getMetacardType().getName()));
+  }
+
+  @Test
+  public void testSerializeAttribute() throws IOException, ClassNotFoundException {
+    CompactMetacard metacard = new CompactMetacard();
+    metacard.setTitle("title");
+
+    Serializer<Attribute> serializer = new Serializer<>();
+    serializer.serialize(metacard.getAttribute(Metacard.TITLE), SERIALIZATION_FILE_LOCATION);
+    Attribute attribute = serializer.deserialize(SERIALIZATION_FILE_LOCATION);
+
+    assertThat(attribute, instanceOf(AttributeImpl.class));
+    assertThat(attribute, is(new AttributeImpl(Metacard.TITLE, "title")));
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.data.impl;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.activation.MimeType;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamingBinaryContentImplTest {
+
+  private static final String CONTENT = "streamed content";
+
+  private MimeType mimeType;
+
+  private AtomicInteger writes;
+
+  private StreamingBinaryContentImpl binaryContent;
+
+  @Before
+  public void setUp() throws Exception {
+    mimeType = new MimeType("text/plain");
+    writes = new AtomicInteger();
+    binaryContent =
+        new StreamingBinaryContentImpl(
+            out -> {
+              writes.incrementAndGet();
+              out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+            },
+            mimeType);
+  }
+
+  @Test
+  public void testWriteTo() throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    binaryContent.writeTo(outputStream);
+
+    assertThat(outputStream.toString(StandardCharsets.UTF_8.name()), is(CONTENT));
+    assertThat(binaryContent.getMimeTypeValue(), is("text/plain"));
+    assertThat(binaryContent.getSize(), is(-1L));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testContentCanOnlyBeWrittenOnce() throws IOException {
+    binaryContent.writeTo(new ByteArrayOutputStream());
+    binaryContent.writeTo(new ByteArrayOutputStream());
+  }
+
+  @Test
+  public void testGetInputStream() throws IOException {
+    assertThat(
+        IOUtils.toString(binaryContent.getInputStream(), StandardCharsets.UTF_8), is(CONTENT));
+  }
+
+  @Test
+  public void testGetInputStreamTwice() throws IOException {
+    assertThat(
+        IOUtils.toString(binaryContent.getInputStream(), StandardCharsets.UTF_8), is(CONTENT));
+    assertThat(
+        IOUtils.toString(binaryContent.getInputStream(), StandardCharsets.UTF_8), is(CONTENT));
+    assertThat(binaryContent.getSize(), is((long) CONTENT.length()));
+    assertThat(writes.get(), is(1));
+  }
+
+  @Test
+  public void testWriteToAfterGetInputStream() throws IOException {
+    binaryContent.getInputStream();
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    binaryContent.writeTo(outputStream);
+
+    assertThat(outputStream.toString(StandardCharsets.UTF_8.name()), is(CONTENT));
+    assertThat(writes.get(), is(1));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testGetInputStreamAfterStreamingWriteTo() throws IOException {
+    binaryContent.writeTo(new ByteArrayOutputStream());
+    binaryContent.getInputStream();
+  }
+
+  @Test
+  public void testGetByteArrayIsIdempotent() throws IOException {
+    assertThat(new String(binaryContent.getByteArray(), StandardCharsets.UTF_8), is(CONTENT));
+    assertThat(new String(binaryContent.getByteArray(), StandardCharsets.UTF_8), is(CONTENT));
+    assertThat(
+        IOUtils.toString(binaryContent.getInputStream(), StandardCharsets.UTF_8), is(CONTENT));
+    assertThat(binaryContent.getSize(), is((long) CONTENT.length()));
+    assertThat(writes.get(), is(1));
+  }
+
+  @Test(expected = UncheckedIOException.class)
+  public void testGetInputStreamWriteFailure() {
+    new StreamingBinaryContentImpl(
+            out -> {
+              throw new IOException("failed");
+            },
+            mimeType)
+        .getInputStream();
+  }
+}
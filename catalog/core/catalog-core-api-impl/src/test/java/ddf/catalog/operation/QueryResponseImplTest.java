@@ -13,11 +13,21 @@
  */
 package ddf.catalog.operation;
 
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
 
+import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.ResultImpl;
+import ddf.catalog.operation.impl.QueryImpl;
+import ddf.catalog.operation.impl.QueryRequestImpl;
 import ddf.catalog.operation.impl.QueryResponseImpl;
+import java.util.List;
 import javax.xml.parsers.ParserConfigurationException;
 import org.junit.Test;
+import org.opengis.filter.Filter;
 
 /**
  * Test {@link QueryResponseImpl}
@@ -36,4 +46,53 @@ public void queryNullSourceResponse() throws ParserConfigurationException {
     QueryResponse response = new QueryResponseImpl(null, "sourceId");
     assertNotNull(response);
   }
+
+  @Test
+  public void boundedQueueAppliesBackPressure() throws Exception {
+    QueryResponseImpl response = new QueryResponseImpl(null, 10, null);
+    Thread producer =
+        new Thread(
+            () -> {
+              for (int i = 0; i < 100; i++) {
+                response.addResult(new ResultImpl(), false);
+              }
+              response.closeResultQueue();
+            });
+    producer.start();
+
+    List<Result> results = response.getResults();
+    producer.join();
+
+    assertThat(results.size(), is(100));
+    assertThat(response.getQueueCapacity(), is(10));
+    assertThat(response.getMaxQueueDepth(), lessThanOrEqualTo(10));
+    assertThat(response.getQueueDepth(), is(0));
+    assertThat(response.hasMoreResults(), is(false));
+  }
+
+  @Test
+  public void closingFullQueueDiscardsResultsAfterTimeout() {
+    QueryRequest request =
+        new QueryRequestImpl(new QueryImpl(Filter.INCLUDE, 1, 10, null, false, 10));
+    QueryResponseImpl response = new QueryResponseImpl(request, 1, null);
+    response.addResult(new ResultImpl(), false);
+
+    response.closeResultQueue();
+
+    assertThat(response.getResults(), is(empty()));
+    assertThat(response.hasMoreResults(), is(false));
+  }
+
+  @Test
+  public void closingFullQueueWhenInterruptedDiscardsResults() {
+    QueryResponseImpl response = new QueryResponseImpl(null, 1, null);
+    response.addResult(new ResultImpl(), false);
+
+    Thread.currentThread().interrupt();
+    response.closeResultQueue();
+
+    assertThat(Thread.interrupted(), is(true));
+    assertThat(response.getResults(), is(empty()));
+    assertThat(response.hasMoreResults(), is(false));
+  }
 }
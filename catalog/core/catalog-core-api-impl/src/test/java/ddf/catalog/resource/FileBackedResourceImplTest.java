@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import ddf.catalog.resource.impl.FileBackedResourceImpl;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.activation.MimeType;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileBackedResourceImplTest {
+
+  private static final String CONTENT = "0123456789";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path file;
+
+  private MimeType mimeType;
+
+  @Before
+  public void setUp() throws Exception {
+    file = temporaryFolder.newFile("product.txt").toPath();
+    Files.write(file, CONTENT.getBytes(StandardCharsets.UTF_8));
+    mimeType = new MimeType("text/plain");
+  }
+
+  @Test
+  public void testWholeFile() throws IOException {
+    FileBackedResourceImpl resource = new FileBackedResourceImpl(file, mimeType, "product.txt");
+
+    assertThat(resource.getSize(), is((long) CONTENT.length()));
+    assertThat(resource.getName(), is("product.txt"));
+    assertThat(resource.getMimeTypeValue(), is("text/plain"));
+    assertThat(new String(resource.getByteArray(), StandardCharsets.UTF_8), is(CONTENT));
+  }
+
+  @Test
+  public void testOffset() throws IOException {
+    FileBackedResourceImpl resource = new FileBackedResourceImpl(file, 4, mimeType, "product.txt");
+
+    assertThat(resource.getSize(), is(6L));
+    try (InputStream inputStream = resource.getInputStream()) {
+      assertThat(IOUtils.toString(inputStream, StandardCharsets.UTF_8), is("456789"));
+    }
+  }
+
+  @Test
+  public void testOffsetPastEndOfFile() throws IOException {
+    FileBackedResourceImpl resource = new FileBackedResourceImpl(file, 20, mimeType, "product.txt");
+
+    assertThat(resource.getSize(), is(0L));
+    assertThat(resource.getByteArray().length, is(0));
+  }
+
+  @Test
+  public void testTransferTo() throws IOException {
+    FileBackedResourceImpl resource = new FileBackedResourceImpl(file, 2, mimeType, "product.txt");
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    WritableByteChannel channel = Channels.newChannel(outputStream);
+
+    assertThat(resource.transferTo(1, 3, channel), is(3L));
+    assertThat(outputStream.toString(StandardCharsets.UTF_8.name()), is("345"));
+  }
+
+  @Test
+  public void testTransferToEndOfFile() throws IOException {
+    FileBackedResourceImpl resource = new FileBackedResourceImpl(file, 2, mimeType, "product.txt");
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    assertThat(resource.transferTo(5, 100, Channels.newChannel(outputStream)), is(3L));
+    assertThat(outputStream.toString(StandardCharsets.UTF_8.name()), is("789"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeOffset() {
+    new FileBackedResourceImpl(file, -1, mimeType, "product.txt");
+  }
+}
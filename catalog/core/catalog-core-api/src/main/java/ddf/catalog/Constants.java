@@ -150,4 +150,36 @@ public final class Constants {
   public static final String SUGGESTION_DICT_KEY = "suggestion-dictionary";
 
   public static final String SUGGESTION_RESULT_KEY = "suggestion-result";
+
+  /**
+   * Request and response property holding the continuation token of a deep paged federated query.
+   * A request starts a new cursor with {@link #QUERY_CURSOR_START}, and each response contains the
+   * token to request the next page with, until all results have been returned.
+   */
+  public static final String QUERY_CURSOR_KEY = "query-cursor";
+
+  /** Value of {@link #QUERY_CURSOR_KEY} used to start a new query cursor. */
+  public static final String QUERY_CURSOR_START = "*";
+
+  /**
+   * Transformer argument set to {@code true} to request a {@link
+   * ddf.catalog.data.StreamingBinaryContent}. Transformers that do not support streaming ignore
+   * it.
+   */
+  public static final String STREAMING_CONTENT_KEY = "streaming-content";
+
+  /**
+   * Query request property holding the security attributes of the querying subject that every
+   * value of a metacard attribute must be among, as a {@code Map<String, Set<String>>} of metacard
+   * attribute names to subject values. Providers may use it to only return the metacards the
+   * subject is permitted to read. The results are still filtered by the security access plugins.
+   */
+  public static final String SECURITY_MATCH_ALL_FILTER_KEY = "security-match-all-filter";
+
+  /**
+   * Query request property holding the security attributes of the querying subject that one value
+   * of a metacard attribute must be among, in the same form as {@link
+   * #SECURITY_MATCH_ALL_FILTER_KEY}.
+   */
+  public static final String SECURITY_MATCH_ONE_FILTER_KEY = "security-match-one-filter";
 }
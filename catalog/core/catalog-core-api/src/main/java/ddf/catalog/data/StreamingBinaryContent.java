@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link StreamingBinaryContent} is a {@link BinaryContent} whose content is produced as it is
+ * written, rather than held in memory before being read. Transformers return it when asked to with
+ * the {@link ddf.catalog.Constants#STREAMING_CONTENT_KEY} argument, so that the content can be
+ * written directly to its destination, such as an HTTP response, while memory use stays constant.
+ *
+ * <p>As with {@link #getInputStream()}, the content can only be accessed once. Errors that occur
+ * while the content is produced are reported by {@link #writeTo(OutputStream)} rather than by the
+ * transformer.
+ *
+ * @see ddf.catalog.transform.QueryResponseTransformer
+ */
+public interface StreamingBinaryContent extends BinaryContent {
+
+  /**
+   * Writes the content to an output stream. The output stream is not closed.
+   *
+   * @param outputStream the stream to write the content to
+   * @throws IOException if the content could not be produced or written
+   */
+  void writeTo(OutputStream outputStream) throws IOException;
+}
@@ -28,6 +28,19 @@ public interface ResourceRequest extends Request {
 
   public static final String IS_ENTERPRISE = "IS_ENTERPRISE";
 
+  /**
+   * Property holding the number of bytes at the start of the resource that should be skipped, such
+   * as the start of the byte range requested by a client.
+   */
+  public static final String BYTES_TO_SKIP = "BytesToSkip";
+
+  /**
+   * Property holding the number of bytes of the resource that should be retrieved after those
+   * skipped, such as the length of a segment of a download split across several connections. The
+   * rest of the resource is retrieved when it is not set.
+   */
+  public static final String BYTES_TO_READ = "BytesToRead";
+
   public String getAttributeName();
 
   public Serializable getAttributeValue();
@@ -16,5 +16,14 @@
 import ddf.catalog.resource.Resource;
 
 public interface ResourceResponse extends Response<ResourceRequest> {
+
+  /**
+   * Property set to {@code true} when the resource was retrieved from a server that supports byte
+   * ranges, so that the {@link ResourceRequest#BYTES_TO_SKIP} and {@link
+   * ResourceRequest#BYTES_TO_READ} properties of later requests for it are honored without the
+   * skipped bytes being transferred.
+   */
+  public static final String BYTE_RANGES_SUPPORTED = "ByteRangesSupported";
+
   public Resource getResource();
 }
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@link Resource} whose content is held in a local file, such as a product stored on the local
+ * file system or in the product cache. Any range of its bytes can be transferred from the file to a
+ * channel without being copied through the heap, which allows byte range requests for large
+ * products to be served directly from the file.
+ *
+ * <p>When the {@link ddf.catalog.operation.ResourceRequest#BYTES_TO_SKIP} property of the request
+ * skipped part of the file, the content of the resource starts after the skipped bytes, and {@link
+ * #getSize()} is the number of bytes that remain.
+ */
+public interface FileBackedResource extends Resource {
+
+  /**
+   * Transfers up to {@code count} bytes of the content, starting at {@code position}, to a channel,
+   * with the semantics of {@link java.nio.channels.FileChannel#transferTo(long, long,
+   * WritableByteChannel)}. Fewer bytes are transferred when the end of the content is reached.
+   *
+   * @param position the position in the content of the first byte to transfer
+   * @param count the maximum number of bytes to transfer
+   * @param target the channel to transfer the bytes to, which is not closed
+   * @return the number of bytes transferred
+   * @throws IOException if the file could not be read or the channel could not be written
+   */
+  long transferTo(long position, long count, WritableByteChannel target) throws IOException;
+}
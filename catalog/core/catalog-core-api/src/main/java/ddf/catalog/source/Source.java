@@ -20,6 +20,9 @@
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * The Source is used to represent a system that has Metacards in a catalog. A Source may be remote
@@ -63,6 +66,40 @@ public interface Source extends Describable {
    */
   public SourceResponse query(QueryRequest request) throws UnsupportedQueryException;
 
+  /**
+   * States whether {@link #queryAsync(QueryRequest, Executor)} returns without waiting for the
+   * query to complete, so callers can query this source without dedicating a thread to the query.
+   *
+   * @return true if {@link #queryAsync(QueryRequest, Executor)} does not wait for the response,
+   *     false otherwise
+   */
+  default boolean isAsyncQuerySupported() {
+    return false;
+  }
+
+  /**
+   * Executes the query asynchronously. Sources that return {@code true} from {@link
+   * #isAsyncQuerySupported()} return once the query has been sent, which may still involve
+   * connecting to the remote system, and process the response with the given executor rather than
+   * on the thread that received it. The default implementation runs {@link #query(QueryRequest)}
+   * on the calling thread.
+   *
+   * @param request the query to execute
+   * @param executor runs the work needed to turn the response into a {@link SourceResponse}
+   * @return a stage completed with a {@link SourceResponse} with query results and query response
+   *     details, or completed exceptionally with an {@link UnsupportedQueryException} when the
+   *     query is not understood, malformed, or not supported by a {@link Source}
+   */
+  default CompletionStage<SourceResponse> queryAsync(QueryRequest request, Executor executor) {
+    CompletableFuture<SourceResponse> response = new CompletableFuture<>();
+    try {
+      response.complete(query(request));
+    } catch (UnsupportedQueryException | RuntimeException e) {
+      response.completeExceptionally(e);
+    }
+    return response;
+  }
+
   /**
    * Gets the {@link ContentType}s that are currently stored by the {@link Source}. Notice the
    * return object is a {@link Set}, meaning it returns all unique content types found in the Source
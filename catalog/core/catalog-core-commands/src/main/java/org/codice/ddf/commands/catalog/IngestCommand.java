@@ -37,7 +37,6 @@
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.io.UncheckedIOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
@@ -52,18 +51,12 @@
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Phaser;
-import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.StringUtils;
@@ -75,6 +68,7 @@
 import org.apache.karaf.shell.api.action.lifecycle.Service;
 import org.apache.karaf.shell.support.completers.FileCompleter;
 import org.codice.ddf.commands.catalog.facade.CatalogFacade;
+import org.codice.ddf.commands.catalog.ingest.IngestPipeline;
 import org.codice.ddf.platform.util.Exceptions;
 import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
 import org.fusesource.jansi.Ansi;
@@ -96,17 +90,13 @@ public class IngestCommand extends CatalogCommands {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(IngestCommand.class);
 
-  private static final String NEW_LINE = System.getProperty("line.separator");
-
   private static final Logger INGEST_LOGGER = LoggerFactory.getLogger(Constants.INGEST_LOGGER_NAME);
 
   private static final int DEFAULT_BATCH_SIZE = 500;
 
   /**
-   * The maximum size of the blocking queue that holds metacards in process. This value has been set
-   * to be lower than the maximum number of parties to a single Phaser to simplify the Phaser
-   * processing (obviating the need for tiered Phasers) and to protect the server from running out
-   * of memory with too many objects in the queue at any time.
+   * The maximum number of metacards waiting to be written. This protects the server from running
+   * out of memory with too many objects in the queues at any time.
    */
   private static final int MAX_QUEUE_SIZE = 65000;
 
@@ -136,10 +126,10 @@ public class IngestCommand extends CatalogCommands {
           .appendSuffix(" second", " seconds")
           .toFormatter();
 
-  private final Phaser phaser = new Phaser();
-
   private final AtomicInteger ingestCount = new AtomicInteger();
 
+  private final AtomicInteger failCount = new AtomicInteger();
+
   private final AtomicInteger ignoreCount = new AtomicInteger();
 
   private final AtomicInteger fileCount = new AtomicInteger(Integer.MAX_VALUE);
@@ -186,10 +176,20 @@ public class IngestCommand extends CatalogCommands {
     aliases = {"-m", "Multithreaded"},
     multiValued = false,
     description =
-        "Number of threads to use when ingesting. Setting this value too high for your system can cause performance degradation."
+        "Number of threads to use when writing batches of metacards to the catalog. Setting this value too high for your system can cause performance degradation."
   )
   int multithreaded = 8;
 
+  @Option(
+    name = "--transformThreads",
+    required = false,
+    aliases = {},
+    multiValued = false,
+    description =
+        "Number of threads to use when transforming files into metacards. Defaults to the number of processors."
+  )
+  int transformThreads = Runtime.getRuntime().availableProcessors();
+
   // DDF-535: remove "-d" and "Ingest Failure Directory" aliases in ddf-3.0
   @Option(
     name = "--failedDir",
@@ -197,7 +197,7 @@ public class IngestCommand extends CatalogCommands {
     aliases = {"-d", "-f", "Ingest Failure Directory"},
     multiValued = false,
     description =
-        "The directory to put files that failed to ingest.  Using this option will force a batch size of 1."
+        "The directory to put files that failed to ingest. Only the files that failed are moved, whatever the batch size."
   )
   String failedDir = null;
 
@@ -231,6 +231,16 @@ public class IngestCommand extends CatalogCommands {
   )
   boolean includeContent = false;
 
+  @Option(
+    name = "--stats",
+    required = false,
+    aliases = {},
+    multiValued = false,
+    description =
+        "Display the throughput and queue depth of each ingest stage (discover, transform, batch, write) with the progress."
+  )
+  boolean printStats = false;
+
   @Reference StorageProvider storageProvider;
 
   private Map<String, List<File>> metacardFileMapping;
@@ -254,56 +264,26 @@ protected Object executeWithSubject() throws Exception {
     int totalFiles = totalFileCount(inputFile);
     fileCount.set(totalFiles);
 
-    final ArrayBlockingQueue<Metacard> metacardQueue =
-        new ArrayBlockingQueue<>(batchSize * multithreaded);
-
-    ExecutorService queueExecutor =
-        Executors.newSingleThreadExecutor(
-            StandardThreadFactoryBuilder.newThreadFactory(THREAD_NAME));
+    if (transformThreads <= 0) {
+      printErrorMessage(
+          String.format(
+              "A transform thread count of [%d] was supplied. It must be greater than 0.",
+              transformThreads));
+      return null;
+    }
 
     final long start = System.currentTimeMillis();
 
     printProgressAndFlush(start, fileCount.get(), 0);
 
-    // Registering for the main thread and on behalf of the buildQueue thread;
-    // the buildQueue thread will unregister itself when the files have all
-    // been added to the blocking queue and the final registration will
-    // be held for the await.
-    phaser.register();
-    phaser.register();
-    queueExecutor.submit(() -> buildQueue(inputFile, metacardQueue, start));
-
-    final ScheduledExecutorService batchScheduler =
-        Executors.newSingleThreadScheduledExecutor(
-            StandardThreadFactoryBuilder.newThreadFactory(THREAD_NAME));
-
-    BlockingQueue<Runnable> blockingQueue = new ArrayBlockingQueue<>(multithreaded);
-    RejectedExecutionHandler rejectedExecutionHandler = new ThreadPoolExecutor.CallerRunsPolicy();
-    ExecutorService executorService =
-        new ThreadPoolExecutor(
-            multithreaded,
-            multithreaded,
-            0L,
-            TimeUnit.MILLISECONDS,
-            blockingQueue,
-            StandardThreadFactoryBuilder.newThreadFactory(THREAD_NAME),
-            rejectedExecutionHandler);
-
     final CatalogFacade catalog = getCatalog();
-    submitToCatalog(batchScheduler, executorService, metacardQueue, catalog, start);
-
-    // await on catalog processing threads to complete emptying queue
-    phaser.awaitAdvance(phaser.arrive());
-
-    try {
-      queueExecutor.shutdown();
-      executorService.shutdown();
-      batchScheduler.shutdown();
-    } catch (SecurityException e) {
-      LOGGER.info("Executor service shutdown was not permitted: {}", e);
+    if (includeContent) {
+      ingest(this::processIncludeContent, metacard -> metacard, this::describe, catalog, start);
+    } else {
+      ingest(
+          sink -> discoverFiles(inputFile, sink), this::readMetacard, this::fail, catalog, start);
     }
 
-    printProgressAndFlush(start, fileCount.get(), (long) ingestCount.get() + ignoreCount.get());
     long end = System.currentTimeMillis();
     console.println();
     String elapsedTime = timeFormatter.print(new Period(start, end).withMillis(0));
@@ -380,19 +360,6 @@ private File getInputFile() {
       if (!verifyFailedIngestDirectory()) {
         return null;
       }
-
-      // Batch size is always set to one when using an Ingest Failure Directory. If a batch
-      // size is specified by the user, issue a warning stating that a batch size of one will
-      // be used.
-      if (batchSize != DEFAULT_BATCH_SIZE) {
-        console.printf(
-            "WARNING: An ingest failure directory was supplied in addition to a batch "
-                + "size of %d. When using an ingest failure directory, the batch "
-                + "size must be 1. Setting batch size to 1.%n",
-            batchSize);
-      }
-
-      batchSize = 1;
     }
 
     if (!SERIALIZED_OBJECT_ID.matches(transformerId)) {
@@ -421,33 +388,14 @@ private int totalFileCount(File inputFile) throws IOException {
     return inputFile.isHidden() ? 0 : 1;
   }
 
-  /** Helper method to build ingest log strings */
-  private String buildIngestLog(ArrayList<Metacard> metacards) {
-    StringBuilder strBuilder = new StringBuilder();
-
-    for (int i = 0; i < metacards.size(); i++) {
-      Metacard card = metacards.get(i);
-      strBuilder.append(NEW_LINE).append("Batch #: ").append(i + 1).append(" | ");
-      if (card != null) {
-        if (card.getTitle() != null) {
-          strBuilder.append("Metacard Title: ").append(card.getTitle()).append(" | ");
-        }
-        if (card.getId() != null) {
-          strBuilder.append("Metacard ID: ").append(card.getId()).append(" | ");
-        }
-      } else {
-        strBuilder.append("Null Metacard");
-      }
-    }
-    return strBuilder.toString();
-  }
-
-  private void logIngestException(IngestException exception, File inputFile) {
-    LOGGER.debug("Failed to ingest file [{}].", inputFile.getAbsolutePath(), exception);
+  private void logIngestFailure(String item, Exception exception) {
+    LOGGER.debug("Failed to ingest [{}].", item, exception);
     INGEST_LOGGER.warn(
-        "Failed to ingest file [{}]:  \n{}",
-        inputFile.getAbsolutePath(),
-        Exceptions.getFullMessage(exception));
+        "Failed to ingest [{}]:  \n{}",
+        item,
+        exception.getMessage() == null
+            ? exception.toString()
+            : Exceptions.getFullMessage(exception));
   }
 
   private CreateResponse createMetacards(CatalogFacade catalog, List<Metacard> listOfMetaCards)
@@ -540,36 +488,81 @@ private void makeFailedIngestDirectory() {
     }
   }
 
-  private boolean processBatch(CatalogFacade catalog, ArrayList<Metacard> metacards)
-      throws SourceUnavailableException {
-    CreateResponse createResponse = null;
+  /**
+   * Ingests the items found by the discoverer through an {@link IngestPipeline}, displaying the
+   * progress until all of them have been ingested or have failed.
+   *
+   * @param onFailure handles an item that failed and returns its description for the ingest log
+   */
+  private <T> void ingest(
+      IngestPipeline.Discoverer<T> discoverer,
+      IngestPipeline.Transformer<T> transformer,
+      Function<T, String> onFailure,
+      CatalogFacade catalog,
+      long start)
+      throws InterruptedException {
+    IngestPipeline<T> pipeline = new IngestPipeline<>(transformThreads, multithreaded, batchSize);
+
+    ScheduledExecutorService progressReporter =
+        Executors.newSingleThreadScheduledExecutor(
+            StandardThreadFactoryBuilder.newThreadFactory(THREAD_NAME));
+    progressReporter.scheduleWithFixedDelay(
+        () -> printProgress(start, pipeline), 100, 100, TimeUnit.MILLISECONDS);
 
     try {
-      createResponse = createMetacards(catalog, metacards);
-    } catch (IngestException e) {
-      printErrorMessage("Error executing command: " + e.getMessage());
-      if (INGEST_LOGGER.isWarnEnabled()) {
-        INGEST_LOGGER.warn("Error ingesting metacard batch {}", buildIngestLog(metacards), e);
-      }
-    } catch (SourceUnavailableException e) {
-      if (INGEST_LOGGER.isWarnEnabled()) {
-        INGEST_LOGGER.warn(
-            "Error on process batch, local Provider not available. {}"
-                + " metacards failed to ingest. {}",
-            metacards.size(),
-            buildIngestLog(metacards),
-            e);
-      }
+      pipeline.run(
+          discoverer,
+          transformer,
+          metacards -> createMetacards(catalog, metacards),
+          new IngestPipeline.Listener<T>() {
+            @Override
+            public void ingested(T item, Metacard metacard) {
+              ingestCount.incrementAndGet();
+            }
+
+            @Override
+            public void failed(T item, Exception e) {
+              failCount.incrementAndGet();
+              logIngestFailure(onFailure.apply(item), e);
+            }
+          });
     } finally {
-      IntStream range = IntStream.range(0, metacards.size());
-      range.forEach(i -> phaser.arriveAndDeregister());
-      range.close();
+      try {
+        progressReporter.shutdownNow();
+      } catch (SecurityException e) {
+        LOGGER.info("Executor service shutdown was not permitted: {}", e);
+      }
+    }
+
+    printProgress(start, pipeline);
+    LOGGER.debug("Ingest stages: {}", pipeline.getStages());
+    INGEST_LOGGER.info("Ingest stages: {}", pipeline.getStages());
+  }
+
+  private void printProgress(long start, IngestPipeline<?> pipeline) {
+    printProgressAndFlush(
+        start, fileCount.get(), (long) ingestCount.get() + ignoreCount.get() + failCount.get());
+    if (printStats) {
+      console.print(
+          pipeline
+              .getStages()
+              .stream()
+              .map(IngestPipeline.Stage::toString)
+              .collect(Collectors.joining(" | ", " | ", "")));
+      console.flush();
     }
+  }
 
-    if (createResponse != null) {
-      ingestCount.getAndAdd(metacards.size());
+  private String fail(File file) {
+    if (failedIngestDirectory != null) {
+      moveToFailedIngestDirectory(file);
     }
-    return createResponse != null;
+    return file.getAbsolutePath();
+  }
+
+  private String describe(Metacard metacard) {
+    return String.format(
+        "Metacard Title: %s | Metacard ID: %s", metacard.getTitle(), metacard.getId());
   }
 
   private void moveToFailedIngestDirectory(File source) {
@@ -586,69 +579,36 @@ private void moveToFailedIngestDirectory(File source) {
     }
   }
 
-  private void buildQueue(File inputFile, ArrayBlockingQueue<Metacard> metacardQueue, long start) {
-    try {
-      if (includeContent) {
-        processIncludeContent(metacardQueue);
-      } else {
-        try (Stream<Path> ingestStream =
-            Files.walk(inputFile.toPath(), FileVisitOption.FOLLOW_LINKS)) {
-          ingestStream
-              .map(Path::toFile)
-              .filter(file -> !file.isDirectory())
-              .forEach(file -> addFileToQueue(metacardQueue, start, file));
-        } catch (IOException e) {
-          throw new UncheckedIOException(e);
+  private void discoverFiles(File inputFile, IngestPipeline.Sink<File> sink)
+      throws IOException, InterruptedException {
+    try (Stream<Path> ingestStream = Files.walk(inputFile.toPath(), FileVisitOption.FOLLOW_LINKS)) {
+      for (Path path : (Iterable<Path>) ingestStream::iterator) {
+        File file = path.toFile();
+        if (!file.isDirectory() && !isIgnored(file)) {
+          sink.accept(file);
         }
       }
-    } finally {
-      phaser.arriveAndDeregister();
     }
   }
 
-  private void addFileToQueue(ArrayBlockingQueue<Metacard> metacardQueue, long start, File file) {
+  private boolean isIgnored(File file) {
     if (file.isHidden()) {
       fileCount.incrementAndGet();
       ignoreCount.incrementAndGet();
-      return;
+      return true;
     }
 
     String extension = "." + FilenameUtils.getExtension(file.getName());
     if (ignoreList != null
         && (ignoreList.contains(extension) || ignoreList.contains(file.getName()))) {
       ignoreCount.incrementAndGet();
-      printProgressAndFlush(start, fileCount.get(), (long) ingestCount.get() + ignoreCount.get());
-      return;
-    }
-
-    Metacard result = null;
-    try {
-      result = readMetacard(file);
-    } catch (IngestException e) {
-      logIngestException(e, file);
-      if (failedIngestDirectory != null) {
-        moveToFailedIngestDirectory(file);
-      }
-    }
-
-    if (result != null) {
-      putMetacardOnQueue(metacardQueue, result);
-    }
-  }
-
-  private void putMetacardOnQueue(ArrayBlockingQueue<Metacard> metacardQueue, Metacard metacard) {
-    try {
-      phaser.register();
-      metacardQueue.put(metacard);
-    } catch (InterruptedException e) {
-      phaser.arriveAndDeregister();
-
-      INGEST_LOGGER.error(
-          "Thread interrupted while waiting to 'put' metacard: {}", metacard.getId(), e);
+      return true;
     }
+    return false;
   }
 
-  private void processIncludeContent(ArrayBlockingQueue<Metacard> metacardQueue) {
+  private void processIncludeContent(IngestPipeline.Sink<Metacard> sink)
+      throws InterruptedException {
     File inputFile = new File(filePath);
     Map<String, Serializable> arguments = new HashMap<>();
     arguments.put(DumpCommand.FILE_PATH, inputFile.getParent() + File.separator);
@@ -672,7 +632,7 @@ private void processIncludeContent(ArrayBlockingQueue<Metacard> metacardQueue) {
           fileCount.set(metacardList.size());
 
           for (Metacard metacard : metacardList) {
-            putMetacardOnQueue(metacardQueue, metacard);
+            sink.accept(metacard);
           }
         }
       } catch (IOException | CatalogTransformerException e) {
@@ -742,45 +702,6 @@ private void submitToStorageProvider(List<Metacard> metacardList) {
             });
   }
 
-  private void submitToCatalog(
-      ScheduledExecutorService batchScheduler,
-      ExecutorService executorService,
-      ArrayBlockingQueue<Metacard> metacardQueue,
-      CatalogFacade catalog,
-      long start) {
-
-    batchScheduler.scheduleWithFixedDelay(
-        () -> {
-          int queueSize = metacardQueue.size();
-          if (queueSize > 0) {
-            ArrayList<Metacard> metacardBatch = new ArrayList<>(batchSize);
-
-            // When the producer has finished populating the queue, it will countdown
-            // the phaser. The remaining count in the phaser will be metacardCount + main thread
-            if (queueSize >= batchSize || queueSize == phaser.getRegisteredParties() - 1) {
-              metacardQueue.drainTo(metacardBatch, batchSize);
-            }
-
-            if (!metacardBatch.isEmpty()) {
-              executorService.submit(
-                  () -> {
-                    try {
-                      processBatch(catalog, metacardBatch);
-                    } catch (SourceUnavailableException e) {
-                      INGEST_LOGGER.warn("Error on process batch.", e);
-                    }
-                  });
-
-              printProgressAndFlush(
-                  start, fileCount.get(), (long) ingestCount.get() + ignoreCount.get());
-            }
-          }
-        },
-        100,
-        100,
-        TimeUnit.MILLISECONDS);
-  }
-
   private Map<String, List<File>> generateFileMap(File inputFile) throws IOException {
     if (!inputFile.exists()) {
       return null;
@@ -0,0 +1,400 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.commands.catalog.ingest;
+
+import com.google.common.base.Throwables;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.source.IngestException;
+import ddf.catalog.source.InternalIngestException;
+import ddf.catalog.source.SourceUnavailableException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ingests items through a pipeline of bounded stages, each running on its own threads:
+ *
+ * <ol>
+ *   <li>discovery, which finds the items to ingest on a single thread
+ *   <li>transformation, which creates the metacard of each item on several threads
+ *   <li>batching, which groups the metacards into batches
+ *   <li>writing, which stores each batch on several threads
+ * </ol>
+ *
+ * <p>The stages are connected by bounded queues, so a stage that falls behind makes the previous
+ * stages wait instead of holding an unbounded number of items in memory. When a batch cannot be
+ * stored because of its content, it is split in halves that are stored separately until the items
+ * that cannot be stored are found, so only those items fail. When it cannot be stored because the
+ * catalog could not be reached or failed internally, the whole batch fails without being split,
+ * since smaller batches would fail the same way.
+ *
+ * @param <T> the type of the items discovered, e.g. files
+ */
+public class IngestPipeline<T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IngestPipeline.class);
+
+  /** How long the batching stage waits for more metacards before writing a partial batch. */
+  private static final long MAX_BATCH_DELAY_MILLIS = 100;
+
+  /** Finds the items to ingest. */
+  @FunctionalInterface
+  public interface Discoverer<T> {
+    /**
+     * @param sink receives each item found, waiting while the transformation stage is busy
+     */
+    void discover(Sink<T> sink) throws Exception;
+  }
+
+  /** Receives the items found by a {@link Discoverer}. */
+  @FunctionalInterface
+  public interface Sink<T> {
+    void accept(T item) throws InterruptedException;
+  }
+
+  /** Creates the metacard of an item. */
+  @FunctionalInterface
+  public interface Transformer<T> {
+    Metacard transform(T item) throws Exception;
+  }
+
+  /** Stores a batch of metacards. */
+  @FunctionalInterface
+  public interface Writer {
+    /**
+     * @throws IngestException if the batch could not be stored, in which case smaller batches are
+     *     tried, unless it is an {@link InternalIngestException} or was caused by an {@link
+     *     IOException}, in which case all of its items fail
+     * @throws SourceUnavailableException if the batch could not be stored, in which case all of its
+     *     items fail
+     */
+    void write(List<Metacard> metacards) throws IngestException, SourceUnavailableException;
+  }
+
+  /** Notified of the outcome of each item. Called from the threads of the pipeline. */
+  public interface Listener<T> {
+    void ingested(T item, Metacard metacard);
+
+    void failed(T item, Exception e);
+  }
+
+  private final Stage discovery;
+
+  private final Stage transformation;
+
+  private final Stage batching;
+
+  private final Stage writing;
+
+  private final int transformThreads;
+
+  private final int writeThreads;
+
+  private final int batchSize;
+
+  private final BlockingQueue<Item<T>> discovered;
+
+  private final BlockingQueue<Item<T>> transformed;
+
+  private final BlockingQueue<List<Item<T>>> batches;
+
+  /**
+   * @param transformThreads the number of threads transforming items
+   * @param writeThreads the number of threads writing batches
+   * @param batchSize the maximum number of metacards written at a time
+   */
+  public IngestPipeline(int transformThreads, int writeThreads, int batchSize) {
+    this.transformThreads = transformThreads;
+    this.writeThreads = writeThreads;
+    this.batchSize = batchSize;
+
+    discovered = new ArrayBlockingQueue<>(transformThreads * 2);
+    transformed = new ArrayBlockingQueue<>(batchSize * writeThreads);
+    batches = new ArrayBlockingQueue<>(writeThreads);
+
+    discovery = new Stage("discover", discovered::size);
+    transformation = new Stage("transform", transformed::size);
+    batching = new Stage("batch", batches::size);
+    writing = new Stage("write", () -> 0);
+  }
+
+  /** @return the statistics of each stage, in order */
+  public List<Stage> getStages() {
+    return Collections.unmodifiableList(
+        Arrays.asList(discovery, transformation, batching, writing));
+  }
+
+  /**
+   * Ingests all the items found by the discoverer and waits for them to be processed.
+   *
+   * @throws InterruptedException if interrupted while waiting, in which case the pipeline is
+   *     stopped
+   */
+  public void run(
+      Discoverer<T> discoverer, Transformer<T> transformer, Writer writer, Listener<T> listener)
+      throws InterruptedException {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            transformThreads + writeThreads + 2,
+            StandardThreadFactoryBuilder.newThreadFactory("ingestPipelineThread"));
+    try {
+      executor.submit(() -> discover(discoverer));
+      AtomicInteger runningTransformers = new AtomicInteger(transformThreads);
+      for (int i = 0; i < transformThreads; i++) {
+        executor.submit(() -> transform(transformer, listener, runningTransformers));
+      }
+      executor.submit(this::batch);
+      for (int i = 0; i < writeThreads; i++) {
+        executor.submit(() -> write(writer, listener));
+      }
+
+      executor.shutdown();
+      while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOGGER.debug("Waiting for ingest pipeline to complete: {}", getStages());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void discover(Discoverer<T> discoverer) {
+    try {
+      discoverer.discover(
+          item -> {
+            discovered.put(new Item<>(item));
+            discovery.processed(1);
+          });
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      LOGGER.info("Unable to discover all items to ingest.", e);
+      discovery.failed(1);
+    } finally {
+      for (int i = 0; i < transformThreads; i++) {
+        signalEnd(discovered, Item.end());
+      }
+    }
+  }
+
+  private void transform(
+      Transformer<T> transformer, Listener<T> listener, AtomicInteger runningTransformers) {
+    try {
+      for (Item<T> item = discovered.take(); !item.isEnd(); item = discovered.take()) {
+        try {
+          item.metacard = transformer.transform(item.source);
+        } catch (Exception e) {
+          transformation.failed(1);
+          listener.failed(item.source, e);
+          continue;
+        }
+
+        if (item.metacard == null) {
+          transformation.failed(1);
+          listener.failed(item.source, new IllegalArgumentException("No metacard was created."));
+        } else {
+          transformed.put(item);
+          transformation.processed(1);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (runningTransformers.decrementAndGet() == 0) {
+        signalEnd(transformed, Item.end());
+      }
+    }
+  }
+
+  private void batch() {
+    List<Item<T>> batch = new ArrayList<>(batchSize);
+    try {
+      while (true) {
+        Item<T> item = transformed.poll(MAX_BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        if (item != null && item.isEnd()) {
+          break;
+        }
+        if (item != null) {
+          batch.add(item);
+        }
+        if (batch.size() >= batchSize || (item == null && !batch.isEmpty())) {
+          batches.put(batch);
+          batching.processed(batch.size());
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+
+      if (!batch.isEmpty()) {
+        batches.put(batch);
+        batching.processed(batch.size());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      for (int i = 0; i < writeThreads; i++) {
+        signalEnd(batches, Collections.emptyList());
+      }
+    }
+  }
+
+  private void write(Writer writer, Listener<T> listener) {
+    try {
+      for (List<Item<T>> batch = batches.take(); !batch.isEmpty(); batch = batches.take()) {
+        write(batch, writer, listener);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write(List<Item<T>> batch, Writer writer, Listener<T> listener) {
+    List<Metacard> metacards = new ArrayList<>(batch.size());
+    batch.forEach(item -> metacards.add(item.metacard));
+
+    try {
+      writer.write(metacards);
+    } catch (IngestException e) {
+      if (batch.size() > 1 && isContentFailure(e)) {
+        LOGGER.debug("Unable to write batch of {}. Writing it in halves.", batch.size(), e);
+        int half = batch.size() / 2;
+        write(batch.subList(0, half), writer, listener);
+        write(batch.subList(half, batch.size()), writer, listener);
+      } else {
+        fail(batch, e, listener);
+      }
+      return;
+    } catch (SourceUnavailableException | RuntimeException e) {
+      fail(batch, e, listener);
+      return;
+    }
+
+    writing.processed(batch.size());
+    batch.forEach(item -> listener.ingested(item.source, item.metacard));
+  }
+
+  /**
+   * @return {@code true} if the write may have failed because of some of the metacards written,
+   *     rather than because the catalog could not be reached or failed internally
+   */
+  private static boolean isContentFailure(IngestException e) {
+    return !(e instanceof InternalIngestException)
+        && Throwables.getCausalChain(e).stream().noneMatch(IOException.class::isInstance);
+  }
+
+  private void fail(List<Item<T>> batch, Exception e, Listener<T> listener) {
+    writing.failed(batch.size());
+    batch.forEach(item -> listener.failed(item.source, e));
+  }
+
+  /** Tells the next stage that no more items will follow, unless the pipeline is stopping. */
+  private static <E> void signalEnd(BlockingQueue<E> queue, E end) {
+    try {
+      queue.put(end);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** An item discovered and, once transformed, its metacard. */
+  private static final class Item<T> {
+
+    private static final Item<?> END = new Item<>(null);
+
+    private final T source;
+
+    private Metacard metacard;
+
+    private Item(T source) {
+      this.source = source;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Item<T> end() {
+      return (Item<T>) END;
+    }
+
+    private boolean isEnd() {
+      return this == END;
+    }
+  }
+
+  /** Live statistics of a stage of the pipeline. */
+  public static final class Stage {
+
+    private final String name;
+
+    private final IntSupplier queueDepth;
+
+    private final long start = System.nanoTime();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private Stage(String name, IntSupplier queueDepth) {
+      this.name = name;
+      this.queueDepth = queueDepth;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /** @return the number of items that completed the stage */
+    public long getProcessed() {
+      return processed.get();
+    }
+
+    /** @return the number of items that failed in the stage */
+    public long getFailed() {
+      return failed.get();
+    }
+
+    /** @return the number of items or batches waiting for the next stage */
+    public int getQueueDepth() {
+      return queueDepth.getAsInt();
+    }
+
+    /** @return the average number of items that completed the stage per second */
+    public long getThroughput() {
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      return elapsedMillis == 0 ? 0 : processed.get() * 1000 / elapsedMillis;
+    }
+
+    private void processed(int count) {
+      processed.addAndGet(count);
+    }
+
+    private void failed(int count) {
+      failed.addAndGet(count);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s %d/s (queued %d)", name, getThroughput(), getQueueDepth());
+    }
+  }
+}
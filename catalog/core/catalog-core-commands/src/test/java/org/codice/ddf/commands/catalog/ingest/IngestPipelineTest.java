@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.commands.catalog.ingest;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.source.IngestException;
+import ddf.catalog.source.InternalIngestException;
+import ddf.catalog.source.SourceUnavailableException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IngestPipelineTest {
+
+  private static final int ITEM_COUNT = 100;
+
+  private static final int BATCH_SIZE = 10;
+
+  private final List<Integer> ingested = new CopyOnWriteArrayList<>();
+
+  private final ConcurrentHashMap<Integer, Exception> failed = new ConcurrentHashMap<>();
+
+  private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+  private IngestPipeline<Integer> pipeline;
+
+  @Before
+  public void setUp() {
+    pipeline = new IngestPipeline<>(4, 2, BATCH_SIZE);
+  }
+
+  @Test
+  public void testAllItemsIngestedInBatches() throws Exception {
+    run(metacards -> {});
+
+    assertThat(ingested, containsInAnyOrder(items().toArray()));
+    assertThat(failed.isEmpty(), is(true));
+    assertThat(batchSizes, everyItem(lessThanOrEqualTo(BATCH_SIZE)));
+    assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum(), is(ITEM_COUNT));
+    assertThat(pipeline.getStages().get(3).getProcessed(), is((long) ITEM_COUNT));
+  }
+
+  @Test
+  public void testTransformFailureOnlyFailsItem() throws Exception {
+    pipeline.run(
+        this::discover,
+        item -> {
+          if (item == 7) {
+            throw new IllegalArgumentException("bad item");
+          }
+          return metacard(item);
+        },
+        metacards -> {},
+        new Listener());
+
+    assertThat(ingested.size(), is(ITEM_COUNT - 1));
+    assertThat(failed.keySet(), containsInAnyOrder(7));
+    assertThat(pipeline.getStages().get(1).getFailed(), is(1L));
+  }
+
+  @Test
+  public void testBatchIsSplitToIsolateFailedItems() throws Exception {
+    run(
+        metacards -> {
+          if (metacards.stream().anyMatch(metacard -> "13".equals(metacard.getId()))) {
+            throw new IngestException("bad metacard");
+          }
+        });
+
+    assertThat(ingested.size(), is(ITEM_COUNT - 1));
+    assertThat(failed.keySet(), containsInAnyOrder(13));
+    assertThat(pipeline.getStages().get(3).getFailed(), is(1L));
+  }
+
+  @Test
+  public void testSourceUnavailableFailsBatch() throws Exception {
+    run(
+        metacards -> {
+          throw new SourceUnavailableException("unavailable");
+        });
+
+    assertThat(ingested.isEmpty(), is(true));
+    assertThat(failed.size(), is(ITEM_COUNT));
+  }
+
+  @Test
+  public void testConnectionFailureFailsBatchWithoutSplitting() throws Exception {
+    AtomicInteger writes = new AtomicInteger();
+    run(
+        metacards -> {
+          writes.incrementAndGet();
+          throw new IngestException("Could not ingest metacard(s).", new IOException("refused"));
+        });
+
+    assertThat(ingested.isEmpty(), is(true));
+    assertThat(failed.size(), is(ITEM_COUNT));
+    assertThat(writes.get(), is(ITEM_COUNT / BATCH_SIZE));
+  }
+
+  @Test
+  public void testInternalFailureFailsBatchWithoutSplitting() throws Exception {
+    AtomicInteger writes = new AtomicInteger();
+    run(
+        metacards -> {
+          writes.incrementAndGet();
+          throw new InternalIngestException("Exception during runtime while performing create");
+        });
+
+    assertThat(ingested.isEmpty(), is(true));
+    assertThat(failed.size(), is(ITEM_COUNT));
+    assertThat(writes.get(), is(ITEM_COUNT / BATCH_SIZE));
+  }
+
+  @Test
+  public void testDiscoveryFailureIngestsItemsAlreadyFound() throws Exception {
+    pipeline.run(
+        sink -> {
+          sink.accept(1);
+          sink.accept(2);
+          throw new IllegalStateException("unreadable directory");
+        },
+        this::metacard,
+        metacards -> {},
+        new Listener());
+
+    assertThat(ingested, containsInAnyOrder(1, 2));
+    assertThat(pipeline.getStages().get(0).getFailed(), is(1L));
+  }
+
+  private void run(IngestPipeline.Writer writer) throws InterruptedException {
+    pipeline.run(
+        this::discover,
+        this::metacard,
+        metacards -> {
+          writer.write(metacards);
+          batchSizes.add(metacards.size());
+        },
+        new Listener());
+  }
+
+  private void discover(IngestPipeline.Sink<Integer> sink) throws InterruptedException {
+    for (Integer item : items()) {
+      sink.accept(item);
+    }
+  }
+
+  private List<Integer> items() {
+    return IntStream.range(0, ITEM_COUNT).boxed().collect(Collectors.toList());
+  }
+
+  private Metacard metacard(Integer item) {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId(String.valueOf(item));
+    return metacard;
+  }
+
+  private class Listener implements IngestPipeline.Listener<Integer> {
+    @Override
+    public void ingested(Integer item, Metacard metacard) {
+      ingested.add(item);
+    }
+
+    @Override
+    public void failed(Integer item, Exception e) {
+      failed.put(item, e);
+    }
+  }
+}
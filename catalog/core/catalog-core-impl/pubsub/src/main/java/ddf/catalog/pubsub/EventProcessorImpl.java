@@ -33,6 +33,7 @@
 import ddf.catalog.pubsub.internal.PubSubConstants;
 import ddf.catalog.pubsub.internal.PubSubThread;
 import ddf.catalog.pubsub.internal.SubscriptionFilterVisitor;
+import ddf.catalog.pubsub.internal.SubscriptionIndex;
 import ddf.catalog.pubsub.predicate.Predicate;
 import ddf.catalog.util.impl.Requests;
 import java.net.URI;
@@ -42,6 +43,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import org.apache.lucene.store.Directory;
@@ -74,7 +76,11 @@ public class EventProcessorImpl implements EventProcessor, EventHandler, PostIng
 
   protected CatalogFramework catalog;
 
-  private Map<String, ServiceRegistration> existingSubscriptions;
+  /** Handlers of the subscriptions, indexed by the criteria of their predicate */
+  private final SubscriptionIndex<PublishedEventHandler> existingSubscriptions =
+      new SubscriptionIndex<>();
+
+  private ServiceRegistration subscriptionDispatcher;
 
   private final ExecutorService threadPool =
       Executors.newCachedThreadPool(
@@ -97,7 +103,6 @@ public EventProcessorImpl(
     this.preSubscription = preSubscription;
     this.preDelivery = preDelivery;
     this.catalog = catalog;
-    this.existingSubscriptions = new HashMap<>();
 
     if (this.preSubscription == null) {
       LOGGER.debug("preSubscription plugins list is NULL");
@@ -190,9 +195,12 @@ public static void processEntry(Metacard metacard, String operation, EventAdmin
           // index and the entry's metadata (in case subscription has
           // textPaths, then it can create Lucene
           // search indices on the metadata using its textPaths)
-          Map<String, Object> contextualMap = new HashMap<>(2, 1);
+          Map<String, Object> contextualMap = new HashMap<>(3, 1);
           contextualMap.put("DEFAULT_INDEX", index);
           contextualMap.put("METADATA", metacard.getMetadata());
+          // Indexes built on the metadata for the text paths of contextual predicates, shared by
+          // the predicates that have the same text paths
+          contextualMap.put("TEXT_PATH_INDEXES", new ConcurrentHashMap<>());
           properties.put(PubSubConstants.HEADER_CONTEXTUAL_KEY, contextualMap);
         } catch (Exception e) {
           LOGGER.info("Exception updating context map", e);
@@ -222,6 +230,13 @@ public void destroy() {
     String methodName = "destroy";
     LOGGER.trace(ENTERING, methodName);
 
+    synchronized (this) {
+      if (subscriptionDispatcher != null) {
+        subscriptionDispatcher.unregister();
+        subscriptionDispatcher = null;
+      }
+    }
+
     LOGGER.trace(EXITING, methodName);
   }
 
@@ -284,18 +299,12 @@ public void createSubscription(Subscription subscription, String subscriptionId)
       Predicate finalPredicate = (Predicate) subscription.accept(visitor, null);
       LOGGER.debug("predicate from filter visitor: {}", finalPredicate);
 
-      String[] topics = new String[] {PubSubConstants.PUBLISHED_EVENT_TOPIC_NAME};
-
-      Dictionary<String, String[]> props = new Hashtable<>(1, 1);
-      props.put(EventConstants.EVENT_TOPIC, topics);
-      ServiceRegistration serviceRegistration =
-          bundleContext.registerService(
-              EventHandler.class.getName(),
-              new PublishedEventHandler(
-                  finalPredicate, subscription, preDelivery, catalog, threadPool),
-              props);
-
-      existingSubscriptions.put(subscriptionId, serviceRegistration);
+      existingSubscriptions.add(
+          subscriptionId,
+          finalPredicate,
+          new PublishedEventHandler(
+              finalPredicate, subscription, preDelivery, catalog, threadPool));
+      registerSubscriptionDispatcher();
 
       LOGGER.debug("Subscription {} created.", subscriptionId);
     } catch (Exception e) {
@@ -333,11 +342,8 @@ public void deleteSubscription(String subscriptionId) throws SubscriptionNotFoun
 
     try {
       LOGGER.debug("Removing subscription: {}", subscriptionId);
-      ServiceRegistration sr = (ServiceRegistration) existingSubscriptions.get(subscriptionId);
-      if (sr != null) {
-        sr.unregister();
+      if (existingSubscriptions.remove(subscriptionId)) {
         LOGGER.debug("Removal complete");
-        existingSubscriptions.remove(subscriptionId);
       } else {
         LOGGER.debug(
             "Unable to find existing subscription: {}.  May already be deleted.", subscriptionId);
@@ -351,6 +357,34 @@ public void deleteSubscription(String subscriptionId) throws SubscriptionNotFoun
     LOGGER.trace(EXITING, methodName);
   }
 
+  /**
+   * Registers the single handler of the published events, which only passes each event to the
+   * subscriptions found through the criteria of their predicate instead of to every subscription.
+   */
+  private void registerSubscriptionDispatcher() {
+    synchronized (this) {
+      if (subscriptionDispatcher == null) {
+        String[] topics = new String[] {PubSubConstants.PUBLISHED_EVENT_TOPIC_NAME};
+
+        Dictionary<String, String[]> props = new Hashtable<>(1, 1);
+        props.put(EventConstants.EVENT_TOPIC, topics);
+        subscriptionDispatcher =
+            bundleContext.registerService(
+                EventHandler.class.getName(), (EventHandler) this::dispatchEvent, props);
+      }
+    }
+  }
+
+  private void dispatchEvent(Event event) {
+    for (PublishedEventHandler handler : existingSubscriptions.getCandidates(event)) {
+      try {
+        handler.handleEvent(event);
+      } catch (RuntimeException e) {
+        LOGGER.info("Unable to handle published event for subscription", e);
+      }
+    }
+  }
+
   @Override
   public void notifyCreated(Metacard newMetacard) {
     LOGGER.trace("ENTERING: notifyCreated");
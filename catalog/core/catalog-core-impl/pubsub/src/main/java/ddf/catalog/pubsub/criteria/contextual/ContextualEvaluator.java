@@ -17,7 +17,9 @@
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
 import org.apache.lucene.analysis.Analyzer;
@@ -25,7 +27,10 @@
 import org.apache.lucene.analysis.tokenattributes.TermAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermEnum;
 import org.apache.lucene.queryParser.ParseException;
 import org.apache.lucene.queryParser.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
@@ -105,8 +110,36 @@ public static boolean evaluate(ContextualEvaluationCriteria cec)
     }
 
     // a. query
+    Query q = parseQuery(searchPhrase, cec.isCaseSensitiveSearch());
+
+    // b. search
+    int hitsPerPage = 1;
+    IndexSearcher searcher = new IndexSearcher(index, true);
+    TopDocs topDocs = searcher.search(q, hitsPerPage);
+
+    // c. display results
+    LOGGER.debug("Found {} hits.", topDocs.totalHits);
+
+    // searcher can only be closed when there
+    // is no need to access the documents any more.
+    searcher.close();
+
+    return topDocs.totalHits > 0;
+  }
+
+  /**
+   * Parses a contextual search phrase into the Lucene query evaluated against the index of a
+   * metacard's metadata.
+   *
+   * @param searchPhrase the normalized search phrase
+   * @param caseSensitiveSearch true to search the case-sensitive indexed text
+   * @return the query
+   * @throws ParseException if the search phrase is not valid Lucene syntax
+   */
+  public static Query parseQuery(String searchPhrase, boolean caseSensitiveSearch)
+      throws ParseException {
     QueryParser queryParser = null;
-    if (cec.isCaseSensitiveSearch()) {
+    if (caseSensitiveSearch) {
       LOGGER.debug("Doing case-sensitive search ...");
       queryParser =
           new QueryParser(
@@ -127,21 +160,30 @@ public static boolean evaluate(ContextualEvaluationCriteria cec)
     // contextual search phrase
     queryParser.setAllowLeadingWildcard(true);
 
-    Query q = queryParser.parse(searchPhrase);
-
-    // b. search
-    int hitsPerPage = 1;
-    IndexSearcher searcher = new IndexSearcher(index, true);
-    TopDocs topDocs = searcher.search(q, hitsPerPage);
-
-    // c. display results
-    LOGGER.debug("Found {} hits.", topDocs.totalHits);
-
-    // searcher can only be closed when there
-    // is no need to access the documents any more.
-    searcher.close();
+    return queryParser.parse(searchPhrase);
+  }
 
-    return topDocs.totalHits > 0;
+  /**
+   * Returns all the terms of an index built by {@link #buildIndex(String)}, in both the
+   * case-insensitive and case-sensitive fields.
+   *
+   * @param index the index
+   * @return the terms of the index
+   * @throws IOException if the index could not be read
+   */
+  public static Set<Term> getTerms(Directory index) throws IOException {
+    Set<Term> terms = new HashSet<>();
+    try (IndexReader reader = IndexReader.open(index, true)) {
+      TermEnum termEnum = reader.terms();
+      try {
+        while (termEnum.next()) {
+          terms.add(termEnum.term());
+        }
+      } finally {
+        termEnum.close();
+      }
+    }
+    return terms;
   }
 
   /**
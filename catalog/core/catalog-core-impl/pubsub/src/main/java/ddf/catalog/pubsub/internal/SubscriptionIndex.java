@@ -0,0 +1,512 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.pubsub.internal;
+
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.index.intervalrtree.SortedPackedIntervalRTree;
+import com.vividsolutions.jts.index.strtree.STRtree;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.pubsub.EventProcessorImpl.DateType;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluator;
+import ddf.catalog.pubsub.predicate.AndPredicate;
+import ddf.catalog.pubsub.predicate.ContextualPredicate;
+import ddf.catalog.pubsub.predicate.GeospatialPredicate;
+import ddf.catalog.pubsub.predicate.OrPredicate;
+import ddf.catalog.pubsub.predicate.Predicate;
+import ddf.catalog.pubsub.predicate.TemporalPredicate;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.geotools.geometry.jts.WKTReader2;
+import org.osgi.service.event.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Percolator-style index of subscriptions. Instead of evaluating the predicate of every
+ * subscription against each published event, the subscriptions themselves are indexed by the
+ * criteria an event must meet for their predicate to match:
+ *
+ * <ul>
+ *   <li>contextual criteria by the terms an event's metadata must contain, in an inverted index,
+ *   <li>geospatial criteria by the envelope an event's location must intersect, in an R-tree,
+ *   <li>temporal criteria by the time period an event's date must fall in, in an interval tree.
+ * </ul>
+ *
+ * <p>The terms, location and dates of an event are extracted once, and only the subscriptions
+ * found through them, along with the subscriptions whose predicate could not be indexed, are
+ * returned as candidates. Candidates still have to be evaluated with their full predicate; the
+ * index only guarantees that no subscription whose predicate matches the event is left out.
+ *
+ * <p>The index structures are rebuilt on the first event after subscriptions are added or removed.
+ *
+ * @param <T> the type of the values held for each subscription
+ */
+public class SubscriptionIndex<T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionIndex.class);
+
+  private final Map<String, Entry<T>> entries = new LinkedHashMap<>();
+
+  private volatile Snapshot<T> snapshot;
+
+  /**
+   * Adds a subscription, replacing any subscription with the same ID.
+   *
+   * @param subscriptionId the subscription ID
+   * @param predicate the predicate of the subscription, {@code null} if it matches every event
+   * @param value the value returned for the subscription when it is a candidate
+   */
+  public synchronized void add(String subscriptionId, Predicate predicate, T value) {
+    List<Key> keys = predicate == null ? null : getKeys(predicate);
+    LOGGER.debug("Subscription {} indexed with keys {}", subscriptionId, keys);
+    entries.put(subscriptionId, new Entry<>(value, keys));
+    snapshot = null;
+  }
+
+  /**
+   * Removes a subscription.
+   *
+   * @param subscriptionId the subscription ID
+   * @return {@code true} if the subscription was in the index
+   */
+  public synchronized boolean remove(String subscriptionId) {
+    boolean removed = entries.remove(subscriptionId) != null;
+    snapshot = null;
+    return removed;
+  }
+
+  public synchronized boolean contains(String subscriptionId) {
+    return entries.containsKey(subscriptionId);
+  }
+
+  public synchronized boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * Finds the subscriptions whose predicate may match an event.
+   *
+   * @param event an event posted on {@link PubSubConstants#PUBLISHED_EVENT_TOPIC_NAME}
+   * @return the values of the candidate subscriptions
+   */
+  public List<T> getCandidates(Event event) {
+    return getSnapshot().getCandidates(event);
+  }
+
+  private Snapshot<T> getSnapshot() {
+    Snapshot<T> current = snapshot;
+    if (current == null) {
+      synchronized (this) {
+        if (snapshot == null) {
+          snapshot = new Snapshot<>(entries.values());
+        }
+        current = snapshot;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Returns index keys such that an event can only match the predicate if it matches one of the
+   * keys.
+   *
+   * @return the keys, or {@code null} if the predicate cannot be indexed
+   */
+  static List<Key> getKeys(Predicate predicate) {
+    if (predicate instanceof AndPredicate) {
+      List<Key> left = getKeys(((AndPredicate) predicate).getLeft());
+      List<Key> right = getKeys(((AndPredicate) predicate).getRight());
+      if (left == null || (right != null && right.size() < left.size())) {
+        return right;
+      }
+      return left;
+    } else if (predicate instanceof OrPredicate) {
+      List<Key> left = getKeys(((OrPredicate) predicate).getLeft());
+      List<Key> right = getKeys(((OrPredicate) predicate).getRight());
+      if (left == null || right == null) {
+        return null;
+      }
+      List<Key> keys = new ArrayList<>(left);
+      keys.addAll(right);
+      return keys;
+    } else if (predicate instanceof ContextualPredicate) {
+      return getContextualKeys((ContextualPredicate) predicate);
+    } else if (predicate instanceof GeospatialPredicate) {
+      return getGeospatialKeys((GeospatialPredicate) predicate);
+    } else if (predicate instanceof TemporalPredicate) {
+      return getTemporalKeys((TemporalPredicate) predicate);
+    }
+    return null;
+  }
+
+  private static List<Key> getContextualKeys(ContextualPredicate predicate) {
+    // Text paths are evaluated against their own index of the metadata, not the default index
+    // the event terms are read from
+    if (predicate.hasTextPaths() || predicate.getSearchPhrase().isEmpty()) {
+      return null;
+    }
+
+    try {
+      return getQueryKeys(
+          ContextualEvaluator.parseQuery(predicate.getSearchPhrase(), predicate.isCaseSensitive()));
+    } catch (ParseException | RuntimeException e) {
+      LOGGER.debug("Unable to index contextual criteria {}", predicate.getSearchPhrase(), e);
+      return null;
+    }
+  }
+
+  private static List<Key> getQueryKeys(Query query) {
+    if (query instanceof TermQuery) {
+      return Collections.singletonList(new TermKey(((TermQuery) query).getTerm()));
+    } else if (query instanceof PhraseQuery) {
+      Term[] terms = ((PhraseQuery) query).getTerms();
+      return terms.length == 0 ? null : Collections.singletonList(new TermKey(terms[0]));
+    } else if (query instanceof BooleanQuery) {
+      List<Key> shouldKeys = new ArrayList<>();
+      boolean hasShould = false;
+      for (BooleanClause clause : ((BooleanQuery) query).getClauses()) {
+        if (clause.getOccur() == BooleanClause.Occur.MUST) {
+          List<Key> keys = getQueryKeys(clause.getQuery());
+          if (keys != null) {
+            return keys;
+          }
+          // Another required clause may still be indexable, and the optional clauses do not
+          // need to match when there are required ones
+          shouldKeys = null;
+        } else if (clause.getOccur() == BooleanClause.Occur.SHOULD && shouldKeys != null) {
+          hasShould = true;
+          List<Key> keys = getQueryKeys(clause.getQuery());
+          if (keys == null) {
+            shouldKeys = null;
+          } else {
+            shouldKeys.addAll(keys);
+          }
+        }
+      }
+      return hasShould ? shouldKeys : null;
+    }
+    // Wildcard, prefix, fuzzy and range queries match terms that cannot be listed in advance
+    return null;
+  }
+
+  private static List<Key> getGeospatialKeys(GeospatialPredicate predicate) {
+    Geometry criteria = predicate.getGeoCriteria();
+    if (criteria == null || criteria.isEmpty()) {
+      return null;
+    }
+    // Every spatial operator requires the location to intersect the criteria, or to be within
+    // the distance of it
+    Envelope envelope = new Envelope(criteria.getEnvelopeInternal());
+    envelope.expandBy(Math.abs(predicate.getDistance()));
+    return Collections.singletonList(new GeospatialKey(envelope));
+  }
+
+  private static List<Key> getTemporalKeys(TemporalPredicate predicate) {
+    if (predicate.getType() == null) {
+      return null;
+    }
+    if (predicate.getOffset() > 0) {
+      return Collections.singletonList(
+          new RelativeTemporalKey(predicate.getType(), predicate.getOffset()));
+    }
+
+    Date start = predicate.getStart();
+    Date end = predicate.getEnd();
+    if ((start == null && end == null) || (start != null && end != null && start.after(end))) {
+      return null;
+    }
+    return Collections.singletonList(
+        new TemporalKey(
+            predicate.getType(),
+            start == null ? Long.MIN_VALUE : start.getTime(),
+            end == null ? Long.MAX_VALUE : end.getTime()));
+  }
+
+  interface Key {}
+
+  private static class TermKey implements Key {
+    private final Term term;
+
+    TermKey(Term term) {
+      this.term = term;
+    }
+
+    @Override
+    public String toString() {
+      return term.toString();
+    }
+  }
+
+  private static class GeospatialKey implements Key {
+    private final Envelope envelope;
+
+    GeospatialKey(Envelope envelope) {
+      this.envelope = envelope;
+    }
+
+    @Override
+    public String toString() {
+      return envelope.toString();
+    }
+  }
+
+  private static class TemporalKey implements Key {
+    private final DateType type;
+
+    private final long start;
+
+    private final long end;
+
+    TemporalKey(DateType type, long start, long end) {
+      this.type = type;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public String toString() {
+      return type + "[" + start + ", " + end + "]";
+    }
+  }
+
+  private static class RelativeTemporalKey implements Key {
+    private final DateType type;
+
+    private final long offset;
+
+    RelativeTemporalKey(DateType type, long offset) {
+      this.type = type;
+      this.offset = offset;
+    }
+
+    @Override
+    public String toString() {
+      return type + "[now - " + offset + ", now]";
+    }
+  }
+
+  private static class Entry<T> {
+    private final T value;
+
+    private final List<Key> keys;
+
+    Entry(T value, List<Key> keys) {
+      this.value = value;
+      this.keys = keys;
+    }
+  }
+
+  /** Immutable index structures built from the subscriptions at a given time. */
+  private static class Snapshot<T> {
+
+    private final List<Entry<T>> entries;
+
+    private final List<Entry<T>> unindexed = new ArrayList<>();
+
+    private final Map<Term, List<Entry<T>>> terms = new HashMap<>();
+
+    private final STRtree locations = new STRtree();
+
+    private final List<Entry<T>> geospatialEntries = new ArrayList<>();
+
+    private final Map<DateType, SortedPackedIntervalRTree> periods = new EnumMap<>(DateType.class);
+
+    private final Map<DateType, List<Entry<T>>> temporalEntries = new EnumMap<>(DateType.class);
+
+    /** Relative time periods of each date type, sorted by decreasing offset. */
+    private final Map<DateType, List<RelativeTemporalEntry<T>>> relativePeriods =
+        new EnumMap<>(DateType.class);
+
+    Snapshot(Collection<Entry<T>> entries) {
+      this.entries = new ArrayList<>(entries);
+
+      for (Entry<T> entry : this.entries) {
+        if (entry.keys == null) {
+          unindexed.add(entry);
+          continue;
+        }
+        for (Key key : entry.keys) {
+          add(entry, key);
+        }
+      }
+
+      locations.build();
+      // Build the interval trees now, as they are otherwise built by the first, unsynchronized,
+      // query
+      periods.values().forEach(tree -> tree.query(0, 0, item -> {}));
+      relativePeriods
+          .values()
+          .forEach(list -> list.sort((a, b) -> Long.compare(b.offset, a.offset)));
+    }
+
+    private void add(Entry<T> entry, Key key) {
+      if (key instanceof TermKey) {
+        terms.computeIfAbsent(((TermKey) key).term, term -> new ArrayList<>()).add(entry);
+      } else if (key instanceof GeospatialKey) {
+        locations.insert(((GeospatialKey) key).envelope, entry);
+        geospatialEntries.add(entry);
+      } else if (key instanceof TemporalKey) {
+        TemporalKey temporalKey = (TemporalKey) key;
+        periods
+            .computeIfAbsent(temporalKey.type, type -> new SortedPackedIntervalRTree())
+            .insert(temporalKey.start, temporalKey.end, entry);
+        temporalEntries.computeIfAbsent(temporalKey.type, type -> new ArrayList<>()).add(entry);
+      } else if (key instanceof RelativeTemporalKey) {
+        RelativeTemporalKey relativeKey = (RelativeTemporalKey) key;
+        relativePeriods
+            .computeIfAbsent(relativeKey.type, type -> new ArrayList<>())
+            .add(new RelativeTemporalEntry<>(relativeKey.offset, entry));
+      }
+    }
+
+    List<T> getCandidates(Event event) {
+      if (entries.isEmpty()) {
+        return Collections.emptyList();
+      }
+
+      Map<String, Object> contextualMap =
+          (Map<String, Object>) event.getProperty(PubSubConstants.HEADER_CONTEXTUAL_KEY);
+      String operation = (String) event.getProperty(PubSubConstants.HEADER_OPERATION_KEY);
+
+      // Contextual, geospatial and temporal predicates match deletions that carry no metadata
+      if (PubSubConstants.DELETE.equals(operation)
+          && contextualMap != null
+          && PubSubConstants.METADATA_DELETED.equals(contextualMap.get("METADATA"))) {
+        return getValues(entries);
+      }
+
+      Set<Entry<T>> candidates = new LinkedHashSet<>();
+      candidates.addAll(unindexed);
+
+      if (!terms.isEmpty() && contextualMap != null) {
+        addTermCandidates((Directory) contextualMap.get("DEFAULT_INDEX"), candidates);
+      }
+
+      Metacard metacard = (Metacard) event.getProperty(PubSubConstants.HEADER_ENTRY_KEY);
+      if (!geospatialEntries.isEmpty()) {
+        addGeospatialCandidates(metacard, candidates);
+      }
+      if (!temporalEntries.isEmpty() || !relativePeriods.isEmpty()) {
+        addTemporalCandidates(metacard, candidates);
+      }
+
+      LOGGER.debug(
+          "Found {} candidate subscriptions out of {}", candidates.size(), entries.size());
+      return getValues(candidates);
+    }
+
+    private void addTermCandidates(Directory index, Set<Entry<T>> candidates) {
+      if (index == null) {
+        return;
+      }
+      try {
+        for (Term term : ContextualEvaluator.getTerms(index)) {
+          List<Entry<T>> termEntries = terms.get(term);
+          if (termEntries != null) {
+            candidates.addAll(termEntries);
+          }
+        }
+      } catch (IOException e) {
+        LOGGER.debug("Unable to read the terms of the event metadata", e);
+        terms.values().forEach(candidates::addAll);
+      }
+    }
+
+    private void addGeospatialCandidates(Metacard metacard, Set<Entry<T>> candidates) {
+      Geometry location = null;
+      try {
+        if (metacard != null && metacard.getLocation() != null) {
+          location = new WKTReader2().read(metacard.getLocation());
+        }
+      } catch (com.vividsolutions.jts.io.ParseException | RuntimeException e) {
+        LOGGER.debug("Unable to read the location of the event metacard", e);
+      }
+
+      if (location == null) {
+        // Let the predicates decide what to do with an event without a usable location
+        candidates.addAll(geospatialEntries);
+        return;
+      }
+
+      for (Object entry : locations.query(location.getEnvelopeInternal())) {
+        candidates.add((Entry<T>) entry);
+      }
+    }
+
+    private void addTemporalCandidates(Metacard metacard, Set<Entry<T>> candidates) {
+      long now = System.currentTimeMillis();
+      for (DateType type : DateType.values()) {
+        Date date = metacard == null ? null : TemporalPredicate.getDate(metacard, type);
+        if (date == null) {
+          // Let the predicates decide what to do with an event without the date
+          candidates.addAll(temporalEntries.getOrDefault(type, Collections.emptyList()));
+          relativePeriods
+              .getOrDefault(type, Collections.emptyList())
+              .forEach(relative -> candidates.add(relative.entry));
+          continue;
+        }
+
+        SortedPackedIntervalRTree tree = periods.get(type);
+        if (tree != null) {
+          tree.query(date.getTime(), date.getTime(), item -> candidates.add((Entry<T>) item));
+        }
+
+        long age = now - date.getTime();
+        for (RelativeTemporalEntry<T> relative :
+            relativePeriods.getOrDefault(type, Collections.emptyList())) {
+          if (relative.offset < age) {
+            break;
+          }
+          candidates.add(relative.entry);
+        }
+      }
+    }
+
+    private static <T> List<T> getValues(Collection<Entry<T>> entries) {
+      List<T> values = new ArrayList<>(entries.size());
+      entries.forEach(entry -> values.add(entry.value));
+      return values;
+    }
+  }
+
+  private static class RelativeTemporalEntry<T> {
+    private final long offset;
+
+    private final Entry<T> entry;
+
+    RelativeTemporalEntry(long offset, Entry<T> entry) {
+      this.offset = offset;
+      this.entry = entry;
+    }
+  }
+}
@@ -242,13 +242,19 @@ public boolean matches(Event properties) {
     if (this.textPaths != null && !this.textPaths.isEmpty()) {
       LOGGER.debug("creating criteria with textPaths and metadata document");
       try {
-        cec =
-            new ContextualEvaluationCriteriaImpl(
-                searchPhrase,
-                fuzzy,
-                caseSensitiveSearch,
-                this.textPaths.toArray(new String[this.textPaths.size()]),
-                (String) contextualMap.get("METADATA"));
+        if (searchPhrase.isEmpty()) {
+          cec =
+              new ContextualEvaluationCriteriaImpl(
+                  searchPhrase,
+                  fuzzy,
+                  caseSensitiveSearch,
+                  this.textPaths.toArray(new String[this.textPaths.size()]),
+                  (String) contextualMap.get("METADATA"));
+        } else {
+          cec =
+              new ContextualEvaluationCriteriaImpl(
+                  searchPhrase, fuzzy, caseSensitiveSearch, getTextPathIndex(contextualMap));
+        }
       } catch (IOException e) {
         LOGGER.debug("IO exception during context evaluation", e);
         return false;
@@ -281,6 +287,28 @@ public boolean matches(Event properties) {
     return false;
   }
 
+  /**
+   * Returns the index of the metadata built with the text paths of this predicate. The index is
+   * shared with the other predicates evaluated against the same event that have the same text
+   * paths, so it is only built once per event.
+   */
+  private Directory getTextPathIndex(Map<String, Object> contextualMap) throws IOException {
+    String metadata = (String) contextualMap.get("METADATA");
+    Map<Collection<String>, Directory> indexes =
+        (Map<Collection<String>, Directory>) contextualMap.get("TEXT_PATH_INDEXES");
+
+    Directory index = indexes == null ? null : indexes.get(textPaths);
+    if (index == null) {
+      index =
+          ContextualEvaluator.buildIndex(
+              metadata, this.textPaths.toArray(new String[this.textPaths.size()]));
+      if (indexes != null) {
+        indexes.putIfAbsent(textPaths, index);
+      }
+    }
+    return index;
+  }
+
   public String getSearchPhrase() {
     return searchPhrase;
   }
@@ -13,6 +13,7 @@
  */
 package ddf.catalog.pubsub.predicate;
 
+import ddf.catalog.data.Attribute;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.types.Core;
 import ddf.catalog.pubsub.EventProcessorImpl.DateType;
@@ -97,36 +98,7 @@ public boolean matches(Event properties) {
     if (entry != null) {
       LOGGER.debug("entry id: {}", entry.getId());
 
-      switch (this.type) {
-        case MODIFIED:
-          LOGGER.debug("search by modified: {}", entry.getModifiedDate());
-          date = entry.getModifiedDate();
-          break;
-        case METACARD_MODIFIED:
-          LOGGER.debug(
-              "search by metacard modified: {}", entry.getAttribute(Core.METACARD_MODIFIED));
-          date = (Date) entry.getAttribute(Core.METACARD_MODIFIED).getValue();
-          break;
-        case EFFECTIVE:
-          LOGGER.debug("search by effective: {}", entry.getEffectiveDate());
-          date = entry.getEffectiveDate();
-          break;
-        case CREATED:
-          LOGGER.debug("search by created: {}", entry.getCreatedDate());
-          date = entry.getCreatedDate();
-          break;
-        case METACARD_CREATED:
-          LOGGER.debug("search by metacard created: {}", entry.getAttribute(Core.METACARD_CREATED));
-          date = (Date) entry.getAttribute(Core.METACARD_CREATED).getValue();
-          break;
-        case EXPIRATION:
-          LOGGER.debug("search by expiration: {}", entry.getExpirationDate());
-          date = entry.getExpirationDate();
-          break;
-        default:
-          LOGGER.debug("unsupported type: {}", type);
-          throw new IllegalArgumentException("Unsupported date type for TemporalPredicate");
-      }
+      date = getDate(entry, type);
 
       if (offset > 0) {
         this.end = new Date();
@@ -144,6 +116,45 @@ public boolean matches(Event properties) {
     return TemporalEvaluator.evaluate(tec);
   }
 
+  /**
+   * Returns the date of a metacard that temporal criteria of the given type apply to.
+   *
+   * @param entry the metacard
+   * @param type the date type
+   * @return the date, or {@code null} if the metacard does not have it
+   */
+  public static Date getDate(Metacard entry, DateType type) {
+    switch (type) {
+      case MODIFIED:
+        LOGGER.debug("search by modified: {}", entry.getModifiedDate());
+        return entry.getModifiedDate();
+      case METACARD_MODIFIED:
+        LOGGER.debug(
+            "search by metacard modified: {}", entry.getAttribute(Core.METACARD_MODIFIED));
+        return getDateAttribute(entry, Core.METACARD_MODIFIED);
+      case EFFECTIVE:
+        LOGGER.debug("search by effective: {}", entry.getEffectiveDate());
+        return entry.getEffectiveDate();
+      case CREATED:
+        LOGGER.debug("search by created: {}", entry.getCreatedDate());
+        return entry.getCreatedDate();
+      case METACARD_CREATED:
+        LOGGER.debug("search by metacard created: {}", entry.getAttribute(Core.METACARD_CREATED));
+        return getDateAttribute(entry, Core.METACARD_CREATED);
+      case EXPIRATION:
+        LOGGER.debug("search by expiration: {}", entry.getExpirationDate());
+        return entry.getExpirationDate();
+      default:
+        LOGGER.debug("unsupported type: {}", type);
+        throw new IllegalArgumentException("Unsupported date type for TemporalPredicate");
+    }
+  }
+
+  private static Date getDateAttribute(Metacard entry, String attributeName) {
+    Attribute attribute = entry.getAttribute(attributeName);
+    return attribute == null ? null : (Date) attribute.getValue();
+  }
+
   public Date getEnd() {
     return DateUtils.copy(end);
   }
@@ -152,6 +163,11 @@ public Date getStart() {
     return DateUtils.copy(start);
   }
 
+  /** @return the length in milliseconds of a relative time period ending now, 0 if absolute */
+  public long getOffset() {
+    return offset;
+  }
+
   public DateType getType() {
     return type;
   }
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.pubsub;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.pubsub.EventProcessorImpl.DateType;
+import ddf.catalog.pubsub.criteria.contextual.ContextualEvaluator;
+import ddf.catalog.pubsub.criteria.geospatial.SpatialOperator;
+import ddf.catalog.pubsub.internal.PubSubConstants;
+import ddf.catalog.pubsub.internal.SubscriptionFilterVisitor;
+import ddf.catalog.pubsub.internal.SubscriptionIndex;
+import ddf.catalog.pubsub.predicate.GeospatialPredicate;
+import ddf.catalog.pubsub.predicate.Predicate;
+import ddf.catalog.pubsub.predicate.TemporalPredicate;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.event.Event;
+
+public class SubscriptionIndexTest {
+
+  private static final String INSIDE_LOCATION = "POINT(1 1)";
+
+  private static final String OUTSIDE_LOCATION = "POINT(10 10)";
+
+  private SubscriptionIndex<String> index;
+
+  @Before
+  public void setUp() {
+    index = new SubscriptionIndex<>();
+  }
+
+  @Test
+  public void testEmptyIndex() throws IOException {
+    assertThat(index.isEmpty(), is(true));
+    assertThat(
+        index.getCandidates(getEvent(TestDataLibrary.getCatAndDogEntry(), null, null)), empty());
+  }
+
+  @Test
+  public void testContextualCandidates() throws IOException {
+    index.add("serengeti", getContextualPredicate("serengeti"), "serengeti");
+    index.add("serengeti AND dog", getContextualPredicate("serengeti AND dog"), "serengetiDog");
+    index.add("miles OR cat", getContextualPredicate("miles OR cat"), "milesCat");
+
+    assertThat(
+        index.getCandidates(getEvent(TestDataLibrary.getCatAndDogEntry(), null, null)),
+        containsInAnyOrder("serengeti", "serengetiDog", "milesCat"));
+    assertThat(
+        index.getCandidates(getEvent(TestDataLibrary.getDogEntry(), null, null)),
+        containsInAnyOrder("milesCat"));
+  }
+
+  @Test
+  public void testUnindexedPredicatesAreAlwaysCandidates() throws IOException {
+    index.add("serengeti", getContextualPredicate("serengeti"), "serengeti");
+    index.add("wildcard", getContextualPredicate("seren*"), "wildcard");
+    index.add("all", null, "all");
+
+    assertThat(
+        index.getCandidates(getEvent(TestDataLibrary.getDogEntry(), null, null)),
+        containsInAnyOrder("wildcard", "all"));
+  }
+
+  @Test
+  public void testGeospatialCandidates() throws IOException {
+    index.add(
+        "intersects",
+        new GeospatialPredicate(
+            "POLYGON((0 0, 0 2, 2 2, 2 0, 0 0))", SpatialOperator.OVERLAPS.name(), 0.0),
+        "intersects");
+    index.add(
+        "nearby",
+        new GeospatialPredicate("POINT(8 8)", SpatialOperator.OVERLAPS.name(), 3.0),
+        "nearby");
+
+    assertThat(
+        index.getCandidates(getEvent(TestDataLibrary.getDogEntry(), INSIDE_LOCATION, null)),
+        containsInAnyOrder("intersects"));
+    assertThat(
+        index.getCandidates(getEvent(TestDataLibrary.getDogEntry(), OUTSIDE_LOCATION, null)),
+        containsInAnyOrder("nearby"));
+    assertThat(
+        index.getCandidates(getEvent(TestDataLibrary.getDogEntry(), null, null)),
+        containsInAnyOrder("intersects", "nearby"));
+  }
+
+  @Test
+  public void testTemporalCandidates() throws IOException {
+    long now = System.currentTimeMillis();
+    index.add(
+        "lastYear",
+        new TemporalPredicate(new Date(now - 365 * 86400000L), new Date(now), DateType.MODIFIED),
+        "lastYear");
+    index.add("lastHour", new TemporalPredicate(3600000L, DateType.MODIFIED), "lastHour");
+    index.add(
+        "future",
+        new TemporalPredicate(new Date(now + 86400000L), null, DateType.MODIFIED),
+        "future");
+
+    assertThat(
+        index.getCandidates(
+            getEvent(TestDataLibrary.getDogEntry(), null, new Date(now - 60000L))),
+        containsInAnyOrder("lastYear", "lastHour"));
+    assertThat(
+        index.getCandidates(
+            getEvent(TestDataLibrary.getDogEntry(), null, new Date(now - 86400000L))),
+        containsInAnyOrder("lastYear"));
+    // Relative periods end when the predicate is evaluated, so later dates remain candidates
+    assertThat(
+        index.getCandidates(
+            getEvent(TestDataLibrary.getDogEntry(), null, new Date(now + 2 * 86400000L))),
+        containsInAnyOrder("future", "lastHour"));
+  }
+
+  @Test
+  public void testDeletedMetadataMatchesAllSubscriptions() throws IOException {
+    index.add("serengeti", getContextualPredicate("serengeti"), "serengeti");
+    index.add(
+        "intersects",
+        new GeospatialPredicate(
+            "POLYGON((0 0, 0 2, 2 2, 2 0, 0 0))", SpatialOperator.OVERLAPS.name(), 0.0),
+        "intersects");
+
+    Map<String, Object> contextualMap = new HashMap<>();
+    contextualMap.put("METADATA", PubSubConstants.METADATA_DELETED);
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PubSubConstants.HEADER_OPERATION_KEY, PubSubConstants.DELETE);
+    properties.put(PubSubConstants.HEADER_CONTEXTUAL_KEY, contextualMap);
+
+    assertThat(
+        index.getCandidates(new Event("topic", properties)),
+        containsInAnyOrder("serengeti", "intersects"));
+  }
+
+  @Test
+  public void testRemove() throws IOException {
+    index.add("serengeti", getContextualPredicate("serengeti"), "serengeti");
+    index.add("cat", getContextualPredicate("cat"), "cat");
+    Event event = getEvent(TestDataLibrary.getCatAndDogEntry(), null, null);
+    assertThat(index.getCandidates(event), containsInAnyOrder("serengeti", "cat"));
+
+    assertThat(index.remove("serengeti"), is(true));
+    assertThat(index.remove("serengeti"), is(false));
+    assertThat(index.contains("serengeti"), is(false));
+    assertThat(index.getCandidates(event), containsInAnyOrder("cat"));
+  }
+
+  private Predicate getContextualPredicate(String searchPhrase) {
+    MockQuery query = new MockQuery();
+    query.addContextualFilter(searchPhrase, null);
+    return (Predicate) query.getFilter().accept(new SubscriptionFilterVisitor(), null);
+  }
+
+  private Event getEvent(String metadata, String location, Date modified) throws IOException {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId("ABC123");
+    metacard.setMetadata(metadata);
+    metacard.setLocation(location);
+    metacard.setModifiedDate(modified);
+
+    Map<String, Object> contextualMap = new HashMap<>();
+    contextualMap.put("DEFAULT_INDEX", ContextualEvaluator.buildIndex(metadata));
+    contextualMap.put("METADATA", metadata);
+
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PubSubConstants.HEADER_ID_KEY, metacard.getId());
+    properties.put(PubSubConstants.HEADER_ENTRY_KEY, metacard);
+    properties.put(PubSubConstants.HEADER_OPERATION_KEY, PubSubConstants.CREATE);
+    properties.put(PubSubConstants.HEADER_CONTEXTUAL_KEY, contextualMap);
+    return new Event("topic", properties);
+  }
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.catalog.content.impl;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.Striped;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.locks.Lock;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores content once per distinct value, in blob files named by the SHA-256 hash of the content.
+ * Each blob has a reference count, kept in a file next to it, of the content items that refer to
+ * it. A blob is deleted when its last reference is removed.
+ *
+ * <p>Reference counts are only changed while holding a lock for the hash, and a reference is added
+ * before the content item that refers to the blob is committed and removed after that content item
+ * is deleted. If the system fails part way through, a count may be left higher than the number of
+ * content items referring to the blob, which keeps the blob on disk, but a blob that is still
+ * referred to is never deleted.
+ */
+class ContentBlobStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContentBlobStore.class);
+
+  private static final String HASH_ALGORITHM = "SHA-256";
+
+  private static final String REFERENCES_EXT = ".refs";
+
+  private static final int LOCK_STRIPES = 64;
+
+  private final Path blobDirectory;
+
+  private final Striped<Lock> locks = Striped.lock(LOCK_STRIPES);
+
+  /** @param blobDirectory directory the blobs are stored in, created when the first is stored */
+  ContentBlobStore(Path blobDirectory) {
+    this.blobDirectory = blobDirectory;
+  }
+
+  /**
+   * Copies the content to a staging file named by its hash, calculating the hash as the content is
+   * copied.
+   *
+   * @param inputStream the content, which is read to its end but not closed
+   * @param stagingDirectory directory to stage the content in until it is committed
+   * @return the staged content
+   */
+  StagedBlob stage(InputStream inputStream, Path stagingDirectory) throws IOException {
+    Files.createDirectories(stagingDirectory);
+    Path tmpFile = Files.createTempFile(stagingDirectory, "blob", null);
+    try {
+      MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+      long size =
+          Files.copy(
+              new DigestInputStream(inputStream, digest),
+              tmpFile,
+              StandardCopyOption.REPLACE_EXISTING);
+      String hash = BaseEncoding.base16().lowerCase().encode(digest.digest());
+      Path stagedFile =
+          Files.move(tmpFile, stagingDirectory.resolve(hash), StandardCopyOption.REPLACE_EXISTING);
+      return new StagedBlob(hash, stagedFile, size);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException("Unable to hash content with " + HASH_ALGORITHM, e);
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+  }
+
+  /**
+   * Adds a reference to a blob, storing the staged content as the blob if it is not already stored.
+   *
+   * @param hash hash of the content
+   * @param stagingDirectory directory the content was staged in by {@link #stage(InputStream,
+   *     Path)}
+   */
+  void addReference(String hash, Path stagingDirectory) throws IOException {
+    Path blob = getBlobPath(hash);
+    Lock lock = locks.get(hash);
+    lock.lock();
+    try {
+      writeReferenceCount(hash, readReferenceCount(hash) + 1);
+
+      Path stagedFile = stagingDirectory.resolve(hash);
+      if (blob.toFile().exists()) {
+        LOGGER.debug("Content with hash {} is already stored", hash);
+        Files.deleteIfExists(stagedFile);
+      } else {
+        Files.createDirectories(blob.getParent());
+        Files.move(stagedFile, blob, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes a reference to a blob, deleting the blob when no references to it remain.
+   *
+   * @param hash hash of the content
+   */
+  void removeReference(String hash) throws IOException {
+    Lock lock = locks.get(hash);
+    lock.lock();
+    try {
+      long count = readReferenceCount(hash) - 1;
+      if (count > 0) {
+        writeReferenceCount(hash, count);
+        return;
+      }
+
+      LOGGER.debug("Deleting unreferenced content with hash {}", hash);
+      Path blob = getBlobPath(hash);
+      Files.deleteIfExists(blob);
+      Files.deleteIfExists(getReferencesPath(hash));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** @return the number of references to the blob with the hash */
+  long getReferenceCount(String hash) throws IOException {
+    Lock lock = locks.get(hash);
+    lock.lock();
+    try {
+      return readReferenceCount(hash);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  Path getBlobPath(String hash) {
+    if (hash.length() < 4 || !StringUtils.isAlphanumeric(hash)) {
+      throw new IllegalArgumentException("Invalid content hash: " + hash);
+    }
+    return blobDirectory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+  }
+
+  private Path getReferencesPath(String hash) {
+    Path blob = getBlobPath(hash);
+    return blob.resolveSibling(blob.getFileName() + REFERENCES_EXT);
+  }
+
+  private long readReferenceCount(String hash) throws IOException {
+    Path references = getReferencesPath(hash);
+    if (!references.toFile().exists()) {
+      return 0;
+    }
+    String count = new String(Files.readAllBytes(references), StandardCharsets.UTF_8).trim();
+    try {
+      return Long.parseLong(count);
+    } catch (NumberFormatException e) {
+      throw new IOException("Invalid reference count for content with hash " + hash, e);
+    }
+  }
+
+  private void writeReferenceCount(String hash, long count) throws IOException {
+    Path references = getReferencesPath(hash);
+    Files.createDirectories(references.getParent());
+    Path tmpFile = Files.createTempFile(references.getParent(), hash, null);
+    try {
+      Files.write(tmpFile, Long.toString(count).getBytes(StandardCharsets.UTF_8));
+      Files.move(tmpFile, references, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+  }
+
+  /** Content copied to a staging file by {@link #stage(InputStream, Path)}. */
+  static class StagedBlob {
+
+    private final String hash;
+
+    private final Path path;
+
+    private final long size;
+
+    StagedBlob(String hash, Path path, long size) {
+      this.hash = hash;
+      this.path = path;
+      this.size = size;
+    }
+
+    String getHash() {
+      return hash;
+    }
+
+    Path getPath() {
+      return path;
+    }
+
+    long getSize() {
+      return size;
+    }
+  }
+}
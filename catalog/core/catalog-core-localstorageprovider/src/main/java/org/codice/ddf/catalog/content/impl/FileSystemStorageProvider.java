@@ -53,17 +53,27 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.activation.MimeType;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.StringUtils;
+import org.codice.ddf.catalog.content.impl.ContentBlobStore.StagedBlob;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** File system storage provider. */
+/**
+ * File system storage provider.
+ *
+ * <p>When content addressed storage is enabled, the content of each item is stored once per
+ * distinct value, in a blob shared by every content item and version with the same content, and the
+ * directory of the content item holds a {@value #BLOB_EXT} file naming the blob. Content stored
+ * either way can be read and deleted whether or not the mode is enabled.
+ */
 public class FileSystemStorageProvider implements StorageProvider {
 
   public static final String DEFAULT_CONTENT_REPOSITORY = "content";
@@ -72,6 +82,8 @@ public class FileSystemStorageProvider implements StorageProvider {
 
   public static final String DEFAULT_TMP = "tmp";
 
+  public static final String DEFAULT_BLOBS = "blobs";
+
   public static final String KARAF_HOME = "karaf.home";
 
   private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
@@ -80,6 +92,8 @@ public class FileSystemStorageProvider implements StorageProvider {
 
   public static final String REF_EXT = "external-reference";
 
+  public static final String BLOB_EXT = "blob";
+
   /** Mapper for file extensions-to-mime types (and vice versa) */
   private MimeTypeMapper mimeTypeMapper;
 
@@ -88,6 +102,10 @@ public class FileSystemStorageProvider implements StorageProvider {
 
   private Path baseContentTmpDirectory;
 
+  private ContentBlobStore blobStore;
+
+  private boolean contentAddressedStorage = false;
+
   private Map<String, List<Metacard>> deletionMap = new ConcurrentHashMap<>();
 
   private Map<String, Set<String>> updateMap = new ConcurrentHashMap<>();
@@ -120,7 +138,8 @@ public CreateStorageResponse create(CreateStorageRequest createRequest) throws S
             generateContentFile(
                 contentItem,
                 contentDirectory,
-                (String) createRequest.getPropertyValue(Constants.STORE_REFERENCE_KEY)));
+                (String) createRequest.getPropertyValue(Constants.STORE_REFERENCE_KEY),
+                getBlobStagingDir(createRequest.getId())));
       } catch (IOException | URISyntaxException | IllegalArgumentException e) {
         throw new StorageException(e);
       }
@@ -179,7 +198,8 @@ public UpdateStorageResponse update(UpdateStorageRequest updateRequest) throws S
             generateContentFile(
                 updateItem,
                 contentIdDir,
-                (String) updateRequest.getPropertyValue(Constants.STORE_REFERENCE_KEY)));
+                (String) updateRequest.getPropertyValue(Constants.STORE_REFERENCE_KEY),
+                getBlobStagingDir(updateRequest.getId())));
       } catch (IOException | URISyntaxException | IllegalArgumentException e) {
         throw new StorageException(e);
       }
@@ -294,7 +314,9 @@ private void commitDeletes(StorageRequest request) throws StorageException {
         }
 
         try {
+          List<String> deletedHashes = getBlobHashes(contentIdDir);
           FileUtils.deleteDirectory(contentIdDir.toFile());
+          removeBlobReferences(deletedHashes);
 
           Path part1 = contentIdDir.getParent();
           if (part1.toFile().isDirectory() && isDirectoryEmpty(part1)) {
@@ -335,13 +357,21 @@ private void commitUpdates(StorageRequest request) throws StorageException {
               contentUri);
           continue;
         }
+        try {
+          addBlobReferences(contentIdDir, getBlobStagingDir(request.getId()));
+        } catch (IOException e) {
+          throw new StorageException("Unable to commit changes for request: " + request.getId(), e);
+        }
+        List<String> replacedHashes = new ArrayList<>();
         try {
           if (contentIdDir.toFile().exists()) {
             if (target.toFile().exists()) {
               List<Path> files = listPaths(target);
               for (Path file : files) {
                 if (!file.toFile().isDirectory()) {
+                  Optional<String> hash = readBlobHash(file);
                   Files.deleteIfExists(file);
+                  hash.ifPresent(replacedHashes::add);
                 }
               }
             }
@@ -365,6 +395,7 @@ private void commitUpdates(StorageRequest request) throws StorageException {
                 "Unable to commit changes for request: " + request.getId(), e1);
           }
         }
+        removeBlobReferences(replacedHashes);
       }
     } catch (URISyntaxException e) {
       throw new StorageException(e);
@@ -415,6 +446,18 @@ private ContentItem readContent(URI uri) throws StorageException {
       } catch (IOException | URISyntaxException e) {
         throw new StorageException(e);
       }
+    } else if (BLOB_EXT.equals(extension)) {
+      filename = FilenameUtils.removeExtension(filename);
+      extension = FilenameUtils.getExtension(filename);
+      try {
+        file = blobStore.getBlobPath(readBlobHash(file).orElse(""));
+      } catch (IOException | IllegalArgumentException e) {
+        throw new StorageException(e);
+      }
+
+      if (!file.toFile().exists()) {
+        throw new StorageException("Cannot read " + uri + ".");
+      }
     }
 
     if (reference != null && file != null && !file.toFile().exists()) {
@@ -555,7 +598,8 @@ private Path getContentFilePath(URI uri) throws StorageException {
   }
 
   private ContentItem generateContentFile(
-      ContentItem item, Path contentDirectory, String storeReference) throws IOException {
+      ContentItem item, Path contentDirectory, String storeReference, Path blobStagingDirectory)
+      throws IOException {
     LOGGER.trace("ENTERING: generateContentFile");
 
     if (!contentDirectory.toFile().exists()) {
@@ -581,10 +625,31 @@ public InputStream openStream() throws IOException {
             }
           };
     } else {
-      try (InputStream inputStream = item.getInputStream()) {
-        copy = Files.copy(inputStream, contentItemPath);
+      if (contentAddressedStorage) {
+        StagedBlob stagedBlob;
+        try (InputStream inputStream = item.getInputStream()) {
+          stagedBlob = blobStore.stage(inputStream, blobStagingDirectory);
+        }
+        copy = stagedBlob.getSize();
+        Files.write(
+            Paths.get(contentItemPath.toString() + "." + BLOB_EXT),
+            stagedBlob.getHash().getBytes(Charset.forName("UTF-8")));
+        Path stagedFile = stagedBlob.getPath();
+        Path blob = blobStore.getBlobPath(stagedBlob.getHash());
+        byteSource =
+            new ByteSource() {
+              @Override
+              public InputStream openStream() throws IOException {
+                // the staged content is moved to the blob when the request is committed
+                return Files.newInputStream(stagedFile.toFile().exists() ? stagedFile : blob);
+              }
+            };
+      } else {
+        try (InputStream inputStream = item.getInputStream()) {
+          copy = Files.copy(inputStream, contentItemPath);
+        }
+        byteSource = com.google.common.io.Files.asByteSource(contentItemPath.toFile());
       }
-      byteSource = com.google.common.io.Files.asByteSource(contentItemPath.toFile());
 
       if (copy != item.getSize() && LOGGER.isWarnEnabled()) {
         LOGGER.warn(
@@ -612,6 +677,55 @@ public InputStream openStream() throws IOException {
     return contentItem;
   }
 
+  private Path getBlobStagingDir(String requestId) {
+    return Paths.get(baseContentTmpDirectory.toAbsolutePath().toString(), requestId, DEFAULT_BLOBS);
+  }
+
+  private Optional<String> readBlobHash(Path file) throws IOException {
+    if (!BLOB_EXT.equals(FilenameUtils.getExtension(file.getFileName().toString()))) {
+      return Optional.empty();
+    }
+    return Optional.of(new String(Files.readAllBytes(file), Charset.forName("UTF-8")).trim());
+  }
+
+  private List<String> getBlobHashes(Path directory) throws IOException {
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(directory)) {
+      files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+
+    List<String> hashes = new ArrayList<>();
+    for (Path file : files) {
+      readBlobHash(file).ifPresent(hashes::add);
+    }
+    return hashes;
+  }
+
+  private void addBlobReferences(Path contentIdDir, Path blobStagingDirectory) throws IOException {
+    for (Path file : listPaths(contentIdDir)) {
+      if (!file.toFile().isDirectory()) {
+        Optional<String> hash = readBlobHash(file);
+        if (hash.isPresent()) {
+          blobStore.addReference(hash.get(), blobStagingDirectory);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes the references of content items that have been deleted. A reference that cannot be
+   * removed only keeps its blob on disk, so the failure does not fail the request.
+   */
+  private void removeBlobReferences(List<String> hashes) {
+    for (String hash : hashes) {
+      try {
+        blobStore.removeReference(hash);
+      } catch (IOException | IllegalArgumentException e) {
+        LOGGER.info("Unable to remove a reference to stored content with hash {}", hash, e);
+      }
+    }
+  }
+
   public MimeTypeMapper getMimeTypeMapper() {
     return mimeTypeMapper;
   }
@@ -661,6 +775,16 @@ public void setBaseContentDirectory(final String baseDirectory) throws IOExcepti
 
     this.baseContentDirectory = directories;
     this.baseContentTmpDirectory = tmpDirectories;
+    this.blobStore =
+        new ContentBlobStore(Paths.get(directories.toAbsolutePath().toString(), DEFAULT_BLOBS));
+  }
+
+  /**
+   * @param contentAddressedStorage {@code true} to store content once per distinct value, shared by
+   *     the content items and versions with the same content
+   */
+  public void setContentAddressedStorage(boolean contentAddressedStorage) {
+    this.contentAddressedStorage = contentAddressedStorage;
   }
 
   private String tryCanonicalizeDirectory(String directory) {
@@ -14,6 +14,7 @@
 package org.codice.ddf.catalog.content.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -70,6 +71,7 @@
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
@@ -622,7 +624,128 @@ public void testCreateAndReadReference() throws Exception {
     assertReadRequest(uriString, NITF_MIME_TYPE);
   }
 
+  @Test
+  public void testContentAddressedStorageSharesContent() throws Exception {
+    provider.setContentAddressedStorage(true);
+    ContentItem first =
+        assertContentItem(TEST_INPUT_CONTENTS, NITF_MIME_TYPE, TEST_INPUT_FILENAME)
+            .getCreatedContentItems()
+            .get(0);
+    ContentItem second =
+        assertContentItem(TEST_INPUT_CONTENTS, NITF_MIME_TYPE, TEST_INPUT_FILENAME)
+            .getCreatedContentItems()
+            .get(0);
+
+    assertThat(getBlobs(), hasSize(1));
+    assertContent(first.getUri(), TEST_INPUT_CONTENTS);
+    assertContent(second.getUri(), TEST_INPUT_CONTENTS);
+  }
+
+  @Test
+  public void testContentAddressedStorageDeletesUnreferencedContent() throws Exception {
+    provider.setContentAddressedStorage(true);
+    ContentItem first =
+        assertContentItem(TEST_INPUT_CONTENTS, NITF_MIME_TYPE, TEST_INPUT_FILENAME)
+            .getCreatedContentItems()
+            .get(0);
+    ContentItem second =
+        assertContentItem(TEST_INPUT_CONTENTS, NITF_MIME_TYPE, TEST_INPUT_FILENAME)
+            .getCreatedContentItems()
+            .get(0);
+
+    deleteContentItem(first);
+    assertThat(getBlobs(), hasSize(1));
+    assertContent(second.getUri(), TEST_INPUT_CONTENTS);
+
+    deleteContentItem(second);
+    assertThat(getBlobs(), is(empty()));
+  }
+
+  @Test
+  public void testContentAddressedStorageUpdateReplacesContent() throws Exception {
+    provider.setContentAddressedStorage(true);
+    ContentItem created =
+        assertContentItem(TEST_INPUT_CONTENTS, NITF_MIME_TYPE, TEST_INPUT_FILENAME)
+            .getCreatedContentItems()
+            .get(0);
+    ByteSource byteSource =
+        new ByteSource() {
+          @Override
+          public InputStream openStream() throws IOException {
+            return IOUtils.toInputStream("Updated NITF");
+          }
+        };
+
+    UpdateStorageRequest updateRequest =
+        new UpdateStorageRequestImpl(
+            Collections.singletonList(
+                new ContentItemImpl(
+                    created.getId(), byteSource, NITF_MIME_TYPE, mock(Metacard.class))),
+            null);
+    provider.update(updateRequest);
+    provider.commit(updateRequest);
+
+    assertThat(getBlobs(), hasSize(1));
+    assertContent(created.getUri(), "Updated NITF");
+  }
+
+  @Test
+  public void testContentAddressedContentReadableWhenModeDisabled() throws Exception {
+    provider.setContentAddressedStorage(true);
+    ContentItem created =
+        assertContentItem(TEST_INPUT_CONTENTS, NITF_MIME_TYPE, TEST_INPUT_FILENAME)
+            .getCreatedContentItems()
+            .get(0);
+
+    provider.setContentAddressedStorage(false);
+
+    assertContent(created.getUri(), TEST_INPUT_CONTENTS);
+    deleteContentItem(created);
+    assertThat(getBlobs(), is(empty()));
+  }
+
   /** ******************************************************************************* */
+  private void assertContent(String uriString, String expectedContent) throws Exception {
+    ContentItem item =
+        provider
+            .read(new ReadStorageRequestImpl(new URI(uriString), Collections.emptyMap()))
+            .getContentItem();
+
+    assertThat(item.getFilename(), is(TEST_INPUT_FILENAME));
+    assertThat(item.getMimeTypeRawData(), is(NITF_MIME_TYPE));
+    assertThat(item.getSize(), is((long) expectedContent.length()));
+    try (InputStream inputStream = item.getInputStream()) {
+      assertThat(IOUtils.toString(inputStream), is(expectedContent));
+    }
+  }
+
+  private void deleteContentItem(ContentItem item) throws StorageException {
+    Metacard metacard = item.getMetacard();
+    when(metacard.getId()).thenReturn(item.getId());
+    DeleteStorageRequest deleteRequest =
+        new DeleteStorageRequestImpl(Collections.singletonList(metacard), null);
+    provider.delete(deleteRequest);
+    provider.commit(deleteRequest);
+  }
+
+  private List<Path> getBlobs() throws IOException {
+    Path blobDirectory =
+        Paths.get(
+            baseDir,
+            FileSystemStorageProvider.DEFAULT_CONTENT_REPOSITORY,
+            FileSystemStorageProvider.DEFAULT_CONTENT_STORE,
+            FileSystemStorageProvider.DEFAULT_BLOBS);
+    if (!blobDirectory.toFile().exists()) {
+      return Collections.emptyList();
+    }
+    try (Stream<Path> paths = Files.walk(blobDirectory)) {
+      return paths
+          .filter(Files::isRegularFile)
+          .filter(path -> !path.toString().endsWith(".refs"))
+          .collect(Collectors.toList());
+    }
+  }
+
   private CreateStorageResponse assertContentItem(
       String data, String mimeTypeRawData, String filename, Map<String, Serializable> properties)
       throws Exception {
@@ -21,6 +21,7 @@
 import com.vividsolutions.jts.geom.Point;
 import com.vividsolutions.jts.io.ParseException;
 import com.vividsolutions.jts.io.WKTReader;
+import ddf.catalog.data.Attribute;
 import ddf.catalog.data.AttributeDescriptor;
 import ddf.catalog.data.AttributeType;
 import ddf.catalog.data.AttributeType.AttributeFormat;
@@ -49,8 +50,10 @@
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.xml.stream.XMLInputFactory;
@@ -119,6 +122,8 @@ public class DynamicSchemaResolver {
           LUX_XML_FIELD_NAME,
           SCORE_FIELD_NAME);
 
+  private static final String PRIVATE_FIELD = "";
+
   private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DynamicSchemaResolver.class);
@@ -141,9 +146,9 @@ public class DynamicSchemaResolver {
     }
   }
 
-  protected Set<String> fieldsCache = new HashSet<>();
+  protected Set<String> fieldsCache = ConcurrentHashMap.newKeySet();
 
-  protected Set<String> anyTextFieldsCache = new HashSet<>();
+  protected Set<String> anyTextFieldsCache = ConcurrentHashMap.newKeySet();
 
   protected SchemaFields schemaFields;
 
@@ -153,6 +158,13 @@ public class DynamicSchemaResolver {
   protected Cache<String, byte[]> metacardTypeNameToSerialCache =
       CacheBuilder.newBuilder().maximumSize(4096).initialCapacity(64).build();
 
+  /** Index plans keyed by metacard type instance. */
+  private final Cache<MetacardType, IndexPlan> indexPlansCache =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(4096).build();
+
+  /** Solr field name to attribute name tables, keyed by metacard type name. */
+  private final Map<String, Map<String, String>> attributeNamesCache = new ConcurrentHashMap<>();
+
   private Processor processor = new Processor(new Config());
 
   public DynamicSchemaResolver(List<String> additionalFields) {
@@ -239,110 +251,108 @@ public void addFieldsFromClient(SolrClient client) {
   /** Adds the fields of the Metacard into the {@link SolrInputDocument} */
   public void addFields(Metacard metacard, SolrInputDocument solrInputDocument)
       throws MetacardCreationException {
-    MetacardType schema = metacard.getMetacardType();
-
-    // TODO: register these metacard types when a new one is seen
-
-    for (AttributeDescriptor ad : schema.getAttributeDescriptors()) {
-      if (metacard.getAttribute(ad.getName()) != null) {
-        List<Serializable> attributeValues = metacard.getAttribute(ad.getName()).getValues();
-
-        if (CollectionUtils.isNotEmpty(attributeValues) && attributeValues.get(0) != null) {
-          AttributeFormat format = ad.getType().getAttributeFormat();
-          String formatIndexName = ad.getName() + getFieldSuffix(format);
-
-          if (AttributeFormat.XML.equals(format)
-              && solrInputDocument.getFieldValue(
-                      formatIndexName + getSpecialIndexSuffix(AttributeFormat.STRING))
-                  == null) {
-            List<String> parsedTexts = parseTextFrom(attributeValues);
-
-            // parsedTexts => *_txt_tokenized
-            String specialStringIndexName =
-                ad.getName()
-                    + getFieldSuffix(AttributeFormat.STRING)
-                    + getSpecialIndexSuffix(AttributeFormat.STRING);
-            solrInputDocument.addField(specialStringIndexName, parsedTexts);
-          } else if (AttributeFormat.STRING.equals(format)
-              && solrInputDocument.getFieldValue(
-                      ad.getName() + getFieldSuffix(AttributeFormat.STRING))
-                  == null) {
-            List<Serializable> truncatedValues =
-                attributeValues
-                    .stream()
-                    .map(
-                        value ->
-                            value != null
-                                ? truncateAsUTF8(value.toString(), TOKEN_MAXIMUM_BYTES)
-                                : value)
-                    .collect(Collectors.toList());
-            // *_txt
-            solrInputDocument.addField(
-                ad.getName() + getFieldSuffix(AttributeFormat.STRING), truncatedValues);
+    IndexPlan plan = getIndexPlan(metacard.getMetacardType());
 
-            // *_txt_tokenized
-            solrInputDocument.addField(
-                ad.getName()
-                    + getFieldSuffix(AttributeFormat.STRING)
-                    + getSpecialIndexSuffix(AttributeFormat.STRING),
-                attributeValues);
-          } else if (AttributeFormat.OBJECT.equals(format)) {
-            ByteArrayOutputStream byteArrayOS = new ByteArrayOutputStream();
-            List<Serializable> byteArrays = new ArrayList<>();
-
-            try (ObjectOutputStream out = new ObjectOutputStream(byteArrayOS)) {
-              for (Serializable serializable : attributeValues) {
-                out.writeObject(serializable);
-                byteArrays.add(byteArrayOS.toByteArray());
-                out.reset();
-              }
-            } catch (IOException e) {
-              throw new MetacardCreationException(COULD_NOT_SERIALIZE_OBJECT_MESSAGE, e);
-            }
+    for (FieldPlan field : plan.fields) {
+      Attribute attribute = metacard.getAttribute(field.attributeName);
+      if (attribute == null) {
+        continue;
+      }
 
-            attributeValues = byteArrays;
-          }
+      List<Serializable> attributeValues = attribute.getValues();
+
+      if (CollectionUtils.isNotEmpty(attributeValues) && attributeValues.get(0) != null) {
+        AttributeFormat format = field.format;
+
+        if (AttributeFormat.XML.equals(format)
+            && solrInputDocument.getFieldValue(field.specialIndexName) == null) {
+          List<String> parsedTexts = parseTextFrom(attributeValues);
+
+          // parsedTexts => *_txt_tokenized
+          solrInputDocument.addField(field.tokenizedTextIndexName, parsedTexts);
+        } else if (AttributeFormat.STRING.equals(format)
+            && solrInputDocument.getFieldValue(field.textIndexName) == null) {
+          List<Serializable> truncatedValues =
+              attributeValues
+                  .stream()
+                  .map(
+                      value ->
+                          value != null
+                              ? truncateAsUTF8(value.toString(), TOKEN_MAXIMUM_BYTES)
+                              : value)
+                  .collect(Collectors.toList());
+          // *_txt
+          solrInputDocument.addField(field.textIndexName, truncatedValues);
+
+          // *_txt_tokenized
+          solrInputDocument.addField(field.tokenizedTextIndexName, attributeValues);
+        } else if (AttributeFormat.OBJECT.equals(format)) {
+          attributeValues = serializeValues(attributeValues);
+        }
 
-          if (solrInputDocument.getFieldValue(formatIndexName + SchemaFields.SORT_KEY_SUFFIX)
-              == null) {
-            if (AttributeFormat.GEOMETRY.equals(format)) {
-              solrInputDocument.addField(
-                  formatIndexName + SchemaFields.SORT_KEY_SUFFIX,
-                  createCenterPoint(attributeValues));
-            } else if (!(AttributeFormat.BINARY.equals(format)
-                || AttributeFormat.OBJECT.equals(format))) {
-              solrInputDocument.addField(
-                  formatIndexName + SchemaFields.SORT_KEY_SUFFIX, attributeValues.get(0));
-            }
+        if (solrInputDocument.getFieldValue(field.sortKeyIndexName) == null) {
+          if (AttributeFormat.GEOMETRY.equals(format)) {
+            solrInputDocument.addField(
+                field.sortKeyIndexName, createCenterPoint(attributeValues));
+          } else if (field.sortable) {
+            solrInputDocument.addField(field.sortKeyIndexName, attributeValues.get(0));
           }
+        }
 
-          // Prevent adding a field already on document
-          if (solrInputDocument.getFieldValue(formatIndexName) == null) {
-            solrInputDocument.addField(formatIndexName, attributeValues);
-          } else {
-            LOGGER.trace("Skipping adding field already found on document ({})", formatIndexName);
-          }
+        // Prevent adding a field already on document
+        if (solrInputDocument.getFieldValue(field.formatIndexName) == null) {
+          solrInputDocument.addField(field.formatIndexName, attributeValues);
+        } else {
+          LOGGER.trace(
+              "Skipping adding field already found on document ({})", field.formatIndexName);
         }
       }
     }
 
-    if (!ConfigurationStore.getInstance().isDisableTextPath()
-        && StringUtils.isNotBlank(metacard.getMetadata())) {
-      try {
-        byte[] luxXml = createTinyBinary(metacard.getMetadata());
-        solrInputDocument.addField(LUX_XML_FIELD_NAME, luxXml);
-      } catch (XMLStreamException | SaxonApiException | IOException e) {
+    ConfigurationStore configurationStore = ConfigurationStore.getInstance();
+    String metadata = metacard.getMetadata();
+    if (!configurationStore.isDisableTextPath() && StringUtils.isNotBlank(metadata)) {
+      int maxMetadataSize = configurationStore.getTextPathMaxMetadataSize();
+      if (maxMetadataSize > 0 && metadata.length() > maxMetadataSize) {
         LOGGER.debug(
-            "Unable to parse metadata field.  XPath support unavailable for metacard {}",
-            metacard.getId());
+            "Metadata of metacard {} is larger than {} characters. XPath support unavailable.",
+            metacard.getId(),
+            maxMetadataSize);
+      } else {
+        addTextPath(metacard, metadata, solrInputDocument);
       }
     }
 
     /*
      * Lastly the metacardType must be added to the solr document. These are internal fields
      */
-    String schemaName = String.format("%s#%s", schema.getName(), schema.hashCode());
-    solrInputDocument.addField(SchemaFields.METACARD_TYPE_FIELD_NAME, schemaName);
+    solrInputDocument.addField(SchemaFields.METACARD_TYPE_FIELD_NAME, plan.schemaName);
+    solrInputDocument.addField(
+        SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME, plan.metacardTypeBytes);
+  }
+
+  /**
+   * Returns the index plan of a metacard type, creating it the first time the type is seen. Plans
+   * are cached by type instance, since metacards of the same type share their type instance.
+   */
+  private IndexPlan getIndexPlan(MetacardType schema) throws MetacardCreationException {
+    IndexPlan plan = indexPlansCache.getIfPresent(schema);
+
+    if (plan == null) {
+      plan = new IndexPlan(schema, getSerializedMetacardType(schema));
+      indexPlansCache.put(schema, plan);
+    }
+
+    return plan;
+  }
+
+  private String getSerializedMetacardTypeName(MetacardType schema) {
+    return String.format("%s#%s", schema.getName(), schema.hashCode());
+  }
+
+  private byte[] getSerializedMetacardType(MetacardType schema)
+      throws MetacardCreationException {
+    String schemaName = getSerializedMetacardTypeName(schema);
     byte[] metacardTypeBytes = metacardTypeNameToSerialCache.getIfPresent(schemaName);
 
     if (metacardTypeBytes == null) {
@@ -358,7 +368,37 @@ public void addFields(Metacard metacard, SolrInputDocument solrInputDocument)
       addToFieldsCache(coreMetacardType.getAttributeDescriptors());
     }
 
-    solrInputDocument.addField(SchemaFields.METACARD_TYPE_OBJECT_FIELD_NAME, metacardTypeBytes);
+    return metacardTypeBytes;
+  }
+
+  private void addTextPath(
+      Metacard metacard, String metadata, SolrInputDocument solrInputDocument) {
+    try {
+      byte[] luxXml = createTinyBinary(metadata);
+      solrInputDocument.addField(LUX_XML_FIELD_NAME, luxXml);
+    } catch (XMLStreamException | SaxonApiException | IOException e) {
+      LOGGER.debug(
+          "Unable to parse metadata field.  XPath support unavailable for metacard {}",
+          metacard.getId());
+    }
+  }
+
+  private List<Serializable> serializeValues(List<Serializable> attributeValues)
+      throws MetacardCreationException {
+    ByteArrayOutputStream byteArrayOS = new ByteArrayOutputStream();
+    List<Serializable> byteArrays = new ArrayList<>();
+
+    try (ObjectOutputStream out = new ObjectOutputStream(byteArrayOS)) {
+      for (Serializable serializable : attributeValues) {
+        out.writeObject(serializable);
+        byteArrays.add(byteArrayOS.toByteArray());
+        out.reset();
+      }
+    } catch (IOException e) {
+      throw new MetacardCreationException(COULD_NOT_SERIALIZE_OBJECT_MESSAGE, e);
+    }
+
+    return byteArrays;
   }
 
   /*
@@ -529,6 +569,26 @@ public String resolveFieldName(String solrFieldName) {
     return solrFieldName;
   }
 
+  /**
+   * Resolves the attribute name of a field of a Solr document holding a metacard of the given
+   * type. The resolution is kept in a table shared by all the metacards of the type, so each field
+   * name is only resolved once no matter how many documents are read.
+   *
+   * @param metacardType the type of the metacard held by the document
+   * @param solrFieldName Solr index field name
+   * @return the attribute name, or {@code null} if the field is private and is not an attribute
+   */
+  public String getAttributeName(MetacardType metacardType, String solrFieldName) {
+    String attributeName =
+        attributeNamesCache
+            .computeIfAbsent(
+                String.valueOf(metacardType.getName()), name -> new ConcurrentHashMap<>())
+            .computeIfAbsent(
+                solrFieldName,
+                field -> isPrivateField(field) ? PRIVATE_FIELD : resolveFieldName(field));
+    return PRIVATE_FIELD.equals(attributeName) ? null : attributeName;
+  }
+
   public boolean isPrivateField(String solrFieldName) {
     return PRIVATE_SOLR_FIELDS.contains(solrFieldName)
         || solrFieldName.endsWith(SchemaFields.SORT_KEY_SUFFIX);
@@ -851,4 +911,58 @@ public String getSortKey(String field) {
   public Stream<String> anyTextFields() {
     return anyTextFieldsCache.stream();
   }
+
+  /**
+   * The Solr fields a metacard type is indexed into, computed once per type so that indexing a
+   * metacard does not have to resolve the field names of each of its attributes again.
+   */
+  private class IndexPlan {
+
+    private final String schemaName;
+
+    private final byte[] metacardTypeBytes;
+
+    private final List<FieldPlan> fields = new ArrayList<>();
+
+    IndexPlan(MetacardType schema, byte[] metacardTypeBytes) {
+      this.schemaName = getSerializedMetacardTypeName(schema);
+      this.metacardTypeBytes = metacardTypeBytes;
+
+      for (AttributeDescriptor descriptor : schema.getAttributeDescriptors()) {
+        fields.add(new FieldPlan(descriptor));
+      }
+    }
+  }
+
+  private class FieldPlan {
+
+    private final String attributeName;
+
+    private final AttributeFormat format;
+
+    /** The field holding the attribute values, e.g. {@code *_txt} or {@code *_xml}. */
+    private final String formatIndexName;
+
+    /** The field checked for XML attributes before adding their tokenized text. */
+    private final String specialIndexName;
+
+    private final String textIndexName;
+
+    private final String tokenizedTextIndexName;
+
+    private final String sortKeyIndexName;
+
+    private final boolean sortable;
+
+    FieldPlan(AttributeDescriptor descriptor) {
+      attributeName = descriptor.getName();
+      format = descriptor.getType().getAttributeFormat();
+      formatIndexName = attributeName + getFieldSuffix(format);
+      specialIndexName = formatIndexName + getSpecialIndexSuffix(AttributeFormat.STRING);
+      textIndexName = attributeName + getFieldSuffix(AttributeFormat.STRING);
+      tokenizedTextIndexName = textIndexName + getSpecialIndexSuffix(AttributeFormat.STRING);
+      sortKeyIndexName = formatIndexName + SchemaFields.SORT_KEY_SUFFIX;
+      sortable = !(AttributeFormat.BINARY.equals(format) || AttributeFormat.OBJECT.equals(format));
+    }
+  }
 }
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.MetacardCreationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts the metacards of an ingest batch into {@link SolrInputDocument}s on a bounded pool of
+ * worker threads. Most of the conversion time goes into parsing the metadata of each metacard for
+ * Text Path indexing, which is independent from one metacard to the next, so the documents of a
+ * batch are converted in parallel before the batch is sent to Solr.
+ *
+ * <p>The pool threads time out when idle. When the pool queue is full, the ingest thread converts
+ * the document itself, which bounds the number of pending conversions and keeps the ingest thread
+ * busy.
+ */
+class ParallelDocumentBuilder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelDocumentBuilder.class);
+
+  private static final long IDLE_TIMEOUT_SECONDS = 60;
+
+  private ThreadPoolExecutor executor;
+
+  @FunctionalInterface
+  interface DocumentFactory {
+    SolrInputDocument create(Metacard metacard) throws MetacardCreationException;
+  }
+
+  /**
+   * Converts metacards into Solr documents.
+   *
+   * @param metacards the metacards to convert
+   * @param parallelism the number of threads to convert the metacards with. When less than 2, the
+   *     metacards are converted on the calling thread.
+   * @param factory converts a single metacard
+   * @return the documents, in the order of the metacards
+   * @throws MetacardCreationException if a metacard could not be converted
+   */
+  List<SolrInputDocument> build(
+      List<Metacard> metacards, int parallelism, DocumentFactory factory)
+      throws MetacardCreationException {
+    List<SolrInputDocument> docs = new ArrayList<>(metacards.size());
+
+    if (parallelism < 2 || metacards.size() < 2) {
+      for (Metacard metacard : metacards) {
+        docs.add(factory.create(metacard));
+      }
+      return docs;
+    }
+
+    ThreadPoolExecutor pool = getExecutor(parallelism);
+    List<Future<SolrInputDocument>> futures = new ArrayList<>(metacards.size());
+    try {
+      for (Metacard metacard : metacards) {
+        futures.add(pool.submit(() -> factory.create(metacard)));
+      }
+
+      for (Future<SolrInputDocument> future : futures) {
+        docs.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MetacardCreationException("Interrupted while creating Solr documents.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof MetacardCreationException) {
+        throw (MetacardCreationException) e.getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new MetacardCreationException("Could not create Solr document.", e.getCause());
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
+
+    return docs;
+  }
+
+  private synchronized ThreadPoolExecutor getExecutor(int parallelism) {
+    if (executor == null || executor.getMaximumPoolSize() != parallelism) {
+      if (executor != null) {
+        executor.shutdown();
+      }
+
+      LOGGER.debug("Creating Solr document pool with {} threads", parallelism);
+      executor =
+          new ThreadPoolExecutor(
+              parallelism,
+              parallelism,
+              IDLE_TIMEOUT_SECONDS,
+              TimeUnit.SECONDS,
+              new ArrayBlockingQueue<>(parallelism * 4),
+              new ThreadFactoryBuilder()
+                  .setNameFormat("solrDocumentBuilder-%d")
+                  .setDaemon(true)
+                  .build(),
+              // Unlike CallerRunsPolicy, also runs tasks rejected because the pool was replaced
+              (task, pool) -> task.run());
+      executor.allowCoreThreadTimeOut(true);
+    }
+
+    return executor;
+  }
+}
@@ -155,6 +155,25 @@ public void setForceAutoCommit(boolean forceAutoCommit) {
     ConfigurationStore.getInstance().setForceAutoCommit(forceAutoCommit);
   }
 
+  /**
+   * Sets the window during which the commits requested by concurrent inserts, updates and deletes
+   * are coalesced into a single soft commit.
+   *
+   * @param commitWindowMillis the window in milliseconds, or 0 to commit every request on its own
+   */
+  public void setCommitWindowMillis(int commitWindowMillis) {
+    ConfigurationStore.getInstance().setCommitWindowMillis(commitWindowMillis);
+  }
+
+  /**
+   * Sets whether requests wait for their coalesced commit to make their changes visible.
+   *
+   * @param commitWaitForVisibility {@code true} to wait for the commit
+   */
+  public void setCommitWaitForVisibility(boolean commitWaitForVisibility) {
+    ConfigurationStore.getInstance().setCommitWaitForVisibility(commitWaitForVisibility);
+  }
+
   /**
    * Disables text path indexing for every subsequent update or insert.
    *
@@ -164,6 +183,26 @@ public void setDisableTextPath(boolean disableTextPath) {
     ConfigurationStore.getInstance().setDisableTextPath(disableTextPath);
   }
 
+  /**
+   * Sets the size above which metadata is not text path indexed on every subsequent update or
+   * insert.
+   *
+   * @param textPathMaxMetadataSize the maximum size in characters, or 0 for no limit
+   */
+  public void setTextPathMaxMetadataSize(int textPathMaxMetadataSize) {
+    ConfigurationStore.getInstance().setTextPathMaxMetadataSize(textPathMaxMetadataSize);
+  }
+
+  /**
+   * Sets the number of threads used to convert the metacards of an update or insert into Solr
+   * documents, which includes building their text path index.
+   *
+   * @param indexingParallelism the number of threads, 1 to use the calling thread
+   */
+  public void setIndexingParallelism(int indexingParallelism) {
+    ConfigurationStore.getInstance().setIndexingParallelism(indexingParallelism);
+  }
+
   @Override
   public Set<ContentType> getContentTypes() {
     return getProvider().getContentTypes();
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import ddf.catalog.Constants;
+import ddf.catalog.operation.QueryRequest;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.FacetField;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.SolrException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the filter queries that restrict a query to the documents its subject is permitted to
+ * read, from the subject security attributes set on the request under {@link
+ * Constants#SECURITY_MATCH_ALL_FILTER_KEY} and {@link Constants#SECURITY_MATCH_ONE_FILTER_KEY}.
+ *
+ * <ul>
+ *   <li>For a match-one attribute, a document must not have the attribute, or have one of the
+ *       subject values.
+ *   <li>For a match-all attribute, a document must not have any value the subject does not have.
+ *       Since that cannot be expressed without knowing the values, the document is excluded when it
+ *       has one of the indexed values the subject does not have.
+ * </ul>
+ *
+ * <p>The indexed values of each attribute and the filter queries of each combination of subject
+ * attributes are cached, so subjects with the same attributes share the same filter queries, which
+ * Solr caches as well. A document indexed with a new value after the values were looked up can
+ * be returned to a subject that is not permitted to read it, so the filtering done by the catalog
+ * access plugins is still required.
+ */
+class SecurityFilterQueries {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SecurityFilterQueries.class);
+
+  private static final long CACHE_TTL_SECONDS = 60;
+
+  private static final int MAX_CACHED_FILTERS = 1000;
+
+  /** Above this number of excluded values, a match-all attribute is left to the access plugins. */
+  private static final int MAX_EXCLUDED_VALUES = 1000;
+
+  private final SolrClient client;
+
+  private final Cache<List<Object>, List<String>> filterQueries =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_CACHED_FILTERS)
+          .expireAfterWrite(CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+          .build();
+
+  private final Cache<String, Set<String>> indexedValues =
+      CacheBuilder.newBuilder().expireAfterWrite(CACHE_TTL_SECONDS, TimeUnit.SECONDS).build();
+
+  SecurityFilterQueries(SolrClient client) {
+    this.client = client;
+  }
+
+  /**
+   * @return the filter queries restricting the request to the documents its subject is permitted
+   *     to read, or an empty list if the request does not have subject security attributes
+   */
+  List<String> getFilterQueries(QueryRequest request) {
+    Map<String, Set<String>> matchAll =
+        getAttributes(request.getPropertyValue(Constants.SECURITY_MATCH_ALL_FILTER_KEY));
+    Map<String, Set<String>> matchOne =
+        getAttributes(request.getPropertyValue(Constants.SECURITY_MATCH_ONE_FILTER_KEY));
+    if (matchAll.isEmpty() && matchOne.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    try {
+      return filterQueries.get(
+          Arrays.asList(matchAll, matchOne), () -> createFilterQueries(matchAll, matchOne));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      LOGGER.debug("Unable to create security filter queries. Not filtering the query.", e);
+      return Collections.emptyList();
+    }
+  }
+
+  private List<String> createFilterQueries(
+      Map<String, Set<String>> matchAll, Map<String, Set<String>> matchOne)
+      throws IOException, SolrServerException {
+    List<String> queries = new ArrayList<>();
+
+    for (Map.Entry<String, Set<String>> attribute : matchOne.entrySet()) {
+      String field = ClientUtils.escapeQueryChars(getField(attribute.getKey()));
+      String withoutAttribute = "(*:* -" + field + ":[* TO *])";
+      queries.add(
+          attribute.getValue().isEmpty()
+              ? withoutAttribute
+              : withoutAttribute + " OR " + field + ":" + anyOf(attribute.getValue()));
+    }
+
+    for (Map.Entry<String, Set<String>> attribute : matchAll.entrySet()) {
+      String field = getField(attribute.getKey());
+      Set<String> excluded = new TreeSet<>(getIndexedValues(field));
+      excluded.removeAll(attribute.getValue());
+      if (excluded.size() > MAX_EXCLUDED_VALUES) {
+        LOGGER.debug(
+            "Not filtering on {}, which has {} values the subject does not have.",
+            attribute.getKey(),
+            excluded.size());
+      } else if (!excluded.isEmpty()) {
+        queries.add("*:* -" + ClientUtils.escapeQueryChars(field) + ":" + anyOf(excluded));
+      }
+    }
+
+    LOGGER.debug("Created security filter queries {}", queries);
+    return Collections.unmodifiableList(queries);
+  }
+
+  private Set<String> getIndexedValues(String field) throws IOException, SolrServerException {
+    Set<String> values = indexedValues.getIfPresent(field);
+    if (values != null) {
+      return values;
+    }
+
+    SolrQuery query = new SolrQuery("*:*");
+    query.setRows(0);
+    query.setFacet(true);
+    query.addFacetField(field);
+    query.setFacetLimit(-1);
+    query.setFacetMinCount(1);
+    try {
+      FacetField facetField = client.query(query, SolrRequest.METHOD.POST).getFacetField(field);
+      values =
+          facetField == null || facetField.getValues() == null
+              ? Collections.emptySet()
+              : facetField
+                  .getValues()
+                  .stream()
+                  .map(FacetField.Count::getName)
+                  .collect(Collectors.toSet());
+    } catch (SolrException e) {
+      throw new IOException("Unable to look up the values of " + field, e);
+    }
+    indexedValues.put(field, values);
+    return values;
+  }
+
+  private static String getField(String attribute) {
+    return attribute + SchemaFields.TEXT_SUFFIX;
+  }
+
+  private static String anyOf(Collection<String> values) {
+    return values
+        .stream()
+        .map(ClientUtils::escapeQueryChars)
+        .collect(Collectors.joining(" OR ", "(", ")"));
+  }
+
+  /** @return the attributes sorted by name, with the values of each attribute sorted */
+  private static Map<String, Set<String>> getAttributes(Serializable property) {
+    Map<String, Set<String>> attributes = new TreeMap<>();
+    if (property instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) property).entrySet()) {
+        if (entry.getKey() instanceof String && entry.getValue() instanceof Collection) {
+          Set<String> values = new TreeSet<>();
+          for (Object value : (Collection<?>) entry.getValue()) {
+            values.add(String.valueOf(value));
+          }
+          attributes.put((String) entry.getKey(), values);
+        }
+      }
+    }
+    return attributes;
+  }
+}
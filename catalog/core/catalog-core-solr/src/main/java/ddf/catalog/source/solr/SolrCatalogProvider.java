@@ -15,6 +15,7 @@
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
 import ddf.catalog.data.ContentType;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardCreationException;
@@ -66,6 +67,7 @@
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrException;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.codice.solr.factory.impl.ConfigurationStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -106,6 +108,8 @@ public class SolrCatalogProvider extends MaskableImpl implements CatalogProvider
 
   private FilterAdapter filterAdapter;
 
+  private SolrCommitCoordinator commitCoordinator;
+
   /**
    * Cache of Metacards that have been updated on Solr but might not be visible in the near real
    * time index yet. Cache is checked when ID queries fail from Solr.
@@ -143,6 +147,7 @@ public SolrCatalogProvider(
     resolver.addFieldsFromClient(solrClient);
     this.client =
         new ProviderSolrMetacardClient(solrClient, adapter, solrFilterDelegateFactory, resolver);
+    this.commitCoordinator = new SolrCommitCoordinator(solrClient);
   }
 
   /**
@@ -282,10 +287,13 @@ public CreateResponse create(CreateRequest request) throws IngestException {
     }
 
     try {
-      client.add(output, isForcedAutoCommit());
+      client.add(output, isForcedAutoCommit() && !isCommitCoalesced());
+      if (isForcedAutoCommit()) {
+        requestCoalescedCommit();
+      }
     } catch (SolrServerException | SolrException | IOException | MetacardCreationException e) {
       LOGGER.info("Solr could not ingest metacard(s) during create.", e);
-      throw new IngestException("Could not ingest metacard(s).");
+      throw new IngestException("Could not ingest metacard(s).", e);
     }
 
     pendingNrtIndex.putAll(
@@ -417,7 +425,10 @@ public UpdateResponse update(UpdateRequest updateRequest) throws IngestException
     }
 
     try {
-      client.add(newMetacards, isForcedAutoCommit());
+      client.add(newMetacards, isForcedAutoCommit() && !isCommitCoalesced());
+      if (isForcedAutoCommit()) {
+        requestCoalescedCommit();
+      }
     } catch (SolrServerException | SolrException | IOException | MetacardCreationException e) {
       LOGGER.info("Failed to update metacard(s) with Solr.", e);
       throw new IngestException("Failed to update metacard(s).");
@@ -455,22 +466,18 @@ public DeleteResponse delete(DeleteRequest deleteRequest) throws IngestException
       return new DeleteResponseImpl(deleteRequest, null, deletedMetacards);
     }
 
-    if (identifiers.size() <= MAX_BOOLEAN_CLAUSES) {
-      deleteListOfMetacards(deletedMetacards, identifiers, attributeName);
-    } else {
-      List<? extends Serializable> identifierPaged;
-      int currPagingSize;
-
-      for (currPagingSize = MAX_BOOLEAN_CLAUSES;
-          currPagingSize < identifiers.size();
-          currPagingSize += MAX_BOOLEAN_CLAUSES) {
-        identifierPaged = identifiers.subList(currPagingSize - MAX_BOOLEAN_CLAUSES, currPagingSize);
-        deleteListOfMetacards(deletedMetacards, identifierPaged, attributeName);
-      }
-      identifierPaged =
-          identifiers.subList(currPagingSize - MAX_BOOLEAN_CLAUSES, identifiers.size());
+    // the terms filter is not limited by the maximum number of boolean clauses
+    for (List<? extends Serializable> identifierPaged :
+        Lists.partition(identifiers, SolrMetacardClientImpl.DELETE_BATCH_SIZE)) {
       deleteListOfMetacards(deletedMetacards, identifierPaged, attributeName);
     }
+
+    try {
+      requestCoalescedCommit();
+    } catch (SolrServerException | IOException e) {
+      LOGGER.info("Failed to commit deleted metacards.", e);
+      throw new IngestException(COULD_NOT_COMPLETE_DELETE_REQUEST_MESSAGE);
+    }
     addPendingNrtDeletedMetacards(deletedMetacards, identifiers);
 
     pendingNrtIndex.invalidateAll(
@@ -485,14 +492,25 @@ private void deleteListOfMetacards(
       String attributeName)
       throws IngestException {
     String fieldName = attributeName + SchemaFields.TEXT_SUFFIX;
-    SolrDocumentList docs = getSolrDocumentList(identifiers, fieldName);
-    createListOfDeletedMetacards(deletedMetacards, docs);
+    List<Metacard> metacards = new ArrayList<>();
+    createListOfDeletedMetacards(metacards, getSolrDocumentList(identifiers, fieldName));
+    deletedMetacards.addAll(metacards);
+
+    // metacards pending a commit may not be found yet, so IDs are deleted as given, while other
+    // attributes are deleted by the IDs of the metacards already found instead of searching again
+    List<String> ids =
+        Metacard.ID.equals(attributeName)
+            ? identifiers.stream().map(Object::toString).collect(Collectors.toList())
+            : metacards.stream().map(Metacard::getId).collect(Collectors.toList());
+    if (ids.isEmpty()) {
+      return;
+    }
 
     try {
       // the assumption is if something was deleted, it should be gone
       // right away, such as expired data, etc.
-      // so we force the commit
-      client.deleteByIds(fieldName, identifiers, true);
+      // so we force the commit, unless it is coalesced once all pages are deleted
+      client.deleteByIds(Metacard.ID, ids, !isCommitCoalesced());
     } catch (SolrServerException | IOException e) {
       LOGGER.info("Failed to delete metacards by ID(s).", e);
       throw new IngestException(COULD_NOT_COMPLETE_DELETE_REQUEST_MESSAGE);
@@ -535,17 +553,33 @@ private Metacard copyMetacard(Metacard original) {
 
   private SolrDocumentList getSolrDocumentList(
       List<? extends Serializable> identifierPaged, String fieldName) throws IngestException {
-    SolrQuery query = new SolrQuery(client.getIdentifierQuery(fieldName, identifierPaged));
-    query.setRows(identifierPaged.size());
-
-    QueryResponse solrResponse;
+    SolrQuery query = new SolrQuery("*:*");
+    query.addFilterQuery(client.getTermsQuery(fieldName, identifierPaged));
+    // attributes other than the ID may match more documents than there are values, so all the
+    // matching documents are paged through in ID order
+    query.setRows(SolrMetacardClientImpl.DELETE_BATCH_SIZE);
+    query.setSort(Metacard.ID + SchemaFields.TEXT_SUFFIX, SolrQuery.ORDER.asc);
+
+    SolrDocumentList docs = new SolrDocumentList();
+    String cursorMark = CursorMarkParams.CURSOR_MARK_START;
     try {
-      solrResponse = solr.query(query, METHOD.POST);
+      while (true) {
+        query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+        QueryResponse solrResponse = solr.query(query, METHOD.POST);
+        docs.addAll(solrResponse.getResults());
+
+        String nextCursorMark = solrResponse.getNextCursorMark();
+        if (solrResponse.getResults().size() < SolrMetacardClientImpl.DELETE_BATCH_SIZE
+            || nextCursorMark == null
+            || cursorMark.equals(nextCursorMark)) {
+          return docs;
+        }
+        cursorMark = nextCursorMark;
+      }
     } catch (SolrServerException | IOException e) {
       LOGGER.info("Failed to get list of Solr documents for delete.", e);
       throw new IngestException(COULD_NOT_COMPLETE_DELETE_REQUEST_MESSAGE);
     }
-    return solrResponse.getResults();
   }
 
   private String getQuery(String attributeName, List<String> ids) throws IngestException {
@@ -584,8 +618,26 @@ public boolean isForcedAutoCommit() {
     return ConfigurationStore.getInstance().isForceAutoCommit();
   }
 
+  /**
+   * Requests a soft commit from the commit coordinator when commits are coalesced. Does nothing
+   * otherwise, since the update then committed on its own.
+   */
+  private void requestCoalescedCommit() throws IOException, SolrServerException {
+    if (isCommitCoalesced()) {
+      ConfigurationStore configurationStore = ConfigurationStore.getInstance();
+      commitCoordinator.requestCommit(
+          configurationStore.getCommitWindowMillis(),
+          configurationStore.isCommitWaitForVisibility());
+    }
+  }
+
+  private boolean isCommitCoalesced() {
+    return ConfigurationStore.getInstance().getCommitWindowMillis() > 0;
+  }
+
   public void shutdown() {
     LOGGER.debug("Closing down Solr client.");
+    commitCoordinator.shutdown();
     try {
       solr.close();
     } catch (IOException e) {
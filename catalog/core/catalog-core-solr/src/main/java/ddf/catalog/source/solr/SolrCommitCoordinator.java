@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingTimeWindowReservoir;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces the commits requested by concurrent create, update and delete operations. The first
+ * commit request of a window schedules a soft commit at the end of the window, and every request
+ * made before that commit starts is served by it, so concurrent ingests cause a single commit per
+ * window instead of one commit each.
+ *
+ * <p>Callers can either wait until the commit serving their request has made their changes
+ * visible, or return right away and rely on the commit happening within the window. Once the
+ * coordinator has been shut down, commits are done right away by the requesting thread.
+ */
+class SolrCommitCoordinator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SolrCommitCoordinator.class);
+
+  private static final long IDLE_TIMEOUT_SECONDS = 60;
+
+  private final MetricRegistry metrics = new MetricRegistry();
+
+  private final JmxReporter reporter =
+      JmxReporter.forRegistry(metrics).inDomain("ddf.metrics.catalog.solr").build();
+
+  private final Histogram commitLatency =
+      metrics.register(
+          MetricRegistry.name("Commit", "Latency"),
+          new Histogram(new SlidingTimeWindowReservoir(1, TimeUnit.MINUTES)));
+
+  private final Histogram commitBatchSize =
+      metrics.register(
+          MetricRegistry.name("Commit", "BatchSize"),
+          new Histogram(new SlidingTimeWindowReservoir(1, TimeUnit.MINUTES)));
+
+  private final SolrClient client;
+
+  private final ScheduledThreadPoolExecutor scheduler;
+
+  private CompletableFuture<Void> nextCommit = new CompletableFuture<>();
+
+  private int pendingRequests = 0;
+
+  SolrCommitCoordinator(SolrClient client) {
+    this.client = client;
+    this.scheduler =
+        new ScheduledThreadPoolExecutor(
+            1,
+            new ThreadFactoryBuilder()
+                .setNameFormat("solrCommitCoordinator-%d")
+                .setDaemon(true)
+                .build());
+    scheduler.setKeepAliveTime(IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    scheduler.allowCoreThreadTimeOut(true);
+    reporter.start();
+  }
+
+  /**
+   * Requests a soft commit to be done by the end of the given window.
+   *
+   * @param windowMillis the time in milliseconds to wait for other commit requests before
+   *     committing
+   * @param waitForVisibility {@code true} to block until the commit has made the changes visible
+   * @throws IOException if waiting for the commit and it failed
+   * @throws SolrServerException if waiting for the commit and it failed
+   */
+  void requestCommit(long windowMillis, boolean waitForVisibility)
+      throws IOException, SolrServerException {
+    CompletableFuture<Void> commit;
+    boolean commitNow = false;
+
+    synchronized (this) {
+      commit = nextCommit;
+      pendingRequests++;
+      if (pendingRequests == 1) {
+        commitNow = !scheduleCommit(windowMillis);
+      }
+    }
+
+    if (commitNow) {
+      LOGGER.debug("Solr commit coordinator is shut down, committing immediately");
+      commit();
+    }
+
+    if (waitForVisibility) {
+      waitFor(commit);
+    }
+  }
+
+  void shutdown() {
+    scheduler.shutdown();
+    // Do not leave anyone waiting for a commit that has been cancelled by the shutdown
+    commit();
+    reporter.stop();
+  }
+
+  /** @return {@code false} if the commit could not be scheduled as the scheduler is shut down */
+  private boolean scheduleCommit(long windowMillis) {
+    if (scheduler.isShutdown()) {
+      return false;
+    }
+    try {
+      scheduler.schedule(this::commit, windowMillis, TimeUnit.MILLISECONDS);
+      return true;
+    } catch (RejectedExecutionException e) {
+      // The scheduler was shut down concurrently
+      return false;
+    }
+  }
+
+  private void commit() {
+    CompletableFuture<Void> commit;
+    int batchSize;
+
+    synchronized (this) {
+      if (pendingRequests == 0) {
+        return;
+      }
+      commit = nextCommit;
+      batchSize = pendingRequests;
+      nextCommit = new CompletableFuture<>();
+      pendingRequests = 0;
+    }
+
+    long start = System.currentTimeMillis();
+    try {
+      client.commit(/* waitFlush */ true, /* waitSearcher */ true, /* softCommit */ true);
+      commit.complete(null);
+    } catch (IOException | SolrServerException | RuntimeException e) {
+      LOGGER.info("Failed to commit {} Solr update(s).", batchSize, e);
+      commit.completeExceptionally(e);
+    }
+
+    long latency = System.currentTimeMillis() - start;
+    commitLatency.update(latency);
+    commitBatchSize.update(batchSize);
+    LOGGER.debug("Committed {} Solr update(s) in {} ms", batchSize, latency);
+  }
+
+  private void waitFor(CompletableFuture<Void> commit) throws IOException, SolrServerException {
+    try {
+      commit.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SolrServerException("Interrupted while waiting for Solr commit.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof SolrServerException) {
+        throw (SolrServerException) cause;
+      }
+      throw new SolrServerException("Solr commit failed.", cause);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.MetacardType;
+import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.io.ObjectStreamException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.solr.common.SolrDocument;
+
+/**
+ * {@link MetacardImpl} backed by the {@link SolrDocument} returned by a query. The values of an
+ * attribute are only converted from their Solr representation the first time the attribute is
+ * requested, so attributes that are never read (e.g. the metadata of results that only have their
+ * title displayed) are never converted.
+ *
+ * <p>Attributes that are set on the metacard replace the values held by the document. When
+ * serialized, the metacard is replaced by a regular {@link MetacardImpl} holding all of its
+ * attributes, so the document is never serialized and deserializing the metacard does not require
+ * this class.
+ */
+class SolrDocumentMetacard extends MetacardImpl {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient SolrDocument doc;
+
+  private final transient DynamicSchemaResolver resolver;
+
+  /** Attribute name to Solr field name of the attributes that have not been converted yet. */
+  private final transient Map<String, String> unconvertedFields = new HashMap<>();
+
+  /** Names of all the attributes held by the document or set on the metacard. */
+  private final transient Set<String> attributeNames = new HashSet<>();
+
+  SolrDocumentMetacard(
+      SolrDocument doc, MetacardType metacardType, DynamicSchemaResolver resolver) {
+    super(metacardType);
+    this.doc = doc;
+    this.resolver = resolver;
+
+    for (String solrFieldName : doc.getFieldNames()) {
+      String attributeName = resolver.getAttributeName(metacardType, solrFieldName);
+      if (attributeName != null) {
+        unconvertedFields.put(attributeName, solrFieldName);
+        attributeNames.add(attributeName);
+      }
+    }
+  }
+
+  @Override
+  public synchronized Attribute getAttribute(String name) {
+    String solrFieldName = unconvertedFields.remove(name);
+    if (solrFieldName != null) {
+      super.setAttribute(
+          new AttributeImpl(
+              name, resolver.getDocValues(solrFieldName, doc.getFieldValues(solrFieldName))));
+    }
+    return super.getAttribute(name);
+  }
+
+  @Override
+  public synchronized void setAttribute(Attribute attribute) {
+    if (attribute != null && attribute.getName() != null) {
+      unconvertedFields.remove(attribute.getName());
+      attributeNames.add(attribute.getName());
+    }
+    super.setAttribute(attribute);
+  }
+
+  private synchronized Object writeReplace() throws ObjectStreamException {
+    MetacardImpl metacard = new MetacardImpl(getMetacardType());
+    metacard.setSourceId(getSourceId());
+
+    for (String attributeName : attributeNames) {
+      metacard.setAttribute(getAttribute(attributeName));
+    }
+    return metacard;
+  }
+}
@@ -24,6 +24,7 @@
 import static org.apache.solr.spelling.suggest.SuggesterParams.SUGGEST_DICT;
 import static org.apache.solr.spelling.suggest.SuggesterParams.SUGGEST_Q;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import ddf.catalog.data.Attribute;
 import ddf.catalog.data.AttributeType;
@@ -33,6 +34,7 @@
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.Result;
 import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.CompactMetacard;
 import ddf.catalog.data.impl.ContentTypeImpl;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.data.impl.ResultImpl;
@@ -75,6 +77,8 @@
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.codice.solr.factory.impl.ConfigurationStore;
 import org.locationtech.spatial4j.distance.DistanceUtils;
 import org.opengis.filter.sort.SortBy;
 import org.opengis.filter.sort.SortOrder;
@@ -107,6 +111,33 @@ public class SolrMetacardClientImpl implements SolrMetacardClient {
 
   public static final String EXCLUDE_ATTRIBUTES = "excludeAttributes";
 
+  /**
+   * Request property holding a Solr cursor mark. When present, the query is executed as a deep
+   * paging cursor query starting at the given mark ({@code *} for the first page) and the start
+   * index of the query is ignored.
+   */
+  public static final String CURSOR_MARK_KEY = "cursorMark";
+
+  /** Response property holding the cursor mark to use to request the next page of results. */
+  public static final String NEXT_CURSOR_MARK_KEY = "nextCursorMark";
+
+  private static final ParallelDocumentBuilder DOCUMENT_BUILDER = new ParallelDocumentBuilder();
+
+  private static final String EAGER_METACARDS_PROPERTY = "solr.client.eagerMetacards";
+
+  private static final String COMPACT_METACARDS_PROPERTY = "solr.client.compactMetacards";
+
+  /** Maximum number of values or documents handled by a single bulk delete request. */
+  public static final int DELETE_BATCH_SIZE = 10_000;
+
+  /**
+   * Separates the values of a terms query, chosen as it rarely appears in values. It is repeated
+   * until it does not appear in any of the values of the query.
+   */
+  private static final String TERMS_SEPARATOR = "\u001F";
+
+  private static final String ID_SORT_FIELD = Metacard.ID + SchemaFields.TEXT_SUFFIX;
+
   private final SolrClient client;
 
   private final SolrFilterDelegateFactory filterDelegateFactory;
@@ -115,6 +146,8 @@ public class SolrMetacardClientImpl implements SolrMetacardClient {
 
   private final DynamicSchemaResolver resolver;
 
+  private final SecurityFilterQueries securityFilterQueries;
+
   private static final Supplier<Boolean> ZERO_PAGESIZE_COMPATIBILTY =
       () -> Boolean.valueOf(System.getProperty(ZERO_PAGESIZE_COMPATIBILITY_PROPERTY));
 
@@ -127,6 +160,7 @@ public SolrMetacardClientImpl(
     filterDelegateFactory = solrFilterDelegateFactory;
     filterAdapter = catalogFilterAdapter;
     resolver = dynamicSchemaResolver;
+    securityFilterQueries = new SecurityFilterQueries(client);
   }
 
   public SolrClient getClient() {
@@ -189,6 +223,10 @@ public SourceResponse query(QueryRequest request) throws UnsupportedQueryExcepti
         addDocsToResults(docs, results);
       }
 
+      if (solrResponse.getNextCursorMark() != null) {
+        responseProps.put(NEXT_CURSOR_MARK_KEY, solrResponse.getNextCursorMark());
+      }
+
       SuggesterResponse suggesterResponse = solrResponse.getSuggesterResponse();
 
       if (suggesterResponse != null) {
@@ -396,6 +434,8 @@ protected SolrQuery getSolrQuery(QueryRequest request, SolrFilterDelegate solrFi
   protected SolrQuery postAdapt(
       QueryRequest request, SolrFilterDelegate filterDelegate, SolrQuery query)
       throws UnsupportedQueryException {
+    securityFilterQueries.getFilterQueries(request).forEach(query::addFilterQuery);
+
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Prepared Query: {}", query.getQuery());
       if (query.getFilterQueries() != null && query.getFilterQueries().length > 0) {
@@ -408,8 +448,14 @@ protected SolrQuery postAdapt(
       throw new UnsupportedQueryException("Start index must be greater than 0");
     }
 
-    // Solr is 0-based
-    query.setStart(request.getQuery().getStartIndex() - 1);
+    String cursorMark = getCursorMark(request);
+    if (cursorMark != null) {
+      // Solr requires cursor queries to always start at 0
+      query.setStart(0);
+    } else {
+      // Solr is 0-based
+      query.setStart(request.getQuery().getStartIndex() - 1);
+    }
 
     if (queryingForAllRecords(request)) {
       try {
@@ -423,11 +469,33 @@ protected SolrQuery postAdapt(
 
     setSortProperty(request, query, filterDelegate);
 
+    if (cursorMark != null) {
+      setCursorMark(query, cursorMark);
+    }
+
     filterAttributes(request, query);
 
     return query;
   }
 
+  private String getCursorMark(QueryRequest request) {
+    Serializable cursorMark = request.getPropertyValue(CURSOR_MARK_KEY);
+    return cursorMark instanceof String ? (String) cursorMark : null;
+  }
+
+  /**
+   * Cursors require a sort on the unique key to break ties, so one is added if the query is not
+   * already sorted by it.
+   */
+  private void setCursorMark(SolrQuery query, String cursorMark) {
+    boolean sortedById =
+        query.getSorts().stream().anyMatch(sort -> ID_SORT_FIELD.equals(sort.getItem()));
+    if (!sortedById) {
+      query.addSort(ID_SORT_FIELD, SolrQuery.ORDER.asc);
+    }
+    query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+  }
+
   private void filterAttributes(QueryRequest request, SolrQuery query) {
     if (skipFilteredAttributes(request)) {
       return;
@@ -603,9 +671,26 @@ private Double degreesToMeters(double distance) {
         .getAs(Distance.LinearUnit.METER);
   }
 
+  /**
+   * Creates the metacard held by a Solr document. Unless the {@value #EAGER_METACARDS_PROPERTY}
+   * system property is {@code true}, the attribute values are only converted from the document
+   * when they are first read. When the {@value #COMPACT_METACARDS_PROPERTY} system property is
+   * {@code true}, all the values are converted into a {@link CompactMetacard}, which holds them in
+   * less memory than the document or a regular metacard.
+   *
+   * @param doc the Solr document
+   * @return the metacard
+   * @throws MetacardCreationException if the metacard type of the document cannot be read
+   */
   public MetacardImpl createMetacard(SolrDocument doc) throws MetacardCreationException {
     MetacardType metacardType = resolver.getMetacardType(doc);
-    MetacardImpl metacard = new MetacardImpl(metacardType);
+    boolean compact = Boolean.getBoolean(COMPACT_METACARDS_PROPERTY);
+    if (!compact && !Boolean.getBoolean(EAGER_METACARDS_PROPERTY)) {
+      return new SolrDocumentMetacard(doc, metacardType, resolver);
+    }
+
+    MetacardImpl metacard =
+        compact ? new CompactMetacard(metacardType) : new MetacardImpl(metacardType);
 
     for (String solrFieldName : doc.getFieldNames()) {
       if (!resolver.isPrivateField(solrFieldName)) {
@@ -628,10 +713,11 @@ public List<SolrInputDocument> add(List<Metacard> metacards, boolean forceAutoCo
       return null;
     }
 
-    List<SolrInputDocument> docs = new ArrayList<>();
-    for (Metacard metacard : metacards) {
-      docs.add(getSolrInputDocument(metacard));
-    }
+    List<SolrInputDocument> docs =
+        DOCUMENT_BUILDER.build(
+            metacards,
+            ConfigurationStore.getInstance().getIndexingParallelism(),
+            this::getSolrInputDocument);
 
     if (!forceAutoCommit) {
       client.add(docs);
@@ -670,22 +756,8 @@ public Object transform(Object o) {
           });
       client.deleteById((List<String>) identifiers);
     } else {
-      if (identifiers.size() < SolrCatalogProvider.MAX_BOOLEAN_CLAUSES) {
-        client.deleteByQuery(getIdentifierQuery(fieldName, identifiers));
-      } else {
-        int i = 0;
-        for (i = SolrCatalogProvider.MAX_BOOLEAN_CLAUSES;
-            i < identifiers.size();
-            i += SolrCatalogProvider.MAX_BOOLEAN_CLAUSES) {
-          client.deleteByQuery(
-              getIdentifierQuery(
-                  fieldName, identifiers.subList(i - SolrCatalogProvider.MAX_BOOLEAN_CLAUSES, i)));
-        }
-        client.deleteByQuery(
-            getIdentifierQuery(
-                fieldName,
-                identifiers.subList(
-                    i - SolrCatalogProvider.MAX_BOOLEAN_CLAUSES, identifiers.size())));
+      for (List<? extends Serializable> terms : Lists.partition(identifiers, DELETE_BATCH_SIZE)) {
+        deleteByTerms(fieldName, terms);
       }
     }
 
@@ -699,6 +771,72 @@ public void deleteByQuery(String query) throws IOException, SolrServerException
     client.deleteByQuery(query);
   }
 
+  /**
+   * Deletes the documents whose field holds one of the given values. The IDs of the matching
+   * documents are looked up with a terms filter and the documents are deleted by ID, one page of
+   * {@value #DELETE_BATCH_SIZE} documents at a time.
+   */
+  private void deleteByTerms(String fieldName, List<? extends Serializable> terms)
+      throws IOException, SolrServerException {
+    SolrQuery query = new SolrQuery("*:*");
+    query.addFilterQuery(getTermsQuery(fieldName, terms));
+    query.setFields(ID_SORT_FIELD);
+    query.setRows(DELETE_BATCH_SIZE);
+    query.setSort(ID_SORT_FIELD, SolrQuery.ORDER.asc);
+
+    String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+    while (true) {
+      query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+      QueryResponse response = client.query(query, SolrRequest.METHOD.POST);
+
+      List<String> ids =
+          response
+              .getResults()
+              .stream()
+              .map(doc -> doc.getFirstValue(ID_SORT_FIELD))
+              .filter(Objects::nonNull)
+              .map(Object::toString)
+              .collect(Collectors.toList());
+      if (!ids.isEmpty()) {
+        client.deleteById(ids);
+      }
+
+      String nextCursorMark = response.getNextCursorMark();
+      if (response.getResults().size() < DELETE_BATCH_SIZE
+          || nextCursorMark == null
+          || cursorMark.equals(nextCursorMark)) {
+        break;
+      }
+      cursorMark = nextCursorMark;
+    }
+  }
+
+  /**
+   * Creates a filter query matching the documents whose field holds one of the given values. Unlike
+   * {@link #getIdentifierQuery(String, List)}, the number of values is not limited by the maximum
+   * number of boolean clauses, and the filter is not cached.
+   *
+   * <p>The terms parser matches the values verbatim, so query syntax characters in the values need
+   * no escaping. The separator is lengthened until it does not appear in any value.
+   *
+   * @param fieldName the Solr field name
+   * @param values the values to match
+   * @return the filter query
+   */
+  public String getTermsQuery(String fieldName, List<? extends Serializable> values) {
+    List<String> terms = values.stream().map(Object::toString).collect(Collectors.toList());
+    String separator = TERMS_SEPARATOR;
+    while (containsSeparator(terms, separator)) {
+      separator += TERMS_SEPARATOR;
+    }
+    return String.format("{!terms f=%s separator='%s' cache=false}", fieldName, separator)
+        + String.join(separator, terms);
+  }
+
+  private boolean containsSeparator(List<String> terms, String separator) {
+    return terms.stream().anyMatch(term -> term.contains(separator));
+  }
+
   public String getIdentifierQuery(String fieldName, List<? extends Serializable> identifiers) {
     StringBuilder queryBuilder = new StringBuilder();
     for (Serializable id : identifiers) {
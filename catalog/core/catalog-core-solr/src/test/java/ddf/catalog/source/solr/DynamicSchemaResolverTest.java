@@ -17,18 +17,25 @@
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ddf.catalog.data.Attribute;
 import ddf.catalog.data.AttributeDescriptor;
+import ddf.catalog.data.AttributeType.AttributeFormat;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.impl.AttributeDescriptorImpl;
 import ddf.catalog.data.impl.BasicTypes;
+import ddf.catalog.data.impl.MetacardImpl;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -117,6 +124,33 @@ public void testAdditionalFieldConstructor() throws Exception {
     assertThat(resolver.fieldsCache, hasItem(anotherExtraField));
   }
 
+  @Test
+  public void testAddFieldsReusesIndexPlan() throws Exception {
+    DynamicSchemaResolver resolver = spy(new DynamicSchemaResolver());
+
+    MetacardImpl first = new MetacardImpl();
+    first.setTitle("first");
+    SolrInputDocument firstDocument = new SolrInputDocument();
+    resolver.addFields(first, firstDocument);
+
+    verify(resolver, atLeastOnce()).getFieldSuffix(any(AttributeFormat.class));
+    reset(resolver);
+
+    MetacardImpl second = new MetacardImpl();
+    second.setTitle("second");
+    SolrInputDocument secondDocument = new SolrInputDocument();
+    resolver.addFields(second, secondDocument);
+
+    verify(resolver, never()).getFieldSuffix(any(AttributeFormat.class));
+    assertThat(secondDocument.getFieldNames(), equalTo(firstDocument.getFieldNames()));
+    assertThat(
+        secondDocument.getFieldValue(Metacard.TITLE + SchemaFields.TEXT_SUFFIX),
+        equalTo("second"));
+    assertThat(
+        secondDocument.getFieldValue(SchemaFields.METACARD_TYPE_FIELD_NAME),
+        equalTo(firstDocument.getFieldValue(SchemaFields.METACARD_TYPE_FIELD_NAME)));
+  }
+
   private MetacardType deserializeMetacardType(byte[] serializedMetacardType)
       throws ClassNotFoundException, IOException {
     ByteArrayInputStream bais = new ByteArrayInputStream((byte[]) serializedMetacardType);
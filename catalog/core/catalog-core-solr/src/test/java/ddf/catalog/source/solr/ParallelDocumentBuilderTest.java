@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.MetacardCreationException;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Test;
+
+public class ParallelDocumentBuilderTest {
+
+  private final ParallelDocumentBuilder builder = new ParallelDocumentBuilder();
+
+  @Test
+  public void testDocumentsKeepMetacardOrder() throws Exception {
+    List<Metacard> metacards = getMetacards(50);
+
+    List<SolrInputDocument> docs = builder.build(metacards, 4, this::createDocument);
+
+    assertThat(getIds(docs), contains(getIds(metacards).toArray()));
+  }
+
+  @Test
+  public void testSequentialBuild() throws Exception {
+    List<Metacard> metacards = getMetacards(3);
+
+    List<SolrInputDocument> docs = builder.build(metacards, 1, this::createDocument);
+
+    assertThat(getIds(docs), contains("0", "1", "2"));
+  }
+
+  @Test(expected = MetacardCreationException.class)
+  public void testCreationFailure() throws Exception {
+    builder.build(
+        getMetacards(10),
+        4,
+        metacard -> {
+          if ("5".equals(metacard.getId())) {
+            throw new MetacardCreationException("failed");
+          }
+          return createDocument(metacard);
+        });
+  }
+
+  private SolrInputDocument createDocument(Metacard metacard) {
+    SolrInputDocument doc = new SolrInputDocument();
+    doc.addField(Metacard.ID, metacard.getId());
+    return doc;
+  }
+
+  private List<Metacard> getMetacards(int count) {
+    List<Metacard> metacards = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      MetacardImpl metacard = new MetacardImpl();
+      metacard.setId(String.valueOf(i));
+      metacards.add(metacard);
+    }
+    return metacards;
+  }
+
+  private List<Object> getIds(List<?> items) {
+    return items
+        .stream()
+        .map(
+            item ->
+                item instanceof Metacard
+                    ? ((Metacard) item).getId()
+                    : ((SolrInputDocument) item).getFieldValue(Metacard.ID))
+        .collect(Collectors.toList());
+  }
+}
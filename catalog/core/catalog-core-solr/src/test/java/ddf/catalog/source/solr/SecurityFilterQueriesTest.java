@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.Constants;
+import ddf.catalog.operation.QueryRequest;
+import ddf.catalog.operation.impl.QueryImpl;
+import ddf.catalog.operation.impl.QueryRequestImpl;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.response.FacetField;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.filter.Filter;
+
+public class SecurityFilterQueriesTest {
+
+  private static final String FIELD = "access_txt";
+
+  private SolrClient client;
+
+  private SecurityFilterQueries securityFilterQueries;
+
+  @Before
+  public void setUp() throws Exception {
+    FacetField facetField = new FacetField(FIELD);
+    facetField.add("A", 1);
+    facetField.add("B", 2);
+    facetField.add("C", 3);
+    QueryResponse response = mock(QueryResponse.class);
+    when(response.getFacetField(FIELD)).thenReturn(facetField);
+
+    client = mock(SolrClient.class);
+    when(client.query(any(SolrQuery.class), eq(SolrRequest.METHOD.POST))).thenReturn(response);
+
+    securityFilterQueries = new SecurityFilterQueries(client);
+  }
+
+  @Test
+  public void testNoSubjectAttributes() {
+    assertThat(securityFilterQueries.getFilterQueries(request(new HashMap<>())), is(empty()));
+  }
+
+  @Test
+  public void testMatchOne() {
+    Map<String, Serializable> properties = new HashMap<>();
+    properties.put(Constants.SECURITY_MATCH_ONE_FILTER_KEY, attributes("country", "USA", "CAN"));
+
+    assertThat(
+        securityFilterQueries.getFilterQueries(request(properties)),
+        contains("(*:* -country_txt:[* TO *]) OR country_txt:(CAN OR USA)"));
+  }
+
+  @Test
+  public void testMatchAllExcludesValuesSubjectDoesNotHave() throws Exception {
+    Map<String, Serializable> properties = new HashMap<>();
+    properties.put(Constants.SECURITY_MATCH_ALL_FILTER_KEY, attributes("access", "B"));
+
+    assertThat(
+        securityFilterQueries.getFilterQueries(request(properties)),
+        contains("*:* -access_txt:(A OR C)"));
+  }
+
+  @Test
+  public void testFilterQueriesAreCached() throws Exception {
+    Map<String, Serializable> properties = new HashMap<>();
+    properties.put(Constants.SECURITY_MATCH_ALL_FILTER_KEY, attributes("access", "A", "B"));
+    Map<String, Serializable> sameAttributes = new HashMap<>();
+    sameAttributes.put(Constants.SECURITY_MATCH_ALL_FILTER_KEY, attributes("access", "B", "A"));
+
+    List<String> filterQueries = securityFilterQueries.getFilterQueries(request(properties));
+
+    assertThat(securityFilterQueries.getFilterQueries(request(sameAttributes)), is(filterQueries));
+    verify(client, times(1)).query(any(SolrQuery.class), eq(SolrRequest.METHOD.POST));
+  }
+
+  private QueryRequest request(Map<String, Serializable> properties) {
+    return new QueryRequestImpl(new QueryImpl(Filter.INCLUDE), properties);
+  }
+
+  private HashMap<String, HashSet<String>> attributes(String attribute, String... values) {
+    HashMap<String, HashSet<String>> attributes = new HashMap<>();
+    attributes.put(attribute, new HashSet<>(Arrays.asList(values)));
+    return attributes;
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolrCommitCoordinatorTest {
+
+  private static final long WINDOW_MILLIS = 500;
+
+  private SolrClient client;
+
+  private SolrCommitCoordinator coordinator;
+
+  @Before
+  public void setUp() {
+    client = mock(SolrClient.class);
+    coordinator = new SolrCommitCoordinator(client);
+  }
+
+  @After
+  public void tearDown() {
+    coordinator.shutdown();
+  }
+
+  @Test
+  public void testConcurrentRequestsShareOneCommit() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    try {
+      List<Future<Void>> requests = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        requests.add(
+            executor.submit(
+                () -> {
+                  coordinator.requestCommit(WINDOW_MILLIS, true);
+                  return null;
+                }));
+      }
+
+      for (Future<Void> request : requests) {
+        request.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    verify(client, times(1)).commit(true, true, true);
+  }
+
+  @Test
+  public void testRequestWithoutWaitingIsCommitted() throws Exception {
+    coordinator.requestCommit(WINDOW_MILLIS, false);
+
+    verify(client, never()).commit(true, true, true);
+    verify(client, timeout(WINDOW_MILLIS * 10)).commit(true, true, true);
+  }
+
+  @Test
+  public void testRequestAfterShutdownIsCommittedImmediately() throws Exception {
+    coordinator.shutdown();
+
+    coordinator.requestCommit(WINDOW_MILLIS, true);
+
+    verify(client, times(1)).commit(true, true, true);
+  }
+
+  @Test
+  public void testRequestWithoutWaitingAfterShutdownIsCommittedImmediately() throws Exception {
+    coordinator.shutdown();
+
+    coordinator.requestCommit(WINDOW_MILLIS, false);
+
+    verify(client, times(1)).commit(true, true, true);
+  }
+
+  @Test(expected = SolrServerException.class)
+  public void testCommitFailureAfterShutdownReportedToWaitingRequests() throws Exception {
+    when(client.commit(true, true, true)).thenThrow(new SolrServerException("failed"));
+    coordinator.shutdown();
+
+    coordinator.requestCommit(WINDOW_MILLIS, true);
+  }
+
+  @Test(expected = SolrServerException.class)
+  public void testCommitFailureReportedToWaitingRequests() throws Exception {
+    when(client.commit(true, true, true)).thenThrow(new SolrServerException("failed"));
+
+    coordinator.requestCommit(WINDOW_MILLIS, true);
+  }
+}
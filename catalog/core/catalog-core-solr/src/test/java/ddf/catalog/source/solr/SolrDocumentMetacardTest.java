@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.apache.solr.common.SolrDocument;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolrDocumentMetacardTest {
+
+  private static final String TITLE_FIELD = Metacard.TITLE + SchemaFields.TEXT_SUFFIX;
+
+  private DynamicSchemaResolver resolver;
+
+  private SolrDocument doc;
+
+  @Before
+  public void setUp() {
+    resolver = spy(new DynamicSchemaResolver());
+
+    doc = new SolrDocument();
+    doc.addField(TITLE_FIELD, "title");
+    doc.addField(Metacard.ID + SchemaFields.TEXT_SUFFIX, "id");
+    doc.addField(SchemaFields.METACARD_TYPE_FIELD_NAME, "type");
+  }
+
+  @Test
+  public void testAttributesConvertedOnFirstRead() {
+    Metacard metacard = new SolrDocumentMetacard(doc, MetacardImpl.BASIC_METACARD, resolver);
+
+    verify(resolver, never()).getDocValues(anyString(), anyCollectionOf(Object.class));
+
+    assertThat(metacard.getTitle(), is("title"));
+    assertThat(metacard.getTitle(), is("title"));
+
+    verify(resolver, times(1)).getDocValues(eq(TITLE_FIELD), anyCollectionOf(Object.class));
+    verify(resolver, never())
+        .getDocValues(eq(Metacard.ID + SchemaFields.TEXT_SUFFIX), anyCollectionOf(Object.class));
+  }
+
+  @Test
+  public void testPrivateFieldsAreNotAttributes() {
+    Metacard metacard = new SolrDocumentMetacard(doc, MetacardImpl.BASIC_METACARD, resolver);
+
+    assertThat(metacard.getAttribute(SchemaFields.METACARD_TYPE_FIELD_NAME), nullValue());
+    assertThat(metacard.getAttribute("metacard_type_name"), nullValue());
+  }
+
+  @Test
+  public void testSetAttributeReplacesDocumentValue() {
+    MetacardImpl metacard = new SolrDocumentMetacard(doc, MetacardImpl.BASIC_METACARD, resolver);
+
+    metacard.setTitle("new title");
+    metacard.setAttribute(Metacard.ID, null);
+
+    assertThat(metacard.getTitle(), is("new title"));
+    assertThat(metacard.getId(), nullValue());
+    verify(resolver, never()).getDocValues(anyString(), anyCollectionOf(Object.class));
+  }
+
+  @Test
+  public void testSerializedAsMetacardImpl() throws Exception {
+    MetacardImpl metacard = new SolrDocumentMetacard(doc, MetacardImpl.BASIC_METACARD, resolver);
+    metacard.setSourceId("source");
+    metacard.setAttribute("extra", "value");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(metacard);
+    }
+
+    Object deserialized;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      deserialized = in.readObject();
+    }
+
+    assertThat(deserialized.getClass(), equalTo(MetacardImpl.class));
+    Metacard copy = (Metacard) deserialized;
+    assertThat(copy.getTitle(), is("title"));
+    assertThat(copy.getId(), is("id"));
+    assertThat(copy.getSourceId(), is("source"));
+    assertThat(copy.getAttribute("extra").getValue(), is("value"));
+  }
+}
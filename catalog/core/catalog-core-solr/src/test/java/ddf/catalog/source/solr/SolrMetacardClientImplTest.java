@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.source.solr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.filter.FilterAdapter;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class SolrMetacardClientImplTest {
+
+  private static final String FIELD_NAME = "title_txt";
+
+  private static final String ID_FIELD_NAME = "id_txt";
+
+  private static final String TERMS_PREFIX =
+      "{!terms f=" + FIELD_NAME + " separator='\u001F' cache=false}";
+
+  /** Default value of the maxBooleanClauses setting of Solr. */
+  private static final int MAX_BOOLEAN_CLAUSES = 1024;
+
+  private SolrClient client;
+
+  private SolrMetacardClientImpl metacardClient;
+
+  @Before
+  public void setUp() {
+    client = mock(SolrClient.class);
+    metacardClient =
+        new SolrMetacardClientImpl(
+            client,
+            mock(FilterAdapter.class),
+            mock(SolrFilterDelegateFactory.class),
+            mock(DynamicSchemaResolver.class));
+  }
+
+  @Test
+  public void testTermsQuerySeparatesValues() {
+    String query = metacardClient.getTermsQuery(FIELD_NAME, Arrays.asList("first", "second"));
+
+    assertThat(query, is(TERMS_PREFIX + "first\u001Fsecond"));
+  }
+
+  @Test
+  public void testTermsQueryDoesNotEscapeSpecialCharacters() {
+    List<String> values =
+        Arrays.asList("a:b", "\"quoted\"", "wild*card?", "{!lucene}", "with space", "back\\slash");
+
+    String query = metacardClient.getTermsQuery(FIELD_NAME, values);
+
+    assertThat(query, startsWith(TERMS_PREFIX));
+    assertThat(
+        query.substring(TERMS_PREFIX.length()).split("\u001F", -1),
+        is(values.toArray(new String[0])));
+  }
+
+  @Test
+  public void testTermsQueryLengthensSeparatorContainedInValue() {
+    String query =
+        metacardClient.getTermsQuery(FIELD_NAME, Arrays.asList("first", "con\u001Ftains"));
+
+    assertThat(
+        query,
+        is(
+            "{!terms f="
+                + FIELD_NAME
+                + " separator='\u001F\u001F' cache=false}first\u001F\u001Fcon\u001Ftains"));
+  }
+
+  @Test
+  public void testDeleteByIdAttributeDeletesIdsDirectly() throws Exception {
+    List<Serializable> ids = new ArrayList<>(Arrays.asList("id1", "id2"));
+
+    metacardClient.deleteByIds(Metacard.ID, ids, false);
+
+    verify(client).deleteById(Arrays.asList("id1", "id2"));
+    verify(client, never()).query(any(SolrQuery.class), any(SolrRequest.METHOD.class));
+  }
+
+  @Test
+  public void testDeleteByTermsDeletesMatchingIds() throws Exception {
+    QueryResponse response = getResponse("id1", "id2");
+    when(client.query(any(SolrQuery.class), eq(SolrRequest.METHOD.POST))).thenReturn(response);
+
+    metacardClient.deleteByIds(FIELD_NAME, Arrays.asList("title1", "title2"), true);
+
+    ArgumentCaptor<SolrQuery> query = ArgumentCaptor.forClass(SolrQuery.class);
+    verify(client).query(query.capture(), eq(SolrRequest.METHOD.POST));
+    assertThat(query.getValue().getFilterQueries(), is(arrayWithSize(1)));
+    assertThat(query.getValue().getFilterQueries()[0], is(TERMS_PREFIX + "title1\u001Ftitle2"));
+    assertThat(query.getValue().getFields(), is(ID_FIELD_NAME));
+    verify(client).deleteById(Arrays.asList("id1", "id2"));
+    verify(client).commit();
+  }
+
+  @Test
+  public void testDeleteByTermsBatchesValuesBeyondBooleanClauseLimit() throws Exception {
+    QueryResponse response = getResponse("id1");
+    when(client.query(any(SolrQuery.class), eq(SolrRequest.METHOD.POST))).thenReturn(response);
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i <= SolrMetacardClientImpl.DELETE_BATCH_SIZE; i++) {
+      values.add("title" + i);
+    }
+
+    metacardClient.deleteByIds(FIELD_NAME, values, false);
+
+    ArgumentCaptor<SolrQuery> queries = ArgumentCaptor.forClass(SolrQuery.class);
+    verify(client, times(2)).query(queries.capture(), eq(SolrRequest.METHOD.POST));
+    String[] firstBatch = getTerms(queries.getAllValues().get(0));
+    String[] secondBatch = getTerms(queries.getAllValues().get(1));
+    assertThat(firstBatch, is(arrayWithSize(SolrMetacardClientImpl.DELETE_BATCH_SIZE)));
+    assertThat(firstBatch.length > MAX_BOOLEAN_CLAUSES, is(true));
+    assertThat(
+        Arrays.asList(secondBatch), contains("title" + SolrMetacardClientImpl.DELETE_BATCH_SIZE));
+    verify(client, times(2)).deleteById(Arrays.asList("id1"));
+    verify(client, never()).commit();
+  }
+
+  @Test
+  public void testDeleteByTermsWithoutMatchesDeletesNothing() throws Exception {
+    QueryResponse response = getResponse();
+    when(client.query(any(SolrQuery.class), eq(SolrRequest.METHOD.POST))).thenReturn(response);
+
+    metacardClient.deleteByIds(FIELD_NAME, Arrays.asList("title1"), false);
+
+    verify(client, never()).deleteById(anyListOf(String.class));
+  }
+
+  private String[] getTerms(SolrQuery query) {
+    String filterQuery = query.getFilterQueries()[0];
+    assertThat(filterQuery, startsWith(TERMS_PREFIX));
+    return filterQuery.substring(TERMS_PREFIX.length()).split("\u001F", -1);
+  }
+
+  private QueryResponse getResponse(String... ids) {
+    SolrDocumentList documents = new SolrDocumentList();
+    for (String id : ids) {
+      SolrDocument document = new SolrDocument();
+      document.addField(ID_FIELD_NAME, id);
+      documents.add(document);
+    }
+    QueryResponse response = mock(QueryResponse.class);
+    when(response.getResults()).thenReturn(documents);
+    return response;
+  }
+}
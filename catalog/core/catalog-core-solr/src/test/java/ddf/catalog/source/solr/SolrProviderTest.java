@@ -77,6 +77,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -1538,6 +1539,30 @@ public String getAttributeName() {
     assertEquals(0, results.size());
   }
 
+  @Test
+  public void testDeleteAlternativeAttributeMatchingSeveralRecords()
+      throws IngestException, UnsupportedQueryException {
+    deleteAllIn(provider);
+
+    int metacardCount = 3;
+    List<Metacard> metacards = new ArrayList<>();
+    for (int i = 0; i < metacardCount; i++) {
+      metacards.add(new MockMetacard(Library.getFlagstaffRecord()));
+    }
+    create(metacards);
+
+    DeleteResponse deleteResponse =
+        provider.delete(
+            new DeleteRequestImpl(
+                Collections.singletonList(MockMetacard.DEFAULT_TITLE), Metacard.TITLE, null));
+
+    assertThat(deleteResponse.getDeletedMetacards().size(), is(metacardCount));
+
+    Filter filter = filterBuilder.attribute(Metacard.TITLE).like().text(MockMetacard.DEFAULT_TITLE);
+    SourceResponse sourceResponse = provider.query(new QueryRequestImpl(new QueryImpl(filter)));
+    assertThat(sourceResponse.getResults().size(), is(0));
+  }
+
   @Test
   public void testDeleteNoList() throws IngestException, UnsupportedQueryException {
 
@@ -0,0 +1,443 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.impl;
+
+import ddf.catalog.resource.data.ReliableResource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Single node index of the product cache, kept in a memory-mapped append-only log instead of one
+ * serialized file per entry.
+ *
+ * <p>Each entry is appended to the log as a record holding its key, product file path and size
+ * followed by the serialized {@link ReliableResource}. When the index is opened, the log is
+ * scanned once to rebuild an in-memory map of each key to the position of its latest record, which
+ * only reads the record headers; the resources themselves are deserialized when they are
+ * requested. Removed and replaced entries are dropped from the log when it is compacted.
+ *
+ * <p>The in-memory map is kept in least recently used order. When the total size of the cached
+ * products exceeds the size cap of the {@link ProductCacheDirListener}, the least recently used
+ * entries are removed along with their product files.
+ */
+class MappedCacheIndex {
+
+  static final String LOG_FILE_NAME = "product-cache.log";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MappedCacheIndex.class);
+
+  private static final byte PUT_RECORD = 1;
+
+  private static final byte REMOVE_RECORD = 2;
+
+  /** Size of the length field preceding each record. */
+  private static final int LENGTH_SIZE = Integer.BYTES;
+
+  private static final int INITIAL_CAPACITY = 1024 * 1024;
+
+  /** The log is not compacted below this size, as there is little to gain. */
+  private static final int MIN_COMPACTION_SIZE = 4 * 1024 * 1024;
+
+  private final Path logFile;
+
+  private final LongSupplier maxDirSizeBytes;
+
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final boolean created;
+
+  private FileChannel channel;
+
+  private MappedByteBuffer buffer;
+
+  private int liveBytes = 0;
+
+  private long cacheDirSize = 0;
+
+  /**
+   * Opens the index kept in the given directory, creating it if needed.
+   *
+   * @param directory the product cache directory
+   * @param maxDirSizeBytes supplies the maximum total size of the cached products, 0 for no limit
+   * @throws IOException if the log could not be opened
+   */
+  MappedCacheIndex(String directory, LongSupplier maxDirSizeBytes) throws IOException {
+    File dir = new File(directory);
+    FileUtils.forceMkdir(dir);
+    this.logFile = dir.toPath().resolve(LOG_FILE_NAME);
+    this.maxDirSizeBytes = maxDirSizeBytes;
+    this.created = !Files.exists(logFile);
+
+    open();
+    int end = replay();
+    buffer.position(end);
+    LOGGER.debug("Loaded {} product cache entries from {}", entries.size(), logFile);
+  }
+
+  /** @return {@code true} if the log did not exist before this index was opened */
+  boolean isCreated() {
+    return created;
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized long getCacheDirSize() {
+    return cacheDirSize;
+  }
+
+  /**
+   * @param key the cache key
+   * @return the cached resource, or {@code null} if there is none or it could not be read
+   */
+  synchronized ReliableResource get(String key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+
+    byte[] value = new byte[entry.valueLength];
+    ByteBuffer view = buffer.duplicate();
+    view.position(entry.valueOffset);
+    view.get(value);
+
+    try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(value))) {
+      return (ReliableResource) input.readObject();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      LOGGER.info("Unable to read product cache entry with key = {}", key, e);
+      remove(key);
+      return null;
+    }
+  }
+
+  /**
+   * Adds or replaces the entry of a resource, then removes the least recently used entries if the
+   * cached products exceed the size cap.
+   *
+   * @param resource the resource to add
+   */
+  synchronized void put(ReliableResource resource) {
+    byte[] record;
+    int headerLength;
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream output = new DataOutputStream(bytes);
+      output.writeByte(PUT_RECORD);
+      writeUtf(output, resource.getKey());
+      writeUtf(output, resource.getFilePath() == null ? "" : resource.getFilePath());
+      output.writeLong(resource.getSize());
+      output.flush();
+      headerLength = bytes.size();
+
+      try (ObjectOutputStream objectOutput = new ObjectOutputStream(bytes)) {
+        objectOutput.writeObject(resource);
+      }
+      record = bytes.toByteArray();
+    } catch (IOException e) {
+      LOGGER.info("Unable to add product cache entry with key = {}", resource.getKey(), e);
+      return;
+    }
+
+    int offset = append(record);
+    if (offset < 0) {
+      return;
+    }
+
+    Entry entry =
+        new Entry(
+            offset,
+            record.length,
+            offset + LENGTH_SIZE + headerLength,
+            record.length - headerLength,
+            resource.getFilePath(),
+            resource.getSize());
+    discard(entries.put(resource.getKey(), entry));
+    liveBytes += entry.recordLength;
+    cacheDirSize += entry.size;
+
+    evict();
+  }
+
+  /**
+   * Removes the entry of a key. The product file is left in place.
+   *
+   * @param key the cache key
+   */
+  synchronized void remove(String key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      discard(entry);
+      appendRemoval(key);
+    }
+  }
+
+  synchronized void close() {
+    if (channel == null) {
+      return;
+    }
+    try {
+      buffer.force();
+      channel.close();
+    } catch (IOException e) {
+      LOGGER.debug("Unable to close product cache index {}", logFile, e);
+    }
+    channel = null;
+    buffer = null;
+  }
+
+  private void discard(Entry entry) {
+    if (entry != null) {
+      liveBytes -= entry.recordLength;
+      cacheDirSize -= entry.size;
+    }
+  }
+
+  private void evict() {
+    long max = maxDirSizeBytes.getAsLong();
+    if (max <= 0) {
+      return;
+    }
+
+    Iterator<Map.Entry<String, Entry>> lru = entries.entrySet().iterator();
+    while (cacheDirSize > max && lru.hasNext()) {
+      Map.Entry<String, Entry> eldest = lru.next();
+      LOGGER.debug("entry being deleted: {}", eldest.getKey());
+      lru.remove();
+      discard(eldest.getValue());
+      ProductCacheDirListener.deleteProductFile(eldest.getValue().filePath);
+      appendRemoval(eldest.getKey());
+    }
+  }
+
+  private void appendRemoval(String key) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream output = new DataOutputStream(bytes);
+      output.writeByte(REMOVE_RECORD);
+      writeUtf(output, key);
+      output.flush();
+      append(bytes.toByteArray());
+    } catch (IOException e) {
+      LOGGER.info("Unable to remove product cache entry with key = {}", key, e);
+    }
+  }
+
+  /**
+   * Appends a record to the log. The length of the record is written after its content, so a
+   * record that was only partially written is seen as the end of the log when it is replayed.
+   *
+   * @return the offset of the record, or -1 if it could not be appended
+   */
+  private int append(byte[] record) {
+    try {
+      ensureCapacity(LENGTH_SIZE + record.length);
+    } catch (IOException e) {
+      LOGGER.info("Unable to grow product cache index {}", logFile, e);
+      return -1;
+    }
+
+    int offset = buffer.position();
+    buffer.position(offset + LENGTH_SIZE);
+    buffer.put(record);
+    buffer.putInt(offset, record.length);
+    return offset;
+  }
+
+  private void ensureCapacity(int length) throws IOException {
+    int position = buffer.position();
+    if ((long) position + length <= buffer.capacity()) {
+      return;
+    }
+
+    int liveLength = liveBytes + entries.size() * LENGTH_SIZE;
+    if (buffer.capacity() >= MIN_COMPACTION_SIZE && liveLength < position / 2) {
+      compact();
+      if ((long) buffer.position() + length <= buffer.capacity()) {
+        return;
+      }
+    }
+
+    long capacity = Math.max((long) buffer.capacity() * 2, (long) buffer.position() + length);
+    if (capacity > Integer.MAX_VALUE) {
+      throw new IOException("Product cache index is full");
+    }
+    remap((int) capacity);
+  }
+
+  /**
+   * Rewrites the log in place with only the latest record of each entry, keeping the records in
+   * the order they were appended. If the process stops while the log is being compacted, entries
+   * may be lost, which only means their products have to be retrieved again.
+   */
+  private void compact() {
+    LOGGER.debug("Compacting product cache index {}", logFile);
+    List<Entry> live = new ArrayList<>(entries.values());
+    live.sort(Comparator.comparingInt(entry -> entry.offset));
+
+    int end = buffer.position();
+    int position = 0;
+    ByteBuffer view = buffer.duplicate();
+    for (Entry entry : live) {
+      int length = LENGTH_SIZE + entry.recordLength;
+      if (entry.offset != position) {
+        byte[] record = new byte[length];
+        view.position(entry.offset);
+        view.get(record);
+        view.position(position);
+        view.put(record);
+        entry.valueOffset += position - entry.offset;
+        entry.offset = position;
+      }
+      position += length;
+    }
+
+    // Clear the old records so they are not replayed after the records appended from now on
+    byte[] zeros = new byte[Math.min(end - position, INITIAL_CAPACITY)];
+    view.position(position);
+    while (view.position() < end) {
+      view.put(zeros, 0, Math.min(zeros.length, end - view.position()));
+    }
+    buffer.position(position);
+  }
+
+  private void open() throws IOException {
+    channel = new RandomAccessFile(logFile.toFile(), "rw").getChannel();
+    int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(INITIAL_CAPACITY, channel.size()));
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+  }
+
+  private void remap(int capacity) throws IOException {
+    int position = buffer.position();
+    buffer.force();
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    buffer.position(position);
+  }
+
+  /**
+   * Rebuilds the in-memory map from the log.
+   *
+   * @return the offset after the last complete record
+   */
+  private int replay() {
+    ByteBuffer log = buffer.duplicate();
+    int offset = 0;
+
+    while (offset + LENGTH_SIZE <= log.capacity()) {
+      int length = log.getInt(offset);
+      if (length <= 0 || offset + LENGTH_SIZE + (long) length > log.capacity()) {
+        break;
+      }
+
+      log.position(offset + LENGTH_SIZE);
+      try {
+        byte type = log.get();
+        String key = readUtf(log);
+        if (type == PUT_RECORD) {
+          String filePath = readUtf(log);
+          long size = log.getLong();
+          int valueOffset = log.position();
+          Entry entry =
+              new Entry(
+                  offset,
+                  length,
+                  valueOffset,
+                  length - (valueOffset - offset - LENGTH_SIZE),
+                  filePath.isEmpty() ? null : filePath,
+                  size);
+          discard(entries.put(key, entry));
+          liveBytes += length;
+          cacheDirSize += size;
+        } else if (type == REMOVE_RECORD) {
+          discard(entries.remove(key));
+        } else {
+          break;
+        }
+      } catch (BufferUnderflowException | IllegalArgumentException e) {
+        LOGGER.info("Ignoring corrupt product cache index records from offset {}", offset, e);
+        break;
+      }
+
+      offset += LENGTH_SIZE + length;
+    }
+
+    return offset;
+  }
+
+  private static void writeUtf(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeShort(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readUtf(ByteBuffer log) {
+    int length = log.getShort() & 0xFFFF;
+    byte[] bytes = new byte[length];
+    log.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static class Entry {
+
+    private int offset;
+
+    private final int recordLength;
+
+    private int valueOffset;
+
+    private final int valueLength;
+
+    private final String filePath;
+
+    private final long size;
+
+    Entry(
+        int offset,
+        int recordLength,
+        int valueOffset,
+        int valueLength,
+        String filePath,
+        long size) {
+      this.offset = offset;
+      this.recordLength = recordLength;
+      this.valueOffset = valueOffset;
+      this.valueLength = valueLength;
+      this.filePath = filePath;
+      this.size = size;
+    }
+  }
+}
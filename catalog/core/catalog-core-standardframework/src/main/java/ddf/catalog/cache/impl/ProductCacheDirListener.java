@@ -135,14 +135,26 @@ private void deleteFromCache(IMap<String, ReliableResource> cacheMap, ReliableRe
     cacheMap.delete(rr.getKey());
 
     // delete from file system cache
-    File cachedFile = new File(rr.getFilePath());
+    deleteProductFile(rr.getFilePath());
+    cacheDirSize.addAndGet(-rr.getSize());
+  }
+
+  /**
+   * Deletes a product file from the product cache directory.
+   *
+   * @param filePath path of the product file, can be {@code null}
+   */
+  static void deleteProductFile(String filePath) {
+    if (filePath == null) {
+      return;
+    }
+    File cachedFile = new File(filePath);
     if (cachedFile.exists()) {
       boolean success = cachedFile.delete();
       if (!success) {
         LOGGER.info("Could not delete file {}", cachedFile.getAbsolutePath());
       }
     }
-    cacheDirSize.addAndGet(-rr.getSize());
   }
 
   public synchronized long getMaxDirSizeBytes() {
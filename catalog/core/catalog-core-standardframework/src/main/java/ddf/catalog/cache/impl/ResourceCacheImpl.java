@@ -30,6 +30,7 @@
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.data.ReliableResource;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -54,6 +55,14 @@ public class ResourceCacheImpl implements ResourceCacheInterface {
 
   private static final long DEFAULT_MAX_CACHE_DIR_SIZE_BYTES = 10737418240L; // 10 GB
 
+  /** Keeps the product cache entries in a Hazelcast map persisted to one file per entry. */
+  public static final String HAZELCAST_CACHE_INDEX = "hazelcast";
+
+  /** Keeps the product cache entries in a single node memory-mapped log. */
+  public static final String MAPPED_CACHE_INDEX = "mapped";
+
+  private static final String CACHE_INDEX_PROPERTY = "catalog.productCache.index";
+
   private List<String> pendingCache = new ArrayList<>();
 
   /** Directory for products cached to file system */
@@ -63,6 +72,10 @@ public class ResourceCacheImpl implements ResourceCacheInterface {
 
   private IMap<Object, Object> cache;
 
+  private String cacheIndex = System.getProperty(CACHE_INDEX_PROPERTY, HAZELCAST_CACHE_INDEX);
+
+  private MappedCacheIndex mappedIndex;
+
   private ProductCacheDirListener<Object, Object> cacheListener =
       new ProductCacheDirListener<>(DEFAULT_MAX_CACHE_DIR_SIZE_BYTES);
 
@@ -87,15 +100,77 @@ public void setCache(HazelcastInstance instance) {
   }
 
   public void initCache() {
-    // if a hazelcast instance is already running, shut it down first
-    if (instance != null) {
+    // if a hazelcast instance or mapped index is already running, shut it down first
+    if (instance != null || mappedIndex != null) {
       teardownCache();
     }
-    setCache(null);
+
+    if (MAPPED_CACHE_INDEX.equals(cacheIndex)) {
+      setMappedIndex();
+    } else {
+      setCache(null);
+    }
   }
 
   public void teardownCache() {
-    instance.shutdown();
+    if (instance != null) {
+      instance.shutdown();
+      instance = null;
+    }
+    if (mappedIndex != null) {
+      mappedIndex.close();
+      mappedIndex = null;
+    }
+  }
+
+  public String getCacheIndex() {
+    return cacheIndex;
+  }
+
+  /**
+   * Selects how the product cache entries are kept.
+   *
+   * @param cacheIndex {@link #HAZELCAST_CACHE_INDEX} or {@link #MAPPED_CACHE_INDEX}
+   */
+  public void setCacheIndex(String cacheIndex) {
+    String index = MAPPED_CACHE_INDEX.equals(cacheIndex) ? cacheIndex : HAZELCAST_CACHE_INDEX;
+    if (!index.equals(this.cacheIndex)) {
+      LOGGER.debug("Setting product cache index: {}", index);
+      this.cacheIndex = index;
+      initCache();
+    }
+  }
+
+  private void setMappedIndex() {
+    try {
+      mappedIndex = new MappedCacheIndex(productCacheDirectory, cacheListener::getMaxDirSizeBytes);
+    } catch (IOException e) {
+      LOGGER.warn(
+          "Unable to open the product cache index in {}. Using Hazelcast instead.",
+          productCacheDirectory,
+          e);
+      setCache(null);
+      return;
+    }
+
+    if (mappedIndex.isCreated()) {
+      importPersistedEntries();
+    }
+  }
+
+  /** Adds the entries persisted by the Hazelcast map store to a newly created mapped index. */
+  private void importPersistedEntries() {
+    FileSystemPersistenceProvider persistenceProvider =
+        new FileSystemPersistenceProvider(PRODUCT_CACHE_NAME, productCacheDirectory);
+    persistenceProvider
+        .loadAll(persistenceProvider.loadAllKeys())
+        .values()
+        .stream()
+        .filter(ReliableResource.class::isInstance)
+        .map(ReliableResource.class::cast)
+        .filter(ReliableResource::hasProduct)
+        .forEach(mappedIndex::put);
+    LOGGER.debug("Imported {} product cache entries", mappedIndex.size());
   }
 
   public long getCacheDirMaxSizeMegabytes() {
@@ -139,7 +214,11 @@ public boolean isPending(String key) {
   public void put(ReliableResource reliableResource) {
     LOGGER.trace("ENTERING: put(ReliableResource)");
     reliableResource.setLastTouchedMillis(System.currentTimeMillis());
-    cache.put(reliableResource.getKey(), reliableResource);
+    if (mappedIndex != null) {
+      mappedIndex.put(reliableResource);
+    } else {
+      cache.put(reliableResource.getKey(), reliableResource);
+    }
     removePendingCacheEntry(reliableResource.getKey());
 
     LOGGER.trace("EXITING: put(ReliableResource)");
@@ -181,7 +260,7 @@ public Resource getValid(String key, Metacard latestMetacard) {
     }
     LOGGER.debug("key {}", key);
 
-    ReliableResource cachedResource = (ReliableResource) cache.get(key);
+    ReliableResource cachedResource = getEntry(key);
 
     // Check that ReliableResource actually maps to a file (product) in the
     // product cache directory. This check handles the case if the product
@@ -198,7 +277,7 @@ public Resource getValid(String key, Metacard latestMetacard) {
         LOGGER.trace("EXITING: get() for key {}", key);
         return cachedResource;
       } else {
-        cache.remove(key);
+        removeEntry(key);
         LOGGER.debug(
             "Entry found in the cache, but no product found in cache directory for key = {}", key);
         return null;
@@ -220,7 +299,7 @@ public boolean containsValid(String key, Metacard latestMetacard) {
     if (key == null) {
       return false;
     }
-    ReliableResource cachedResource = (ReliableResource) cache.get(key);
+    ReliableResource cachedResource = getEntry(key);
     return (cachedResource != null) && (validateCacheEntry(cachedResource, latestMetacard));
   }
 
@@ -260,11 +339,26 @@ protected boolean validateCacheEntry(ReliableResource cachedResource, Metacard l
           cachedResource.getFilePath());
     }
 
-    cache.remove(cachedResource.getKey());
+    removeEntry(cachedResource.getKey());
     LOGGER.trace("EXITING: validateCacheEntry");
     return false;
   }
 
+  private ReliableResource getEntry(String key) {
+    if (mappedIndex != null) {
+      return mappedIndex.get(key);
+    }
+    return (ReliableResource) cache.get(key);
+  }
+
+  private void removeEntry(String key) {
+    if (mappedIndex != null) {
+      mappedIndex.remove(key);
+    } else {
+      cache.remove(key);
+    }
+  }
+
   private Config initHazelcastConfig(String productCacheDirectory) {
     Config cfg = new Config();
 
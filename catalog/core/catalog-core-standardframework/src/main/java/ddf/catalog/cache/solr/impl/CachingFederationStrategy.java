@@ -13,10 +13,17 @@
  */
 package ddf.catalog.cache.solr.impl;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingTimeWindowReservoir;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import ddf.catalog.Constants;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.CompactMetacard;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.data.impl.ResultImpl;
 import ddf.catalog.federation.FederationStrategy;
@@ -28,6 +35,7 @@
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.operation.Update;
 import ddf.catalog.operation.UpdateResponse;
+import ddf.catalog.operation.impl.ProcessingDetailsImpl;
 import ddf.catalog.operation.impl.QueryImpl;
 import ddf.catalog.operation.impl.QueryRequestImpl;
 import ddf.catalog.operation.impl.QueryResponseImpl;
@@ -41,6 +49,9 @@
 import ddf.catalog.source.UnsupportedQueryException;
 import ddf.catalog.util.impl.RelevanceResultComparator;
 import ddf.catalog.util.impl.Requests;
+import ddf.security.SecurityConstants;
+import ddf.security.SubjectUtils;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -49,14 +60,25 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionService;
-import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.shiro.subject.Subject;
 import org.codice.ddf.configuration.SystemInfo;
+import org.codice.ddf.platform.util.Exceptions;
+import org.geotools.filter.text.ecql.ECQL;
+import org.opengis.filter.Filter;
+import org.opengis.filter.sort.SortBy;
 import org.opengis.filter.sort.SortOrder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -149,6 +171,33 @@ public class CachingFederationStrategy implements FederationStrategy, PostIngest
 
   private boolean showWarnings = true;
 
+  private boolean streamingMerge = false;
+
+  private boolean adaptiveTimeouts = false;
+
+  private final SourceLatencyTracker sourceLatencyTracker = new SourceLatencyTracker();
+
+  private int resultQueueCapacity = 0;
+
+  private boolean compactMetacards = false;
+
+  private final MetricRegistry metrics = new MetricRegistry();
+
+  private final JmxReporter reporter =
+      JmxReporter.forRegistry(metrics).inDomain("ddf.metrics.catalog.federation").build();
+
+  private final Histogram resultQueueDepth =
+      metrics.register(
+          MetricRegistry.name("ResultQueue", "MaxDepth"),
+          new Histogram(new SlidingTimeWindowReservoir(1, TimeUnit.MINUTES)));
+
+  private final Cache<String, QueryCursor> queryCursors =
+      CacheBuilder.newBuilder()
+          .expireAfterWrite(
+              NumberUtils.toInt(System.getProperty("federation.cursor.ttl"), 10), TimeUnit.MINUTES)
+          .maximumSize(NumberUtils.toInt(System.getProperty("federation.cursor.max"), 1000))
+          .build();
+
   /**
    * Instantiates an {@code AbstractFederationStrategy} with the provided {@link ExecutorService}.
    *
@@ -184,6 +233,7 @@ public CachingFederationStrategy(
     this.validationQueryFactory = validationQueryFactory;
     this.cacheQueryFactory = cacheQueryFactory;
     cacheSource = new SolrCacheSource(cache);
+    reporter.start();
   }
 
   void setSortedQueryMonitorFactory(SortedQueryMonitorFactory sortedQueryMonitorFactory) {
@@ -213,8 +263,17 @@ public QueryResponse federate(List<Source> sources, QueryRequest queryRequest) {
             sourceIds,
             queryRequest.getProperties());
 
+    boolean isCursorQuery =
+        queryRequest.getPropertyValue(Constants.QUERY_CURSOR_KEY) instanceof String;
+
     if (CACHE_QUERY_MODE.equals(queryRequest.getProperties().get(QUERY_MODE))) {
-      return queryCache(modifiedQueryRequest);
+      return isCursorQuery
+          ? cursorFederate(
+              ImmutableList.of(cacheSource),
+              cacheQueryFactory.getQueryRequestWithSourcesFilter(modifiedQueryRequest))
+          : queryCache(modifiedQueryRequest);
+    } else if (isCursorQuery) {
+      return cursorFederate(sources, modifiedQueryRequest);
     } else {
       return sourceFederate(sources, modifiedQueryRequest);
     }
@@ -245,7 +304,8 @@ private QueryResponse sourceFederate(List<Source> sources, final QueryRequest qu
       offset = this.maxStartIndex;
     }
 
-    final QueryResponseImpl queryResponseQueue = new QueryResponseImpl(queryRequest, null);
+    final QueryResponseImpl queryResponseQueue =
+        new QueryResponseImpl(queryRequest, resultQueueCapacity, null);
 
     Map<Future<SourceResponse>, QueryRequest> futures = new HashMap<>();
 
@@ -257,8 +317,8 @@ private QueryResponse sourceFederate(List<Source> sources, final QueryRequest qu
             queryRequest.getSourceIds(),
             queryRequest.getProperties());
 
-    CompletionService<SourceResponse> queryCompletion =
-        new ExecutorCompletionService<>(queryExecutorService);
+    SourceQueryCompletionService queryCompletion =
+        new SourceQueryCompletionService(queryExecutorService);
 
     // Do NOT call source.isAvailable() when checking sources
     for (final Source source : sources) {
@@ -266,33 +326,13 @@ private QueryResponse sourceFederate(List<Source> sources, final QueryRequest qu
         LOGGER.debug("running query on source: {}", source.getId());
 
         QueryRequest sourceQueryRequest =
-            new QueryRequestImpl(
+            getSourceQueryRequest(
+                source,
                 modifiedQuery,
                 queryRequest.isEnterprise(),
-                Collections.singleton(source.getId()),
                 new HashMap<>(queryRequest.getProperties()));
-        try {
-          for (PreFederatedQueryPlugin service : preQuery) {
-            try {
-              sourceQueryRequest = service.process(source, sourceQueryRequest);
-            } catch (PluginExecutionException e) {
-              LOGGER.info("Error executing PreFederatedQueryPlugin", e);
-            }
-          }
-        } catch (StopProcessingException e) {
-          LOGGER.info("Plugin stopped processing", e);
-        }
-
-        if (source instanceof CatalogProvider && SystemInfo.getSiteName().equals(source.getId())) {
-          // TODO RAP 12 Jul 16: DDF-2294 - Extract into a new PreFederatedQueryPlugin
-          sourceQueryRequest =
-              validationQueryFactory.getQueryRequestWithValidationFilter(
-                  sourceQueryRequest, showErrors, showWarnings);
-        }
 
-        futures.put(
-            queryCompletion.submit(new CallableSourceResponse(source, sourceQueryRequest)),
-            sourceQueryRequest);
+        futures.put(submitQuery(queryCompletion, source, sourceQueryRequest), sourceQueryRequest);
       }
     }
 
@@ -302,7 +342,7 @@ private QueryResponse sourceFederate(List<Source> sources, final QueryRequest qu
     // transfer them into a different Queue. That is what the
     // OffsetResultHandler does.
     if (offset > 1 && sources.size() > 1) {
-      offsetResults = new QueryResponseImpl(queryRequest, null);
+      offsetResults = new QueryResponseImpl(queryRequest, resultQueueCapacity, null);
       queryExecutorService.submit(
           new OffsetResultHandler(queryResponseQueue, offsetResults, pageSize, offset));
     }
@@ -324,6 +364,258 @@ private QueryResponse sourceFederate(List<Source> sources, final QueryRequest qu
     return queryResponse;
   }
 
+  /**
+   * Queries a source asynchronously when it supports it, so the query does not use a thread of the
+   * query executor while it is outstanding, or on a thread of the query executor otherwise.
+   */
+  private Future<SourceResponse> submitQuery(
+      SourceQueryCompletionService queryCompletion, Source source, QueryRequest request) {
+    CallableSourceResponse sourceQuery = new CallableSourceResponse(source, request);
+    if (source.isAsyncQuerySupported()) {
+      LOGGER.debug("Querying source {} asynchronously", source.getId());
+      return queryCompletion.add(sourceQuery.callAsync());
+    }
+    return queryCompletion.submit(sourceQuery);
+  }
+
+  private QueryRequest getSourceQueryRequest(
+      Source source, Query query, boolean isEnterprise, Map<String, Serializable> properties) {
+    QueryRequest sourceQueryRequest =
+        new QueryRequestImpl(
+            query, isEnterprise, Collections.singleton(source.getId()), properties);
+    try {
+      for (PreFederatedQueryPlugin service : preQuery) {
+        try {
+          sourceQueryRequest = service.process(source, sourceQueryRequest);
+        } catch (PluginExecutionException e) {
+          LOGGER.info("Error executing PreFederatedQueryPlugin", e);
+        }
+      }
+    } catch (StopProcessingException e) {
+      LOGGER.info("Plugin stopped processing", e);
+    }
+
+    if (source instanceof CatalogProvider && SystemInfo.getSiteName().equals(source.getId())) {
+      // TODO RAP 12 Jul 16: DDF-2294 - Extract into a new PreFederatedQueryPlugin
+      sourceQueryRequest =
+          validationQueryFactory.getQueryRequestWithValidationFilter(
+              sourceQueryRequest, showErrors, showWarnings);
+    }
+    return sourceQueryRequest;
+  }
+
+  /**
+   * Returns the next page of a deep paged query. Rather than querying every source from the first
+   * result up to the requested page, each source is only asked for the slice of results following
+   * the ones already fetched through the cursor, which makes paging through a large result set
+   * linear instead of quadratic.
+   */
+  private QueryResponse cursorFederate(List<Source> sources, QueryRequest queryRequest) {
+    String token = (String) queryRequest.getPropertyValue(Constants.QUERY_CURSOR_KEY);
+    QueryResponseImpl queryResponse = new QueryResponseImpl(queryRequest, null);
+
+    String owner = getCursorOwner(queryRequest);
+    String queryKey = getCursorQueryKey(queryRequest.getQuery());
+
+    QueryCursor cursor =
+        Constants.QUERY_CURSOR_START.equals(token)
+            ? new QueryCursor(owner, queryKey)
+            : queryCursors.getIfPresent(token);
+    // A cursor continued by another subject or for another query is treated as unknown, so that
+    // its results are not disclosed
+    if (cursor == null || !cursor.belongsTo(owner, queryKey)) {
+      LOGGER.debug("Query cursor {} is unknown or expired", token);
+      queryResponse
+          .getProcessingDetails()
+          .add(
+              new ProcessingDetailsImpl(
+                  SystemInfo.getSiteName(),
+                  new UnsupportedQueryException("Query cursor is unknown or has expired.")));
+      queryResponse.closeResultQueue();
+      return queryResponse;
+    }
+    queryCursors.invalidate(token);
+
+    Query originalQuery = queryRequest.getQuery();
+    int pageSize =
+        originalQuery.getPageSize() > 0 ? originalQuery.getPageSize() : Constants.DEFAULT_PAGE_SIZE;
+
+    synchronized (cursor) {
+      SourceQueryCompletionService queryCompletion =
+          new SourceQueryCompletionService(queryExecutorService);
+      Map<Future<SourceResponse>, QueryRequest> futures = new HashMap<>();
+      Map<Future<SourceResponse>, Integer> resultsRequested = new HashMap<>();
+
+      for (final Source source : sources) {
+        if (source == null) {
+          continue;
+        }
+
+        QueryCursor.SourceCursor sourceCursor = cursor.getSourceCursor(source.getId());
+        int resultsNeeded = sourceCursor.getResultsNeeded(pageSize);
+        if (resultsNeeded == 0) {
+          continue;
+        }
+
+        Query sliceQuery =
+            new QueryImpl(
+                originalQuery,
+                sourceCursor.getStartIndex(),
+                resultsNeeded,
+                originalQuery.getSortBy(),
+                originalQuery.requestsTotalResultsCount(),
+                originalQuery.getTimeoutMillis());
+        Map<String, Serializable> properties = new HashMap<>(queryRequest.getProperties());
+        properties.remove(Constants.QUERY_CURSOR_KEY);
+        sourceCursor.addRequestProperties(properties);
+
+        LOGGER.debug(
+            "Querying {} results from source {} at start index {}",
+            resultsNeeded,
+            source.getId(),
+            sourceCursor.getStartIndex());
+        QueryRequest sourceQueryRequest =
+            getSourceQueryRequest(source, sliceQuery, queryRequest.isEnterprise(), properties);
+        Future<SourceResponse> future = submitQuery(queryCompletion, source, sourceQueryRequest);
+        futures.put(future, sourceQueryRequest);
+        resultsRequested.put(future, resultsNeeded);
+      }
+
+      collectCursorResponses(cursor, queryCompletion, futures, resultsRequested, queryResponse);
+
+      List<Result> page =
+          cursor.nextPage(SortedQueryMonitor.createResultComparator(queryRequest), pageSize);
+      queryResponse.setHits(cursor.getHits());
+
+      if (!cursor.isExhausted()) {
+        String nextToken = UUID.randomUUID().toString();
+        queryCursors.put(nextToken, cursor);
+        queryResponse.getProperties().put(Constants.QUERY_CURSOR_KEY, nextToken);
+      }
+      queryResponse.addResults(page, true);
+    }
+
+    return queryResponse;
+  }
+
+  private static String getCursorOwner(QueryRequest queryRequest) {
+    Serializable subject = queryRequest.getPropertyValue(SecurityConstants.SECURITY_SUBJECT);
+    return subject instanceof Subject ? SubjectUtils.getName((Subject) subject) : null;
+  }
+
+  /**
+   * Identifies a query by its filter and sort, which stay the same across the pages of a cursor
+   * while its start index and page size may change.
+   */
+  private static String getCursorQueryKey(Query query) {
+    Filter filter = query;
+    while (filter instanceof QueryImpl) {
+      filter = ((QueryImpl) filter).getFilter();
+    }
+
+    String filterKey = toCql(filter);
+    SortBy sortBy = query.getSortBy();
+    if (sortBy == null) {
+      return filterKey;
+    }
+    String sortProperty =
+        sortBy.getPropertyName() == null ? null : sortBy.getPropertyName().getPropertyName();
+    return filterKey + "|" + sortProperty + " " + sortBy.getSortOrder();
+  }
+
+  /**
+   * Writes a filter as ECQL, so that equal filters give the same key whatever their {@code
+   * toString()} returns. Filters that cannot be written as ECQL fall back to {@code toString()}.
+   */
+  private static String toCql(Filter filter) {
+    try {
+      return ECQL.toCQL(filter);
+    } catch (RuntimeException e) {
+      LOGGER.debug("Unable to write the filter of a cursor query as ECQL.", e);
+      return String.valueOf(filter);
+    }
+  }
+
+  private void collectCursorResponses(
+      QueryCursor cursor,
+      CompletionService<SourceResponse> queryCompletion,
+      Map<Future<SourceResponse>, QueryRequest> futures,
+      Map<Future<SourceResponse>, Integer> resultsRequested,
+      QueryResponseImpl queryResponse) {
+    long timeout = queryResponse.getRequest().getQuery().getTimeoutMillis();
+    long deadline = System.currentTimeMillis() + timeout;
+
+    while (!futures.isEmpty()) {
+      Future<SourceResponse> future;
+      try {
+        future =
+            timeout < 1
+                ? queryCompletion.take()
+                : queryCompletion.poll(
+                    Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        addCursorProcessingDetails(futures, queryResponse, e);
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      if (future == null) {
+        // Sources that timed out keep their position and are queried again for the next page
+        addCursorProcessingDetails(futures, queryResponse, new TimeoutException());
+        futures.keySet().forEach(f -> f.cancel(true));
+        return;
+      }
+
+      QueryRequest sourceQueryRequest = futures.remove(future);
+      String sourceId = SortedQueryMonitor.getSourceIdFromRequest(sourceQueryRequest);
+      try {
+        SourceResponse sourceResponse = future.get();
+        if (sourceResponse == null) {
+          queryResponse
+              .getProcessingDetails()
+              .add(new ProcessingDetailsImpl(sourceId, new NullPointerException()));
+          continue;
+        }
+
+        // Plugins may remove results, so the position of the source is based on what it returned
+        int resultsReceived = sourceResponse.getResults().size();
+        sourceResponse =
+            SortedQueryMonitor.executePostFederationQueryPlugins(
+                postQuery, sourceResponse, sourceQueryRequest);
+        cursor
+            .getSourceCursor(sourceId)
+            .addResponse(
+                cursor,
+                sourceResponse,
+                resultsReceived,
+                resultsRequested.get(future));
+      } catch (InterruptedException e) {
+        queryResponse.getProcessingDetails().add(new ProcessingDetailsImpl(sourceId, e));
+        addCursorProcessingDetails(futures, queryResponse, e);
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        LOGGER.info(
+            "Couldn't get results from completed federated query. {}, {}",
+            sourceId,
+            Exceptions.getFullMessage(e),
+            e);
+        queryResponse.getProcessingDetails().add(new ProcessingDetailsImpl(sourceId, e));
+      }
+    }
+  }
+
+  private void addCursorProcessingDetails(
+      Map<Future<SourceResponse>, QueryRequest> futures,
+      QueryResponseImpl queryResponse,
+      Exception e) {
+    for (QueryRequest sourceQueryRequest : futures.values()) {
+      String sourceId = SortedQueryMonitor.getSourceIdFromRequest(sourceQueryRequest);
+      LOGGER.info("Search did not complete for {}", sourceId);
+      queryResponse.getProcessingDetails().add(new ProcessingDetailsImpl(sourceId, e));
+    }
+  }
+
   private Query getModifiedQuery(
       Query originalQuery, int numberOfSources, int offset, int pageSize) {
 
@@ -463,6 +755,7 @@ public void setCacheRemoteIngests(boolean cacheRemoteIngests) {
   public void shutdown() {
     cacheCommitPhaser.shutdown();
     cacheBulkProcessor.shutdown();
+    reporter.stop();
   }
 
   public boolean getShowErrors() {
@@ -481,6 +774,76 @@ public void setShowWarnings(boolean showWarnings) {
     this.showWarnings = showWarnings;
   }
 
+  public boolean isStreamingMerge() {
+    return streamingMerge;
+  }
+
+  /**
+   * When enabled, federated results are k-way merged from each source's sorted response into the
+   * result queue instead of being collected into a single list and sorted.
+   *
+   * @param streamingMerge {@code true} to enable the streaming merge
+   */
+  public void setStreamingMerge(boolean streamingMerge) {
+    this.streamingMerge = streamingMerge;
+  }
+
+  public boolean isAdaptiveTimeouts() {
+    return adaptiveTimeouts;
+  }
+
+  /**
+   * When enabled, each source is only waited on for its own recent 99th percentile latency, capped
+   * to the query timeout, rather than the full query timeout. Sources that answer late are
+   * reported in the processing details of the response.
+   *
+   * @param adaptiveTimeouts {@code true} to enable adaptive timeouts
+   */
+  public void setAdaptiveTimeouts(boolean adaptiveTimeouts) {
+    this.adaptiveTimeouts = adaptiveTimeouts;
+  }
+
+  SourceLatencyTracker getSourceLatencyTracker() {
+    return sourceLatencyTracker;
+  }
+
+  public int getResultQueueCapacity() {
+    return resultQueueCapacity;
+  }
+
+  /**
+   * Sets the maximum number of results buffered for a federated query before the sources' results
+   * are held back until the results are taken.
+   *
+   * @param resultQueueCapacity the capacity of the result queue, or 0 for an unbounded queue
+   */
+  public void setResultQueueCapacity(int resultQueueCapacity) {
+    this.resultQueueCapacity = Math.max(0, resultQueueCapacity);
+  }
+
+  public boolean isCompactMetacards() {
+    return compactMetacards;
+  }
+
+  /**
+   * When enabled, the copies of federated results that are held until they are added to the cache
+   * are {@link CompactMetacard}s, which use less memory than regular metacards.
+   *
+   * @param compactMetacards {@code true} to copy results into compact metacards
+   */
+  public void setCompactMetacards(boolean compactMetacards) {
+    this.compactMetacards = compactMetacards;
+  }
+
+  /**
+   * Records the largest number of results that waited in the result queue of a federated query.
+   *
+   * @param maxDepth the largest depth of the result queue
+   */
+  void recordResultQueueDepth(int maxDepth) {
+    resultQueueDepth.update(maxDepth);
+  }
+
   static class OffsetResultHandler implements Runnable {
 
     private QueryResponseImpl originalResults = null;
@@ -541,10 +904,34 @@ public SourceResponse call() throws Exception {
       return getSourceResponse(queryRequest);
     }
 
-    @SuppressWarnings("squid:S1181" /*Catching throwable intentionally*/)
+    /**
+     * Queries the source asynchronously. The query is sent from the query executor, since sending
+     * it may still block while connecting, and its response is processed on the query executor
+     * rather than on the thread that received it.
+     */
+    public CompletionStage<SourceResponse> callAsync() {
+      return CompletableFuture.supplyAsync(this::sendQuery, queryExecutorService)
+          .thenCompose(sourceResponse -> sourceResponse);
+    }
+
+    private CompletionStage<SourceResponse> sendQuery() {
+      long start = System.currentTimeMillis();
+      return source
+          .queryAsync(getQueryRequest(), queryExecutorService)
+          .thenApplyAsync(
+              sourceResponse -> processSourceResponse(sourceResponse, start),
+              queryExecutorService);
+    }
+
     private SourceResponse getSourceResponse(QueryRequest queryRequest)
         throws UnsupportedQueryException {
-      final SourceResponse sourceResponse = source.query(queryRequest);
+      long start = System.currentTimeMillis();
+      return processSourceResponse(source.query(queryRequest), start);
+    }
+
+    @SuppressWarnings("squid:S1181" /*Catching throwable intentionally*/)
+    private SourceResponse processSourceResponse(SourceResponse sourceResponse, long start) {
+      sourceLatencyTracker.record(source.getId(), System.currentTimeMillis() - start);
       final SourceResponse clonedSourceResponse = cloneResponse(sourceResponse);
 
       if (INDEX_QUERY_MODE.equals(request.getPropertyValue(QUERY_MODE))) {
@@ -585,7 +972,11 @@ private SourceResponse cloneResponse(SourceResponse sourceResponse) {
               .getResults()
               .stream()
               .map(Result::getMetacard)
-              .map(m -> new MetacardImpl(m, m.getMetacardType()))
+              .map(
+                  m ->
+                      compactMetacards
+                          ? new CompactMetacard(m)
+                          : new MetacardImpl(m, m.getMetacardType()))
               .map(ResultImpl::new)
               .collect(Collectors.toList());
 
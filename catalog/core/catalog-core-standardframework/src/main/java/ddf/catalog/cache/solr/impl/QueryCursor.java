@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.solr.impl;
+
+import ddf.catalog.Constants;
+import ddf.catalog.data.Result;
+import ddf.catalog.operation.SourceResponse;
+import ddf.catalog.source.solr.SolrMetacardClientImpl;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Server-side state of a deep paged federated query.
+ *
+ * <p>For each source the cursor records where the next slice of results starts, either as a Solr
+ * cursor mark for sources that support one or as a 1-based offset for all other sources, along
+ * with the results that were fetched from the source but not yet returned. Each page only requests
+ * enough results from a source to refill its buffer to the page size, so every result is fetched
+ * once no matter how deep the client pages.
+ *
+ * <p>A cursor belongs to the subject that started it and to its query, so it can only be continued
+ * by the same subject with the same query.
+ *
+ * <p>Access to a cursor must be synchronized by the caller.
+ */
+class QueryCursor {
+
+  private final Map<String, SourceCursor> sourceCursors = new LinkedHashMap<>();
+
+  private final String owner;
+
+  private final String queryKey;
+
+  private long hits = 0;
+
+  /**
+   * @param owner the name of the subject that started the query, or {@code null} if it is unknown
+   * @param queryKey identifies the query the cursor pages through
+   */
+  QueryCursor(String owner, String queryKey) {
+    this.owner = owner;
+    this.queryKey = queryKey;
+  }
+
+  /**
+   * @param owner the name of the subject continuing the query, or {@code null} if it is unknown
+   * @param queryKey identifies the query being continued
+   * @return {@code true} if the cursor was started by the same subject for the same query
+   */
+  boolean belongsTo(String owner, String queryKey) {
+    return Objects.equals(this.owner, owner) && Objects.equals(this.queryKey, queryKey);
+  }
+
+  /**
+   * Returns the cursor of the given source, creating it the first time the source is seen.
+   *
+   * @param sourceId the source ID
+   * @return the cursor of the source
+   */
+  SourceCursor getSourceCursor(String sourceId) {
+    return sourceCursors.computeIfAbsent(sourceId, id -> new SourceCursor());
+  }
+
+  long getHits() {
+    return hits;
+  }
+
+  /** @return {@code true} if every known source has been exhausted and fully returned */
+  boolean isExhausted() {
+    return sourceCursors.values().stream().allMatch(SourceCursor::isDone);
+  }
+
+  /**
+   * Removes the next page of results from the buffers of the sources, merging them using the given
+   * comparator. The buffers of the sources are expected to be sorted.
+   *
+   * @param comparator the comparator the results are sorted with
+   * @param pageSize the maximum number of results to return
+   * @return the next page of results
+   */
+  List<Result> nextPage(Comparator<? super Result> comparator, int pageSize) {
+    List<Result> page = new ArrayList<>(pageSize);
+    List<SourceCursor> cursors = new ArrayList<>(sourceCursors.values());
+
+    while (page.size() < pageSize) {
+      SourceCursor next = null;
+      for (SourceCursor cursor : cursors) {
+        if (!cursor.buffer.isEmpty()
+            && (next == null
+                || comparator.compare(cursor.buffer.peekFirst(), next.buffer.peekFirst()) < 0)) {
+          next = cursor;
+        }
+      }
+
+      if (next == null) {
+        break;
+      }
+      page.add(next.buffer.pollFirst());
+    }
+
+    return page;
+  }
+
+  static class SourceCursor {
+
+    private final Deque<Result> buffer = new ArrayDeque<>();
+
+    private String cursorMark = Constants.QUERY_CURSOR_START;
+
+    private boolean cursorMarkSupported = true;
+
+    private int nextOffset = 1;
+
+    private boolean exhausted = false;
+
+    private boolean hitsRecorded = false;
+
+    /**
+     * @param pageSize the page size of the query
+     * @return the number of results to request from the source to fill a page, or 0 if no more
+     *     results are needed
+     */
+    int getResultsNeeded(int pageSize) {
+      return exhausted ? 0 : Math.max(0, pageSize - buffer.size());
+    }
+
+    /**
+     * Adds the properties that position the next request to the source to the given request
+     * properties.
+     */
+    void addRequestProperties(Map<String, Serializable> properties) {
+      if (cursorMarkSupported) {
+        properties.put(SolrMetacardClientImpl.CURSOR_MARK_KEY, cursorMark);
+      }
+    }
+
+    int getStartIndex() {
+      return cursorMarkSupported ? 1 : nextOffset;
+    }
+
+    /**
+     * Records a response of the source to a request for {@code requested} results.
+     *
+     * @param cursor the query cursor the source belongs to
+     * @param response the response of the source
+     * @param received the number of results the source returned, before any were filtered out
+     * @param requested the number of results that were requested
+     */
+    void addResponse(QueryCursor cursor, SourceResponse response, int received, int requested) {
+      if (!hitsRecorded) {
+        cursor.hits += response.getHits();
+        hitsRecorded = true;
+      }
+
+      buffer.addAll(response.getResults());
+
+      Serializable nextCursorMark =
+          response.getProperties() == null
+              ? null
+              : response.getProperties().get(SolrMetacardClientImpl.NEXT_CURSOR_MARK_KEY);
+      if (cursorMarkSupported && nextCursorMark instanceof String) {
+        exhausted = cursorMark.equals(nextCursorMark) || received < requested;
+        cursorMark = (String) nextCursorMark;
+      } else {
+        // The source ignored the cursor mark, so fall back to offsets. The first request started
+        // at 1 either way, so the results received so far are still valid.
+        cursorMarkSupported = false;
+        nextOffset += received;
+        exhausted = received < requested;
+      }
+    }
+
+    boolean isDone() {
+      return exhausted && buffer.isEmpty();
+    }
+  }
+}
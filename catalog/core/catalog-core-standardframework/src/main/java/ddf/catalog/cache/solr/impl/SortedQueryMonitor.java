@@ -61,6 +61,8 @@ class SortedQueryMonitor implements Runnable {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SortedQueryMonitor.class);
 
+  private static final long NO_DEADLINE = -1;
+
   private final QueryRequest request;
 
   private final CompletionService<SourceResponse> completionService;
@@ -77,6 +79,12 @@ class SortedQueryMonitor implements Runnable {
 
   private long deadline;
 
+  private boolean streamingMerge;
+
+  private SourceLatencyTracker latencyTracker;
+
+  private long startTime;
+
   public SortedQueryMonitor(
       CachingFederationStrategy cachingFederationStrategy,
       CompletionService<SourceResponse> completionService,
@@ -84,6 +92,32 @@ public SortedQueryMonitor(
       QueryResponseImpl returnResults,
       QueryRequest request,
       List<PostFederatedQueryPlugin> postQuery) {
+    this(
+        cachingFederationStrategy,
+        completionService,
+        futures,
+        returnResults,
+        request,
+        postQuery,
+        false,
+        null);
+  }
+
+  /**
+   * @param streamingMerge if {@code true}, each source's results are treated as a sorted run and
+   *     k-way merged into {@code returnResults} instead of being concatenated and sorted
+   * @param latencyTracker if not {@code null}, each source is only waited on for its own recent
+   *     99th percentile latency instead of the full query timeout
+   */
+  public SortedQueryMonitor(
+      CachingFederationStrategy cachingFederationStrategy,
+      CompletionService<SourceResponse> completionService,
+      Map<Future<SourceResponse>, QueryRequest> futures,
+      QueryResponseImpl returnResults,
+      QueryRequest request,
+      List<PostFederatedQueryPlugin> postQuery,
+      boolean streamingMerge,
+      SourceLatencyTracker latencyTracker) {
     this.cachingFederationStrategy = cachingFederationStrategy;
     this.completionService = completionService;
     this.returnResults = returnResults;
@@ -91,60 +125,19 @@ public SortedQueryMonitor(
     this.query = request.getQuery();
     this.futures = futures;
     this.postQuery = postQuery;
-    deadline = System.currentTimeMillis() + query.getTimeoutMillis();
+    this.streamingMerge = streamingMerge;
+    this.latencyTracker = latencyTracker;
+    startTime = System.currentTimeMillis();
+    deadline = startTime + query.getTimeoutMillis();
   }
 
   @Override
   public void run() {
-    List<SortBy> sortBys = new ArrayList<>();
-    SortBy sortBy = query.getSortBy();
-    if (sortBy != null && sortBy.getPropertyName() != null) {
-      sortBys.add(sortBy);
-    }
-    Serializable sortBySer = request.getPropertyValue(EXT_SORT_BY);
-    if (sortBySer instanceof SortBy[]) {
-      SortBy[] extSortBys = (SortBy[]) sortBySer;
-      if (extSortBys.length > 0) {
-        sortBys.addAll(Arrays.asList(extSortBys));
-      }
-    }
-
-    // Prepare the Comparators that we will use
-    CollectionResultComparator resultComparator = new CollectionResultComparator();
-    if (!sortBys.isEmpty()) {
-      for (SortBy sort : sortBys) {
-        Comparator<Result> comparator = null;
-
-        PropertyName sortingProp = sort.getPropertyName();
-        String sortType = sortingProp.getPropertyName();
-        SortOrder sortOrder =
-            (sort.getSortOrder() == null) ? SortOrder.DESCENDING : sort.getSortOrder();
-        LOGGER.debug("Sorting type: {}", sortType);
-        LOGGER.debug("Sorting order: {}", sort.getSortOrder());
-
-        // Temporal searches are currently sorted by the effective time
-        if (Metacard.EFFECTIVE.equals(sortType) || Result.TEMPORAL.equals(sortType)) {
-          comparator = new TemporalResultComparator(sortOrder);
-        } else if (Result.DISTANCE.equals(sortType)) {
-          comparator = new DistanceResultComparator(sortOrder);
-        } else if (Result.RELEVANCE.equals(sortType)) {
-          comparator = new RelevanceResultComparator(sortOrder);
-        } else {
-          comparator =
-              Comparator.comparing(
-                  r -> getAttributeValue((Result) r, sortingProp.getPropertyName()),
-                  ((sortOrder == SortOrder.ASCENDING)
-                      ? Comparator.nullsFirst(Comparator.<Comparable>naturalOrder())
-                      : Comparator.nullsLast(Comparator.<Comparable>reverseOrder())));
-        }
-        resultComparator.addComparator(comparator);
-      }
-    } else {
-      Comparator<Result> coreComparator = CachingFederationStrategy.DEFAULT_COMPARATOR;
-      resultComparator.addComparator(coreComparator);
-    }
+    CollectionResultComparator resultComparator = createResultComparator(request);
 
     List<Result> resultList = new ArrayList<>();
+    SortedResultMerger resultMerger =
+        streamingMerge ? new SortedResultMerger(resultComparator, query.getPageSize()) : null;
     long totalHits = 0;
     Set<ProcessingDetails> processingDetails = returnResults.getProcessingDetails();
 
@@ -157,10 +150,11 @@ public void run() {
       SourceResponse sourceResponse = null;
       try {
         Future<SourceResponse> future;
-        if (query.getTimeoutMillis() < 1) {
+        long waitDeadline = getWaitDeadline();
+        if (waitDeadline == NO_DEADLINE) {
           future = completionService.take();
         } else {
-          future = completionService.poll(getTimeRemaining(deadline), TimeUnit.MILLISECONDS);
+          future = completionService.poll(getTimeRemaining(waitDeadline), TimeUnit.MILLISECONDS);
           if (future == null) {
             timeoutRemainingSources(processingDetails);
             break;
@@ -182,7 +176,11 @@ public void run() {
               queryRequest, sourceId, new NullPointerException(), processingDetails);
         } else if (queryRequest != null) {
           sourceResponse = executePostFederationQueryPlugins(sourceResponse, queryRequest);
-          resultList.addAll(sourceResponse.getResults());
+          if (resultMerger != null) {
+            resultMerger.addRun(sourceResponse.getResults());
+          } else {
+            resultList.addAll(sourceResponse.getResults());
+          }
           long hits = sourceResponse.getHits();
           totalHits += hits;
           hitsPerSource.merge(sourceId, hits, (l1, l2) -> l1 + l2);
@@ -220,9 +218,71 @@ public void run() {
         request.getPropertyValue(CachingFederationStrategy.QUERY_MODE))) {
       QueryResponse result = cachingFederationStrategy.queryCache(request);
       returnResults.addResults(result.getResults(), true);
+    } else if (resultMerger != null) {
+      resultMerger.mergeInto(returnResults);
     } else {
       returnResults.addResults(sortedResults(resultList, resultComparator), true);
     }
+    cachingFederationStrategy.recordResultQueueDepth(returnResults.getMaxQueueDepth());
+  }
+
+  /**
+   * Creates the comparator used to sort federated results based on the sort policies of the
+   * request.
+   *
+   * @param request the query request
+   * @return the comparator for the results of the request
+   */
+  static CollectionResultComparator createResultComparator(QueryRequest request) {
+    Query query = request.getQuery();
+    List<SortBy> sortBys = new ArrayList<>();
+    SortBy sortBy = query.getSortBy();
+    if (sortBy != null && sortBy.getPropertyName() != null) {
+      sortBys.add(sortBy);
+    }
+    Serializable sortBySer = request.getPropertyValue(EXT_SORT_BY);
+    if (sortBySer instanceof SortBy[]) {
+      SortBy[] extSortBys = (SortBy[]) sortBySer;
+      if (extSortBys.length > 0) {
+        sortBys.addAll(Arrays.asList(extSortBys));
+      }
+    }
+
+    // Prepare the Comparators that we will use
+    CollectionResultComparator resultComparator = new CollectionResultComparator();
+    if (!sortBys.isEmpty()) {
+      for (SortBy sort : sortBys) {
+        Comparator<Result> comparator = null;
+
+        PropertyName sortingProp = sort.getPropertyName();
+        String sortType = sortingProp.getPropertyName();
+        SortOrder sortOrder =
+            (sort.getSortOrder() == null) ? SortOrder.DESCENDING : sort.getSortOrder();
+        LOGGER.debug("Sorting type: {}", sortType);
+        LOGGER.debug("Sorting order: {}", sort.getSortOrder());
+
+        // Temporal searches are currently sorted by the effective time
+        if (Metacard.EFFECTIVE.equals(sortType) || Result.TEMPORAL.equals(sortType)) {
+          comparator = new TemporalResultComparator(sortOrder);
+        } else if (Result.DISTANCE.equals(sortType)) {
+          comparator = new DistanceResultComparator(sortOrder);
+        } else if (Result.RELEVANCE.equals(sortType)) {
+          comparator = new RelevanceResultComparator(sortOrder);
+        } else {
+          comparator =
+              Comparator.comparing(
+                  r -> getAttributeValue((Result) r, sortingProp.getPropertyName()),
+                  ((sortOrder == SortOrder.ASCENDING)
+                      ? Comparator.nullsFirst(Comparator.<Comparable>naturalOrder())
+                      : Comparator.nullsLast(Comparator.<Comparable>reverseOrder())));
+        }
+        resultComparator.addComparator(comparator);
+      }
+    } else {
+      Comparator<Result> coreComparator = CachingFederationStrategy.DEFAULT_COMPARATOR;
+      resultComparator.addComparator(coreComparator);
+    }
+    return resultComparator;
   }
 
   List<Result> sortedResults(List<Result> results, Comparator<? super Result> comparator) {
@@ -250,6 +310,13 @@ private void timeoutRemainingSources(Set<ProcessingDetails> processingDetails) {
       if (expiredSource != null) {
         String sourceId = getSourceIdFromRequest(expiredSource);
         LOGGER.info("Search timed out for {}", sourceId);
+        if (latencyTracker != null) {
+          LOGGER.debug(
+              "Latency of {} is p50: {} ms, p99: {} ms",
+              sourceId,
+              latencyTracker.getPercentile(sourceId, 50),
+              latencyTracker.getPercentile(sourceId, 99));
+        }
         processingDetails.add(new ProcessingDetailsImpl(sourceId, new TimeoutException()));
       }
     }
@@ -266,6 +333,31 @@ private void interruptRemainingSources(
     }
   }
 
+  /**
+   * Returns the time until which to wait for the remaining sources. Without a latency tracker this
+   * is the query deadline. With one, it is the time at which the slowest remaining source exceeds
+   * its own latency budget, so partial results are returned once every remaining source is late.
+   */
+  private long getWaitDeadline() {
+    if (latencyTracker == null) {
+      return query.getTimeoutMillis() < 1 ? NO_DEADLINE : deadline;
+    }
+
+    long waitDeadline = startTime;
+    for (QueryRequest remainingSource : futures.values()) {
+      if (remainingSource != null) {
+        long budget =
+            latencyTracker.getTimeBudget(
+                getSourceIdFromRequest(remainingSource), query.getTimeoutMillis());
+        if (budget < 1) {
+          return NO_DEADLINE;
+        }
+        waitDeadline = Math.max(waitDeadline, startTime + budget);
+      }
+    }
+    return waitDeadline;
+  }
+
   private long getTimeRemaining(long deadline) {
     long timeLeft;
     if (System.currentTimeMillis() > deadline) {
@@ -276,7 +368,7 @@ private long getTimeRemaining(long deadline) {
     return timeLeft;
   }
 
-  private String getSourceIdFromRequest(QueryRequest queryRequest) {
+  static String getSourceIdFromRequest(QueryRequest queryRequest) {
     String unkSource = "Unknown Source";
     if (queryRequest == null) {
       return unkSource;
@@ -305,6 +397,13 @@ private void executePostFederationQueryPluginsWithSourceError(
 
   private SourceResponse executePostFederationQueryPlugins(
       SourceResponse sourceResponse, QueryRequest queryRequest) {
+    return executePostFederationQueryPlugins(postQuery, sourceResponse, queryRequest);
+  }
+
+  static SourceResponse executePostFederationQueryPlugins(
+      List<PostFederatedQueryPlugin> postQuery,
+      SourceResponse sourceResponse,
+      QueryRequest queryRequest) {
 
     QueryResponse queryResponse =
         new QueryResponseImpl(
@@ -37,6 +37,15 @@ public Runnable createMonitor(
       List<PostFederatedQueryPlugin> postQuery) {
 
     return new SortedQueryMonitor(
-        cachingFederationStrategy, completionService, futures, returnResults, request, postQuery);
+        cachingFederationStrategy,
+        completionService,
+        futures,
+        returnResults,
+        request,
+        postQuery,
+        cachingFederationStrategy.isStreamingMerge(),
+        cachingFederationStrategy.isAdaptiveTimeouts()
+            ? cachingFederationStrategy.getSourceLatencyTracker()
+            : null);
   }
 }
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.solr.impl;
+
+import ddf.catalog.data.Result;
+import ddf.catalog.operation.impl.QueryResponseImpl;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the sorted result lists returned by each federated source using a heap-based k-way merge.
+ *
+ * <p>Each source response is treated as a sorted run. Since only the first {@code maxResults} of
+ * the merged output are ever returned, each run is trimmed to {@code maxResults} as it is added, so
+ * the merger never holds more than {@code maxResults * sources} results. Runs that are not sorted
+ * according to the comparator (e.g. a source that ignored the requested sort) are sorted before
+ * they are trimmed.
+ *
+ * <p>This class is not thread-safe.
+ */
+class SortedResultMerger {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SortedResultMerger.class);
+
+  private final Comparator<? super Result> comparator;
+
+  private final int maxResults;
+
+  private final List<List<Result>> runs = new ArrayList<>();
+
+  SortedResultMerger(Comparator<? super Result> comparator, int maxResults) {
+    this.comparator = comparator;
+    this.maxResults = maxResults > 0 ? maxResults : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Adds the results of a single source as a run to be merged.
+   *
+   * @param results the results returned by a source
+   */
+  void addRun(List<Result> results) {
+    if (results == null || results.isEmpty()) {
+      return;
+    }
+
+    List<Result> run = results;
+    if (!isSorted(run)) {
+      LOGGER.debug("Source results are not sorted, sorting {} results before merging", run.size());
+      run = new ArrayList<>(run);
+      run.sort(comparator);
+    }
+
+    if (run.size() > maxResults) {
+      run = new ArrayList<>(run.subList(0, maxResults));
+    }
+    runs.add(run);
+  }
+
+  /**
+   * Merges all of the runs added so far and streams the first {@code maxResults} results into the
+   * given response, closing its result queue once done.
+   *
+   * @param response the response to add the merged results to
+   */
+  void mergeInto(QueryResponseImpl response) {
+    PriorityQueue<RunCursor> heap =
+        new PriorityQueue<>(Math.max(1, runs.size()), this::compareCursors);
+    for (int i = 0; i < runs.size(); i++) {
+      heap.add(new RunCursor(i, runs.get(i)));
+    }
+
+    int resultsSent = 0;
+    while (resultsSent < maxResults && !heap.isEmpty()) {
+      RunCursor cursor = heap.poll();
+      response.addResult(cursor.current(), false);
+      resultsSent++;
+
+      if (cursor.advance()) {
+        heap.add(cursor);
+      }
+    }
+
+    LOGGER.debug("Merged {} results from {} sources", resultsSent, runs.size());
+    runs.clear();
+    response.closeResultQueue();
+  }
+
+  private boolean isSorted(List<Result> results) {
+    Result previous = null;
+    for (Result result : results) {
+      if (previous != null && comparator.compare(previous, result) > 0) {
+        return false;
+      }
+      previous = result;
+    }
+    return true;
+  }
+
+  /** Ties are broken by run order so the merge is as stable as sorting the concatenated runs. */
+  private int compareCursors(RunCursor first, RunCursor second) {
+    int result = comparator.compare(first.current(), second.current());
+    return result != 0 ? result : Integer.compare(first.runIndex, second.runIndex);
+  }
+
+  private static class RunCursor {
+
+    private final int runIndex;
+
+    private final List<Result> run;
+
+    private int position = 0;
+
+    RunCursor(int runIndex, List<Result> run) {
+      this.runIndex = runIndex;
+      this.run = run;
+    }
+
+    Result current() {
+      return run.get(position);
+    }
+
+    boolean advance() {
+      position++;
+      return position < run.size();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.solr.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the most recent query latencies of each federated source, so that the time given
+ * to a source to answer a query can be based on how long it usually takes rather than on a single
+ * fixed timeout.
+ */
+class SourceLatencyTracker {
+
+  static final int WINDOW_SIZE = 100;
+
+  static final int MIN_SAMPLES = 20;
+
+  private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+  /**
+   * Records the time a source took to answer a query.
+   *
+   * @param sourceId the source ID
+   * @param latencyMillis the time in milliseconds the source took to answer
+   */
+  void record(String sourceId, long latencyMillis) {
+    windows.computeIfAbsent(sourceId, id -> new LatencyWindow()).add(latencyMillis);
+  }
+
+  /**
+   * Returns the given percentile of the recent latencies of a source.
+   *
+   * @param sourceId the source ID
+   * @param percentile the percentile, between 0 and 100
+   * @return the latency in milliseconds, or -1 if not enough latencies have been recorded for the
+   *     source yet
+   */
+  long getPercentile(String sourceId, double percentile) {
+    LatencyWindow window = windows.get(sourceId);
+    return window == null ? -1 : window.getPercentile(percentile);
+  }
+
+  /**
+   * Returns the time in milliseconds a source should be given to answer a query before it is
+   * considered late, which is its 99th percentile latency capped to the query timeout.
+   *
+   * @param sourceId the source ID
+   * @param timeoutMillis the timeout of the query, or less than 1 if there is none
+   * @return the time budget of the source
+   */
+  long getTimeBudget(String sourceId, long timeoutMillis) {
+    long p99 = getPercentile(sourceId, 99);
+    if (p99 < 0) {
+      return timeoutMillis;
+    }
+    return timeoutMillis < 1 ? p99 : Math.min(p99, timeoutMillis);
+  }
+
+  private static class LatencyWindow {
+
+    private final long[] latencies = new long[WINDOW_SIZE];
+
+    private int count = 0;
+
+    private int next = 0;
+
+    synchronized void add(long latencyMillis) {
+      latencies[next] = latencyMillis;
+      next = (next + 1) % WINDOW_SIZE;
+      count = Math.min(count + 1, WINDOW_SIZE);
+    }
+
+    synchronized long getPercentile(double percentile) {
+      if (count < MIN_SAMPLES) {
+        return -1;
+      }
+      long[] sorted = Arrays.copyOf(latencies, count);
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100 * count) - 1;
+      return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.solr.impl;
+
+import ddf.catalog.operation.SourceResponse;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link CompletionService} of source queries that are either run by an executor, for sources
+ * that block while they query, or complete on their own, for sources that query asynchronously.
+ * The latter do not use a thread of the executor while their query is outstanding.
+ */
+class SourceQueryCompletionService implements CompletionService<SourceResponse> {
+
+  private final Executor executor;
+
+  private final BlockingQueue<Future<SourceResponse>> completed = new LinkedBlockingQueue<>();
+
+  SourceQueryCompletionService(Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public Future<SourceResponse> submit(Callable<SourceResponse> task) {
+    FutureTask<SourceResponse> future = new QueueingFuture(task);
+    executor.execute(future);
+    return future;
+  }
+
+  @Override
+  public Future<SourceResponse> submit(Runnable task, SourceResponse result) {
+    return submit(Executors.callable(task, result));
+  }
+
+  /**
+   * Adds a query that completes on its own.
+   *
+   * @param query the stage completed with the response of the query
+   * @return the future of the query, which is returned by {@link #take()} and {@link #poll()} once
+   *     completed
+   */
+  Future<SourceResponse> add(CompletionStage<SourceResponse> query) {
+    CompletableFuture<SourceResponse> future = query.toCompletableFuture();
+    future.whenComplete((response, throwable) -> completed.add(future));
+    return future;
+  }
+
+  @Override
+  public Future<SourceResponse> take() throws InterruptedException {
+    return completed.take();
+  }
+
+  @Override
+  public Future<SourceResponse> poll() {
+    return completed.poll();
+  }
+
+  @Override
+  public Future<SourceResponse> poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return completed.poll(timeout, unit);
+  }
+
+  private class QueueingFuture extends FutureTask<SourceResponse> {
+
+    private QueueingFuture(Callable<SourceResponse> task) {
+      super(task);
+    }
+
+    @Override
+    protected void done() {
+      completed.add(this);
+    }
+  }
+}
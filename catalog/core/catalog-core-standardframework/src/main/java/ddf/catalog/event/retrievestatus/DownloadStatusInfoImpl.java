@@ -103,6 +103,9 @@ public Map<String, String> getDownloadStatus(String downloadIdentifier) {
       statusMap.put(
           DownloadStatus.FILE_NAME_KEY, downloader.getResourceResponse().getResource().getName());
       statusMap.put(DownloadStatus.USER_KEY, downloadUsers.get(downloadIdentifier));
+      statusMap.put(
+          DownloadStatus.BYTES_PER_SECOND_KEY, Long.toString(downloader.getBytesPerSecond()));
+      statusMap.put(DownloadStatus.SEGMENTS_KEY, Integer.toString(downloader.getSegmentCount()));
     }
     return statusMap;
   }
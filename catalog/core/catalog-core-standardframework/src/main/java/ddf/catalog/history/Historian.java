@@ -36,7 +36,6 @@
 import ddf.catalog.data.Result;
 import ddf.catalog.data.impl.AttributeImpl;
 import ddf.catalog.filter.FilterBuilder;
-import ddf.catalog.operation.CreateResponse;
 import ddf.catalog.operation.DeleteResponse;
 import ddf.catalog.operation.Operation;
 import ddf.catalog.operation.SourceResponse;
@@ -91,8 +90,20 @@ public class Historian {
   private static final Collector<CharSequence, ?, String> TO_A_STRING =
       Collectors.joining(", ", "[", "]");
 
+  private static final int DEFAULT_VERSION_BATCH_SIZE = 500;
+
+  private static final long DEFAULT_MAX_VERSION_LAG_MILLIS = 1000;
+
   private boolean historyEnabled = true;
 
+  private boolean asyncVersioning = false;
+
+  private int versionBatchSize = DEFAULT_VERSION_BATCH_SIZE;
+
+  private long maxVersionLagMillis = DEFAULT_MAX_VERSION_LAG_MILLIS;
+
+  private HistoryWriter historyWriter;
+
   private final Predicate<Metacard> isNotVersionNorDeleted =
       ((Predicate<Metacard>) MetacardVersionImpl::isVersion)
           .or(DeletedMetacardImpl::isDeleted)
@@ -131,6 +142,13 @@ public void init() {
     }
   }
 
+  public synchronized void destroy() {
+    if (historyWriter != null) {
+      historyWriter.shutdown();
+      historyWriter = null;
+    }
+  }
+
   /**
    * Versions metacards being updated based off of the {@link Update#getOldMetacard} method on
    * {@link UpdateResponse}
@@ -171,13 +189,7 @@ public UpdateResponse version(UpdateResponse updateResponse) {
                     .getProperties()
                     .get(SecurityConstants.SECURITY_SUBJECT));
 
-    CreateResponse response = storeVersionMetacards(versionedMetacards);
-
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace(
-          "Successfully created metacard versions under ids: {}",
-          response.getCreatedMetacards().stream().map(Metacard::getId).collect(TO_A_STRING));
-    }
+    storeHistoryMetacards(new ArrayList<>(versionedMetacards.values()));
 
     return updateResponse;
   }
@@ -233,7 +245,7 @@ public UpdateStorageResponse version(
     }
 
     Map<String, Metacard> originalMetacards =
-        query(forIds(updatedMetacards.stream().map(Metacard::getId).collect(Collectors.toList())));
+        query(updatedMetacards.stream().map(Metacard::getId).collect(Collectors.toList()));
 
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace(
@@ -267,13 +279,7 @@ public UpdateStorageResponse version(
 
     setResourceUriForContent(/*mutable*/ versionMetacards, createStorageResponse);
 
-    CreateResponse createResponse = storeVersionMetacards(versionMetacards);
-
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace(
-          "Successfully created metacard versions under ids: {}",
-          createResponse.getCreatedMetacards().stream().map(Metacard::getId).collect(TO_A_STRING));
-    }
+    storeHistoryMetacards(new ArrayList<>(versionMetacards.values()));
 
     return updateStorageResponse;
   }
@@ -367,15 +373,7 @@ public DeleteResponse version(DeleteResponse deleteResponse)
       }
     }
 
-    executeAsSystem(
-        () ->
-            catalogProvider()
-                .create(new CreateRequestImpl(new ArrayList<>(versionedMap.values()))));
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace(
-          "Successfully created versioned metacards under ids: {}",
-          versionedMap.values().stream().map(Metacard::getId).collect(TO_A_STRING));
-    }
+    storeHistoryMetacards(new ArrayList<>(versionedMap.values()));
 
     String emailAddress =
         SubjectUtils.getEmailAddress(
@@ -394,21 +392,7 @@ public DeleteResponse version(DeleteResponse deleteResponse)
                         originalMetacardsMap.get(s.getKey())))
             .collect(Collectors.toList());
 
-    CreateResponse deletionMetacardsCreateResponse =
-        executeAsSystem(
-            () ->
-                catalogProvider()
-                    .create(new CreateRequestImpl(deletionMetacards, new HashMap<>())));
-
-    if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace(
-          "Successfully created deletion metacards under ids: {}",
-          deletionMetacardsCreateResponse
-              .getCreatedMetacards()
-              .stream()
-              .map(Metacard::getId)
-              .collect(TO_A_STRING));
-    }
+    storeHistoryMetacards(deletionMetacards);
 
     return deleteResponse;
   }
@@ -421,6 +405,36 @@ public void setHistoryEnabled(boolean historyEnabled) {
     this.historyEnabled = historyEnabled;
   }
 
+  public boolean isAsyncVersioning() {
+    return asyncVersioning;
+  }
+
+  /**
+   * @param asyncVersioning whether version and deletion metacards are written in batches on a
+   *     background thread rather than before the operation returns. Versions that have not been
+   *     written yet are lost if the system fails.
+   */
+  public void setAsyncVersioning(boolean asyncVersioning) {
+    this.asyncVersioning = asyncVersioning;
+  }
+
+  /**
+   * @param versionBatchSize the number of history metacards after which a batch is written without
+   *     waiting for the maximum lag, when versioning asynchronously
+   */
+  public void setVersionBatchSize(int versionBatchSize) {
+    this.versionBatchSize = versionBatchSize < 1 ? DEFAULT_VERSION_BATCH_SIZE : versionBatchSize;
+  }
+
+  /**
+   * @param maxVersionLagMillis the time in milliseconds history metacards wait to be written with
+   *     others, when versioning asynchronously
+   */
+  public void setMaxVersionLagMillis(long maxVersionLagMillis) {
+    this.maxVersionLagMillis =
+        maxVersionLagMillis < 0 ? DEFAULT_MAX_VERSION_LAG_MILLIS : maxVersionLagMillis;
+  }
+
   public List<StorageProvider> getStorageProviders() {
     return storageProviders;
   }
@@ -451,12 +465,19 @@ public void setSkipFlag(@Nullable Operation op) {
         .ifPresent(p -> p.put(SKIP_VERSIONING, true));
   }
 
-  private Map<String, Metacard> query(Filter filter) throws UnsupportedQueryException {
+  private Map<String, Metacard> query(List<String> ids) throws UnsupportedQueryException {
+    // Requests every metacard in one page, so large bulk updates are not truncated
     SourceResponse response =
         catalogProvider()
             .query(
                 new QueryRequestImpl(
-                    new QueryImpl(filter, 1, 250, null, false, TimeUnit.SECONDS.toMillis(10))));
+                    new QueryImpl(
+                        forIds(ids),
+                        1,
+                        ids.size(),
+                        null,
+                        false,
+                        TimeUnit.SECONDS.toMillis(10))));
 
     return response
         .getResults()
@@ -640,11 +661,46 @@ private boolean doSkip(@Nullable Operation op) {
                 .getOrDefault(SKIP_VERSIONING, false));
   }
 
-  private CreateResponse storeVersionMetacards(Map<String, Metacard> versionMetacards) {
-    return executeAsSystem(
-        () ->
-            catalogProvider()
-                .create(new CreateRequestImpl(new ArrayList<>(versionMetacards.values()))));
+  /**
+   * Stores version or deletion metacards. When versioning asynchronously they are queued for the
+   * {@link HistoryWriter}, unless its queue is full, in which case they are stored before
+   * returning.
+   */
+  private void storeHistoryMetacards(List<Metacard> historyMetacards) {
+    if (historyMetacards.isEmpty()) {
+      return;
+    }
+    if (asyncVersioning && getHistoryWriter().write(historyMetacards)) {
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace("Queued history metacards with ids: {}", getIds(historyMetacards));
+      }
+      return;
+    }
+
+    createAsSystem(historyMetacards);
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace(
+          "Successfully created history metacards under ids: {}", getIds(historyMetacards));
+    }
+  }
+
+  private void createAsSystem(List<Metacard> metacards) {
+    executeAsSystem(() -> catalogProvider().create(new CreateRequestImpl(metacards)));
+  }
+
+  private synchronized HistoryWriter getHistoryWriter() {
+    if (historyWriter == null
+        || historyWriter.getMaxBatchSize() != versionBatchSize
+        || historyWriter.getMaxLagMillis() != maxVersionLagMillis) {
+      destroy();
+      historyWriter =
+          new HistoryWriter(this::createAsSystem, versionBatchSize, maxVersionLagMillis);
+    }
+    return historyWriter;
+  }
+
+  private static String getIds(List<Metacard> metacards) {
+    return metacards.stream().map(Metacard::getId).collect(TO_A_STRING);
   }
 
   private void setResourceUriForContent(
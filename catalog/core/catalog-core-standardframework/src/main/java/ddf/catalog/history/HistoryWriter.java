@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.history;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingTimeWindowReservoir;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import ddf.catalog.data.Metacard;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the history metacards of many concurrent operations in bulk, on a background thread. The
+ * metacards queued by each operation are collected until a batch reaches its maximum size or the
+ * oldest metacards in it have waited for the maximum lag, and the batch is then stored with a
+ * single call.
+ *
+ * <p>The queue is bounded. When it is full, {@link #write(List)} returns {@code false} and the
+ * caller stores its metacards itself, so a burst of operations slows down to the rate history can
+ * be written instead of using more memory. Metacards still queued when the writer is shut down are
+ * written before it stops, but they are lost if the system fails before then.
+ */
+class HistoryWriter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HistoryWriter.class);
+
+  private static final long IDLE_POLL_MILLIS = 1000;
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+  /** The number of batches that can be queued before callers store their metacards themselves. */
+  private static final int QUEUED_BATCHES = 10;
+
+  /** Stores a batch of history metacards. */
+  @FunctionalInterface
+  interface HistoryStore {
+    void store(List<Metacard> metacards) throws Exception;
+  }
+
+  private final HistoryStore store;
+
+  private final BlockingQueue<QueuedMetacards> queue;
+
+  private final ExecutorService executor;
+
+  private final int maxBatchSize;
+
+  private final long maxLagMillis;
+
+  private volatile boolean running = true;
+
+  private final MetricRegistry metrics = new MetricRegistry();
+
+  private final JmxReporter reporter =
+      JmxReporter.forRegistry(metrics).inDomain("ddf.metrics.catalog.history").build();
+
+  private final Histogram batchSize =
+      metrics.register(
+          MetricRegistry.name("History", "BatchSize"),
+          new Histogram(new SlidingTimeWindowReservoir(1, TimeUnit.MINUTES)));
+
+  private final Histogram lag =
+      metrics.register(
+          MetricRegistry.name("History", "Lag"),
+          new Histogram(new SlidingTimeWindowReservoir(1, TimeUnit.MINUTES)));
+
+  private final Histogram writeLatency =
+      metrics.register(
+          MetricRegistry.name("History", "WriteLatency"),
+          new Histogram(new SlidingTimeWindowReservoir(1, TimeUnit.MINUTES)));
+
+  private final Counter failed = metrics.counter(MetricRegistry.name("History", "Failed"));
+
+  private final Counter rejected = metrics.counter(MetricRegistry.name("History", "Rejected"));
+
+  /**
+   * @param store stores each batch of metacards
+   * @param maxBatchSize the number of metacards after which a batch is written without waiting
+   * @param maxLagMillis the time in milliseconds metacards wait for others to be written with
+   */
+  HistoryWriter(HistoryStore store, int maxBatchSize, long maxLagMillis) {
+    this.store = store;
+    this.maxBatchSize = maxBatchSize;
+    this.maxLagMillis = maxLagMillis;
+    this.queue = new LinkedBlockingQueue<>(maxBatchSize * QUEUED_BATCHES);
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("historyWriter-%d").setDaemon(true).build());
+
+    metrics.register(MetricRegistry.name("History", "Pending"), (Gauge<Integer>) queue::size);
+    reporter.start();
+
+    executor.execute(this::run);
+  }
+
+  int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  long getMaxLagMillis() {
+    return maxLagMillis;
+  }
+
+  /**
+   * Queues metacards to be written with the next batch.
+   *
+   * @return {@code true} if the metacards were queued, or {@code false} if the queue is full or the
+   *     writer has been shut down, in which case the caller must store them
+   */
+  boolean write(List<Metacard> metacards) {
+    if (metacards.isEmpty()) {
+      return true;
+    }
+    if (running && queue.offer(new QueuedMetacards(metacards))) {
+      return true;
+    }
+    rejected.inc();
+    return false;
+  }
+
+  /** Stops accepting metacards and waits for those already queued to be written. */
+  void shutdown() {
+    running = false;
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        LOGGER.info(
+            "Timed out writing history. {} operation(s) have not been versioned.", queue.size());
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      executor.shutdownNow();
+    } finally {
+      reporter.stop();
+    }
+  }
+
+  private void run() {
+    List<QueuedMetacards> batch = new ArrayList<>();
+    while (running || !queue.isEmpty()) {
+      try {
+        QueuedMetacards first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+
+        batch.add(first);
+        int size = first.metacards.size();
+        long deadline = first.queuedMillis + maxLagMillis;
+        while (size < maxBatchSize) {
+          long wait = running ? deadline - System.currentTimeMillis() : 0;
+          QueuedMetacards next = queue.poll(Math.max(wait, 0), TimeUnit.MILLISECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+          size += next.metacards.size();
+        }
+
+        writeBatch(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOGGER.info("Interrupted while writing history.");
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void writeBatch(List<QueuedMetacards> batch) {
+    List<Metacard> metacards =
+        batch.stream().flatMap(queued -> queued.metacards.stream()).collect(Collectors.toList());
+
+    long start = System.currentTimeMillis();
+    try {
+      store.store(metacards);
+    } catch (Exception e) {
+      failed.inc(metacards.size());
+      LOGGER.info(
+          "Unable to write history metacards with ids: {}",
+          metacards.stream().map(Metacard::getId).collect(Collectors.joining(", ", "[", "]")),
+          e);
+    }
+
+    long end = System.currentTimeMillis();
+    writeLatency.update(end - start);
+    batchSize.update(metacards.size());
+    batch.forEach(queued -> lag.update(end - queued.queuedMillis));
+    LOGGER.debug("Wrote {} history metacard(s) in {} ms", metacards.size(), end - start);
+  }
+
+  private static class QueuedMetacards {
+
+    private final List<Metacard> metacards;
+
+    private final long queuedMillis = System.currentTimeMillis();
+
+    private QueuedMetacards(List<Metacard> metacards) {
+      this.metacards = metacards;
+    }
+  }
+}
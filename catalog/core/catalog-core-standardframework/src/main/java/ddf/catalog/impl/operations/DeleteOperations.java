@@ -13,6 +13,7 @@
  */
 package ddf.catalog.impl.operations;
 
+import com.google.common.collect.Lists;
 import ddf.catalog.Constants;
 import ddf.catalog.content.StorageException;
 import ddf.catalog.content.StorageProvider;
@@ -29,13 +30,13 @@
 import ddf.catalog.operation.DeleteResponse;
 import ddf.catalog.operation.Operation;
 import ddf.catalog.operation.OperationTransaction;
-import ddf.catalog.operation.QueryResponse;
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.operation.impl.DeleteRequestImpl;
 import ddf.catalog.operation.impl.DeleteResponseImpl;
 import ddf.catalog.operation.impl.OperationTransactionImpl;
 import ddf.catalog.operation.impl.QueryImpl;
 import ddf.catalog.operation.impl.QueryRequestImpl;
+import ddf.catalog.operation.impl.SourceResponseImpl;
 import ddf.catalog.plugin.AccessPlugin;
 import ddf.catalog.plugin.PluginExecutionException;
 import ddf.catalog.plugin.PolicyPlugin;
@@ -61,6 +62,7 @@
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.opengis.filter.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,6 +79,13 @@ public class DeleteOperations {
 
   static final Logger INGEST_LOGGER = LoggerFactory.getLogger(Constants.INGEST_LOGGER_NAME);
 
+  /**
+   * Maximum number of attribute values looked up by a single query when populating the metacards
+   * of a delete request, so large bulk deletes do not exceed the boolean clause limit of sources.
+   */
+  private static final int QUERY_BATCH_SIZE =
+      NumberUtils.toInt(System.getProperty("catalog.delete.queryBatchSize"), 1000);
+
   private static final String PRE_INGEST_ERROR = "Error during pre-ingest:\n\n";
 
   // Inject properties
@@ -401,14 +410,21 @@ private DeleteRequest processPreDeletePolicyPlugins(DeleteRequest deleteRequest)
   private DeleteRequest populateMetacards(
       DeleteRequest deleteRequest, List<String> fanoutTagBlacklist)
       throws IngestException, StopProcessingException {
-    QueryRequestImpl queryRequest = createQueryRequest(deleteRequest);
-    QueryResponse query;
-    try {
-      query = queryOperations.doQuery(queryRequest, frameworkProperties.getFederationStrategy());
-    } catch (FederationException e) {
-      LOGGER.debug("Unable to complete query for updated metacards.", e);
-      throw new IngestException("Exception during runtime while performing delete");
+    List<Result> results = new ArrayList<>();
+    for (List<? extends Serializable> attributeValues :
+        Lists.partition(deleteRequest.getAttributeValues(), QUERY_BATCH_SIZE)) {
+      QueryRequestImpl queryRequest = createQueryRequest(deleteRequest, attributeValues);
+      try {
+        results.addAll(
+            queryOperations
+                .doQuery(queryRequest, frameworkProperties.getFederationStrategy())
+                .getResults());
+      } catch (FederationException e) {
+        LOGGER.debug("Unable to complete query for updated metacards.", e);
+        throw new IngestException("Exception during runtime while performing delete");
+      }
     }
+    SourceResponse query = new SourceResponseImpl(null, results);
 
     List<Metacard> metacards =
         query.getResults().stream().map(Result::getMetacard).collect(Collectors.toList());
@@ -467,10 +483,10 @@ private boolean isMetacardBlacklisted(Metacard metacard, List<String> fanoutTagB
     return CollectionUtils.containsAny(tags, fanoutTagBlacklist);
   }
 
-  private QueryRequestImpl createQueryRequest(DeleteRequest deleteRequest) {
+  private QueryRequestImpl createQueryRequest(
+      DeleteRequest deleteRequest, List<? extends Serializable> attributeValues) {
     List<Filter> idFilters =
-        deleteRequest
-            .getAttributeValues()
+        attributeValues
             .stream()
             .map(
                 serializable ->
@@ -486,7 +502,7 @@ private QueryRequestImpl createQueryRequest(DeleteRequest deleteRequest) {
         new QueryImpl(
             queryOperations.getFilterWithAdditionalFilters(idFilters, deleteRequest),
             1, /* start index */
-            deleteRequest.getAttributeValues().size(), /* page size */
+            attributeValues.size(), /* page size */
             null,
             false, /* total result count */
             0 /* timeout */);
@@ -590,7 +606,7 @@ private DeleteResponse injectAttributes(DeleteResponse response) {
         response.getProcessingErrors());
   }
 
-  private void logFailedQueryInfo(DeleteRequest deleteRequest, QueryResponse query) {
+  private void logFailedQueryInfo(DeleteRequest deleteRequest, SourceResponse query) {
     if (LOGGER.isDebugEnabled()) {
       final String attributeName = deleteRequest.getAttributeName();
       Set<String> queryResults =
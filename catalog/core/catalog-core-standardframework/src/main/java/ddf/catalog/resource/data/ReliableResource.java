@@ -15,11 +15,14 @@
 
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.impl.MetacardImpl;
-import ddf.catalog.resource.Resource;
+import ddf.catalog.resource.FileBackedResource;
+import ddf.catalog.resource.impl.FileBackedResourceImpl;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
 import javax.activation.MimeType;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -28,7 +31,7 @@
 import org.slf4j.LoggerFactory;
 
 /** The resource that will be stored in the {@code ResourceCacheImpl} cache map. */
-public class ReliableResource implements Resource, Serializable {
+public class ReliableResource implements FileBackedResource, Serializable {
 
   private static final long serialVersionUID = 1L;
 
@@ -109,6 +112,16 @@ private InputStream getProduct() throws IOException {
     return FileUtils.openInputStream(new File(filePath));
   }
 
+  @Override
+  public long transferTo(long position, long count, WritableByteChannel target)
+      throws IOException {
+    if (filePath == null) {
+      throw new IOException("Cannot transfer null Product");
+    }
+    return new FileBackedResourceImpl(Paths.get(filePath), mimeType, resourceName)
+        .transferTo(position, count, target);
+  }
+
   /**
    * Returns true if the product file exists in the product cache directory.
    *
@@ -36,5 +36,11 @@ public final class DownloadStatus {
   /** map key that indicates the status of download, e.g. "COMPLETED", "IN_PROGRESS" etc */
   public static final String STATUS_KEY = "status";
 
+  /** map key that indicates the average rate, in bytes per second, the product is downloaded at */
+  public static final String BYTES_PER_SECOND_KEY = "bytesPerSecond";
+
+  /** map key that indicates the number of segments the product is downloaded in concurrently */
+  public static final String SEGMENTS_KEY = "segments";
+
   private DownloadStatus() {}
 }
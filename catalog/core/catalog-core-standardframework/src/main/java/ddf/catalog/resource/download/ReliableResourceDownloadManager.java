@@ -20,12 +20,17 @@
 import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.operation.impl.ResourceResponseImpl;
+import ddf.catalog.resource.FileBackedResource;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceNotSupportedException;
+import ddf.catalog.resource.data.ReliableResource;
 import ddf.catalog.resource.download.DownloadManagerState.DownloadState;
+import ddf.catalog.resource.impl.FileBackedResourceImpl;
 import ddf.catalog.resourceretriever.ResourceRetriever;
 import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -110,7 +115,9 @@ public ResourceResponse download(
       if (cachedResource != null) {
         resourceResponse =
             new ResourceResponseImpl(
-                resourceRequest, resourceRequest.getProperties(), cachedResource);
+                resourceRequest,
+                resourceRequest.getProperties(),
+                skipBytes(cachedResource, getBytesToSkip(resourceRequest)));
         LOGGER.debug(
             "Successfully retrieved product from cache for metacard ID = {}", metacard.getId());
       } else {
@@ -132,7 +139,14 @@ public ResourceResponse download(
           new ResourceResponseImpl(
               resourceRequest, resourceResponse.getProperties(), resourceResponse.getResource());
 
-      resourceResponse = startDownload(downloadIdentifier, resourceResponse, retriever, metacard);
+      if (resourceResponse.getResource() instanceof FileBackedResource) {
+        // The product is already in a local file, which can be read directly without being
+        // copied through a reliable download or into the cache
+        LOGGER.debug("Retrieved local product file for metacard ID = {}", metacard.getId());
+      } else {
+        resourceResponse =
+            startDownload(downloadIdentifier, resourceResponse, retriever, metacard);
+      }
     }
     return resourceResponse;
   }
@@ -170,6 +184,14 @@ public void setChunkSize(int chunkSize) {
     downloaderConfig.setChunkSize(chunkSize);
   }
 
+  public void setSegmentCount(int segmentCount) {
+    downloaderConfig.setSegmentCount(segmentCount);
+  }
+
+  public void setMaxConnectionsPerSource(int maxConnectionsPerSource) {
+    downloaderConfig.setMaxConnectionsPerSource(maxConnectionsPerSource);
+  }
+
   public boolean isCacheEnabled() {
     return downloaderConfig.isCacheEnabled();
   }
@@ -178,6 +200,10 @@ public void setProductCacheDirectory(String productCacheDirectory) {
     this.downloaderConfig.getResourceCache().setProductCacheDirectory(productCacheDirectory);
   }
 
+  public void setCacheIndex(String cacheIndex) {
+    this.downloaderConfig.getResourceCache().setCacheIndex(cacheIndex);
+  }
+
   public List<DownloadInfo> getDownloadsInProgress() {
     List<DownloadInfo> downloadsInProgress = new ArrayList<>();
     for (String downloadIdentifier : downloadStatusInfo.getAllDownloads()) {
@@ -191,6 +217,36 @@ public List<DownloadInfo> getDownloadsInProgress() {
     return downloadsInProgress;
   }
 
+  private long getBytesToSkip(ResourceRequest resourceRequest) {
+    Serializable bytesToSkip = resourceRequest.getProperties().get(ResourceRequest.BYTES_TO_SKIP);
+    if (bytesToSkip == null) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(bytesToSkip.toString());
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Ignoring invalid number of bytes to skip: {}", bytesToSkip);
+      return 0;
+    }
+  }
+
+  /**
+   * Cached products are read from the start of their file, so the bytes requested to be skipped
+   * are skipped here, which allows the byte range of a cached product to be served from its file.
+   */
+  private Resource skipBytes(Resource cachedResource, long bytesToSkip) {
+    if (bytesToSkip > 0 && cachedResource instanceof ReliableResource) {
+      ReliableResource reliableResource = (ReliableResource) cachedResource;
+      LOGGER.debug("Skipping {} bytes of cached product", bytesToSkip);
+      return new FileBackedResourceImpl(
+          Paths.get(reliableResource.getFilePath()),
+          bytesToSkip,
+          reliableResource.getMimeType(),
+          reliableResource.getName());
+    }
+    return cachedResource;
+  }
+
   private ResourceResponse startDownload(
       String downloadIdentifier,
       ResourceResponse resourceResponse,
@@ -37,12 +37,14 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.Timer;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.activation.MimeType;
 import org.apache.commons.io.FileUtils;
@@ -63,7 +65,7 @@ public class ReliableResourceDownloader implements Runnable {
 
   private final Object lock = new Object();
 
-  private ReliableResourceCallable reliableResourceCallable;
+  private volatile ReliableResourceCallable reliableResourceCallable;
 
   private Future<ReliableResourceStatus> downloadFuture;
 
@@ -103,6 +105,16 @@ public class ReliableResourceDownloader implements Runnable {
 
   private ResourceRetriever retriever;
 
+  private long resourceSize;
+
+  private Semaphore sourceConnections;
+
+  private int segmentConnections;
+
+  private volatile long downloadStartTime;
+
+  private volatile long downloadEndTime;
+
   /**
    * Only set to true if cacheEnabled is true *AND* product being downloaded is not already pending
    * caching, e.g., another client has already started downloading and caching it.
@@ -157,6 +169,7 @@ public ResourceResponse setupDownload(Metacard metacard, DownloadStatusInfo down
 
     // Get handle to retrieved product's InputStream
     resourceInputStream = resource.getInputStream();
+    resourceSize = resource.getSize();
 
     eventListener.setDownloadMap(downloadIdentifier, resourceResponse);
     downloadStatusInfo.addDownloadInfo(downloadIdentifier, this, resourceResponse);
@@ -211,6 +224,7 @@ public void run() {
     long bytesRead = 0;
     ReliableResourceStatus reliableResourceStatus = null;
     int retryAttempts = 0;
+    downloadStartTime = System.currentTimeMillis();
 
     downloaderConfig
         .getEventPublisher()
@@ -223,9 +237,12 @@ public void run() {
             downloadIdentifier);
 
     try {
-      reliableResourceCallable =
-          new ReliableResourceCallable(
-              resourceInputStream, countingFbos, fos, downloaderConfig.getChunkSize(), lock);
+      reliableResourceCallable = createSegmentedCallable();
+      if (reliableResourceCallable == null) {
+        reliableResourceCallable =
+            new ReliableResourceCallable(
+                resourceInputStream, countingFbos, fos, downloaderConfig.getChunkSize(), lock);
+      }
       downloadFuture = null;
       ResourceRetrievalMonitor resourceRetrievalMonitor = null;
       this.downloadState.setDownloadState(DownloadManagerState.DownloadState.IN_PROGRESS);
@@ -296,6 +313,8 @@ public void run() {
         }
 
         LOGGER.debug("reliableResourceStatus = {}", reliableResourceStatus);
+        boolean segmented = reliableResourceCallable instanceof SegmentedResourceCallable;
+        releaseSegmentConnections();
 
         if (DownloadStatus.RESOURCE_DOWNLOAD_COMPLETE.equals(
             reliableResourceStatus.getDownloadStatus())) {
@@ -335,6 +354,11 @@ public void run() {
           LOGGER.debug("Download not complete, only read {} bytes", bytesRead);
           if (fos != null) {
             fos.flush();
+            if (segmented) {
+              // The download continues over a single connection from the bytes received by the
+              // client, writing over the segments already cached after them
+              fos.getChannel().position(bytesRead);
+            }
           }
 
           // Synchronized so that the Callable is not shutdown while in the middle of
@@ -441,10 +465,15 @@ public void run() {
                 downloadIdentifier);
             if (doCaching && downloaderConfig.isCacheWhenCanceled()) {
               LOGGER.debug("Continuing to cache product");
-              reliableResourceCallable =
-                  new ReliableResourceCallable(
-                      resourceInputStream, fos, downloaderConfig.getChunkSize(), lock);
-              reliableResourceCallable.setBytesRead(bytesRead);
+              if (segmented) {
+                // The segments read the product InputStream past the bytes received by the client
+                reliableResourceCallable = retrieveResource(bytesRead, null);
+              } else {
+                reliableResourceCallable =
+                    new ReliableResourceCallable(
+                        resourceInputStream, fos, downloaderConfig.getChunkSize(), lock);
+                reliableResourceCallable.setBytesRead(bytesRead);
+              }
             } else {
               break;
             }
@@ -506,12 +535,77 @@ public void run() {
           reliableResourceStatus.getBytesRead(),
           downloadIdentifier);
     } finally {
+      releaseSegmentConnections();
+      downloadEndTime = System.currentTimeMillis();
       cleanupAfterDownload(reliableResourceStatus);
       downloadExecutor.shutdown();
     }
   }
 
+  /**
+   * Creates a Callable downloading the product in segments concurrently when segmented downloads
+   * are enabled, the product is being cached, and the source returned the size of the product and
+   * supports byte ranges. Each segment uses one of the connections available to the source.
+   *
+   * @return null if the product should be downloaded over a single connection
+   */
+  private SegmentedResourceCallable createSegmentedCallable() {
+    if (downloaderConfig.getSegmentCount() < 2
+        || !doCaching
+        || resourceSize <= 0
+        || !Boolean.TRUE.equals(
+            resourceResponse.getPropertyValue(ResourceResponse.BYTE_RANGES_SUPPORTED))) {
+      return null;
+    }
+
+    long segmentCount =
+        Math.min(
+            downloaderConfig.getSegmentCount(),
+            resourceSize / downloaderConfig.getMinSegmentSize());
+    sourceConnections =
+        downloaderConfig.getSourceConnections(String.valueOf(metacard.getSourceId()));
+    while (segmentConnections < segmentCount && sourceConnections.tryAcquire()) {
+      segmentConnections++;
+    }
+    if (segmentConnections < 2) {
+      LOGGER.debug(
+          "Downloading product {} over a single connection, {} connections available to source {}",
+          filePath,
+          segmentConnections,
+          metacard.getSourceId());
+      releaseSegmentConnections();
+      return null;
+    }
+
+    LOGGER.debug("Downloading product {} in {} segments", filePath, segmentConnections);
+    return new SegmentedResourceCallable(
+        resourceInputStream,
+        retriever,
+        countingFbos,
+        Paths.get(filePath),
+        resourceSize,
+        segmentConnections,
+        downloaderConfig,
+        lock);
+  }
+
+  private void releaseSegmentConnections() {
+    if (segmentConnections > 0) {
+      sourceConnections.release(segmentConnections);
+      segmentConnections = 0;
+    }
+  }
+
   private ReliableResourceCallable retrieveResource(long bytesRead) {
+    return retrieveResource(bytesRead, countingFbos);
+  }
+
+  /**
+   * @param clientOutputStream the output stream read by the client, or null if the product is only
+   *     being cached
+   */
+  private ReliableResourceCallable retrieveResource(
+      long bytesRead, CountingOutputStream clientOutputStream) {
 
     ReliableResourceCallable reliableResourceCallable = null;
 
@@ -529,7 +623,7 @@ private ReliableResourceCallable retrieveResource(long bytesRead) {
 
       reliableResourceCallable =
           new ReliableResourceCallable(
-              resourceInputStream, countingFbos, fos, downloaderConfig.getChunkSize(), lock);
+              resourceInputStream, clientOutputStream, fos, downloaderConfig.getChunkSize(), lock);
 
       // So that Callable can account for bytes read in previous download attempt(s)
       reliableResourceCallable.setBytesRead(bytesRead);
@@ -614,6 +708,32 @@ public String getReliableResourceInputStreamState() {
     return streamReadByClient.getDownloadState().getDownloadState().name();
   }
 
+  /** Returns the average rate, in bytes per second, the product has been downloaded at. */
+  public long getBytesPerSecond() {
+    ReliableResourceCallable callable = reliableResourceCallable;
+    if (callable == null || downloadStartTime == 0) {
+      return 0;
+    }
+    long endTime = downloadEndTime != 0 ? downloadEndTime : System.currentTimeMillis();
+    long elapsedMS = endTime - downloadStartTime;
+    if (elapsedMS <= 0) {
+      return 0;
+    }
+    long bytesDownloaded =
+        callable instanceof SegmentedResourceCallable
+            ? ((SegmentedResourceCallable) callable).getBytesDownloaded()
+            : callable.getBytesRead();
+    return bytesDownloaded * 1000 / elapsedMS;
+  }
+
+  /** Returns the number of segments the product is being downloaded in concurrently. */
+  public int getSegmentCount() {
+    ReliableResourceCallable callable = reliableResourceCallable;
+    return callable instanceof SegmentedResourceCallable
+        ? ((SegmentedResourceCallable) callable).getSegmentCount()
+        : 1;
+  }
+
   public String getResourceSize() {
     return metacard.getResourceSize();
   }
@@ -16,6 +16,9 @@
 import ddf.catalog.cache.impl.ResourceCacheImpl;
 import ddf.catalog.event.retrievestatus.DownloadsStatusEventListener;
 import ddf.catalog.event.retrievestatus.DownloadsStatusEventPublisher;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 
 public class ReliableResourceDownloaderConfig {
 
@@ -25,6 +28,10 @@ public class ReliableResourceDownloaderConfig {
 
   private static final int DEFAULT_CHUNK_SIZE = 1 * MB;
 
+  private static final long DEFAULT_MIN_SEGMENT_SIZE = 8 * MB;
+
+  private static final int DEFAULT_MAX_CONNECTIONS_PER_SOURCE = 8;
+
   private int maxRetryAttempts = 3;
 
   private int delayBetweenAttemptsMS = 10000;
@@ -45,6 +52,14 @@ public class ReliableResourceDownloaderConfig {
 
   private int chunkSize = DEFAULT_CHUNK_SIZE;
 
+  private int segmentCount = 1;
+
+  private long minSegmentSize = DEFAULT_MIN_SEGMENT_SIZE;
+
+  private int maxConnectionsPerSource = DEFAULT_MAX_CONNECTIONS_PER_SOURCE;
+
+  private volatile ConcurrentMap<String, Semaphore> sourceConnections = new ConcurrentHashMap<>();
+
   public int getChunkSize() {
     return chunkSize;
   }
@@ -124,4 +139,46 @@ public boolean isCacheWhenCanceled() {
   public void setCacheWhenCanceled(boolean cacheWhenCanceled) {
     this.cacheWhenCanceled = cacheWhenCanceled;
   }
+
+  public int getSegmentCount() {
+    return segmentCount;
+  }
+
+  /**
+   * @param segmentCount the maximum number of byte ranges of a product downloaded concurrently from
+   *     a source that supports byte ranges; products are downloaded over a single connection when
+   *     it is 1
+   */
+  public void setSegmentCount(int segmentCount) {
+    this.segmentCount = Math.max(segmentCount, 1);
+  }
+
+  public long getMinSegmentSize() {
+    return minSegmentSize;
+  }
+
+  /** @param minSegmentSize the smallest number of bytes downloaded by a segment */
+  public void setMinSegmentSize(long minSegmentSize) {
+    this.minSegmentSize = Math.max(minSegmentSize, 1);
+  }
+
+  public int getMaxConnectionsPerSource() {
+    return maxConnectionsPerSource;
+  }
+
+  /**
+   * @param maxConnectionsPerSource the maximum number of connections the segments of all downloads
+   *     from a source may have open at once
+   */
+  public void setMaxConnectionsPerSource(int maxConnectionsPerSource) {
+    this.maxConnectionsPerSource = Math.max(maxConnectionsPerSource, 1);
+    // Downloads in progress release their connections to the permits they were acquired from
+    this.sourceConnections = new ConcurrentHashMap<>();
+  }
+
+  /** Returns the permits for the connections the segments of downloads may open to a source. */
+  public Semaphore getSourceConnections(String sourceId) {
+    return sourceConnections.computeIfAbsent(
+        sourceId, id -> new Semaphore(maxConnectionsPerSource));
+  }
 }
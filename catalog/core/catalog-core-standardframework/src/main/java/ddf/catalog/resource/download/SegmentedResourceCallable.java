@@ -0,0 +1,391 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource.download;
+
+import com.google.common.io.CountingOutputStream;
+import ddf.catalog.resource.ResourceNotFoundException;
+import ddf.catalog.resource.ResourceNotSupportedException;
+import ddf.catalog.resource.download.ReliableResourceStatus.DownloadStatus;
+import ddf.catalog.resourceretriever.ResourceRetriever;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.io.IOUtils;
+import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SegmentedResourceCallable downloads a product from a source that supports byte ranges in several
+ * segments concurrently, each over its own connection. The segments are written at their offsets
+ * in the product's cache file, which is preallocated to the size of the product, and the product
+ * is copied in order from the cache file to the @FileBackedOutputStream read by the client as the
+ * segments at its start complete.
+ *
+ * <p>The first segment is read from the product @InputStream already retrieved, and the others are
+ * retrieved with their byte range. A segment that fails is re-retrieved from the last byte it read,
+ * up to the maximum number of retry attempts. If a segment still cannot be downloaded, a
+ * PRODUCT_INPUT_STREAM_EXCEPTION status is returned with the number of bytes copied to the client,
+ * so that the @ReliableResourceDownloader continues the download over a single connection.
+ *
+ * <p>The number of bytes read watched by the @ResourceRetrievalMonitor is the number of bytes
+ * copied to the client, so a stalled segment the client is waiting for interrupts the download.
+ */
+public class SegmentedResourceCallable extends ReliableResourceCallable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedResourceCallable.class);
+
+  private static final long PROGRESS_WAIT_MS = 100;
+
+  private final ResourceRetriever retriever;
+
+  private final CountingOutputStream countingFbos;
+
+  private final Path cacheFilePath;
+
+  private final long size;
+
+  private final ReliableResourceDownloaderConfig downloaderConfig;
+
+  private final Object lock;
+
+  private final List<Segment> segments;
+
+  // Notified by the segments as they write to the cache file
+  private final Object progress = new Object();
+
+  private final AtomicLong bytesDownloaded = new AtomicLong(0);
+
+  // Only written by the thread calling this Callable, while holding the lock
+  private volatile long bytesCopied = 0;
+
+  private volatile boolean stopped = false;
+
+  /**
+   * @param input the product @InputStream, read by the first segment
+   * @param retriever re-retrieves the byte range of each segment
+   * @param countingFbos the FileBackedOutputStream read by the client, number of bytes written to
+   *     it are counted
+   * @param cacheFilePath the cache file the segments are written to
+   * @param size the size of the product in bytes
+   * @param segmentCount the number of segments downloaded concurrently
+   * @param downloaderConfig the chunk size and retry settings of the download
+   * @param lock held while writing to the FileBackedOutputStream
+   */
+  public SegmentedResourceCallable(
+      InputStream input,
+      ResourceRetriever retriever,
+      CountingOutputStream countingFbos,
+      Path cacheFilePath,
+      long size,
+      int segmentCount,
+      ReliableResourceDownloaderConfig downloaderConfig,
+      Object lock) {
+    super(input, countingFbos, downloaderConfig.getChunkSize(), lock);
+    this.retriever = retriever;
+    this.countingFbos = countingFbos;
+    this.cacheFilePath = cacheFilePath;
+    this.size = size;
+    this.downloaderConfig = downloaderConfig;
+    this.lock = lock;
+    this.segments = createSegments(input, segmentCount);
+  }
+
+  public int getSegmentCount() {
+    return segments.size();
+  }
+
+  /** Returns the number of bytes copied to the client, which are the start of the product. */
+  @Override
+  public long getBytesRead() {
+    return bytesCopied;
+  }
+
+  /** Returns the number of bytes downloaded by all of the segments. */
+  public long getBytesDownloaded() {
+    return bytesDownloaded.get();
+  }
+
+  @Override
+  public void setInterruptDownload(boolean interruptDownload) {
+    synchronized (lock) {
+      stopped = interruptDownload;
+      setBytesRead(bytesCopied);
+      super.setInterruptDownload(interruptDownload);
+    }
+  }
+
+  @Override
+  public void setCancelDownload(boolean cancelDownload) {
+    synchronized (lock) {
+      stopped = cancelDownload;
+      setBytesRead(bytesCopied);
+      super.setCancelDownload(cancelDownload);
+    }
+  }
+
+  @Override
+  public ReliableResourceStatus call() {
+    ExecutorService segmentExecutor =
+        Executors.newFixedThreadPool(
+            segments.size(),
+            StandardThreadFactoryBuilder.newThreadFactory("reliableResourceSegmentThread"));
+
+    try (FileChannel cacheFileReader = FileChannel.open(cacheFilePath, StandardOpenOption.READ)) {
+      preallocateCacheFile();
+      for (Segment segment : segments) {
+        segmentExecutor.submit(segment);
+      }
+      copySegments(cacheFileReader);
+    } catch (IOException e) {
+      if (!stopped && !Thread.currentThread().isInterrupted()) {
+        LOGGER.info("Unable to download product in segments - bytesCopied = {}", bytesCopied, e);
+        return failed("Unable to download product in segments");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      // Stops the segments that are still downloading if the download did not complete
+      segmentExecutor.shutdownNow();
+    }
+
+    if (stopped || bytesCopied < size) {
+      ReliableResourceStatus reliableResourceStatus = getReliableResourceStatus();
+      return reliableResourceStatus != null
+          ? reliableResourceStatus
+          : failed("Segmented download interrupted");
+    }
+
+    LOGGER.debug("Entire file downloaded successfully in {} segments", segments.size());
+    ReliableResourceStatus reliableResourceStatus =
+        new ReliableResourceStatus(DownloadStatus.RESOURCE_DOWNLOAD_COMPLETE, bytesCopied);
+    reliableResourceStatus.setMessage("Download completed successfully");
+    return reliableResourceStatus;
+  }
+
+  private List<Segment> createSegments(InputStream input, int segmentCount) {
+    List<Segment> list = new ArrayList<>(segmentCount);
+    long segmentSize = (size + segmentCount - 1) / segmentCount;
+    for (long start = 0; start < size; start += segmentSize) {
+      list.add(new Segment(start, Math.min(segmentSize, size - start), start == 0 ? input : null));
+    }
+    return list;
+  }
+
+  private void preallocateCacheFile() throws IOException {
+    try (FileChannel cacheFileWriter = FileChannel.open(cacheFilePath, StandardOpenOption.WRITE)) {
+      if (cacheFileWriter.size() < size) {
+        // Writing the last byte extends the file without allocating the bytes before it on file
+        // systems that support sparse files
+        cacheFileWriter.write(ByteBuffer.wrap(new byte[1]), size - 1);
+      }
+    }
+  }
+
+  /** Copies the segments from the cache file to the client, in order, as they are downloaded. */
+  private void copySegments(FileChannel cacheFileReader) throws IOException, InterruptedException {
+    ByteBuffer buffer = ByteBuffer.allocate(downloaderConfig.getChunkSize());
+
+    while (bytesCopied < size && !stopped) {
+      long contiguousBytes = getContiguousBytes();
+      Segment nextSegment = getNextSegment();
+      if (contiguousBytes > bytesCopied) {
+        copy(cacheFileReader, buffer, contiguousBytes);
+      } else if (nextSegment != null && nextSegment.failure != null) {
+        // The client has received every byte before the segment that failed
+        throw new IOException("Unable to download segment of product", nextSegment.failure);
+      } else {
+        synchronized (progress) {
+          if (nextSegment != null
+              && nextSegment.failure == null
+              && getContiguousBytes() == bytesCopied) {
+            progress.wait(PROGRESS_WAIT_MS);
+          }
+        }
+      }
+    }
+  }
+
+  private void copy(FileChannel cacheFileReader, ByteBuffer buffer, long contiguousBytes)
+      throws IOException {
+    while (bytesCopied < contiguousBytes) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), contiguousBytes - bytesCopied));
+      int n = cacheFileReader.read(buffer, bytesCopied);
+      if (n <= 0) {
+        throw new EOFException("Cache file ended at " + bytesCopied + " bytes");
+      }
+
+      // Synchronized so that the number of bytes copied is not out of sync with the number of
+      // bytes written to the FileBackedOutputStream when this Callable is interrupted or canceled
+      synchronized (lock) {
+        if (stopped) {
+          return;
+        }
+        countingFbos.write(buffer.array(), 0, n);
+        countingFbos.flush();
+        bytesCopied += n;
+      }
+    }
+  }
+
+  /** Returns the number of bytes at the start of the product that have been downloaded. */
+  private long getContiguousBytes() {
+    long contiguousBytes = 0;
+    for (Segment segment : segments) {
+      long segmentBytesRead = segment.bytesRead.get();
+      contiguousBytes += segmentBytesRead;
+      if (segmentBytesRead < segment.length) {
+        break;
+      }
+    }
+    return contiguousBytes;
+  }
+
+  /** Returns the first segment that has not been completely downloaded. */
+  private Segment getNextSegment() {
+    for (Segment segment : segments) {
+      if (segment.bytesRead.get() < segment.length) {
+        return segment;
+      }
+    }
+    return null;
+  }
+
+  private ReliableResourceStatus failed(String message) {
+    ReliableResourceStatus reliableResourceStatus =
+        new ReliableResourceStatus(DownloadStatus.PRODUCT_INPUT_STREAM_EXCEPTION, bytesCopied);
+    reliableResourceStatus.setMessage(message);
+    return reliableResourceStatus;
+  }
+
+  private void signalProgress() {
+    synchronized (progress) {
+      progress.notifyAll();
+    }
+  }
+
+  /** Downloads a byte range of the product to the cache file. */
+  private class Segment implements Runnable {
+
+    private final long start;
+
+    private final long length;
+
+    private final AtomicLong bytesRead = new AtomicLong(0);
+
+    private volatile Exception failure;
+
+    private InputStream input;
+
+    // The product InputStream read by the first segment is closed by the downloader
+    private boolean inputRetrieved = false;
+
+    Segment(long start, long length, InputStream input) {
+      this.start = start;
+      this.length = length;
+      this.input = input;
+    }
+
+    @Override
+    public void run() {
+      byte[] buffer = new byte[downloaderConfig.getChunkSize()];
+      int failedAttempts = 0;
+
+      try (FileChannel cacheFileWriter =
+          FileChannel.open(cacheFilePath, StandardOpenOption.WRITE)) {
+        while (bytesRead.get() < length && !stopped) {
+          int n;
+          try {
+            if (input == null) {
+              input = retrieve();
+            }
+            n = input.read(buffer, 0, (int) Math.min(buffer.length, length - bytesRead.get()));
+            if (n == -1) {
+              throw new EOFException(
+                  String.format(
+                      "Segment at offset %d ended after %d of %d bytes",
+                      start, bytesRead.get(), length));
+            }
+          } catch (ResourceNotFoundException | ResourceNotSupportedException | IOException e) {
+            if (stopped || Thread.currentThread().isInterrupted()) {
+              return;
+            }
+            failedAttempts++;
+            if (failedAttempts >= downloaderConfig.getMaxRetryAttempts()) {
+              fail(e);
+              return;
+            }
+            LOGGER.debug(
+                "Retrying segment at offset {} after {} bytes read", start, bytesRead.get(), e);
+            closeInput();
+            Thread.sleep(downloaderConfig.getDelayBetweenAttemptsMS());
+            continue;
+          }
+
+          ByteBuffer source = ByteBuffer.wrap(buffer, 0, n);
+          long position = start + bytesRead.get();
+          while (source.hasRemaining()) {
+            position += cacheFileWriter.write(source, position);
+          }
+          bytesRead.addAndGet(n);
+          bytesDownloaded.addAndGet(n);
+          signalProgress();
+        }
+      } catch (IOException e) {
+        if (!stopped) {
+          LOGGER.info("IOException during write of segment at offset {} to cached file", start, e);
+          fail(e);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        closeInput();
+      }
+    }
+
+    private InputStream retrieve()
+        throws ResourceNotFoundException, ResourceNotSupportedException, IOException {
+      long offset = start + bytesRead.get();
+      long remaining = length - bytesRead.get();
+      LOGGER.debug("Retrieving {} bytes of product at offset {}", remaining, offset);
+      InputStream retrievedInput =
+          retriever.retrieveResource(offset, remaining).getResource().getInputStream();
+      inputRetrieved = true;
+      return retrievedInput;
+    }
+
+    private void fail(Exception e) {
+      failure = e;
+      signalProgress();
+    }
+
+    private void closeInput() {
+      if (inputRetrieved) {
+        IOUtils.closeQuietly(input);
+      }
+      input = null;
+      inputRetrieved = false;
+    }
+  }
+}
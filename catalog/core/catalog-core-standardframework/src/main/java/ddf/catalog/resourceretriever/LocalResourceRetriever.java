@@ -50,6 +50,12 @@ public ResourceResponse retrieveResource() throws ResourceNotFoundException {
 
   @Override
   public ResourceResponse retrieveResource(long bytesToSkip) throws ResourceNotFoundException {
+    return retrieveResource(bytesToSkip, 0);
+  }
+
+  @Override
+  public ResourceResponse retrieveResource(long bytesToSkip, long bytesToRead)
+      throws ResourceNotFoundException {
     final String methodName = "retrieveResource";
     LOGGER.trace("ENTERING: {}", methodName);
     ResourceResponse resource = null;
@@ -64,6 +70,10 @@ public ResourceResponse retrieveResource(long bytesToSkip) throws ResourceNotFou
       props.put(BYTES_TO_SKIP, Long.valueOf(bytesToSkip));
     }
 
+    if (bytesToRead > 0) {
+      props.put(BYTES_TO_READ, Long.valueOf(bytesToRead));
+    }
+
     for (ResourceReader reader : resourceReaders) {
       if (reader != null) {
         String scheme = resourceUri.getScheme();
@@ -13,6 +13,7 @@
  */
 package ddf.catalog.resourceretriever;
 
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceNotSupportedException;
@@ -20,11 +21,24 @@
 
 public interface ResourceRetriever {
 
-  static final String BYTES_TO_SKIP = "BytesToSkip";
+  static final String BYTES_TO_SKIP = ResourceRequest.BYTES_TO_SKIP;
+
+  static final String BYTES_TO_READ = ResourceRequest.BYTES_TO_READ;
 
   public ResourceResponse retrieveResource()
       throws ResourceNotFoundException, ResourceNotSupportedException, IOException;
 
   public ResourceResponse retrieveResource(long bytesToSkip)
       throws ResourceNotFoundException, ResourceNotSupportedException, IOException;
+
+  /**
+   * Retrieves a byte range of the resource. Sources that do not support byte ranges may return
+   * the rest of the resource after the skipped bytes, so callers read no more than {@code
+   * bytesToRead} bytes.
+   *
+   * @param bytesToSkip the number of bytes at the start of the resource to skip
+   * @param bytesToRead the number of bytes to retrieve after those skipped
+   */
+  public ResourceResponse retrieveResource(long bytesToSkip, long bytesToRead)
+      throws ResourceNotFoundException, ResourceNotSupportedException, IOException;
 }
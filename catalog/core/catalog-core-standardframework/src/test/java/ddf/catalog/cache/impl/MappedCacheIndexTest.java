@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.impl;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.resource.data.ReliableResource;
+import java.io.File;
+import java.io.IOException;
+import javax.activation.MimeType;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedCacheIndexTest {
+
+  @Rule public TemporaryFolder testFolder = new TemporaryFolder();
+
+  private File cacheDir;
+
+  private long maxDirSizeBytes = 0;
+
+  private MappedCacheIndex index;
+
+  @Before
+  public void setUp() throws IOException {
+    cacheDir = testFolder.newFolder("Product_Cache");
+    index = new MappedCacheIndex(cacheDir.getAbsolutePath(), () -> maxDirSizeBytes);
+  }
+
+  @After
+  public void tearDown() {
+    index.close();
+  }
+
+  @Test
+  public void testPutThenGet() throws IOException {
+    index.put(createResource("key1", 10));
+
+    ReliableResource resource = index.get("key1");
+    assertThat(resource, notNullValue());
+    assertThat(resource.getKey(), is("key1"));
+    assertThat(resource.getSize(), is(10L));
+    assertThat(resource.getMetacard().getId(), is("key1"));
+    assertThat(index.get("key2"), nullValue());
+    assertThat(index.isCreated(), is(true));
+  }
+
+  @Test
+  public void testEntriesAreReloaded() throws IOException {
+    index.put(createResource("key1", 10));
+    index.put(createResource("key2", 20));
+    index.put(createResource("key1", 30));
+    index.remove("key2");
+    index.close();
+
+    index = new MappedCacheIndex(cacheDir.getAbsolutePath(), () -> maxDirSizeBytes);
+
+    assertThat(index.isCreated(), is(false));
+    assertThat(index.size(), is(1));
+    assertThat(index.getCacheDirSize(), is(30L));
+    assertThat(index.get("key1").getSize(), is(30L));
+    assertThat(index.get("key2"), nullValue());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+    maxDirSizeBytes = 25;
+    ReliableResource first = createResource("key1", 10);
+    index.put(first);
+    index.put(createResource("key2", 10));
+    index.get("key1");
+
+    index.put(createResource("key3", 10));
+
+    assertThat(index.get("key1"), notNullValue());
+    assertThat(index.get("key2"), nullValue());
+    assertThat(index.get("key3"), notNullValue());
+    assertThat(new File(cacheDir, "key2").exists(), is(false));
+    assertThat(new File(first.getFilePath()).exists(), is(true));
+    assertThat(index.getCacheDirSize(), is(20L));
+  }
+
+  @Test
+  public void testLogIsCompacted() throws IOException {
+    ReliableResource resource = createResource("key1", 10);
+    for (int i = 0; i < 10000; i++) {
+      index.put(resource);
+    }
+    index.put(createResource("key2", 20));
+    index.close();
+
+    assertThat(new File(cacheDir, MappedCacheIndex.LOG_FILE_NAME).length(), lessThan(8_000_000L));
+
+    index = new MappedCacheIndex(cacheDir.getAbsolutePath(), () -> maxDirSizeBytes);
+    assertThat(index.size(), is(2));
+    assertThat(index.get("key1").getKey(), is("key1"));
+    assertThat(index.get("key2").getSize(), is(20L));
+  }
+
+  private ReliableResource createResource(String key, long size) throws IOException {
+    File product = new File(cacheDir, key);
+    FileUtils.writeStringToFile(product, key);
+
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId(key);
+    metacard.setMetadata(FileUtils.readFileToString(product));
+
+    ReliableResource resource =
+        new ReliableResource(key, product.getAbsolutePath(), new MimeType(), key, metacard);
+    resource.setSize(size);
+    return resource;
+  }
+}
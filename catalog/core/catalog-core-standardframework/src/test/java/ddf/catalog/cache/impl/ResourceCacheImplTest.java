@@ -106,6 +106,23 @@ public void testPutThenGet() throws URISyntaxException {
     assertFalse(resourceCache.isPending(CACHED_RESOURCE_KEY));
   }
 
+  @Test
+  public void testPutThenGetWithMappedIndex() throws URISyntaxException {
+    resourceCache.setCacheIndex(ResourceCacheImpl.MAPPED_CACHE_INDEX);
+    Metacard metacard = generateMetacard();
+    ReliableResource reliableResource = createCachedResource(metacard);
+
+    resourceCache.put(reliableResource);
+    resourceCache.teardownCache();
+    resourceCache.initCache();
+
+    assertTrue(
+        assertReliableResourceEquals(
+            reliableResource, resourceCache.getValid(CACHED_RESOURCE_KEY, metacard)));
+    assertTrue(
+        defaultProductCacheDirectory.resolve(MappedCacheIndex.LOG_FILE_NAME).toFile().exists());
+  }
+
   /**
    * Verifies that put() method works even if entry being added was never in the pending cache list.
    */
@@ -19,12 +19,16 @@
 import static ddf.catalog.cache.solr.impl.CachingFederationStrategy.QUERY_MODE;
 import static ddf.catalog.cache.solr.impl.CachingFederationStrategy.UPDATE_QUERY_MODE;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -63,6 +67,8 @@
 import ddf.catalog.source.CatalogProvider;
 import ddf.catalog.source.Source;
 import ddf.catalog.source.UnsupportedQueryException;
+import ddf.security.SecurityConstants;
+import ddf.security.Subject;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -70,8 +76,11 @@
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import org.apache.shiro.subject.PrincipalCollection;
 import org.codice.ddf.configuration.SystemInfo;
 import org.geotools.filter.NullFilterImpl;
 import org.junit.After;
@@ -209,6 +218,115 @@ public void testFederateGetResults() throws Exception {
     assertThat(federateResponse.getResults().size(), is(sourceList.size()));
   }
 
+  @Test
+  public void testFederateAsyncSources() throws Exception {
+    QueryRequest fedQueryRequest = new QueryRequestImpl(mockQuery, false, null, properties);
+
+    Source mockSource1 = getMockSource();
+    Source mockSource2 = getMockAsyncSource();
+    Source mockSource3 = getMockAsyncSource();
+
+    List<Source> sourceList = ImmutableList.of(mockSource1, mockSource2, mockSource3);
+
+    QueryResponse federateResponse = federateStrategy.federate(sourceList, fedQueryRequest);
+
+    assertThat(federateResponse.getResults().size(), is(sourceList.size()));
+    verify(mockSource2).queryAsync(any(QueryRequest.class), any(Executor.class));
+    verify(mockSource2, never()).query(any(QueryRequest.class));
+  }
+
+  @Test
+  public void testCursorIsContinuedByOwner() throws Exception {
+    List<Source> sourceList = ImmutableList.of(getMockSource());
+    Query query = getCursorQuery("first");
+    Subject subject = getMockSubject("alice");
+
+    QueryResponse firstPage =
+        federateStrategy.federate(
+            sourceList, getCursorRequest(query, subject, Constants.QUERY_CURSOR_START));
+    String token = (String) firstPage.getPropertyValue(Constants.QUERY_CURSOR_KEY);
+    QueryResponse secondPage =
+        federateStrategy.federate(sourceList, getCursorRequest(query, subject, token));
+
+    assertThat(token, is(notNullValue()));
+    assertThat(secondPage.getResults().size(), is(1));
+    assertThat(secondPage.getProcessingDetails().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testCursorIsContinuedWithEqualQuery() throws Exception {
+    List<Source> sourceList = ImmutableList.of(getMockSource());
+    Subject subject = getMockSubject("alice");
+
+    QueryResponse firstPage =
+        federateStrategy.federate(
+            sourceList,
+            getCursorRequest(getCursorQuery("first"), subject, Constants.QUERY_CURSOR_START));
+    String token = (String) firstPage.getPropertyValue(Constants.QUERY_CURSOR_KEY);
+    QueryResponse secondPage =
+        federateStrategy.federate(
+            sourceList, getCursorRequest(getCursorQuery("first"), subject, token));
+
+    assertThat(secondPage.getResults().size(), is(1));
+    assertThat(secondPage.getProcessingDetails().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testCursorOfAnotherSubjectIsUnknown() throws Exception {
+    Source source = getMockSource();
+    List<Source> sourceList = ImmutableList.of(source);
+    Query query = getCursorQuery("first");
+
+    QueryResponse firstPage =
+        federateStrategy.federate(
+            sourceList,
+            getCursorRequest(query, getMockSubject("alice"), Constants.QUERY_CURSOR_START));
+    String token = (String) firstPage.getPropertyValue(Constants.QUERY_CURSOR_KEY);
+    QueryResponse otherPage =
+        federateStrategy.federate(
+            sourceList, getCursorRequest(query, getMockSubject("bob"), token));
+
+    assertUnknownCursor(otherPage);
+    verify(source, times(1)).query(any(QueryRequest.class));
+  }
+
+  @Test
+  public void testCursorOfAnotherQueryIsUnknown() throws Exception {
+    Source source = getMockSource();
+    List<Source> sourceList = ImmutableList.of(source);
+    Subject subject = getMockSubject("alice");
+
+    QueryResponse firstPage =
+        federateStrategy.federate(
+            sourceList,
+            getCursorRequest(getCursorQuery("first"), subject, Constants.QUERY_CURSOR_START));
+    String token = (String) firstPage.getPropertyValue(Constants.QUERY_CURSOR_KEY);
+    QueryResponse otherPage =
+        federateStrategy.federate(
+            sourceList, getCursorRequest(getCursorQuery("second"), subject, token));
+
+    assertUnknownCursor(otherPage);
+    verify(source, times(1)).query(any(QueryRequest.class));
+  }
+
+  @Test
+  public void testCursorIsKeptAfterMismatch() throws Exception {
+    List<Source> sourceList = ImmutableList.of(getMockSource());
+    Query query = getCursorQuery("first");
+    Subject subject = getMockSubject("alice");
+
+    QueryResponse firstPage =
+        federateStrategy.federate(
+            sourceList, getCursorRequest(query, subject, Constants.QUERY_CURSOR_START));
+    String token = (String) firstPage.getPropertyValue(Constants.QUERY_CURSOR_KEY);
+    federateStrategy.federate(sourceList, getCursorRequest(query, getMockSubject("bob"), token));
+    QueryResponse secondPage =
+        federateStrategy.federate(sourceList, getCursorRequest(query, subject, token));
+
+    assertThat(secondPage.getResults().size(), is(1));
+    assertThat(secondPage.getProcessingDetails().isEmpty(), is(true));
+  }
+
   @Test
   public void testFederateGetEmptyResults() throws Exception {
     QueryRequest fedQueryRequest = new QueryRequestImpl(mockQuery, false, null, properties);
@@ -809,6 +927,51 @@ private Source getMockSource() throws UnsupportedQueryException {
     return mockSource;
   }
 
+  private Query getCursorQuery(String text) {
+    return new QueryImpl(
+        new GeotoolsFilterBuilder().attribute(Metacard.ANY_TEXT).is().like().text(text),
+        1,
+        1,
+        null,
+        false,
+        LONG_TIMEOUT);
+  }
+
+  private QueryRequest getCursorRequest(Query query, Subject subject, String token) {
+    Map<String, Serializable> cursorProperties = new HashMap<>();
+    cursorProperties.put(SecurityConstants.SECURITY_SUBJECT, subject);
+    cursorProperties.put(Constants.QUERY_CURSOR_KEY, token);
+    return new QueryRequestImpl(query, false, null, cursorProperties);
+  }
+
+  private Subject getMockSubject(String name) {
+    PrincipalCollection principals = mock(PrincipalCollection.class);
+    when(principals.getPrimaryPrincipal()).thenReturn(name);
+    Subject subject = mock(Subject.class);
+    when(subject.getPrincipals()).thenReturn(principals);
+    return subject;
+  }
+
+  private void assertUnknownCursor(QueryResponse response) {
+    assertThat(response.getResults().isEmpty(), is(true));
+    assertThat(response.getPropertyValue(Constants.QUERY_CURSOR_KEY), is(nullValue()));
+    assertThat(response.getProcessingDetails().size(), is(1));
+    assertThat(
+        response.getProcessingDetails().iterator().next().getException(),
+        is(instanceOf(UnsupportedQueryException.class)));
+  }
+
+  private Source getMockAsyncSource() {
+    Source mockSource = mock(Source.class);
+    when(mockSource.getId()).thenReturn(UUID.randomUUID().toString());
+
+    when(mockSource.isAsyncQuerySupported()).thenReturn(true);
+    when(mockSource.queryAsync(any(QueryRequest.class), any(Executor.class)))
+        .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+    return mockSource;
+  }
+
   private void verifyCacheUpdated() {
     for (Result result : cacheArgs.getValue()) {
       assertThat(result.getMetacard().getId(), is(metacard.getId()));
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.solr.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ddf.catalog.Constants;
+import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.ResultImpl;
+import ddf.catalog.operation.SourceResponse;
+import ddf.catalog.operation.impl.SourceResponseImpl;
+import ddf.catalog.source.solr.SolrMetacardClientImpl;
+import ddf.catalog.util.impl.RelevanceResultComparator;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.filter.sort.SortOrder;
+
+public class QueryCursorTest {
+
+  private static final int PAGE_SIZE = 3;
+
+  private QueryCursor cursor;
+
+  @Before
+  public void setUp() {
+    cursor = new QueryCursor("owner", "query");
+  }
+
+  @Test
+  public void testOffsetSourcePaging() {
+    QueryCursor.SourceCursor sourceCursor = cursor.getSourceCursor("source");
+    assertThat(sourceCursor.getStartIndex()).isEqualTo(1);
+    assertThat(sourceCursor.getResultsNeeded(PAGE_SIZE)).isEqualTo(PAGE_SIZE);
+
+    sourceCursor.addResponse(cursor, getResponse(null, 10, 9.0, 8.0, 7.0), 3, PAGE_SIZE);
+
+    assertThat(cursor.getHits()).isEqualTo(10);
+    assertThat(getScores(cursor.nextPage(getComparator(), 2))).containsExactly(9.0, 8.0);
+    assertThat(sourceCursor.getStartIndex()).isEqualTo(4);
+    assertThat(sourceCursor.getResultsNeeded(PAGE_SIZE)).isEqualTo(2);
+    assertThat(cursor.isExhausted()).isFalse();
+
+    sourceCursor.addResponse(cursor, getResponse(null, 10, 6.0), 1, 2);
+
+    assertThat(cursor.getHits()).isEqualTo(10);
+    assertThat(sourceCursor.getResultsNeeded(PAGE_SIZE)).isEqualTo(0);
+    assertThat(getScores(cursor.nextPage(getComparator(), PAGE_SIZE))).containsExactly(7.0, 6.0);
+    assertThat(cursor.isExhausted()).isTrue();
+  }
+
+  @Test
+  public void testCursorMarkSourcePaging() {
+    QueryCursor.SourceCursor sourceCursor = cursor.getSourceCursor("solr");
+    Map<String, Serializable> properties = new HashMap<>();
+    sourceCursor.addRequestProperties(properties);
+    assertThat(properties)
+        .containsEntry(SolrMetacardClientImpl.CURSOR_MARK_KEY, Constants.QUERY_CURSOR_START);
+
+    sourceCursor.addResponse(cursor, getResponse("mark1", 5, 3.0, 2.0, 1.0), 3, PAGE_SIZE);
+    cursor.nextPage(getComparator(), PAGE_SIZE);
+
+    properties.clear();
+    sourceCursor.addRequestProperties(properties);
+    assertThat(properties).containsEntry(SolrMetacardClientImpl.CURSOR_MARK_KEY, "mark1");
+    assertThat(sourceCursor.getStartIndex()).isEqualTo(1);
+
+    sourceCursor.addResponse(cursor, getResponse("mark1", 5), 0, PAGE_SIZE);
+    assertThat(cursor.isExhausted()).isTrue();
+  }
+
+  @Test
+  public void testMergeAcrossSources() {
+    cursor.getSourceCursor("a").addResponse(cursor, getResponse(null, 2, 5.0, 1.0), 2, PAGE_SIZE);
+    cursor.getSourceCursor("b").addResponse(cursor, getResponse(null, 3, 4.0, 3.0, 2.0), 3, 3);
+
+    assertThat(cursor.getHits()).isEqualTo(5);
+    assertThat(getScores(cursor.nextPage(getComparator(), PAGE_SIZE)))
+        .containsExactly(5.0, 4.0, 3.0);
+    assertThat(cursor.getSourceCursor("a").getResultsNeeded(PAGE_SIZE)).isEqualTo(0);
+    assertThat(cursor.getSourceCursor("b").getResultsNeeded(PAGE_SIZE)).isEqualTo(2);
+  }
+
+  private SourceResponse getResponse(String nextCursorMark, long hits, Double... scores) {
+    List<Result> results = new ArrayList<>();
+    for (Double score : scores) {
+      ResultImpl result = new ResultImpl();
+      result.setRelevanceScore(score);
+      results.add(result);
+    }
+
+    Map<String, Serializable> properties = new HashMap<>();
+    if (nextCursorMark != null) {
+      properties.put(SolrMetacardClientImpl.NEXT_CURSOR_MARK_KEY, nextCursorMark);
+    }
+    return new SourceResponseImpl(null, properties, results, hits);
+  }
+
+  private RelevanceResultComparator getComparator() {
+    return new RelevanceResultComparator(SortOrder.DESCENDING);
+  }
+
+  private List<Double> getScores(List<Result> results) {
+    return results.stream().map(Result::getRelevanceScore).collect(Collectors.toList());
+  }
+}
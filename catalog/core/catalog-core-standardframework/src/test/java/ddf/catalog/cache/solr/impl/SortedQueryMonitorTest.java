@@ -241,6 +241,77 @@ public void interruptThirdFuture() throws Exception {
             NullPointerException.class, InterruptedException.class, InterruptedException.class);
   }
 
+  @Test
+  public void noQueryTimeoutStreamingMerge() throws Exception {
+    when(query.getTimeoutMillis()).thenReturn(0L);
+    when(query.getPageSize()).thenReturn(2);
+    when(queryRequest.getQuery()).thenReturn(query);
+
+    SortedQueryMonitor queryMonitor =
+        new SortedQueryMonitor(
+            cachingFederationStrategy,
+            completionService,
+            futures,
+            queryResponse,
+            queryRequest,
+            new ArrayList<>(),
+            true,
+            null);
+
+    final Iterator<Future<SourceResponse>> futureIter = getFutureIterator();
+    when(completionService.take()).thenAnswer((invocationOnMock -> futureIter.next()));
+    queryMonitor.run();
+    verify(completionService, times(4)).take();
+
+    assertThat(queryResponse.getHits()).isEqualTo(4);
+    assertThat(queryResponse.getResults().size()).isEqualTo(2);
+    assertThat(queryResponse.hasMoreResults()).isFalse();
+  }
+
+  @Test
+  public void adaptiveTimeoutReturnsPartialResults() throws Exception {
+    when(query.getTimeoutMillis()).thenReturn(0L);
+    when(queryRequest.getQuery()).thenReturn(query);
+
+    SourceLatencyTracker latencyTracker = new SourceLatencyTracker();
+    for (int i = 0; i < SourceLatencyTracker.MIN_SAMPLES; i++) {
+      for (int source = 0; source < 4; source++) {
+        latencyTracker.record("Source-" + source, 10);
+      }
+    }
+
+    SortedQueryMonitor queryMonitor =
+        new SortedQueryMonitor(
+            cachingFederationStrategy,
+            completionService,
+            futures,
+            queryResponse,
+            queryRequest,
+            new ArrayList<>(),
+            false,
+            latencyTracker);
+
+    Iterator<Future<SourceResponse>> keysIter = futures.keySet().iterator();
+    List<Future<SourceResponse>> futureKeys =
+        Lists.newArrayList(keysIter.next(), keysIter.next(), null);
+    final Iterator<Future<SourceResponse>> futureIter = futureKeys.iterator();
+
+    when(completionService.poll(anyLong(), eq(TimeUnit.MILLISECONDS)))
+        .thenAnswer((invocationOnMock -> futureIter.next()));
+    queryMonitor.run();
+    verify(completionService, times(3)).poll(anyLong(), eq(TimeUnit.MILLISECONDS));
+    verify(completionService, never()).take();
+
+    assertThat(queryResponse.getResults().size()).isEqualTo(3);
+    assertThat(queryResponse.getProcessingDetails())
+        .extracting(byName("sourceId"))
+        .contains("Source-2", "Source-3");
+    assertThat(queryResponse.getProcessingDetails())
+        .extracting(byName("exception"))
+        .extracting(byName("class"))
+        .contains(TimeoutException.class);
+  }
+
   @Test
   public void testSortAscendingNullFirst() throws Exception {
     testSorting(new String[] {null, "a"}, new String[] {null, "a"}, SortOrder.ASCENDING);
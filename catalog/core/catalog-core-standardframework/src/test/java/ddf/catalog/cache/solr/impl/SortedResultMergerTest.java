@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.solr.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.ResultImpl;
+import ddf.catalog.operation.QueryRequest;
+import ddf.catalog.operation.impl.QueryResponseImpl;
+import ddf.catalog.util.impl.RelevanceResultComparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.filter.sort.SortOrder;
+
+public class SortedResultMergerTest {
+
+  private QueryResponseImpl queryResponse;
+
+  @Before
+  public void setUp() {
+    queryResponse = new QueryResponseImpl(mock(QueryRequest.class));
+  }
+
+  @Test
+  public void testMergeSortedRuns() {
+    SortedResultMerger merger =
+        new SortedResultMerger(new RelevanceResultComparator(SortOrder.DESCENDING), 0);
+    merger.addRun(getResults(9.0, 5.0, 1.0));
+    merger.addRun(getResults(8.0, 7.0, 2.0));
+    merger.addRun(Collections.emptyList());
+    merger.addRun(getResults(6.0));
+
+    merger.mergeInto(queryResponse);
+
+    assertThat(getScores(queryResponse.getResults()))
+        .containsExactly(9.0, 8.0, 7.0, 6.0, 5.0, 2.0, 1.0);
+  }
+
+  @Test
+  public void testMergeLimitsToMaxResults() {
+    SortedResultMerger merger =
+        new SortedResultMerger(new RelevanceResultComparator(SortOrder.DESCENDING), 3);
+    merger.addRun(getResults(9.0, 5.0, 1.0));
+    merger.addRun(getResults(8.0, 7.0, 2.0));
+
+    merger.mergeInto(queryResponse);
+
+    assertThat(getScores(queryResponse.getResults())).containsExactly(9.0, 8.0, 7.0);
+  }
+
+  @Test
+  public void testMergeUnsortedRun() {
+    SortedResultMerger merger =
+        new SortedResultMerger(new RelevanceResultComparator(SortOrder.ASCENDING), 4);
+    merger.addRun(getResults(5.0, 1.0, 3.0));
+    merger.addRun(getResults(2.0, 4.0));
+
+    merger.mergeInto(queryResponse);
+
+    assertThat(getScores(queryResponse.getResults())).containsExactly(1.0, 2.0, 3.0, 4.0);
+  }
+
+  @Test
+  public void testMergeNoRuns() {
+    SortedResultMerger merger =
+        new SortedResultMerger(new RelevanceResultComparator(SortOrder.DESCENDING), 10);
+
+    merger.mergeInto(queryResponse);
+
+    assertThat(queryResponse.getResults()).isEmpty();
+    assertThat(queryResponse.hasMoreResults()).isFalse();
+  }
+
+  private List<Result> getResults(Double... scores) {
+    List<Result> results = new ArrayList<>();
+    for (Double score : scores) {
+      ResultImpl result = new ResultImpl();
+      result.setRelevanceScore(score);
+      results.add(result);
+    }
+    return results;
+  }
+
+  private List<Double> getScores(List<Result> results) {
+    return results.stream().map(Result::getRelevanceScore).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.solr.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SourceLatencyTrackerTest {
+
+  private static final String SOURCE_ID = "source";
+
+  private SourceLatencyTracker latencyTracker;
+
+  @Before
+  public void setUp() {
+    latencyTracker = new SourceLatencyTracker();
+  }
+
+  @Test
+  public void testNotEnoughSamples() {
+    latencyTracker.record(SOURCE_ID, 100);
+
+    assertThat(latencyTracker.getPercentile(SOURCE_ID, 99)).isEqualTo(-1);
+    assertThat(latencyTracker.getPercentile("unknown", 99)).isEqualTo(-1);
+    assertThat(latencyTracker.getTimeBudget(SOURCE_ID, 5000)).isEqualTo(5000);
+  }
+
+  @Test
+  public void testPercentiles() {
+    for (int i = 1; i <= SourceLatencyTracker.WINDOW_SIZE; i++) {
+      latencyTracker.record(SOURCE_ID, i);
+    }
+
+    assertThat(latencyTracker.getPercentile(SOURCE_ID, 50)).isEqualTo(50);
+    assertThat(latencyTracker.getPercentile(SOURCE_ID, 99)).isEqualTo(99);
+    assertThat(latencyTracker.getTimeBudget(SOURCE_ID, 5000)).isEqualTo(99);
+    assertThat(latencyTracker.getTimeBudget(SOURCE_ID, 0)).isEqualTo(99);
+    assertThat(latencyTracker.getTimeBudget(SOURCE_ID, 20)).isEqualTo(20);
+  }
+
+  @Test
+  public void testOldSamplesAreDropped() {
+    for (int i = 0; i < SourceLatencyTracker.WINDOW_SIZE; i++) {
+      latencyTracker.record(SOURCE_ID, 1000);
+    }
+    for (int i = 0; i < SourceLatencyTracker.WINDOW_SIZE; i++) {
+      latencyTracker.record(SOURCE_ID, 10);
+    }
+
+    assertThat(latencyTracker.getPercentile(SOURCE_ID, 99)).isEqualTo(10);
+  }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.cache.solr.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import ddf.catalog.operation.SourceResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SourceQueryCompletionServiceTest {
+
+  private SourceQueryCompletionService completionService;
+
+  @Before
+  public void setUp() {
+    completionService = new SourceQueryCompletionService(MoreExecutors.directExecutor());
+  }
+
+  @Test
+  public void testSubmittedQueryIsTakenOnceRun() throws Exception {
+    SourceResponse response = mock(SourceResponse.class);
+
+    Future<SourceResponse> future = completionService.submit(() -> response);
+
+    assertThat(completionService.take(), is(sameInstance(future)));
+    assertThat(future.get(), is(response));
+  }
+
+  @Test
+  public void testAddedQueryIsTakenOnceComplete() throws Exception {
+    SourceResponse response = mock(SourceResponse.class);
+    CompletableFuture<SourceResponse> query = new CompletableFuture<>();
+
+    Future<SourceResponse> future = completionService.add(query);
+
+    assertThat(completionService.poll(), is(nullValue()));
+    query.complete(response);
+    assertThat(completionService.poll(), is(sameInstance(future)));
+    assertThat(future.get(), is(response));
+  }
+
+  @Test
+  public void testQueriesAreTakenInOrderOfCompletion() throws Exception {
+    CompletableFuture<SourceResponse> first = new CompletableFuture<>();
+    CompletableFuture<SourceResponse> second = new CompletableFuture<>();
+
+    completionService.add(first);
+    completionService.add(second);
+    second.complete(mock(SourceResponse.class));
+    first.complete(mock(SourceResponse.class));
+
+    assertThat(completionService.take(), is(sameInstance(second)));
+    assertThat(completionService.take(), is(sameInstance(first)));
+  }
+
+  @Test(expected = ExecutionException.class)
+  public void testFailedQueryIsTaken() throws Exception {
+    CompletableFuture<SourceResponse> query = new CompletableFuture<>();
+    completionService.add(query);
+
+    query.completeExceptionally(new IllegalStateException("source failed"));
+
+    completionService.take().get();
+  }
+}
@@ -172,6 +172,25 @@ public void testUpdateResponse() throws Exception {
         equalTo(METACARD_ID));
   }
 
+  @Test
+  public void testUpdateResponseAsyncVersioning() throws Exception {
+    historian.setAsyncVersioning(true);
+    historian.setMaxVersionLagMillis(0);
+    UpdateResponse updateResponse = createUpdateResponse(null);
+    List<Update> updateList = createUpdatedMetacardList();
+    when(updateResponse.getUpdatedMetacards()).thenReturn(updateList);
+
+    historian.version(updateResponse);
+    historian.destroy();
+
+    ArgumentCaptor<CreateRequest> createRequest = ArgumentCaptor.forClass(CreateRequest.class);
+    verify(catalogProvider).create(createRequest.capture());
+    Metacard versionedMetacard = createRequest.getValue().getMetacards().get(0);
+    assertThat(
+        versionedMetacard.getAttribute(MetacardVersion.VERSION_OF_ID).getValue(),
+        equalTo(METACARD_ID));
+  }
+
   @Test
   public void testUpdateStorageResponseHistorianDisabled()
       throws SourceUnavailableException, IngestException, UnsupportedQueryException {
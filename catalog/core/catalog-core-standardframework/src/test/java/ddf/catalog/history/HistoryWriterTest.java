@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.history;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+public class HistoryWriterTest {
+
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+  private HistoryWriter writer;
+
+  @After
+  public void tearDown() {
+    if (writer != null) {
+      writer.shutdown();
+    }
+  }
+
+  @Test
+  public void testWritesFullBatchWithoutWaitingForLag() throws Exception {
+    CountDownLatch written = new CountDownLatch(1);
+    writer =
+        new HistoryWriter(
+            metacards -> {
+              store(metacards);
+              written.countDown();
+            },
+            3,
+            TimeUnit.MINUTES.toMillis(1));
+
+    assertThat(writer.write(metacards("1", "2")), is(true));
+    assertThat(writer.write(metacards("3")), is(true));
+
+    assertThat(written.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(batches, contains(Arrays.asList("1", "2", "3")));
+  }
+
+  @Test
+  public void testWritesPartialBatchAfterLag() throws Exception {
+    CountDownLatch written = new CountDownLatch(1);
+    writer =
+        new HistoryWriter(
+            metacards -> {
+              store(metacards);
+              written.countDown();
+            },
+            100,
+            50);
+
+    writer.write(metacards("1"));
+
+    assertThat(written.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(batches, contains(Collections.singletonList("1")));
+  }
+
+  @Test
+  public void testShutdownWritesQueuedMetacards() {
+    writer = new HistoryWriter(this::store, 100, TimeUnit.MINUTES.toMillis(1));
+
+    writer.write(metacards("1"));
+    writer.write(metacards("2"));
+    writer.shutdown();
+
+    assertThat(flatten(), contains("1", "2"));
+    assertThat(writer.write(metacards("3")), is(false));
+  }
+
+  @Test
+  public void testRejectsMetacardsWhenQueueIsFull() throws Exception {
+    CountDownLatch storing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    writer =
+        new HistoryWriter(
+            metacards -> {
+              storing.countDown();
+              release.await();
+              store(metacards);
+            },
+            1,
+            0);
+
+    writer.write(metacards("blocking"));
+    assertThat(storing.await(10, TimeUnit.SECONDS), is(true));
+
+    boolean rejected = false;
+    for (int i = 0; i < 100 && !rejected; i++) {
+      rejected = !writer.write(metacards(String.valueOf(i)));
+    }
+    release.countDown();
+
+    assertThat(rejected, is(true));
+  }
+
+  @Test
+  public void testStoreFailureDoesNotStopWriter() throws Exception {
+    CountDownLatch written = new CountDownLatch(1);
+    writer =
+        new HistoryWriter(
+            metacards -> {
+              if (metacards.get(0).getId().equals("fail")) {
+                throw new IllegalStateException("Unable to store");
+              }
+              store(metacards);
+              written.countDown();
+            },
+            1,
+            0);
+
+    writer.write(metacards("fail"));
+    writer.write(metacards("1"));
+
+    assertThat(written.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(batches, contains(Collections.singletonList("1")));
+  }
+
+  @Test
+  public void testEmptyWriteIsIgnored() {
+    writer = new HistoryWriter(this::store, 1, 0);
+
+    assertThat(writer.write(Collections.emptyList()), is(true));
+    writer.shutdown();
+
+    assertThat(batches, is(empty()));
+  }
+
+  private void store(List<Metacard> metacards) {
+    batches.add(metacards.stream().map(Metacard::getId).collect(Collectors.toList()));
+  }
+
+  private List<String> flatten() {
+    List<String> ids = new ArrayList<>();
+    batches.forEach(ids::addAll);
+    return ids;
+  }
+
+  private static List<Metacard> metacards(String... ids) {
+    return Arrays.stream(ids)
+        .map(
+            id -> {
+              MetacardImpl metacard = new MetacardImpl();
+              metacard.setId(id);
+              return metacard;
+            })
+        .collect(Collectors.toList());
+  }
+}
@@ -15,6 +15,8 @@
 
 import static java.time.temporal.ChronoUnit.DAYS;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -160,6 +162,7 @@
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -1169,6 +1172,52 @@ public void testDelete() throws Exception {
     assertEquals(eventAdmin.getLastEvent(), array[array.length - 1]);
   }
 
+  /**
+   * Tests that a delete by a non-ID attribute looks up its metacards in batches and returns every
+   * deleted metacard.
+   */
+  @Test
+  public void testDeleteByAttributeInBatches() throws Exception {
+    List<Metacard> metacards = new ArrayList<>();
+    for (int i = 0; i < 2500; i++) {
+      MetacardImpl metacard = new MetacardImpl();
+      metacard.setTitle("title" + i);
+      metacards.add(metacard);
+    }
+    List<Metacard> insertedCards =
+        provider.create(new CreateRequestImpl(metacards, null)).getCreatedMetacards();
+
+    Iterator<Metacard> remainingCards = insertedCards.iterator();
+    List<Integer> pageSizes = new ArrayList<>();
+    when(mockFederationStrategy.federate(anyList(), any(QueryRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              QueryRequest queryRequest = (QueryRequest) invocation.getArguments()[1];
+              int pageSize = queryRequest.getQuery().getPageSize();
+              pageSizes.add(pageSize);
+              List<Result> results = new ArrayList<>();
+              for (int i = 0; i < pageSize; i++) {
+                results.add(new ResultImpl(remainingCards.next()));
+              }
+              return new QueryResponseImpl(queryRequest, results, results.size());
+            });
+
+    when(mockRemoteDeleteOperations.performRemoteDelete(any(), any())).then(returnsSecondArg());
+    deleteOperations.setRemoteDeleteOperations(mockRemoteDeleteOperations);
+
+    List<Serializable> titles =
+        insertedCards.stream().map(Metacard::getTitle).collect(Collectors.toList());
+    List<Metacard> deletedCards =
+        framework.delete(new DeleteRequestImpl(titles, Metacard.TITLE, null)).getDeletedMetacards();
+
+    // DeleteOperations looks up at most 1000 attribute values per query by default
+    assertThat(pageSizes, contains(1000, 1000, 500));
+    assertThat(
+        deletedCards.stream().map(Metacard::getId).collect(Collectors.toList()),
+        containsInAnyOrder(insertedCards.stream().map(Metacard::getId).toArray(String[]::new)));
+    assertThat(provider.size(), is(0));
+  }
+
   @Test
   public void testInjectsAttributesOnDelete() throws Exception {
     final String title = "Delete this";
@@ -20,8 +20,11 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -38,17 +41,22 @@
 import ddf.catalog.event.retrievestatus.DownloadsStatusEventPublisher;
 import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.operation.impl.ResourceResponseImpl;
+import ddf.catalog.resource.FileBackedResource;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.catalog.resource.ResourceNotSupportedException;
 import ddf.catalog.resource.data.ReliableResource;
 import ddf.catalog.resource.download.DownloadManagerState.DownloadState;
+import ddf.catalog.resource.impl.FileBackedResourceImpl;
 import ddf.catalog.resourceretriever.ResourceRetriever;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -290,6 +298,58 @@ public void testDownloadWithCaching() throws Exception {
     cleanup();
   }
 
+  @Test
+  public void testDownloadLocalFileWithoutReliableDownload() throws Exception {
+    Metacard metacard = getMockMetacard(EXPECTED_METACARD_ID, EXPECTED_METACARD_SOURCE_ID);
+    resourceRequest = mock(ResourceRequest.class);
+    Resource localResource =
+        new FileBackedResourceImpl(
+            Paths.get(productInputFilename), new MimeType("text/plain"), "foo_10_lines.txt");
+
+    ResourceRetriever retriever = mock(ResourceRetriever.class);
+    when(retriever.retrieveResource())
+        .thenReturn(new ResourceResponseImpl(resourceRequest, new HashMap<>(), localResource));
+
+    downloadMgr.setCacheEnabled(true);
+    ResourceResponse newResourceResponse =
+        downloadMgr.download(resourceRequest, metacard, retriever);
+
+    assertThat(newResourceResponse.getResource(), is(localResource));
+    verify(resourceCache, never()).addPendingCacheEntry(any(ReliableResource.class));
+    assertThat(downloadStatusInfo.getAllDownloads().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testDownloadFromCacheSkipsBytes() throws Exception {
+    Metacard metacard = getMockMetacard(EXPECTED_METACARD_ID, EXPECTED_METACARD_SOURCE_ID);
+    resourceRequest = mock(ResourceRequest.class);
+    Map<String, Serializable> requestProperties = new HashMap<>();
+    requestProperties.put(ResourceRequest.BYTES_TO_SKIP, 5L);
+    when(resourceRequest.getProperties()).thenReturn(requestProperties);
+
+    ReliableResource cachedResource =
+        new ReliableResource(
+            EXPECTED_CACHE_KEY,
+            productInputFilename,
+            new MimeType("text/plain"),
+            "foo_10_lines.txt",
+            new MetacardImpl());
+    when(resourceCache.getValid(anyString(), any(Metacard.class))).thenReturn(cachedResource);
+    ResourceRetriever retriever = mock(ResourceRetriever.class);
+
+    downloadMgr.setCacheEnabled(true);
+    ResourceResponse newResourceResponse =
+        downloadMgr.download(resourceRequest, metacard, retriever);
+
+    Resource resource = newResourceResponse.getResource();
+    assertThat(resource, is(instanceOf(FileBackedResource.class)));
+    assertThat(resource.getSize(), is(expectedFileSize - 5));
+    assertThat(
+        new String(resource.getByteArray(), StandardCharsets.UTF_8),
+        is(expectedFileContents.substring(5)));
+    verify(retriever, never()).retrieveResource();
+  }
+
   /**
    * Verifies that if client is reading from @ReliableResourceInputStream slower than {@link
    * ReliableResourceCallable} is reading from product InputStream and writing to
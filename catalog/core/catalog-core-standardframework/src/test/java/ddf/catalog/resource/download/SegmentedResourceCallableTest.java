@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.resource.download;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.io.CountingOutputStream;
+import com.google.common.io.FileBackedOutputStream;
+import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.operation.impl.ResourceResponseImpl;
+import ddf.catalog.resource.download.ReliableResourceStatus.DownloadStatus;
+import ddf.catalog.resource.impl.ResourceImpl;
+import ddf.catalog.resourceretriever.ResourceRetriever;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.stubbing.Answer;
+
+public class SegmentedResourceCallableTest {
+
+  private static final int PRODUCT_SIZE = 10 * 1024;
+
+  private static final int SEGMENT_COUNT = 4;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private byte[] product;
+
+  private Path cacheFile;
+
+  private FileBackedOutputStream fbos;
+
+  private CountingOutputStream countingFbos;
+
+  private ReliableResourceDownloaderConfig downloaderConfig;
+
+  private ResourceRetriever retriever;
+
+  @Before
+  public void setUp() throws Exception {
+    product = new byte[PRODUCT_SIZE];
+    new Random(0).nextBytes(product);
+    cacheFile = temporaryFolder.newFile("product").toPath();
+    fbos = new FileBackedOutputStream(1024);
+    countingFbos = new CountingOutputStream(fbos);
+
+    downloaderConfig = new ReliableResourceDownloaderConfig();
+    downloaderConfig.setChunkSize(512);
+    downloaderConfig.setMaxRetryAttempts(3);
+    downloaderConfig.setDelayBetweenAttemptsMS(0);
+
+    retriever = mock(ResourceRetriever.class);
+    when(retriever.retrieveResource(anyLong(), anyLong())).thenAnswer(retrieveRange());
+  }
+
+  @Test
+  public void testSegmentsAreCopiedInOrder() throws Exception {
+    SegmentedResourceCallable callable = createCallable();
+
+    ReliableResourceStatus status = callable.call();
+
+    assertThat(status.getDownloadStatus(), is(DownloadStatus.RESOURCE_DOWNLOAD_COMPLETE));
+    assertThat(status.getBytesRead(), is((long) PRODUCT_SIZE));
+    assertThat(callable.getSegmentCount(), is(SEGMENT_COUNT));
+    assertThat(callable.getBytesDownloaded(), is((long) PRODUCT_SIZE));
+    assertThat(fbos.asByteSource().read(), is(product));
+    assertThat(Files.readAllBytes(cacheFile), is(product));
+  }
+
+  @Test
+  public void testFailedSegmentIsRetried() throws Exception {
+    AtomicInteger retrievals = new AtomicInteger();
+    Answer<ResourceResponse> retrieveRange = retrieveRange();
+    when(retriever.retrieveResource(anyLong(), anyLong()))
+        .thenAnswer(
+            invocation -> {
+              if (retrievals.getAndIncrement() == 0) {
+                throw new IOException("Connection reset");
+              }
+              return retrieveRange.answer(invocation);
+            });
+
+    ReliableResourceStatus status = createCallable().call();
+
+    assertThat(status.getDownloadStatus(), is(DownloadStatus.RESOURCE_DOWNLOAD_COMPLETE));
+    // Every segment but the first is retrieved, and one of them twice
+    assertThat(retrievals.get(), is(SEGMENT_COUNT));
+    assertThat(fbos.asByteSource().read(), is(product));
+  }
+
+  @Test
+  public void testSegmentFailureReturnsBytesCopiedToClient() throws Exception {
+    when(retriever.retrieveResource(anyLong(), anyLong()))
+        .thenThrow(new IOException("Connection refused"));
+
+    ReliableResourceStatus status = createCallable().call();
+
+    // Only the first segment, read from the product InputStream, is downloaded
+    assertThat(status.getDownloadStatus(), is(DownloadStatus.PRODUCT_INPUT_STREAM_EXCEPTION));
+    assertThat(status.getBytesRead(), is((long) PRODUCT_SIZE / SEGMENT_COUNT));
+    assertThat(countingFbos.getCount(), is(status.getBytesRead()));
+  }
+
+  @Test
+  public void testCancelStopsCopying() throws Exception {
+    SegmentedResourceCallable callable = createCallable();
+    callable.setCancelDownload(true);
+
+    ReliableResourceStatus status = callable.call();
+
+    assertThat(status.getDownloadStatus(), is(DownloadStatus.RESOURCE_DOWNLOAD_CANCELED));
+    assertThat(countingFbos.getCount(), is(0L));
+  }
+
+  private SegmentedResourceCallable createCallable() {
+    return new SegmentedResourceCallable(
+        new ByteArrayInputStream(product),
+        retriever,
+        countingFbos,
+        cacheFile,
+        PRODUCT_SIZE,
+        SEGMENT_COUNT,
+        downloaderConfig,
+        new Object());
+  }
+
+  /** Returns the rest of the product after the bytes skipped, ignoring the end of the range. */
+  private Answer<ResourceResponse> retrieveRange() {
+    return invocation -> {
+      int bytesToSkip = ((Long) invocation.getArguments()[0]).intValue();
+      InputStream input =
+          new ByteArrayInputStream(product, bytesToSkip, PRODUCT_SIZE - bytesToSkip);
+      return new ResourceResponseImpl(new ResourceImpl(input, "product"));
+    };
+  }
+}
@@ -17,6 +17,7 @@
 import com.google.common.net.HttpHeaders;
 import ddf.catalog.content.data.ContentItem;
 import ddf.catalog.data.Metacard;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.operation.impl.ResourceResponseImpl;
 import ddf.catalog.resource.ResourceNotFoundException;
@@ -31,20 +32,24 @@
 import java.io.InputStream;
 import java.io.Serializable;
 import java.net.URI;
-import java.net.URLConnection;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang.StringUtils;
 import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.cxf.jaxrs.ext.multipart.ContentDisposition;
@@ -82,6 +87,8 @@ public class URLResourceReader implements ResourceReader {
 
   private static final String BYTES_TO_SKIP = "BytesToSkip";
 
+  private static final String BYTES = "bytes";
+
   private static final String USERNAME = "username";
 
   private static final String PASSWORD = "password";
@@ -306,29 +313,34 @@ public ResourceResponse retrieveResource(URI resourceURI, Map<String, Serializab
     }
   }
 
+  /**
+   * Local files are returned as {@link ddf.catalog.resource.FileBackedResource}s, so that their
+   * content, or a byte range of it, can be read directly from the file.
+   */
   private ResourceResponse retrieveFileProduct(
       URI resourceURI, String productName, String bytesToSkip) throws ResourceNotFoundException {
-    URLConnection connection = null;
-    try {
-      LOGGER.debug("Opening connection to: {}", resourceURI);
-      connection = resourceURI.toURL().openConnection();
-
-      productName =
-          StringUtils.defaultIfBlank(
-              handleContentDispositionHeader(
-                  connection.getHeaderField(HttpHeaders.CONTENT_DISPOSITION)),
-              productName);
+    Path path = Paths.get(resourceURI);
+    if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+      throw new ResourceNotFoundException(
+          "Unable to retrieve resource at: "
+              + resourceURI.toString()
+              + ". It is not a readable file.");
+    }
 
+    try {
       String mimeType = getMimeType(resourceURI, productName);
-
-      InputStream is = connection.getInputStream();
-
-      skipBytes(is, bytesToSkip);
+      long offset = Long.parseLong(bytesToSkip);
+      if (offset > 0) {
+        LOGGER.debug("Skipping {} bytes", offset);
+      }
 
       return new ResourceResponseImpl(
-          new ResourceImpl(
-              new BufferedInputStream(is), mimeType, FilenameUtils.getName(productName)));
-    } catch (MimeTypeResolutionException | IOException e) {
+          new FileBackedResourceImpl(
+              path,
+              Math.max(offset, 0),
+              toMimeType(mimeType),
+              FilenameUtils.getName(productName)));
+    } catch (MimeTypeResolutionException | IOException | NumberFormatException e) {
       LOGGER.info("Error retrieving resource", e);
       throw new ResourceNotFoundException(
           "Unable to retrieve resource at: " + resourceURI.toString(), e);
@@ -351,56 +363,89 @@ private ResourceResponse retrieveHttpProduct(
         RestSecurity.setSubjectOnClient(subject, client);
       }
 
-      Response response = client.get();
-
-      MultivaluedMap<String, Object> headers = response.getHeaders();
-      List<Object> cdHeaders = headers.get(HttpHeaders.CONTENT_DISPOSITION);
-      if (cdHeaders != null && !cdHeaders.isEmpty()) {
-        String contentHeader = (String) cdHeaders.get(0);
-        productName =
-            StringUtils.defaultIfBlank(handleContentDispositionHeader(contentHeader), productName);
+      long bytesToRead = getBytesToRead(properties);
+      String range = getRange(Long.parseLong(bytesToSkip), bytesToRead);
+      if (range != null) {
+        LOGGER.debug("Requesting range {}", range);
+        client.header(HttpHeaders.RANGE, range);
       }
-      String mimeType = getMimeType(resourceURI, productName);
 
-      Response clientResponse = client.get();
-
-      InputStream is = null;
-      Object entityObj = clientResponse.getEntity();
-      if (entityObj instanceof InputStream) {
-        is = (InputStream) entityObj;
-        if (Response.Status.OK.getStatusCode() != clientResponse.getStatus()
-            && Response.Status.PARTIAL_CONTENT.getStatusCode() != clientResponse.getStatus()) {
-          String error = null;
-          try {
-            if (is != null) {
-              error = IOUtils.toString(is);
+      // The headers and the body are read from the one response to the ranged request, which is
+      // closed unless its body is returned
+      Response response = client.get();
+      boolean retrieved = false;
+      try {
+        MultivaluedMap<String, Object> headers = response.getHeaders();
+        List<Object> cdHeaders = headers.get(HttpHeaders.CONTENT_DISPOSITION);
+        if (cdHeaders != null && !cdHeaders.isEmpty()) {
+          String contentHeader = (String) cdHeaders.get(0);
+          productName =
+              StringUtils.defaultIfBlank(
+                  handleContentDispositionHeader(contentHeader), productName);
+        }
+        String mimeType = getMimeType(resourceURI, productName);
+
+        InputStream is = null;
+        Object entityObj = response.getEntity();
+        if (entityObj instanceof InputStream) {
+          is = (InputStream) entityObj;
+          if (Response.Status.OK.getStatusCode() != response.getStatus()
+              && Response.Status.PARTIAL_CONTENT.getStatusCode() != response.getStatus()) {
+            String error = null;
+            try {
+              if (is != null) {
+                error = IOUtils.toString(is);
+              }
+            } catch (IOException ioe) {
+              LOGGER.debug("Could not convert error message to a string for output.", ioe);
             }
-          } catch (IOException ioe) {
-            LOGGER.debug("Could not convert error message to a string for output.", ioe);
+            String errorMsg =
+                "Received error code while retrieving resource (status "
+                    + response.getStatus()
+                    + "): "
+                    + error;
+            throw new ResourceNotFoundException(errorMsg);
           }
-          String errorMsg =
-              "Received error code while retrieving resource (status "
-                  + clientResponse.getStatus()
-                  + "): "
-                  + error;
-          throw new ResourceNotFoundException(errorMsg);
+        } else {
+          throw new ResourceNotFoundException("Received null response while retrieving resource.");
         }
-      } else {
-        throw new ResourceNotFoundException("Received null response while retrieving resource.");
-      }
 
-      long responseBytesSkipped = 0L;
-      if (headers.getFirst(HttpHeaders.CONTENT_RANGE) != null) {
-        String contentRangeHeader = String.valueOf(headers.getFirst(HttpHeaders.CONTENT_RANGE));
-        responseBytesSkipped =
-            Long.parseLong(
-                StringUtils.substringBetween(contentRangeHeader.toLowerCase(), "bytes ", "-"));
-      }
-      alignStream(is, Long.parseLong(bytesToSkip), responseBytesSkipped);
+        long responseBytesSkipped = 0L;
+        if (headers.getFirst(HttpHeaders.CONTENT_RANGE) != null) {
+          String contentRangeHeader = String.valueOf(headers.getFirst(HttpHeaders.CONTENT_RANGE));
+          responseBytesSkipped =
+              Long.parseLong(
+                  StringUtils.substringBetween(contentRangeHeader.toLowerCase(), "bytes ", "-"));
+        }
+        long misalignment = Long.parseLong(bytesToSkip) - responseBytesSkipped;
+        alignStream(is, Long.parseLong(bytesToSkip), responseBytesSkipped);
 
-      return new ResourceResponseImpl(
-          new ResourceImpl(
-              new BufferedInputStream(is), mimeType, FilenameUtils.getName(productName)));
+        InputStream content = new BufferedInputStream(is);
+        long size = getContentLength(headers);
+        if (size >= 0) {
+          size = Math.max(size - misalignment, 0);
+        }
+        if (bytesToRead > 0) {
+          // Servers that ignore the end of the range return the rest of the product
+          content = new BoundedInputStream(content, bytesToRead);
+          size = size >= 0 ? Math.min(size, bytesToRead) : bytesToRead;
+        }
+
+        ResourceImpl resource =
+            new ResourceImpl(content, mimeType, FilenameUtils.getName(productName));
+        resource.setSize(size);
+        ResourceResponse resourceResponse = new ResourceResponseImpl(resource);
+        if (BYTES.equalsIgnoreCase(String.valueOf(headers.getFirst(HttpHeaders.ACCEPT_RANGES)))
+            || Response.Status.PARTIAL_CONTENT.getStatusCode() == response.getStatus()) {
+          resourceResponse.getProperties().put(ResourceResponse.BYTE_RANGES_SUPPORTED, true);
+        }
+        retrieved = true;
+        return resourceResponse;
+      } finally {
+        if (!retrieved) {
+          response.close();
+        }
+      }
     } catch (MimeTypeResolutionException | IOException | WebApplicationException e) {
       LOGGER.info("Error retrieving resource", e);
       throw new ResourceNotFoundException(
@@ -459,6 +504,15 @@ private String getMimeType(URI resourceURI, String productName)
     return mimeType;
   }
 
+  private MimeType toMimeType(String mimeType) {
+    try {
+      return new MimeType(mimeType);
+    } catch (MimeTypeParseException e) {
+      LOGGER.debug("Unable to parse mime type {}", mimeType, e);
+      return null;
+    }
+  }
+
   /* Check Connection headers for filename */
   private String handleContentDispositionHeader(String contentDispositionHeader) {
     if (StringUtils.isNotBlank(contentDispositionHeader)) {
@@ -472,17 +526,39 @@ private String handleContentDispositionHeader(String contentDispositionHeader) {
     return "";
   }
 
-  private void skipBytes(InputStream is, String bytesToSkip) throws IOException {
-    if (bytesToSkip != null) {
-      LOGGER.debug("Skipping {} bytes", bytesToSkip);
-      long bytesSkipped = is.skip(Long.parseLong(bytesToSkip));
-      if (Long.parseLong(bytesToSkip) != bytesSkipped) {
-        LOGGER.debug(
-            "Did not skip specified bytes while retrieving resource."
-                + " Bytes to skip: {} -- Skipped Bytes: {}",
-            bytesToSkip,
-            bytesSkipped);
-      }
+  private long getBytesToRead(Map<String, Serializable> properties) {
+    Serializable bytesToRead = properties.get(ResourceRequest.BYTES_TO_READ);
+    if (bytesToRead == null) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(bytesToRead.toString());
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Ignoring invalid number of bytes to read: {}", bytesToRead);
+      return -1;
+    }
+  }
+
+  /** Returns the value of the Range header requesting the bytes to read after those skipped. */
+  private String getRange(long bytesToSkip, long bytesToRead) {
+    if (bytesToRead > 0) {
+      return String.format("%s=%d-%d", BYTES, bytesToSkip, bytesToSkip + bytesToRead - 1);
+    } else if (bytesToSkip > 0) {
+      return String.format("%s=%d-", BYTES, bytesToSkip);
+    }
+    return null;
+  }
+
+  private long getContentLength(MultivaluedMap<String, Object> headers) {
+    Object contentLength = headers.getFirst(HttpHeaders.CONTENT_LENGTH);
+    if (contentLength == null) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(contentLength.toString());
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Ignoring invalid Content-Length header: {}", contentLength);
+      return -1;
     }
   }
 
@@ -16,6 +16,7 @@
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -23,12 +24,16 @@
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.net.HttpHeaders;
 import ddf.catalog.content.data.ContentItem;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.resource.FileBackedResource;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotFoundException;
 import ddf.mime.MimeTypeMapper;
@@ -43,6 +48,7 @@
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -341,6 +347,25 @@ public void testURLResourceIOException() throws Exception {
     }
   }
 
+  @Test
+  public void testFileProductSkipsBytes() throws Exception {
+    URLResourceReader resourceReader = new URLResourceReader(mimeTypeMapper);
+    resourceReader.setRootResourceDirectories(ImmutableSet.of(ABSOLUTE_PATH + TEST_PATH));
+    File file = new File(ABSOLUTE_PATH + TEST_PATH + JPEG_FILE_NAME_1);
+
+    HashMap<String, Serializable> arguments = new HashMap<>();
+    arguments.put(BYTES_TO_SKIP, 5L);
+    ResourceResponse resourceResponse = resourceReader.retrieveResource(file.toURI(), arguments);
+
+    Resource resource = resourceResponse.getResource();
+    assertThat(resource, instanceOf(FileBackedResource.class));
+    assertThat(resource.getName(), is(JPEG_FILE_NAME_1));
+    assertThat(resource.getSize(), is(file.length() - 5));
+    assertThat(
+        resource.getByteArray(),
+        is(Arrays.copyOfRange(Files.readAllBytes(file.toPath()), 5, (int) file.length())));
+  }
+
   @Test
   public void testUrlToNonExistentFile() throws Exception {
     URLResourceReader resourceReader = new URLResourceReader(mimeTypeMapper);
@@ -353,6 +378,7 @@ public void testUrlToNonExistentFile() throws Exception {
       File file = new File(filePath);
       URI uri = file.toURI();
       resourceReader.retrieveResource(uri, arguments);
+      fail();
     } catch (IOException e) {
       LOGGER.info("Successfully caught IOException");
       fail();
@@ -362,6 +388,24 @@ public void testUrlToNonExistentFile() throws Exception {
     }
   }
 
+  @Test(expected = ResourceNotFoundException.class)
+  public void testUrlToNonExistentFileInRootDirectory() throws Exception {
+    URLResourceReader resourceReader = new URLResourceReader(mimeTypeMapper);
+    resourceReader.setRootResourceDirectories(ImmutableSet.of(ABSOLUTE_PATH + TEST_PATH));
+
+    URI uri = new File(ABSOLUTE_PATH + TEST_PATH + "NonExistentFile.jpg").toURI();
+    resourceReader.retrieveResource(uri, new HashMap<>());
+  }
+
+  @Test(expected = ResourceNotFoundException.class)
+  public void testUrlToDirectoryInRootDirectory() throws Exception {
+    URLResourceReader resourceReader = new URLResourceReader(mimeTypeMapper);
+    resourceReader.setRootResourceDirectories(ImmutableSet.of(ABSOLUTE_PATH + TEST_PATH));
+
+    URI uri = new File(ABSOLUTE_PATH + TEST_PATH).toURI();
+    resourceReader.retrieveResource(uri, new HashMap<>());
+  }
+
   @Test
   public void testHTTPReturnsFileNameWithoutPath() throws Exception {
     URI uri = new URI(HTTP_SCHEME_PLUS_SEP + HOST + TEST_PATH + JPEG_FILE_NAME_1);
@@ -531,6 +575,63 @@ public void testServerDoesNotSupportPartialContent() throws Exception {
         uri, JPEG_FILE_NAME_1, JPEG_MIME_TYPE, bytesToSkip, null, 3, uri.toString());
   }
 
+  @Test
+  public void testBytesToReadRequestsRange() throws Exception {
+    URI uri = new URI(HTTP_SCHEME_PLUS_SEP + HOST + TEST_PATH + BAD_FILE_NAME);
+
+    Response mockResponse = mock(Response.class);
+    when(mockWebClient.get()).thenReturn(mockResponse);
+    MultivaluedMap<String, Object> map = new MultivaluedHashMap<>();
+    map.put(
+        HttpHeaders.CONTENT_DISPOSITION,
+        Arrays.asList("inline; filename=\"" + JPEG_FILE_NAME_1 + "\""));
+    map.put(HttpHeaders.CONTENT_RANGE, Arrays.asList("bytes 1-2/5"));
+    map.put(HttpHeaders.CONTENT_LENGTH, Arrays.asList("2"));
+    map.put(HttpHeaders.ACCEPT_RANGES, Arrays.asList("bytes"));
+    when(mockResponse.getHeaders()).thenReturn(map);
+    when(mockResponse.getStatus()).thenReturn(Response.Status.PARTIAL_CONTENT.getStatusCode());
+    // The server returns the rest of the product instead of the end of the range
+    when(mockResponse.getEntity()).thenReturn(getBinaryDataWithOffset(1));
+
+    Map<String, Serializable> arguments = new HashMap<>();
+    arguments.put(BYTES_TO_SKIP, 1L);
+    arguments.put(ResourceRequest.BYTES_TO_READ, 2L);
+
+    ResourceResponse resourceResponse =
+        new TestURLResourceReader(mimeTypeMapper).retrieveResource(uri, arguments);
+
+    verify(mockWebClient).header(HttpHeaders.RANGE, "bytes=1-2");
+    verify(mockWebClient).get();
+    verify(mockResponse, never()).close();
+    assertThat(resourceResponse.getResource().getSize(), is(2L));
+    assertThat(
+        (Boolean) resourceResponse.getPropertyValue(ResourceResponse.BYTE_RANGES_SUPPORTED),
+        is(true));
+    assertThat(resourceResponse.getResource().getByteArray(), is(new byte[] {66, 67}));
+  }
+
+  @Test
+  public void testErrorResponseIsClosed() throws Exception {
+    URI uri = new URI(HTTP_SCHEME_PLUS_SEP + HOST + TEST_PATH + JPEG_FILE_NAME_1);
+
+    Response mockResponse = mock(Response.class);
+    when(mockWebClient.get()).thenReturn(mockResponse);
+    when(mockResponse.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+    when(mockResponse.getStatus())
+        .thenReturn(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+    when(mockResponse.getEntity()).thenReturn(new ByteArrayInputStream("error".getBytes()));
+
+    try {
+      new TestURLResourceReader(mimeTypeMapper).retrieveResource(uri, new HashMap<>());
+      fail("The resource should not have been retrieved.");
+    } catch (ResourceNotFoundException e) {
+      assertThat(e.getMessage(), containsString("error"));
+    }
+
+    verify(mockWebClient).get();
+    verify(mockResponse).close();
+  }
+
   @Test
   public void testUnquotedNameInContentDisposition() throws Exception {
     URI uri = new URI(HTTP_SCHEME_PLUS_SEP + HOST + TEST_PATH + BAD_FILE_NAME);
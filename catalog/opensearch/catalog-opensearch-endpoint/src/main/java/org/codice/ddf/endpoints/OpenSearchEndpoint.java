@@ -17,6 +17,7 @@
 import ddf.catalog.Constants;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Result;
+import ddf.catalog.data.StreamingBinaryContent;
 import ddf.catalog.federation.FederationException;
 import ddf.catalog.filter.FilterBuilder;
 import ddf.catalog.operation.QueryRequest;
@@ -41,6 +42,7 @@
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import org.apache.commons.lang.StringUtils;
 import org.codice.ddf.configuration.SystemInfo;
@@ -310,6 +312,7 @@ private Response executeQuery(
 
       arguments.put("organization", organization);
       arguments.put("url", url);
+      arguments.put(Constants.STREAMING_CONTENT_KEY, true);
 
       // if subscription is specified, add to arguments as well as update
       // interval
@@ -337,7 +340,7 @@ private Response executeQuery(
 
         // pass in the format for the transform
         BinaryContent content = framework.transform(queryResponse, queryFormat, arguments);
-        response = Response.ok(content.getInputStream(), content.getMimeTypeValue()).build();
+        response = createResponse(content);
       } else {
         // No query was specified
         QueryRequest queryRequest =
@@ -350,7 +353,7 @@ private Response executeQuery(
         // pass in the format for the transform
         BinaryContent content = framework.transform(queryResponseQueue, queryFormat, arguments);
         if (null != content) {
-          response = Response.ok(content.getInputStream(), content.getMimeTypeValue()).build();
+          response = createResponse(content);
         }
       }
     } catch (UnsupportedQueryException ce) {
@@ -433,6 +436,18 @@ private OpenSearchQuery createNewQuery(
     return new OpenSearchQuery(startIndex, count, sortField, sortOrder, maxTimeout, filterBuilder);
   }
 
+  /**
+   * Creates the response for the transformed query results. Streaming content is written directly
+   * to the HTTP response rather than read from memory.
+   */
+  private Response createResponse(BinaryContent content) {
+    if (content instanceof StreamingBinaryContent) {
+      StreamingOutput output = ((StreamingBinaryContent) content)::writeTo;
+      return Response.ok(output, content.getMimeTypeValue()).build();
+    }
+    return Response.ok(content.getInputStream(), content.getMimeTypeValue()).build();
+  }
+
   private String wrapStringInPreformattedTags(String stringToWrap) {
     return "<pre>" + stringToWrap + "</pre>";
   }
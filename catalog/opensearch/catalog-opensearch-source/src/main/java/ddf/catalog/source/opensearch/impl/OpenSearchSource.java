@@ -66,6 +66,10 @@
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import javax.ws.rs.core.Response;
 import javax.xml.stream.XMLInputFactory;
@@ -80,6 +84,7 @@
 import org.apache.cxf.jaxrs.client.WebClient;
 import org.codehaus.stax2.XMLInputFactory2;
 import org.codice.ddf.configuration.PropertyResolver;
+import org.codice.ddf.cxf.AsyncInvocations;
 import org.codice.ddf.cxf.SecureCxfClientFactory;
 import org.codice.ddf.endpoints.OpenSearch;
 import org.codice.ddf.platform.util.TemporaryFileBackedOutputStream;
@@ -382,6 +387,59 @@ public SourceResponse query(QueryRequest queryRequest) throws UnsupportedQueryEx
     return response;
   }
 
+  @Override
+  public boolean isAsyncQuerySupported() {
+    return true;
+  }
+
+  /**
+   * Sends OpenSearch queries without blocking the calling thread until the response is received.
+   * Queries for a single metacard by its ID are run by {@link #query(QueryRequest)} on the given
+   * executor.
+   */
+  @Override
+  public CompletionStage<SourceResponse> queryAsync(QueryRequest queryRequest, Executor executor) {
+    Subject subject = null;
+    if (queryRequest.hasProperties()) {
+      subject = (Subject) queryRequest.getProperties().get(SecurityConstants.SECURITY_SUBJECT);
+    }
+    WebClient restWebClient = factory.getWebClientForSubject(subject);
+
+    if (!setOpenSearchParameters(queryRequest, subject, restWebClient)) {
+      return CompletableFuture.supplyAsync(
+          () -> {
+            try {
+              return query(queryRequest);
+            } catch (UnsupportedQueryException e) {
+              throw new CompletionException(e);
+            }
+          },
+          executor);
+    }
+
+    return getAsync(restWebClient)
+        .thenApplyAsync(
+            clientResponse -> {
+              try {
+                InputStream responseStream = getResponseStream(clientResponse);
+                SourceResponseImpl response =
+                    responseStream == null
+                        ? new SourceResponseImpl(queryRequest, new ArrayList<>())
+                        : processResponse(responseStream, queryRequest);
+                setSourceId(response);
+                return response;
+              } catch (UnsupportedQueryException e) {
+                throw new CompletionException(e);
+              }
+            },
+            executor);
+  }
+
+  /** Package-private so that tests may complete requests without sending them. */
+  CompletableFuture<Response> getAsync(WebClient client) {
+    return AsyncInvocations.get(client);
+  }
+
   /** Set the source-id on every metacard this is missing a source-id. */
   private void setSourceId(SourceResponse sourceResponse) {
     if (sourceResponse != null && sourceResponse.getResults() != null) {
@@ -404,8 +462,10 @@ private void setSourceId(SourceResponse sourceResponse) {
    * @throws UnsupportedQueryException
    */
   private InputStream performRequest(WebClient client) throws UnsupportedQueryException {
-    Response clientResponse = client.get();
+    return getResponseStream(client.get());
+  }
 
+  private InputStream getResponseStream(Response clientResponse) throws UnsupportedQueryException {
     InputStream stream = null;
     Object entityObj = clientResponse.getEntity();
     if (entityObj != null) {
@@ -15,10 +15,13 @@
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
@@ -56,14 +59,18 @@
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -119,6 +126,7 @@ public class OpenSearchSourceTest {
   private OpenSearchParserImpl openSearchParserImpl = new OpenSearchParserImpl();
   private OpenSearchFilterVisitor openSearchFilterVisitor = new OpenSearchFilterVisitor();
   private Response response;
+  private WebClient webClient;
   private OverriddenOpenSearchSource source;
 
   private static InputStream getSampleAtomStreamWithForeignMarkup() {
@@ -374,7 +382,7 @@ private static InputStream getSampleXmlStream() {
   @Before
   public void setUp() throws Exception {
     response = mock(Response.class);
-    WebClient webClient = mock(WebClient.class);
+    webClient = mock(WebClient.class);
 
     doReturn(response).when(webClient).get();
     doReturn(Response.Status.OK.getStatusCode()).when(response).getStatus();
@@ -435,6 +443,64 @@ public void testQueryBySearchPhrase()
     assertThat(metacard.getContentTypeName(), is(RESOURCE_TAG));
   }
 
+  @Test
+  public void testQueryAsyncBySearchPhrase() throws Exception {
+    when(response.getEntity()).thenReturn(getSampleAtomStream());
+
+    SourceResponse response =
+        source.queryAsync(searchPhraseRequest(), Runnable::run).toCompletableFuture().get();
+
+    assertThat(response.getHits(), is(1L));
+    List<Result> results = response.getResults();
+    assertThat(results.size(), is(1));
+    Metacard metacard = results.get(0).getMetacard();
+    assertThat(metacard, notNullValue());
+    assertThat(metacard.getContentTypeName(), is(RESOURCE_TAG));
+    assertSourceId(response);
+  }
+
+  @Test
+  public void testQueryAsyncByIdRunsQueryOnExecutor() throws Exception {
+    Filter filter = filterBuilder.attribute(Metacard.ID).equalTo().text(SAMPLE_ID);
+    List<Runnable> tasks = new ArrayList<>();
+
+    CompletableFuture<SourceResponse> response =
+        source
+            .queryAsync(new QueryRequestImpl(new QueryImpl(filter)), tasks::add)
+            .toCompletableFuture();
+
+    assertThat(response.isDone(), is(false));
+    tasks.forEach(Runnable::run);
+    assertThat(response.get().getHits(), is(1L));
+  }
+
+  @Test
+  public void testQueryAsyncErrorResponse() throws Exception {
+    when(response.getStatus()).thenReturn(Response.Status.BAD_REQUEST.getStatusCode());
+    when(response.getEntity()).thenReturn(IOUtils.toInputStream("Bad query"));
+
+    try {
+      source.queryAsync(searchPhraseRequest(), Runnable::run).toCompletableFuture().get();
+      fail("The query should have failed.");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(UnsupportedQueryException.class));
+      assertThat(e.getCause().getMessage(), containsString("Bad query"));
+    }
+  }
+
+  @Test
+  public void testQueryAsyncRequestFailure() throws Exception {
+    ProcessingException failure = new ProcessingException("Connection refused");
+    when(webClient.get()).thenThrow(failure);
+
+    try {
+      source.queryAsync(searchPhraseRequest(), Runnable::run).toCompletableFuture().get();
+      fail("The query should have failed.");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(failure));
+    }
+  }
+
   @Test
   public void testQueryBySearchPhraseRss()
       throws UnsupportedQueryException, URISyntaxException, IOException {
@@ -782,6 +848,15 @@ private void assertSourceId(SourceResponse sourceResponse) {
     }
   }
 
+  private QueryRequestImpl searchPhraseRequest() {
+    Filter filter = filterBuilder.attribute(Metacard.METADATA).like().text(SAMPLE_SEARCH_PHRASE);
+    QueryRequestImpl queryRequest = new QueryRequestImpl(new QueryImpl(filter));
+    Map<String, Serializable> properties = new HashMap<>();
+    properties.put(SecurityConstants.SECURITY_SUBJECT, mock(Subject.class));
+    queryRequest.setProperties(properties);
+    return queryRequest;
+  }
+
   protected SecureCxfClientFactory getMockFactory(WebClient client) {
     SecureCxfClientFactory factory = mock(SecureCxfClientFactory.class);
 
@@ -844,6 +919,18 @@ protected InputTransformer lookupTransformerReference(String namespaceUri)
       return transformer;
     }
 
+    /** Completes the request with the response of the mock client instead of sending it. */
+    @Override
+    CompletableFuture<Response> getAsync(WebClient client) {
+      CompletableFuture<Response> future = new CompletableFuture<>();
+      try {
+        future.complete(client.get());
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+      return future;
+    }
+
     @Override
     protected SecureCxfClientFactory createClientFactory(
         String url, String username, String password) {
@@ -15,7 +15,14 @@
 
 import ddf.catalog.content.data.ContentItem;
 import ddf.catalog.content.operation.CreateStorageRequest;
+import ddf.catalog.content.operation.CreateStorageResponse;
+import ddf.catalog.content.operation.StorageRequest;
 import ddf.catalog.content.operation.UpdateStorageRequest;
+import ddf.catalog.content.operation.UpdateStorageResponse;
+import ddf.catalog.content.operation.impl.CreateStorageRequestImpl;
+import ddf.catalog.content.operation.impl.UpdateStorageRequestImpl;
+import ddf.catalog.content.plugin.PostCreateStoragePlugin;
+import ddf.catalog.content.plugin.PostUpdateStoragePlugin;
 import ddf.catalog.content.plugin.PreCreateStoragePlugin;
 import ddf.catalog.content.plugin.PreUpdateStoragePlugin;
 import ddf.catalog.data.Metacard;
@@ -25,9 +32,23 @@
 import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.codice.ddf.checksum.ChecksumProvider;
 
-public class Checksum implements PreCreateStoragePlugin, PreUpdateStoragePlugin {
+/**
+ * Adds the checksum of each content item to its metacard.
+ *
+ * <p>When the {@link ChecksumProvider} can create a {@link java.util.zip.Checksum}, the content
+ * items of the request are wrapped so that the checksum is calculated while the storage provider
+ * reads the content to store it, instead of the content being read once more beforehand. The
+ * checksums of any content the storage provider did not read to its end are calculated by reading
+ * the content after it has been stored.
+ */
+public class Checksum
+    implements PreCreateStoragePlugin,
+        PreUpdateStoragePlugin,
+        PostCreateStoragePlugin,
+        PostUpdateStoragePlugin {
   private final ChecksumProvider checksumProvider;
 
   public Checksum(ChecksumProvider checksumProvider) {
@@ -39,6 +60,12 @@ public CreateStorageRequest process(CreateStorageRequest input) throws PluginExe
     if (input == null) {
       throw new IllegalArgumentException("CreateStorageRequest cannot be null");
     }
+
+    if (isStreaming()) {
+      return new CreateStorageRequestImpl(
+          wrapContentItems(input.getContentItems()), input.getId(), input.getProperties());
+    }
+
     runChecksum(input.getContentItems());
 
     return input;
@@ -49,34 +76,99 @@ public UpdateStorageRequest process(UpdateStorageRequest input) throws PluginExe
     if (input == null) {
       throw new IllegalArgumentException("UpdateStorageRequest cannot be null");
     }
+
+    if (isStreaming()) {
+      return new UpdateStorageRequestImpl(
+          wrapContentItems(input.getContentItems()), input.getId(), input.getProperties());
+    }
+
     runChecksum(input.getContentItems());
 
     return input;
   }
 
+  @Override
+  public CreateStorageResponse process(CreateStorageResponse input)
+      throws PluginExecutionException {
+    if (input == null) {
+      throw new IllegalArgumentException("CreateStorageResponse cannot be null");
+    }
+    completeChecksums(input.getRequest());
+
+    return input;
+  }
+
+  @Override
+  public UpdateStorageResponse process(UpdateStorageResponse input)
+      throws PluginExecutionException {
+    if (input == null) {
+      throw new IllegalArgumentException("UpdateStorageResponse cannot be null");
+    }
+    completeChecksums(input.getRequest());
+
+    return input;
+  }
+
+  private boolean isStreaming() {
+    return checksumProvider.createChecksum() != null;
+  }
+
+  private List<ContentItem> wrapContentItems(List<ContentItem> contentItems) {
+    return contentItems
+        .stream()
+        .map(contentItem -> new ChecksumContentItem(contentItem, checksumProvider))
+        .collect(Collectors.toList());
+  }
+
+  private void completeChecksums(StorageRequest request) throws PluginExecutionException {
+    if (request == null) {
+      return;
+    }
+
+    List<ContentItem> contentItems;
+    if (request instanceof CreateStorageRequest) {
+      contentItems = ((CreateStorageRequest) request).getContentItems();
+    } else if (request instanceof UpdateStorageRequest) {
+      contentItems = ((UpdateStorageRequest) request).getContentItems();
+    } else {
+      return;
+    }
+
+    for (ContentItem contentItem : contentItems) {
+      if (contentItem instanceof ChecksumContentItem
+          && !((ChecksumContentItem) contentItem).isChecksumCalculated()) {
+        calculateChecksum(((ChecksumContentItem) contentItem).getContentItem());
+      }
+    }
+  }
+
   private void runChecksum(List<ContentItem> contentItems) throws PluginExecutionException {
     for (ContentItem contentItem : contentItems) {
-      try (InputStream inputStream = contentItem.getInputStream()) {
-        // calculate checksum so that it can be added as an attribute on metacard
-        String checksumAlgorithm = checksumProvider.getChecksumAlgorithm();
-        String checksumValue;
-
-        try {
-          checksumValue = checksumProvider.calculateChecksum(inputStream);
-        } catch (IOException e) {
-          throw new PluginExecutionException("Error calculating checksum", e);
-        } catch (NoSuchAlgorithmException e) {
-          throw new PluginExecutionException("Unsupported algorithm", e);
-        }
-
-        addChecksumAttributes(contentItem.getMetacard(), checksumAlgorithm, checksumValue);
+      calculateChecksum(contentItem);
+    }
+  }
+
+  private void calculateChecksum(ContentItem contentItem) throws PluginExecutionException {
+    try (InputStream inputStream = contentItem.getInputStream()) {
+      // calculate checksum so that it can be added as an attribute on metacard
+      String checksumAlgorithm = checksumProvider.getChecksumAlgorithm();
+      String checksumValue;
+
+      try {
+        checksumValue = checksumProvider.calculateChecksum(inputStream);
       } catch (IOException e) {
-        throw new PluginExecutionException("Unable to retrieve input stream for content item", e);
+        throw new PluginExecutionException("Error calculating checksum", e);
+      } catch (NoSuchAlgorithmException e) {
+        throw new PluginExecutionException("Unsupported algorithm", e);
       }
+
+      addChecksumAttributes(contentItem.getMetacard(), checksumAlgorithm, checksumValue);
+    } catch (IOException e) {
+      throw new PluginExecutionException("Unable to retrieve input stream for content item", e);
     }
   }
 
-  private void addChecksumAttributes(
+  static void addChecksumAttributes(
       Metacard metacard, final String checksumAlgorithm, final String checksumValue) {
     metacard.setAttribute(new AttributeImpl(Metacard.CHECKSUM_ALGORITHM, checksumAlgorithm));
     metacard.setAttribute(new AttributeImpl(Metacard.CHECKSUM, checksumValue));
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.catalog.content.plugin.checksum;
+
+import ddf.catalog.content.data.ContentItem;
+import ddf.catalog.data.Metacard;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CheckedInputStream;
+import javax.activation.MimeType;
+import org.codice.ddf.checksum.ChecksumProvider;
+
+/**
+ * Wraps a {@link ContentItem} so that its checksum is calculated as its content is read. Once a
+ * stream opened by {@link #getInputStream()} has been read to its end, the checksum attributes are
+ * added to the metacard of the content item.
+ */
+class ChecksumContentItem implements ContentItem {
+
+  private final ContentItem contentItem;
+
+  private final ChecksumProvider checksumProvider;
+
+  private volatile boolean checksumCalculated = false;
+
+  ChecksumContentItem(ContentItem contentItem, ChecksumProvider checksumProvider) {
+    this.contentItem = contentItem;
+    this.checksumProvider = checksumProvider;
+  }
+
+  ContentItem getContentItem() {
+    return contentItem;
+  }
+
+  boolean isChecksumCalculated() {
+    return checksumCalculated;
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    InputStream inputStream = contentItem.getInputStream();
+    return inputStream == null ? null : new ChecksumInputStream(inputStream);
+  }
+
+  @Override
+  public String getId() {
+    return contentItem.getId();
+  }
+
+  @Override
+  public String getUri() {
+    return contentItem.getUri();
+  }
+
+  @Override
+  public String getQualifier() {
+    return contentItem.getQualifier();
+  }
+
+  @Override
+  public String getFilename() {
+    return contentItem.getFilename();
+  }
+
+  @Override
+  public MimeType getMimeType() {
+    return contentItem.getMimeType();
+  }
+
+  @Override
+  public String getMimeTypeRawData() {
+    return contentItem.getMimeTypeRawData();
+  }
+
+  @Override
+  public long getSize() throws IOException {
+    return contentItem.getSize();
+  }
+
+  @Override
+  public Metacard getMetacard() {
+    return contentItem.getMetacard();
+  }
+
+  @Override
+  public String toString() {
+    return contentItem.toString();
+  }
+
+  private class ChecksumInputStream extends CheckedInputStream {
+
+    private boolean complete = false;
+
+    ChecksumInputStream(InputStream inputStream) {
+      super(inputStream, checksumProvider.createChecksum());
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b == -1) {
+        complete();
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws IOException {
+      int read = super.read(buf, off, len);
+      if (read == -1) {
+        complete();
+      }
+      return read;
+    }
+
+    private void complete() {
+      if (!complete) {
+        complete = true;
+        Checksum.addChecksumAttributes(
+            getMetacard(),
+            checksumProvider.getChecksumAlgorithm(),
+            checksumProvider.getChecksumValue(getChecksum()));
+        checksumCalculated = true;
+      }
+    }
+  }
+}
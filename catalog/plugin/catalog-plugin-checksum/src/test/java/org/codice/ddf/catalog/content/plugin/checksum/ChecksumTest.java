@@ -14,26 +14,39 @@
 package org.codice.ddf.catalog.content.plugin.checksum;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ddf.catalog.content.data.ContentItem;
 import ddf.catalog.content.operation.CreateStorageRequest;
 import ddf.catalog.content.operation.UpdateStorageRequest;
+import ddf.catalog.content.operation.impl.CreateStorageRequestImpl;
+import ddf.catalog.content.operation.impl.CreateStorageResponseImpl;
+import ddf.catalog.content.operation.impl.UpdateStorageRequestImpl;
+import ddf.catalog.content.operation.impl.UpdateStorageResponseImpl;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.plugin.PluginExecutionException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import org.apache.commons.io.IOUtils;
 import org.codice.ddf.checksum.ChecksumProvider;
+import org.codice.ddf.checksum.impl.Adler32ChecksumProvider;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -50,6 +63,8 @@ public class ChecksumTest {
 
   private static final String SAMPLE_CHECKSUM_VALUE = "324D54D92B2D97471F9F4624596EA9F5";
 
+  private static final String SAMPLE_CONTENT = "sample content";
+
   @Before
   public void initialize() throws IOException, NoSuchAlgorithmException {
     mockChecksumProvider = mock(ChecksumProvider.class);
@@ -155,4 +170,56 @@ public void testProcessUpdateChecksumCalculationIOException() throws Exception {
       assertThat(e.getCause(), instanceOf(IOException.class));
     }
   }
+
+  @Test
+  public void testProcessCreateCalculatesChecksumWhileContentIsStored() throws Exception {
+    ChecksumProvider checksumProvider = new Adler32ChecksumProvider();
+    ContentItem contentItem = mockContentItem();
+    Checksum streamingChecksum = new Checksum(checksumProvider);
+
+    CreateStorageRequest request =
+        streamingChecksum.process(
+            new CreateStorageRequestImpl(Collections.singletonList(contentItem), new HashMap<>()));
+    Metacard metacard = request.getContentItems().get(0).getMetacard();
+    assertThat(metacard.getAttribute(Metacard.CHECKSUM), nullValue());
+
+    // the storage provider reads the content
+    try (InputStream inputStream = request.getContentItems().get(0).getInputStream()) {
+      IOUtils.toByteArray(inputStream);
+    }
+    streamingChecksum.process(new CreateStorageResponseImpl(request, request.getContentItems()));
+
+    assertThat(metacard.getAttribute(Metacard.CHECKSUM).getValue(), is(expectedChecksum()));
+    assertThat(metacard.getAttribute(Metacard.CHECKSUM_ALGORITHM).getValue(), is("Adler32"));
+    verify(contentItem, times(1)).getInputStream();
+  }
+
+  @Test
+  public void testProcessUpdateCalculatesChecksumOfContentNotReadWhileStored() throws Exception {
+    ChecksumProvider checksumProvider = new Adler32ChecksumProvider();
+    ContentItem contentItem = mockContentItem();
+    Checksum streamingChecksum = new Checksum(checksumProvider);
+
+    UpdateStorageRequest request =
+        streamingChecksum.process(
+            new UpdateStorageRequestImpl(Collections.singletonList(contentItem), new HashMap<>()));
+    streamingChecksum.process(new UpdateStorageResponseImpl(request, request.getContentItems()));
+
+    Metacard metacard = contentItem.getMetacard();
+    assertThat(metacard.getAttribute(Metacard.CHECKSUM).getValue(), is(expectedChecksum()));
+    assertThat(metacard.getAttribute(Metacard.CHECKSUM_ALGORITHM).getValue(), is("Adler32"));
+  }
+
+  private ContentItem mockContentItem() throws IOException {
+    ContentItem contentItem = mock(ContentItem.class);
+    when(contentItem.getInputStream())
+        .thenReturn(new ByteArrayInputStream(SAMPLE_CONTENT.getBytes(StandardCharsets.UTF_8)));
+    when(contentItem.getMetacard()).thenReturn(new MetacardImpl());
+    return contentItem;
+  }
+
+  private String expectedChecksum() throws IOException, NoSuchAlgorithmException {
+    byte[] content = SAMPLE_CONTENT.getBytes(StandardCharsets.UTF_8);
+    return new Adler32ChecksumProvider().calculateChecksum(new ByteArrayInputStream(content));
+  }
 }
@@ -41,6 +41,7 @@
 import ddf.catalog.operation.CreateRequest;
 import ddf.catalog.operation.CreateResponse;
 import ddf.catalog.operation.QueryResponse;
+import ddf.catalog.operation.ResourceRequest;
 import ddf.catalog.operation.SourceInfoResponse;
 import ddf.catalog.operation.UpdateRequest;
 import ddf.catalog.operation.impl.CreateRequestImpl;
@@ -50,6 +51,7 @@
 import ddf.catalog.operation.impl.SourceInfoRequestEnterprise;
 import ddf.catalog.operation.impl.UpdateRequestImpl;
 import ddf.catalog.resource.DataUsageLimitExceededException;
+import ddf.catalog.resource.FileBackedResource;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.source.IngestException;
 import ddf.catalog.source.InternalIngestException;
@@ -69,6 +71,8 @@
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
@@ -103,6 +107,7 @@
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import net.minidev.json.JSONArray;
@@ -136,8 +141,6 @@ public class RESTEndpoint implements RESTService {
 
   private static final String DEFAULT_FILE_EXTENSION = "bin";
 
-  private static final String BYTES_TO_SKIP = "BytesToSkip";
-
   private static final Logger LOGGER = LoggerFactory.getLogger(RESTEndpoint.class);
 
   private static final Logger INGEST_LOGGER = LoggerFactory.getLogger(Constants.INGEST_LOGGER_NAME);
@@ -146,6 +149,8 @@ public class RESTEndpoint implements RESTService {
 
   private static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
 
+  private static final String HEADER_CONTENT_RANGE = "Content-Range";
+
   private static final String HEADER_CONTENT_LENGTH = "Content-Length";
 
   private static final String HEADER_CONTENT_DISPOSITION = "Content-Disposition";
@@ -532,14 +537,30 @@ public Response getDocument(
 
         if (bytesToSkip > 0) {
           LOGGER.debug("Bytes to skip: {}", bytesToSkip);
-          convertedMap.put(BYTES_TO_SKIP, bytesToSkip);
+          convertedMap.put(ResourceRequest.BYTES_TO_SKIP, bytesToSkip);
         }
 
         LOGGER.debug("Calling transform.");
         final BinaryContent content = catalogFramework.transform(card, transformer, convertedMap);
         LOGGER.debug("Read and transform complete, preparing response.");
 
-        responseBuilder = Response.ok(content.getInputStream(), content.getMimeTypeValue());
+        long size = content.getSize();
+        if (content instanceof FileBackedResource && size >= 0) {
+          long rangeLength = getRangeLength(httpRequest, bytesToSkip, size);
+          if (rangeHeaderExists(httpRequest) && rangeLength == 0) {
+            return Response.status(Status.REQUESTED_RANGE_NOT_SATISFIABLE).build();
+          }
+          responseBuilder =
+              createFileBackedResponse(
+                  (FileBackedResource) content,
+                  rangeLength,
+                  rangeHeaderExists(httpRequest),
+                  bytesToSkip,
+                  bytesToSkip + size);
+          size = rangeLength;
+        } else {
+          responseBuilder = Response.ok(content.getInputStream(), content.getMimeTypeValue());
+        }
 
         // Add the Accept-ranges header to let the client know that we accept ranges in bytes
         responseBuilder.header(HEADER_ACCEPT_RANGES, BYTES);
@@ -562,7 +583,6 @@ public Response getDocument(
               HEADER_CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
         }
 
-        long size = content.getSize();
         if (size > 0) {
           responseBuilder.header(HEADER_CONTENT_LENGTH, size);
         }
@@ -1291,23 +1311,81 @@ private long getRangeStart(HttpServletRequest httpRequest) throws UnsupportedQue
       String range = getRange(rangeHeader);
 
       if (range != null) {
-        response = Long.parseLong(range);
+        response = parseRangeValue(range, rangeHeader);
       }
     }
 
     return response;
   }
 
+  /**
+   * Returns the number of bytes of the requested range that can be served from a resource holding
+   * {@code size} bytes after the start of the range. The whole resource is returned if the range
+   * header does not exist or has no end.
+   */
+  private long getRangeLength(HttpServletRequest httpRequest, long rangeStart, long size)
+      throws UnsupportedQueryException {
+    if (httpRequest != null && rangeHeaderExists(httpRequest)) {
+      // Only the first range of the header is supported
+      String rangeHeader = httpRequest.getHeader(HEADER_RANGE);
+      String rangeEnd =
+          StringUtils.substringAfter(StringUtils.substringBefore(rangeHeader, ","), "-");
+      if (StringUtils.isNotBlank(rangeEnd)) {
+        long length = parseRangeValue(rangeEnd, rangeHeader) - rangeStart + 1;
+        return Math.max(0, Math.min(length, size));
+      }
+    }
+    return size;
+  }
+
+  private long parseRangeValue(String value, String rangeHeader) throws UnsupportedQueryException {
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      throw new UnsupportedQueryException("Invalid range header: " + rangeHeader, e);
+    }
+  }
+
+  /**
+   * Creates a response that transfers the bytes of a resource held in a local file directly from
+   * the file, as a partial content response when a range was requested.
+   */
+  private ResponseBuilder createFileBackedResponse(
+      FileBackedResource resource,
+      long length,
+      boolean isRangeRequest,
+      long rangeStart,
+      long totalSize) {
+    StreamingOutput output =
+        outputStream -> {
+          try (WritableByteChannel channel = Channels.newChannel(outputStream)) {
+            resource.transferTo(0, length, channel);
+          }
+        };
+
+    if (!isRangeRequest) {
+      return Response.ok(output, resource.getMimeTypeValue());
+    }
+    return Response.status(Status.PARTIAL_CONTENT)
+        .entity(output)
+        .type(resource.getMimeTypeValue())
+        .header(
+            HEADER_CONTENT_RANGE,
+            String.format("%s %d-%d/%d", BYTES, rangeStart, rangeStart + length - 1, totalSize));
+  }
+
   private String getRange(String rangeHeader) throws UnsupportedQueryException {
     String response = null;
 
     if (rangeHeader != null) {
       if (rangeHeader.startsWith(BYTES_EQUAL)) {
-        String tempString = rangeHeader.substring(BYTES_EQUAL.length());
+        // Only the first range of the header is supported
+        String tempString =
+            StringUtils.substringBefore(rangeHeader.substring(BYTES_EQUAL.length()), ",");
         if (tempString.contains("-")) {
-          response = rangeHeader.substring(BYTES_EQUAL.length(), rangeHeader.lastIndexOf('-'));
+          response = tempString.substring(0, tempString.lastIndexOf('-'));
         } else {
-          response = rangeHeader.substring(BYTES_EQUAL.length());
+          response = tempString;
         }
       } else {
         throw new UnsupportedQueryException("Invalid range header: " + rangeHeader);
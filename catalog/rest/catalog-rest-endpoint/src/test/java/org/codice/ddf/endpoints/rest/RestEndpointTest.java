@@ -20,11 +20,13 @@
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.base.Strings;
@@ -47,6 +49,7 @@
 import ddf.catalog.operation.impl.CreateResponseImpl;
 import ddf.catalog.operation.impl.SourceInfoRequestEnterprise;
 import ddf.catalog.operation.impl.SourceInfoResponseImpl;
+import ddf.catalog.resource.FileBackedResource;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.ResourceNotSupportedException;
 import ddf.catalog.source.IngestException;
@@ -61,11 +64,14 @@
 import ddf.mime.MimeTypeToTransformerMapper;
 import ddf.mime.tika.TikaMimeTypeResolver;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -81,6 +87,7 @@
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import net.minidev.json.JSONArray;
@@ -106,6 +113,10 @@ public class RestEndpointTest {
 
   private static final int NO_CONTENT = 204;
 
+  private static final int PARTIAL_CONTENT = 206;
+
+  private static final int REQUESTED_RANGE_NOT_SATISFIABLE = 416;
+
   private static final int INTERNAL_SERVER_ERROR = 500;
 
   private static final int BAD_REQUEST = 400;
@@ -154,6 +165,10 @@ public class RestEndpointTest {
 
   private static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
 
+  private static final String HEADER_CONTENT_RANGE = "Content-Range";
+
+  private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+
   private static final String ACCEPT_RANGES_VALUE = "bytes";
 
   private static final String HEADER_CONTENT_DISPOSITION = "Content-Disposition";
@@ -684,6 +699,97 @@ public void testGetDocumentResourceFedSuccess() throws Exception {
     assertEquals(GET_TYPE_OUTPUT, response.getMetadata().toString());
   }
 
+  /**
+   * Tests that a byte range of a resource held in a local file is transferred from the file as
+   * partial content.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testGetDocumentFileBackedResourceRange() throws Exception {
+
+    CatalogFramework framework = givenCatalogFramework(SAMPLE_ID);
+    String transformer = mockTestSetup(framework, TestType.RESOURCE_TEST);
+    FileBackedResource resource = givenFileBackedResource(framework, GET_STREAM.length() - 2);
+    when(resource.transferTo(anyLong(), anyLong(), any(WritableByteChannel.class)))
+        .thenAnswer(
+            invocation ->
+                (long)
+                    ((WritableByteChannel) invocation.getArguments()[2])
+                        .write(ByteBuffer.wrap(GET_STREAM.substring(2, 6).getBytes())));
+
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader(HEADER_RANGE)).thenReturn("bytes=2-5");
+    Response response = executeTest(framework, transformer, true, request);
+
+    assertEquals(PARTIAL_CONTENT, response.getStatus());
+    assertEquals(
+        "bytes 2-5/" + GET_STREAM.length(), response.getHeaderString(HEADER_CONTENT_RANGE));
+    assertEquals("4", response.getHeaderString(HEADER_CONTENT_LENGTH));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ((StreamingOutput) response.getEntity()).write(outputStream);
+    assertEquals(GET_STREAM.substring(2, 6), outputStream.toString(GET_OUTPUT_TYPE));
+    verify(resource).transferTo(eq(0L), eq(4L), any(WritableByteChannel.class));
+  }
+
+  /**
+   * Tests that a range starting after the end of a resource held in a local file is rejected.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testGetDocumentFileBackedResourceRangeNotSatisfiable() throws Exception {
+
+    CatalogFramework framework = givenCatalogFramework(SAMPLE_ID);
+    String transformer = mockTestSetup(framework, TestType.RESOURCE_TEST);
+    givenFileBackedResource(framework, 0);
+
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader(HEADER_RANGE)).thenReturn("bytes=100-");
+    Response response = executeTest(framework, transformer, true, request);
+
+    assertEquals(REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatus());
+  }
+
+  /**
+   * Tests that a range header whose start is not a number is rejected.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testGetDocumentMalformedRangeStart() throws Exception {
+
+    CatalogFramework framework = givenCatalogFramework(SAMPLE_ID);
+    String transformer = mockTestSetup(framework, TestType.RESOURCE_TEST);
+    givenFileBackedResource(framework, GET_STREAM.length());
+
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader(HEADER_RANGE)).thenReturn("bytes=two-5");
+    Response response = executeTest(framework, transformer, true, request);
+
+    assertEquals(BAD_REQUEST, response.getStatus());
+  }
+
+  /**
+   * Tests that a range header whose end is not a number is rejected.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testGetDocumentFileBackedResourceMalformedRangeEnd() throws Exception {
+
+    CatalogFramework framework = givenCatalogFramework(SAMPLE_ID);
+    String transformer = mockTestSetup(framework, TestType.RESOURCE_TEST);
+    givenFileBackedResource(framework, GET_STREAM.length() - 2);
+
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader(HEADER_RANGE)).thenReturn("bytes=2-five");
+    Response response = executeTest(framework, transformer, true, request);
+
+    assertEquals(BAD_REQUEST, response.getStatus());
+  }
+
   /**
    * Tests that a geojson input has its InputTransformer invoked by the REST endpoint to create a
    * metacard that is then converted to XML and returned from the REST endpoint.
@@ -948,6 +1054,17 @@ protected String mockTestSetup(CatalogFramework framework, TestType testType)
     return transformer;
   }
 
+  private FileBackedResource givenFileBackedResource(CatalogFramework framework, long size)
+      throws CatalogTransformerException {
+    FileBackedResource resource = mock(FileBackedResource.class);
+    when(resource.getSize()).thenReturn(size);
+    when(resource.getMimeTypeValue()).thenReturn(GET_MIME_TYPE);
+    when(resource.getName()).thenReturn(GET_FILENAME);
+    when(framework.transform(isA(Metacard.class), anyString(), isA(Map.class)))
+        .thenReturn(resource);
+    return resource;
+  }
+
   private Response executeTest(
       CatalogFramework framework, String transformer, boolean local, HttpServletRequest request)
       throws URISyntaxException {
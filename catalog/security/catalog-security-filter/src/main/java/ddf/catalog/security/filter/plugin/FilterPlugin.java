@@ -13,6 +13,7 @@
  */
 package ddf.catalog.security.filter.plugin;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.Attribute;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.Result;
@@ -40,6 +41,8 @@
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -66,6 +69,11 @@ public class FilterPlugin implements AccessPlugin {
 
   private static final Security SECURITY = Security.getInstance();
 
+  /** The names of the subject attributes mapped to each metacard attribute. */
+  private volatile Map<String, List<String>> pushDownMatchAllMap = Collections.emptyMap();
+
+  private volatile Map<String, List<String>> pushDownMatchOneMap = Collections.emptyMap();
+
   public void addStrategy(ServiceReference<FilterStrategy> filterStrategyRef) {
     Bundle bundle = FrameworkUtil.getBundle(FilterPlugin.class);
     if (bundle != null) {
@@ -221,11 +229,54 @@ public DeleteResponse processPostDelete(DeleteResponse input) throws StopProcess
     return input;
   }
 
+  /**
+   * Adds the security attributes of the subject to the query request when the query push down is
+   * configured, so providers can restrict the query to the metacards the subject is permitted to
+   * read. See {@link #setPushDownMatchAllMappings(List)}.
+   */
   @Override
   public QueryRequest processPreQuery(QueryRequest input) throws StopProcessingException {
+    Map<String, Serializable> properties = input.getProperties();
+    if (properties == null) {
+      return input;
+    }
+    // Only this plugin may set these properties, since they come from the subject
+    properties.remove(Constants.SECURITY_MATCH_ALL_FILTER_KEY);
+    properties.remove(Constants.SECURITY_MATCH_ONE_FILTER_KEY);
+
+    Map<String, List<String>> matchAllMap = pushDownMatchAllMap;
+    Map<String, List<String>> matchOneMap = pushDownMatchOneMap;
+    Object subject = properties.get(SecurityConstants.SECURITY_SUBJECT);
+    if ((matchAllMap.isEmpty() && matchOneMap.isEmpty()) || !(subject instanceof Subject)) {
+      return input;
+    }
+
+    if (!matchAllMap.isEmpty()) {
+      properties.put(
+          Constants.SECURITY_MATCH_ALL_FILTER_KEY,
+          getSubjectAttributes((Subject) subject, matchAllMap));
+    }
+    if (!matchOneMap.isEmpty()) {
+      properties.put(
+          Constants.SECURITY_MATCH_ONE_FILTER_KEY,
+          getSubjectAttributes((Subject) subject, matchOneMap));
+    }
     return input;
   }
 
+  private HashMap<String, HashSet<String>> getSubjectAttributes(
+      Subject subject, Map<String, List<String>> mappings) {
+    HashMap<String, HashSet<String>> attributes = new HashMap<>();
+    for (Map.Entry<String, List<String>> mapping : mappings.entrySet()) {
+      HashSet<String> values = new HashSet<>();
+      for (String subjectAttribute : mapping.getValue()) {
+        values.addAll(SubjectUtils.getAttribute(subject, subjectAttribute));
+      }
+      attributes.put(mapping.getKey(), values);
+    }
+    return attributes;
+  }
+
   @Override
   public QueryResponse processPostQuery(QueryResponse input) throws StopProcessingException {
     if (input.getRequest() == null || input.getRequest().getProperties() == null) {
@@ -345,4 +396,60 @@ private boolean checkPermissions(
     }
     return subject.isPermitted(securityPermission);
   }
+
+  /**
+   * Sets the "match all" mappings used to restrict queries to the metacards the subject is
+   * permitted to read before they are executed, instead of only filtering their results. A
+   * metacard is only returned when every value of its attribute is a value of the subject
+   * attribute. The mappings should match the ones of the authorization realm. The results are
+   * still filtered, so the mappings only make queries more efficient.
+   *
+   * <p>Each string is of the format: <code>subjectAttrName=metacardAttrName</code>. When several
+   * subject attributes are mapped to the same metacard attribute, the values of all of them are
+   * used.
+   *
+   * @param mappings the mappings, or an empty list to not restrict queries
+   */
+  public void setPushDownMatchAllMappings(List<String> mappings) {
+    pushDownMatchAllMap = parseMappings(mappings);
+  }
+
+  /**
+   * Sets the "match one" mappings used to restrict queries to the metacards the subject is
+   * permitted to read before they are executed. A metacard is only returned when it does not have
+   * the attribute, or when one of its values is a value of the subject attribute.
+   *
+   * <p>Each string is of the format: <code>subjectAttrName=metacardAttrName</code>
+   *
+   * @param mappings the mappings, or an empty list to not restrict queries
+   * @see #setPushDownMatchAllMappings(List)
+   */
+  public void setPushDownMatchOneMappings(List<String> mappings) {
+    pushDownMatchOneMap = parseMappings(mappings);
+  }
+
+  private Map<String, List<String>> parseMappings(List<String> mappings) {
+    Map<String, List<String>> map = new HashMap<>();
+    if (mappings != null) {
+      for (String mapping : mappings) {
+        String[] values = mapping.split("=");
+        if (values.length == 2) {
+          List<String> subjectAttributes =
+              map.computeIfAbsent(values[1].trim(), key -> new ArrayList<>());
+          if (!subjectAttributes.isEmpty()) {
+            LOGGER.debug(
+                "Query push down mapping {} adds a subject attribute to metacard attribute {}",
+                mapping,
+                values[1].trim());
+          }
+          subjectAttributes.add(values[0].trim());
+        } else if (!mapping.trim().isEmpty()) {
+          LOGGER.debug(
+              "Query push down mapping ignored: {} doesn't match expected format of subjectAttrName=metacardAttrName",
+              mapping);
+        }
+      }
+    }
+    return map;
+  }
 }
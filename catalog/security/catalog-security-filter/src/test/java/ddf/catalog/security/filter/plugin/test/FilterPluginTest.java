@@ -21,6 +21,7 @@
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.impl.MetacardImpl;
@@ -43,6 +44,7 @@
 import ddf.catalog.security.filter.plugin.FilterPlugin;
 import ddf.security.SecurityConstants;
 import ddf.security.Subject;
+import ddf.security.assertion.SecurityAssertion;
 import ddf.security.permission.CollectionPermission;
 import ddf.security.permission.KeyValueCollectionPermission;
 import java.io.Serializable;
@@ -52,6 +54,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -71,6 +74,10 @@
 import org.mockito.stubbing.Answer;
 import org.opengis.filter.FilterVisitor;
 import org.opengis.filter.sort.SortBy;
+import org.opensaml.core.xml.XMLObject;
+import org.opensaml.core.xml.schema.XSString;
+import org.opensaml.saml.saml2.core.Attribute;
+import org.opensaml.saml.saml2.core.AttributeStatement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -169,6 +176,33 @@ protected Subject getSystemSubject() {
     incomingResponse.addResult(result5, true);
   }
 
+  private Subject getSubjectWithAttributes(Map<String, List<String>> subjectAttributes) {
+    List<Attribute> attributes = new ArrayList<>();
+    for (Map.Entry<String, List<String>> subjectAttribute : subjectAttributes.entrySet()) {
+      List<XMLObject> attributeValues = new ArrayList<>();
+      for (String value : subjectAttribute.getValue()) {
+        XSString attributeValue = mock(XSString.class);
+        when(attributeValue.getValue()).thenReturn(value);
+        attributeValues.add(attributeValue);
+      }
+      Attribute attribute = mock(Attribute.class);
+      when(attribute.getName()).thenReturn(subjectAttribute.getKey());
+      when(attribute.getAttributeValues()).thenReturn(attributeValues);
+      attributes.add(attribute);
+    }
+
+    AttributeStatement attributeStatement = mock(AttributeStatement.class);
+    when(attributeStatement.getAttributes()).thenReturn(attributes);
+    SecurityAssertion securityAssertion = mock(SecurityAssertion.class);
+    when(securityAssertion.getAttributeStatements())
+        .thenReturn(Collections.singletonList(attributeStatement));
+    PrincipalCollection principals = mock(PrincipalCollection.class);
+    when(principals.oneByType(SecurityAssertion.class)).thenReturn(securityAssertion);
+    Subject subject = mock(Subject.class);
+    when(subject.getPrincipals()).thenReturn(principals);
+    return subject;
+  }
+
   public Answer<Boolean> makeDecision() {
 
     Map<String, List<String>> testRoleMap = new HashMap<>();
@@ -307,6 +341,51 @@ public void testPreUpdate() throws Exception {
     plugin.processPreUpdate(updateRequest, metacardMap);
   }
 
+  @Test
+  public void testPreQueryPushDown() throws StopProcessingException {
+    QueryRequest request = incomingResponse.getRequest();
+    request.getProperties().put(Constants.SECURITY_MATCH_ONE_FILTER_KEY, new HashMap<>());
+
+    plugin.setPushDownMatchAllMappings(Arrays.asList("FineAccessControls=rule"));
+    plugin.processPreQuery(request);
+
+    assertEquals(
+        Collections.singletonMap("rule", new HashSet<>()),
+        request.getProperties().get(Constants.SECURITY_MATCH_ALL_FILTER_KEY));
+    assertThat(
+        request.getProperties().containsKey(Constants.SECURITY_MATCH_ONE_FILTER_KEY), is(false));
+  }
+
+  @Test
+  public void testPreQueryPushDownCombinesSubjectAttributesOfMetacardAttribute()
+      throws StopProcessingException {
+    QueryRequest request = incomingResponse.getRequest();
+    Map<String, List<String>> subjectAttributes = new HashMap<>();
+    subjectAttributes.put("FineAccessControls", Arrays.asList("A"));
+    subjectAttributes.put("CoarseAccessControls", Arrays.asList("B", "C"));
+    request
+        .getProperties()
+        .put(SecurityConstants.SECURITY_SUBJECT, getSubjectWithAttributes(subjectAttributes));
+
+    plugin.setPushDownMatchOneMappings(
+        Arrays.asList("FineAccessControls=rule", "CoarseAccessControls=rule"));
+    plugin.processPreQuery(request);
+
+    assertEquals(
+        Collections.singletonMap("rule", new HashSet<>(Arrays.asList("A", "B", "C"))),
+        request.getProperties().get(Constants.SECURITY_MATCH_ONE_FILTER_KEY));
+  }
+
+  @Test
+  public void testPreQueryWithoutPushDown() throws StopProcessingException {
+    QueryRequest request = incomingResponse.getRequest();
+
+    plugin.processPreQuery(request);
+
+    assertThat(
+        request.getProperties().containsKey(Constants.SECURITY_MATCH_ALL_FILTER_KEY), is(false));
+  }
+
   @Test
   public void testUnusedMethods() throws StopProcessingException {
     plugin.processPreQuery(mock(QueryRequest.class));
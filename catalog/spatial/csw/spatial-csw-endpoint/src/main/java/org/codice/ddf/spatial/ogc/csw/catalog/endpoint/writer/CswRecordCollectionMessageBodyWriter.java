@@ -13,7 +13,9 @@
  */
 package org.codice.ddf.spatial.ogc.csw.catalog.endpoint.writer;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.BinaryContent;
+import ddf.catalog.data.StreamingBinaryContent;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.transform.CatalogTransformerException;
 import ddf.catalog.transform.QueryResponseTransformer;
@@ -134,6 +136,9 @@ public void writeTo(
           new CatalogTransformerException("Unable to locate Transformer."));
     }
 
+    // Transformers that support it write their content directly to the response
+    arguments.put(Constants.STREAMING_CONTENT_KEY, true);
+
     BinaryContent content = null;
     try {
       content = transformer.transform(recordCollection.getSourceResponse(), arguments);
@@ -141,7 +146,9 @@ public void writeTo(
       throw new WebApplicationException(e);
     }
 
-    if (content != null) {
+    if (content instanceof StreamingBinaryContent) {
+      ((StreamingBinaryContent) content).writeTo(outStream);
+    } else if (content != null) {
       try (InputStream inputStream = content.getInputStream()) {
         IOUtils.copy(inputStream, outStream);
       }
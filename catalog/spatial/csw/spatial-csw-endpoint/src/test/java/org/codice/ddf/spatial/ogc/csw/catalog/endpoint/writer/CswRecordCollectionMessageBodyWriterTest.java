@@ -23,9 +23,11 @@
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.data.impl.StreamingBinaryContentImpl;
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.resource.impl.ResourceImpl;
@@ -34,6 +36,7 @@
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -169,6 +172,31 @@ public void testWriteToWithMimeType()
     // TODO failure case
   }
 
+  @Test
+  public void testWriteToWithStreamingContent()
+      throws WebApplicationException, IOException, CatalogTransformerException {
+    CswRecordCollectionMessageBodyWriter writer =
+        new CswRecordCollectionMessageBodyWriter(mockManager);
+    when(mockManager.getTransformerByMimeType(any(String.class))).thenReturn(mockTransformer);
+
+    ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+    when(mockTransformer.transform(any(SourceResponse.class), any(Map.class)))
+        .thenReturn(
+            new StreamingBinaryContentImpl(
+                out -> out.write("streamed".getBytes(StandardCharsets.UTF_8)), null));
+
+    CswRecordCollection collection = createCswRecordCollection(6);
+    collection.setResultType(ResultType.RESULTS);
+    collection.setMimeType(MediaType.APPLICATION_JSON);
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    writer.writeTo(collection, null, null, null, null, null, stream);
+
+    verify(mockTransformer).transform(any(SourceResponse.class), captor.capture());
+    assertThat(captor.getValue().get(Constants.STREAMING_CONTENT_KEY), is(true));
+    assertThat(stream.toString(StandardCharsets.UTF_8.name()), is("streamed"));
+  }
+
   @Test
   public void testWriteToProductData() throws MimeTypeParseException, IOException {
     CswRecordCollectionMessageBodyWriter writer =
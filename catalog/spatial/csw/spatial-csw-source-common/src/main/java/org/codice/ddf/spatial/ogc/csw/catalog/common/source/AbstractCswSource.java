@@ -68,7 +68,11 @@
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -112,6 +116,7 @@
 import org.apache.commons.lang.StringUtils;
 import org.apache.cxf.common.util.CollectionUtils;
 import org.codice.ddf.configuration.SystemBaseUrl;
+import org.codice.ddf.cxf.AsyncInvocations;
 import org.codice.ddf.cxf.ClientKeyInfo;
 import org.codice.ddf.cxf.SecureCxfClientFactory;
 import org.codice.ddf.platform.util.StandardThreadFactoryBuilder;
@@ -744,7 +749,67 @@ public SourceResponse query(QueryRequest queryRequest) throws UnsupportedQueryEx
   protected SourceResponse query(
       QueryRequest queryRequest, ElementSetType elementSetName, List<QName> elementNames, Csw csw)
       throws UnsupportedQueryException {
+    GetRecordsType getRecordsType =
+        prepareGetRecordsRequest(queryRequest, elementSetName, elementNames);
+
+    CswRecordCollection cswRecordCollection;
+    try {
+      cswRecordCollection = csw.getRecords(getRecordsType);
+    } catch (Exception e) {
+      throw createQueryException(e);
+    }
+
+    return createSourceResponse(queryRequest, cswRecordCollection);
+  }
 
+  @Override
+  public boolean isAsyncQuerySupported() {
+    return true;
+  }
+
+  /**
+   * Sends the GetRecords request without blocking the calling thread until the response is
+   * received, and creates the {@link SourceResponse} with the given executor.
+   */
+  @Override
+  public CompletionStage<SourceResponse> queryAsync(QueryRequest queryRequest, Executor executor) {
+    Subject subject = (Subject) queryRequest.getPropertyValue(SecurityConstants.SECURITY_SUBJECT);
+    Csw csw = factory.getClientForSubject(subject);
+
+    GetRecordsType getRecordsType;
+    try {
+      getRecordsType = prepareGetRecordsRequest(queryRequest, ElementSetType.FULL, null);
+    } catch (UnsupportedQueryException e) {
+      CompletableFuture<SourceResponse> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+
+    return getRecordsAsync(csw, getRecordsType)
+        .handleAsync(
+            (cswRecordCollection, throwable) -> {
+              try {
+                if (throwable instanceof Exception) {
+                  throw createQueryException((Exception) throwable);
+                } else if (throwable != null) {
+                  throw new CompletionException(throwable);
+                }
+                return createSourceResponse(queryRequest, cswRecordCollection);
+              } catch (UnsupportedQueryException e) {
+                throw new CompletionException(e);
+              }
+            },
+            executor);
+  }
+
+  /** Package-private so that tests may complete requests without sending them. */
+  CompletableFuture<CswRecordCollection> getRecordsAsync(Csw csw, GetRecordsType getRecordsType) {
+    return AsyncInvocations.invoke(csw, client -> client.getRecords(getRecordsType));
+  }
+
+  private GetRecordsType prepareGetRecordsRequest(
+      QueryRequest queryRequest, ElementSetType elementSetName, List<QName> elementNames)
+      throws UnsupportedQueryException {
     Query query = queryRequest.getQuery();
     LOGGER.debug("{}: Received query:\n{}", cswSourceConfiguration.getId(), query);
 
@@ -763,13 +828,16 @@ protected SourceResponse query(
         cswSourceConfiguration.getId(),
         cswSourceConfiguration.getCswUrl());
 
+    return getRecordsType;
+  }
+
+  private SourceResponse createSourceResponse(
+      QueryRequest queryRequest, CswRecordCollection cswRecordCollection)
+      throws UnsupportedQueryException {
     List<Result> results;
     Long totalHits;
 
     try {
-
-      CswRecordCollection cswRecordCollection = csw.getRecords(getRecordsType);
-
       if (cswRecordCollection == null) {
         throw new UnsupportedQueryException("Invalid results returned from server");
       }
@@ -783,15 +851,8 @@ protected SourceResponse query(
 
       results = createResults(cswRecordCollection);
       totalHits = cswRecordCollection.getNumberOfRecordsMatched();
-    } catch (CswException cswe) {
-      LOGGER.info(CSW_SERVER_ERROR, cswe);
-      throw new UnsupportedQueryException(CSW_SERVER_ERROR, cswe);
-    } catch (WebApplicationException wae) {
-      String msg = handleWebApplicationException(wae);
-      throw new UnsupportedQueryException(msg, wae);
-    } catch (Exception ce) {
-      String msg = handleClientException(ce);
-      throw new UnsupportedQueryException(msg, ce);
+    } catch (Exception e) {
+      throw createQueryException(e);
     }
 
     LOGGER.debug(
@@ -804,6 +865,19 @@ protected SourceResponse query(
     return sourceResponse;
   }
 
+  private UnsupportedQueryException createQueryException(Exception e) {
+    if (e instanceof CswException) {
+      LOGGER.info(CSW_SERVER_ERROR, e);
+      return new UnsupportedQueryException(CSW_SERVER_ERROR, e);
+    } else if (e instanceof WebApplicationException) {
+      String msg = handleWebApplicationException((WebApplicationException) e);
+      return new UnsupportedQueryException(msg, e);
+    } else {
+      String msg = handleClientException(e);
+      return new UnsupportedQueryException(msg, e);
+    }
+  }
+
   @Override
   public String getDescription() {
     StringBuilder sb = new StringBuilder();
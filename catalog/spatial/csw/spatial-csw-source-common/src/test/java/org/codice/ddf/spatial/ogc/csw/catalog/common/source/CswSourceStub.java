@@ -20,8 +20,13 @@
 import ddf.security.encryption.EncryptionService;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import net.opengis.cat.csw.v_2_0_2.GetRecordsType;
 import org.codice.ddf.cxf.SecureCxfClientFactory;
+import org.codice.ddf.spatial.ogc.csw.catalog.common.Csw;
+import org.codice.ddf.spatial.ogc.csw.catalog.common.CswException;
+import org.codice.ddf.spatial.ogc.csw.catalog.common.CswRecordCollection;
 import org.codice.ddf.spatial.ogc.csw.catalog.common.CswSourceConfiguration;
 import org.codice.ddf.spatial.ogc.csw.catalog.common.CswSubscribe;
 import org.osgi.framework.BundleContext;
@@ -40,6 +45,18 @@ public CswSourceStub(
     super.subscribeClientFactory = mock(SecureCxfClientFactory.class);
   }
 
+  /** Completes the request with the response of the mock client instead of sending it. */
+  @Override
+  CompletableFuture<CswRecordCollection> getRecordsAsync(Csw csw, GetRecordsType getRecordsType) {
+    CompletableFuture<CswRecordCollection> future = new CompletableFuture<>();
+    try {
+      future.complete(csw.getRecords(getRecordsType));
+    } catch (CswException | RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   @Override
   protected void initSubscribeClientFactory() {}
 
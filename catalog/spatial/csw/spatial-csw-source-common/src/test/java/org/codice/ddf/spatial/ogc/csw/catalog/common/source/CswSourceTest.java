@@ -19,6 +19,7 @@
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
@@ -66,6 +67,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import javax.ws.rs.core.Response;
 import javax.xml.bind.JAXBException;
 import javax.xml.datatype.DatatypeConfigurationException;
@@ -232,6 +234,71 @@ public void testPropertyIsLikeQuery()
     assertXMLEqual(getRecordsControlXml202, xml);
   }
 
+  @Test
+  public void testQueryAsync() throws Exception {
+    final int numRecordsReturned = 1;
+    final long numRecordsMatched = 10;
+    setupMockContextForMetacardTypeRegistrationAndUnregistration(getDefaultContentTypes());
+    configureMockCsw(numRecordsReturned, numRecordsMatched, CswConstants.VERSION_2_0_2);
+
+    QueryImpl propertyIsLikeQuery =
+        new QueryImpl(builder.attribute(Metacard.ANY_TEXT).is().like().text("*th*e"));
+    AbstractCswSource cswSource = getCswSource(mockCsw, mockContext);
+
+    SourceResponse response =
+        cswSource
+            .queryAsync(new QueryRequestImpl(propertyIsLikeQuery), Runnable::run)
+            .toCompletableFuture()
+            .get();
+
+    assertThat(response.getResults().size(), is(numRecordsReturned));
+    assertThat(response.getHits(), is(numRecordsMatched));
+    verify(mockCsw).getRecords(any(GetRecordsType.class));
+  }
+
+  @Test
+  public void testQueryAsyncCswException() throws Exception {
+    configureMockCsw();
+    when(mockCsw.getRecords(any(GetRecordsType.class)))
+        .thenThrow(new CswException("Invalid query"));
+
+    QueryImpl propertyIsLikeQuery =
+        new QueryImpl(builder.attribute(Metacard.ANY_TEXT).is().like().text("*"));
+    AbstractCswSource cswSource = getCswSource(mockCsw, mockContext);
+
+    try {
+      cswSource
+          .queryAsync(new QueryRequestImpl(propertyIsLikeQuery), Runnable::run)
+          .toCompletableFuture()
+          .get();
+      fail("The query should have failed.");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(UnsupportedQueryException.class));
+      assertThat(e.getCause().getMessage(), is(AbstractCswSource.CSW_SERVER_ERROR));
+      assertThat(e.getCause().getCause(), instanceOf(CswException.class));
+    }
+  }
+
+  @Test
+  public void testQueryAsyncInvalidResponse() throws Exception {
+    configureMockCsw();
+    when(mockCsw.getRecords(any(GetRecordsType.class))).thenReturn(null);
+
+    QueryImpl propertyIsLikeQuery =
+        new QueryImpl(builder.attribute(Metacard.ANY_TEXT).is().like().text("*"));
+    AbstractCswSource cswSource = getCswSource(mockCsw, mockContext);
+
+    try {
+      cswSource
+          .queryAsync(new QueryRequestImpl(propertyIsLikeQuery), Runnable::run)
+          .toCompletableFuture()
+          .get();
+      fail("The query should have failed.");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(UnsupportedQueryException.class));
+    }
+  }
+
   @Test
   public void testQueryWitNaturalSorting()
       throws JAXBException, UnsupportedQueryException, DatatypeConfigurationException, SAXException,
@@ -13,10 +13,12 @@
  */
 package org.codice.ddf.spatial.ogc.csw.catalog.transformer;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.Result;
 import ddf.catalog.data.impl.BinaryContentImpl;
+import ddf.catalog.data.impl.StreamingBinaryContentImpl;
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.transform.CatalogTransformerException;
 import ddf.catalog.transform.MetacardTransformer;
@@ -28,22 +30,24 @@
 import java.io.CharArrayWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
@@ -128,12 +132,27 @@ public class CswQueryResponseTransformer implements QueryResponseTransformer {
 
   private static final int ACCUM_INITIAL_SIZE = 4096;
 
+  /** The number of records per thread transformed ahead of the next record to write. */
+  private static final int REORDER_WINDOW_FACTOR = 2;
+
+  /** Marks where the records go in a response built before its records are transformed. */
+  private static final String RECORDS_PLACEHOLDER = "<!--records-->";
+
+  private static final String DC_IDENTIFIER_QNAME =
+      CswConstants.DUBLIN_CORE_NAMESPACE_PREFIX + CswConstants.NAMESPACE_DELIMITER + "identifier";
+
   public CswQueryResponseTransformer(
       TransformerManager metacardTransformerManager, PrintWriterProvider writerProvider) {
     this.metacardTransformerManager = metacardTransformerManager;
     this.writerProvider = writerProvider;
   }
 
+  /**
+   * Transforms the response into a CSW GetRecordsResponse or GetRecordByIdResponse. When the {@link
+   * Constants#STREAMING_CONTENT_KEY} argument is {@code true}, the records are transformed as the
+   * returned content is written and each record is written as soon as it and the records before it
+   * are transformed, instead of the whole document being built in memory.
+   */
   @Override
   public BinaryContent transform(SourceResponse sourceResponse, Map<String, Serializable> arguments)
       throws CatalogTransformerException {
@@ -147,6 +166,9 @@ public BinaryContent transform(SourceResponse sourceResponse, Map<String, Serial
     if (ResultType.VALIDATE.equals(recordCollection.getResultType())) {
       ByteArrayOutputStream baos = writeAcknowledgement(recordCollection.getRequest());
       bais = new ByteArrayInputStream(baos.toByteArray());
+    } else if (!ResultType.HITS.equals(recordCollection.getResultType())
+        && Boolean.TRUE.equals(arguments.get(Constants.STREAMING_CONTENT_KEY))) {
+      return streamRecords(recordCollection, sourceResponse.getResults(), arguments);
     } else {
       // "catches" recordCollection.getResultType() == null
       List<Result> results = sourceResponse.getResults();
@@ -165,6 +187,63 @@ private String convert(
       Map<String, Serializable> arguments)
       throws CatalogTransformerException {
 
+    String metacardsString = null;
+    long numReturned = cswRecordCollection.getNumberOfRecordsReturned();
+
+    if (!ResultType.HITS.equals(cswRecordCollection.getResultType())) {
+      arguments.put(CswConstants.OMIT_XML_DECLARATION, Boolean.TRUE);
+      MetacardTransformer transformer = getTransformer(cswRecordCollection.getOutputSchema());
+
+      CharArrayWriter accum = new CharArrayWriter(ACCUM_INITIAL_SIZE);
+      try {
+        numReturned -= multiThreadedMarshal(results, transformer, arguments, accum, false);
+      } catch (IOException e) {
+        throw new CatalogTransformerException("Unable to transform records", e);
+      }
+      metacardsString = accum.toString();
+    }
+
+    return buildResponse(cswRecordCollection, numReturned, metacardsString);
+  }
+
+  /**
+   * Returns content that writes the response while its records are transformed. The start and the
+   * end of the response are built up front, so numberOfRecordsReturned is the number of results.
+   * Records that cannot be transformed are replaced by a brief record holding only their
+   * identifier, so the response holds as many records as it announces.
+   */
+  private BinaryContent streamRecords(
+      CswRecordCollection cswRecordCollection,
+      List<Result> results,
+      Map<String, Serializable> arguments)
+      throws CatalogTransformerException {
+
+    arguments.put(CswConstants.OMIT_XML_DECLARATION, Boolean.TRUE);
+    MetacardTransformer transformer = getTransformer(cswRecordCollection.getOutputSchema());
+
+    String response = buildResponse(cswRecordCollection, results.size(), RECORDS_PLACEHOLDER);
+    int recordsIndex = response.indexOf(RECORDS_PLACEHOLDER);
+    if (recordsIndex < 0) {
+      throw new CatalogTransformerException("Unable to write records into the response.");
+    }
+    String start = response.substring(0, recordsIndex);
+    String end = response.substring(recordsIndex + RECORDS_PLACEHOLDER.length());
+
+    return new StreamingBinaryContentImpl(
+        outputStream -> {
+          Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+          writer.write(start);
+          writer.flush();
+          multiThreadedMarshal(results, transformer, arguments, writer, true);
+          writer.write(end);
+          writer.flush();
+        },
+        CswRecordConverter.XML_MIME_TYPE);
+  }
+
+  private String buildResponse(
+      CswRecordCollection cswRecordCollection, long numReturned, String metacardsString) {
+
     PrintWriter writer = writerProvider.build(Metacard.class);
     writer.setRawValue(XML_DECL);
 
@@ -186,16 +265,6 @@ private String convert(
       nextRecord = 0;
     }
 
-    String metacardsString = null;
-    AtomicLong numReturned = new AtomicLong(cswRecordCollection.getNumberOfRecordsReturned());
-
-    if (!ResultType.HITS.equals(cswRecordCollection.getResultType())) {
-      arguments.put(CswConstants.OMIT_XML_DECLARATION, Boolean.TRUE);
-      metacardsString =
-          multiThreadedMarshal(
-              results, numReturned, cswRecordCollection.getOutputSchema(), arguments);
-    }
-
     if (!cswRecordCollection.isById()) {
       writer.addAttribute(VERSION_ATTRIBUTE, CswConstants.VERSION_2_0_2);
 
@@ -218,7 +287,7 @@ private String convert(
       if (ResultType.HITS.equals(cswRecordCollection.getResultType())) {
         writer.addAttribute(NUMBER_OF_RECORDS_RETURNED_ATTRIBUTE, Long.toString(0));
       } else {
-        writer.addAttribute(NUMBER_OF_RECORDS_RETURNED_ATTRIBUTE, numReturned.toString());
+        writer.addAttribute(NUMBER_OF_RECORDS_RETURNED_ATTRIBUTE, Long.toString(numReturned));
         writer.addAttribute(NEXT_RECORD_ATTRIBUTE, Long.toString(nextRecord));
       }
 
@@ -243,80 +312,123 @@ private String convert(
     return writer.makeString();
   }
 
+  private MetacardTransformer getTransformer(String recordSchema)
+      throws CatalogTransformerException {
+    MetacardTransformer transformer =
+        metacardTransformerManager.getTransformerBySchema(recordSchema);
+    if (transformer == null) {
+      throw new CatalogTransformerException("Cannot find transformer for schema: " + recordSchema);
+    }
+    return transformer;
+  }
+
   /**
    * Multi-threaded marshal of metacard assumes that the query size is unbounded to guard against
    * resource exhaustion with fixed thread-pool and fixed work-queue. CPU-bound for optimum
-   * utilization from availableProcessors()+1 thread pool.
+   * utilization from availableProcessors() thread pool.
+   *
+   * <p>The records are written in the order of the results. Only a window of {@link
+   * #REORDER_WINDOW_FACTOR} records per thread is transformed ahead of the next record to write,
+   * so the memory used does not depend on the number of results.
    *
    * @param results - the list of results to marshal
-   * @param recordSchema - the schema
+   * @param transformer - the transformer of the record schema
    * @param arguments - additional args
-   * @return - the marshaled results
-   * @throws CatalogTransformerException
+   * @param out - where the marshaled results are written
+   * @param placeholders - whether results that cannot be transformed are replaced by a brief
+   *     record instead of being left out
+   * @return - the number of results that could not be transformed, and were left out
+   * @throws IOException if the records could not be written
    */
-  private String multiThreadedMarshal(
+  private int multiThreadedMarshal(
       List<Result> results,
-      AtomicLong numResults,
-      String recordSchema,
-      final Map<String, Serializable> arguments)
-      throws CatalogTransformerException {
+      MetacardTransformer transformer,
+      final Map<String, Serializable> arguments,
+      Writer out,
+      boolean placeholders)
+      throws IOException {
 
-    CompletionService<BinaryContent> completionService =
-        new ExecutorCompletionService<>(queryExecutor);
+    int windowSize = queryExecutor.getMaximumPoolSize() * REORDER_WINDOW_FACTOR;
+    // The futures of the records being transformed, in the order of the results
+    Deque<Future<BinaryContent>> window = new ArrayDeque<>(windowSize);
+    int failed = 0;
 
-    final MetacardTransformer transformer =
-        metacardTransformerManager.getTransformerBySchema(recordSchema);
-    if (transformer == null) {
-      throw new CatalogTransformerException("Cannot find transformer for schema: " + recordSchema);
-    }
+    try {
+      for (Result result : results) {
+        if (window.size() >= windowSize) {
+          failed += writeRecord(window.removeFirst(), out);
+        }
 
-    Map<Future<BinaryContent>, Result> futures = new HashMap<>(results.size());
-    for (Result result : results) {
-      final Metacard mc = result.getMetacard();
-
-      // the "current" thread will run submitted task when queueSize exceeded; effectively
-      // blocking enqueue of more tasks.
-      futures.put(
-          completionService.submit(
-              () -> {
-                BinaryContent content = transformer.transform(mc, arguments);
-                return content;
-              }),
-          result);
+        final Metacard mc = result.getMetacard();
+        Callable<BinaryContent> transform =
+            placeholders
+                ? () -> transformOrPlaceholder(transformer, mc, arguments)
+                : () -> transformer.transform(mc, arguments);
+        // the "current" thread will run submitted task when queueSize exceeded; effectively
+        // blocking enqueue of more tasks.
+        window.addLast(queryExecutor.submit(transform));
+      }
+
+      while (!window.isEmpty()) {
+        failed += writeRecord(window.removeFirst(), out);
+      }
+    } finally {
+      window.forEach(future -> future.cancel(true));
     }
 
-    InputStream[] contents = new InputStream[results.size()];
+    return failed;
+  } // end multiThreadedMarshal()
 
-    while (!futures.isEmpty()) {
-      try {
-        Future<BinaryContent> completedFuture = completionService.take();
-        int index = results.indexOf(futures.get(completedFuture));
-        try {
-          contents[index] = completedFuture.get().getInputStream();
-        } catch (ExecutionException | CancellationException | InterruptedException e) {
-          LOGGER.debug("Error transforming Metacard", e);
-          numResults.decrementAndGet();
-        } finally {
-          futures.remove(completedFuture);
-        }
-      } catch (InterruptedException e) {
-        LOGGER.debug("Metacard transform interrupted", e);
+  /**
+   * Transforms a metacard, or builds a brief record holding only its identifier when it cannot be
+   * transformed.
+   */
+  private BinaryContent transformOrPlaceholder(
+      MetacardTransformer transformer, Metacard metacard, Map<String, Serializable> arguments) {
+    try {
+      BinaryContent content = transformer.transform(metacard, arguments);
+      if (content != null) {
+        return content;
       }
+      LOGGER.debug("Metacard transformer returned no content for {}", metacard.getId());
+    } catch (CatalogTransformerException | RuntimeException e) {
+      LOGGER.debug("Error transforming Metacard {}", metacard.getId(), e);
     }
 
-    CharArrayWriter accum = new CharArrayWriter(ACCUM_INITIAL_SIZE);
-    for (InputStream is : contents) {
-      try {
-        if (is != null) {
-          IOUtils.copy(is, accum);
-        }
-      } catch (IOException e) {
-        LOGGER.debug("Error copying Metacard Binary content", e);
-      }
+    PrintWriter writer = writerProvider.build(Metacard.class);
+    writer.startNode(CswConstants.CSW_BRIEF_RECORD);
+    writer.startNode(DC_IDENTIFIER_QNAME);
+    writer.setValue(StringUtils.defaultString(metacard.getId()));
+    writer.endNode();
+    writer.endNode();
+    return new BinaryContentImpl(
+        new ByteArrayInputStream(writer.makeString().getBytes(StandardCharsets.UTF_8)),
+        CswRecordConverter.XML_MIME_TYPE);
+  }
+
+  /** @return 1 if the record could not be transformed, 0 if it was written */
+  private int writeRecord(Future<BinaryContent> record, Writer out) throws IOException {
+    BinaryContent content;
+    try {
+      content = record.get();
+    } catch (ExecutionException | CancellationException e) {
+      LOGGER.debug("Error transforming Metacard", e);
+      return 1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Metacard transform interrupted");
     }
 
-    return accum.toString();
-  } // end multiThreadedMarshal()
+    if (content == null) {
+      LOGGER.debug("Metacard transformer returned no content");
+      return 1;
+    }
+
+    try (InputStream is = content.getInputStream()) {
+      IOUtils.copy(is, out, StandardCharsets.UTF_8);
+    }
+    return 0;
+  }
 
   private boolean isByIdQuery(Map<String, Serializable> arguments) {
     Serializable isByIdQuery = arguments.get(CswConstants.IS_BY_ID_QUERY);
@@ -15,6 +15,7 @@
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
@@ -29,9 +30,11 @@
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import ddf.catalog.Constants;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.Result;
+import ddf.catalog.data.StreamingBinaryContent;
 import ddf.catalog.data.impl.BinaryContentImpl;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.data.impl.ResultImpl;
@@ -46,15 +49,19 @@
 import ddf.catalog.transformer.api.PrintWriter;
 import ddf.catalog.transformer.api.PrintWriterProvider;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.activation.MimeType;
 import javax.ws.rs.WebApplicationException;
 import javax.xml.bind.JAXBContext;
@@ -441,6 +448,51 @@ public void verifyResultOrderIsMaintained() throws CatalogTransformerException,
     }
   }
 
+  @Test
+  public void testStreamingResponseWritesRecordsInOrder() throws Exception {
+    GetRecordsType query = new GetRecordsType();
+    query.setResultType(ResultType.RESULTS);
+    query.setMaxRecords(BigInteger.valueOf(100));
+    query.setStartPosition(BigInteger.valueOf(1));
+    SourceResponse sourceResponse = createSourceResponse(query, 100);
+
+    Map<String, Serializable> args = new HashMap<>();
+    args.put(CswConstants.RESULT_TYPE_PARAMETER, ResultType.RESULTS);
+    args.put(CswConstants.GET_RECORDS, query);
+    args.put(Constants.STREAMING_CONTENT_KEY, true);
+
+    when(mockMetacardTransformer.transform(any(Metacard.class), anyMap()))
+        .then(
+            invocationOnMock -> {
+              Metacard metacard = (Metacard) invocationOnMock.getArguments()[0];
+              if ("id_7".equals(metacard.getId())) {
+                throw new CatalogTransformerException("");
+              }
+              return new BinaryContentImpl(
+                  IOUtils.toInputStream(metacard.getId() + ","), new MimeType("application/xml"));
+            });
+    when(mockPrintWriterProvider.build((Class<Metacard>) notNull()))
+        .then(invocationOnMock -> getSimplePrintWriter());
+    when(mockTransformerManager.getTransformerBySchema(anyString()))
+        .thenReturn(mockMetacardTransformer);
+
+    transformer.init();
+    BinaryContent content = transformer.transform(sourceResponse, args);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ((StreamingBinaryContent) content).writeTo(outputStream);
+    transformer.destroy();
+
+    String expectedRecords =
+        IntStream.rangeClosed(1, 100)
+            .mapToObj(i -> i == 7 ? "csw:BriefRecorddc:identifierid_7" : "id_" + i + ",")
+            .collect(Collectors.joining());
+    String xml = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    assertThat(xml, endsWith(expectedRecords));
+    assertThat(
+        xml,
+        containsString(CswQueryResponseTransformer.NUMBER_OF_RECORDS_RETURNED_ATTRIBUTE + " 100"));
+  }
+
   private SourceResponse createSourceResponse(GetRecordsType request, int resultCount) {
     int first = 1;
     int last = 2;
@@ -316,6 +316,12 @@ && getId() != null
     return registryQueryResponse;
   }
 
+  /** Queries are filtered and their responses inspected by {@link #query(QueryRequest)}. */
+  @Override
+  public boolean isAsyncQuerySupported() {
+    return false;
+  }
+
   public void setAutoPush(boolean autoPush) {
     this.autoPush = autoPush;
   }
@@ -54,6 +54,10 @@
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -84,6 +88,7 @@
 import org.apache.cxf.jaxrs.provider.JAXBElementProvider;
 import org.apache.ws.commons.schema.XmlSchema;
 import org.codice.ddf.configuration.DictionaryMap;
+import org.codice.ddf.cxf.AsyncInvocations;
 import org.codice.ddf.cxf.ClientKeyInfo;
 import org.codice.ddf.cxf.SecureCxfClientFactory;
 import org.codice.ddf.libs.geo.util.GeospatialUtil;
@@ -733,64 +738,124 @@ public SourceResponse query(QueryRequest request) throws UnsupportedQueryExcepti
 
     LOGGER.debug("WFS Source {}: Received query: \n{}", getId(), query);
 
-    SourceResponseImpl simpleResponse = null;
     GetFeatureType getFeature = buildGetFeatureRequest(query);
 
     try {
       LOGGER.debug("WFS Source {}: Sending query ...", getId());
-      Wfs20FeatureCollection featureCollection = wfs.getFeature(getFeature);
-      int numResults = -1;
+      return createSourceResponse(request, wfs.getFeature(getFeature));
+    } catch (Exception e) {
+      throw createQueryException(e);
+    }
+  }
 
-      if (featureCollection == null) {
-        throw new UnsupportedQueryException("Invalid results returned from server");
-      }
+  @Override
+  public boolean isAsyncQuerySupported() {
+    return true;
+  }
 
-      numResults = featureCollection.getMembers().size();
+  /**
+   * Sends the GetFeature request without blocking the calling thread until the response is
+   * received, and creates the {@link SourceResponse} with the given executor.
+   */
+  @Override
+  public CompletionStage<SourceResponse> queryAsync(QueryRequest request, Executor executor) {
+    Query query = request.getQuery();
+    if (query == null) {
+      return super.queryAsync(request, executor);
+    }
 
-      if (featureCollection.getNumberReturned() == null) {
-        LOGGER.debug("Number Returned Attribute was not added to the response");
-      } else if (!featureCollection.getNumberReturned().equals(BigInteger.valueOf(numResults))) {
-        LOGGER.debug(
-            "Number Returned Attribute ({}) did not match actual number returned ({})",
-            featureCollection.getNumberReturned(),
-            numResults);
-      }
+    LOGGER.debug("WFS Source {}: Received query: \n{}", getId(), query);
 
-      availabilityTask.updateLastAvailableTimestamp(System.currentTimeMillis());
-      LOGGER.debug(
-          "WFS Source {}: Received featureCollection with {} metacards.", getId(), numResults);
+    GetFeatureType getFeature;
+    try {
+      getFeature = buildGetFeatureRequest(query);
+    } catch (UnsupportedQueryException e) {
+      CompletableFuture<SourceResponse> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
 
-      List<Result> results = new ArrayList<Result>(numResults);
+    LOGGER.debug("WFS Source {}: Sending query ...", getId());
+    return getFeatureAsync(factory.getClient(), getFeature)
+        .handleAsync(
+            (featureCollection, throwable) -> {
+              Exception exception;
+              if (throwable == null) {
+                try {
+                  return createSourceResponse(request, featureCollection);
+                } catch (Exception e) {
+                  exception = e;
+                }
+              } else if (throwable instanceof Exception) {
+                exception = (Exception) throwable;
+              } else {
+                throw new CompletionException(throwable);
+              }
+              throw new CompletionException(createQueryException(exception));
+            },
+            executor);
+  }
 
-      for (int i = 0; i < numResults; i++) {
-        Metacard mc = featureCollection.getMembers().get(i);
-        mc = transform(mc, DEFAULT_WFS_TRANSFORMER_ID);
-        Result result = new ResultImpl(mc);
-        results.add(result);
-        debugResult(result);
-      }
+  /** Protected so that tests may complete requests without sending them. */
+  protected CompletableFuture<Wfs20FeatureCollection> getFeatureAsync(
+      Wfs wfs, GetFeatureType getFeature) {
+    return AsyncInvocations.invoke(wfs, client -> client.getFeature(getFeature));
+  }
 
-      // Fetch total results available
-      long totalResults = 0;
-      if (featureCollection.getNumberMatched() == null) {
-        totalResults = Long.valueOf(numResults);
-      } else if (featureCollection.getNumberMatched().equals(UNKNOWN)) {
-        totalResults = Long.valueOf(numResults);
-      } else if (StringUtils.isNumeric(featureCollection.getNumberMatched())) {
-        totalResults = Long.parseLong(featureCollection.getNumberMatched());
-      }
+  private SourceResponse createSourceResponse(
+      QueryRequest request, Wfs20FeatureCollection featureCollection)
+      throws UnsupportedQueryException {
+    int numResults = -1;
 
-      simpleResponse = new SourceResponseImpl(request, results, totalResults);
+    if (featureCollection == null) {
+      throw new UnsupportedQueryException("Invalid results returned from server");
+    }
 
-    } catch (WfsException wfse) {
-      LOGGER.debug(WFS_ERROR_MESSAGE, wfse);
-      throw new UnsupportedQueryException("Error received from WFS Server", wfse);
-    } catch (Exception ce) {
-      String msg = handleClientException(ce);
-      throw new UnsupportedQueryException(msg, ce);
+    numResults = featureCollection.getMembers().size();
+
+    if (featureCollection.getNumberReturned() == null) {
+      LOGGER.debug("Number Returned Attribute was not added to the response");
+    } else if (!featureCollection.getNumberReturned().equals(BigInteger.valueOf(numResults))) {
+      LOGGER.debug(
+          "Number Returned Attribute ({}) did not match actual number returned ({})",
+          featureCollection.getNumberReturned(),
+          numResults);
     }
 
-    return simpleResponse;
+    availabilityTask.updateLastAvailableTimestamp(System.currentTimeMillis());
+    LOGGER.debug(
+        "WFS Source {}: Received featureCollection with {} metacards.", getId(), numResults);
+
+    List<Result> results = new ArrayList<Result>(numResults);
+
+    for (int i = 0; i < numResults; i++) {
+      Metacard mc = featureCollection.getMembers().get(i);
+      mc = transform(mc, DEFAULT_WFS_TRANSFORMER_ID);
+      Result result = new ResultImpl(mc);
+      results.add(result);
+      debugResult(result);
+    }
+
+    // Fetch total results available
+    long totalResults = 0;
+    if (featureCollection.getNumberMatched() == null) {
+      totalResults = Long.valueOf(numResults);
+    } else if (featureCollection.getNumberMatched().equals(UNKNOWN)) {
+      totalResults = Long.valueOf(numResults);
+    } else if (StringUtils.isNumeric(featureCollection.getNumberMatched())) {
+      totalResults = Long.parseLong(featureCollection.getNumberMatched());
+    }
+
+    return new SourceResponseImpl(request, results, totalResults);
+  }
+
+  private UnsupportedQueryException createQueryException(Exception e) {
+    if (e instanceof WfsException) {
+      LOGGER.debug(WFS_ERROR_MESSAGE, e);
+      return new UnsupportedQueryException("Error received from WFS Server", e);
+    }
+    String msg = handleClientException(e);
+    return new UnsupportedQueryException(msg, e);
   }
 
   protected GetFeatureType buildGetFeatureRequest(Query query) throws UnsupportedQueryException {
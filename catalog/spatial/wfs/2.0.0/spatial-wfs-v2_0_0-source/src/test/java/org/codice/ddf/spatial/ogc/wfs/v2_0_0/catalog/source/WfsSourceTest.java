@@ -16,6 +16,7 @@
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
@@ -23,8 +24,11 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,6 +50,9 @@
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 import javax.xml.bind.JAXBElement;
 import javax.xml.namespace.QName;
 import javax.xml.transform.TransformerConfigurationException;
@@ -737,6 +744,63 @@ public void testResultNumReturnedIsZero()
     assertEquals(3, resp.getResults().size());
   }
 
+  @Test
+  public void testQueryAsync() throws Exception {
+    WfsSource source = getAsyncWfsSource(3);
+    when(mockFeatureCollection.getNumberMatched()).thenReturn("10");
+
+    SourceResponse response =
+        source.queryAsync(anyTextRequest(), Runnable::run).toCompletableFuture().get();
+
+    assertThat(response.getResults().size(), is(3));
+    assertThat(response.getHits(), is(10L));
+    verify(mockWfs).getFeature(any(GetFeatureType.class));
+  }
+
+  @Test
+  public void testQueryAsyncMapsResponseLikeQuery() throws Exception {
+    WfsSource source = getAsyncWfsSource(3);
+
+    for (String numberMatched : new String[] {null, "unknown", "10", "not a number"}) {
+      when(mockFeatureCollection.getNumberMatched()).thenReturn(numberMatched);
+
+      SourceResponse response = source.query(anyTextRequest());
+      SourceResponse asyncResponse =
+          source.queryAsync(anyTextRequest(), Runnable::run).toCompletableFuture().get();
+
+      assertThat(asyncResponse.getHits(), is(response.getHits()));
+      assertThat(getIds(asyncResponse), is(getIds(response)));
+    }
+  }
+
+  @Test
+  public void testQueryAsyncWfsException() throws Exception {
+    WfsSource source = getAsyncWfsSource(3);
+    when(mockWfs.getFeature(any(GetFeatureType.class))).thenThrow(new WfsException("Bad query"));
+
+    try {
+      source.queryAsync(anyTextRequest(), Runnable::run).toCompletableFuture().get();
+      fail("The query should have failed.");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(UnsupportedQueryException.class));
+      assertThat(e.getCause().getMessage(), is("Error received from WFS Server"));
+      assertThat(e.getCause().getCause(), instanceOf(WfsException.class));
+    }
+  }
+
+  @Test
+  public void testQueryAsyncInvalidResponse() throws Exception {
+    WfsSource source = getAsyncWfsSource(3);
+    when(mockWfs.getFeature(any(GetFeatureType.class))).thenReturn(null);
+
+    try {
+      source.queryAsync(anyTextRequest(), Runnable::run).toCompletableFuture().get();
+      fail("The query should have failed.");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(UnsupportedQueryException.class));
+    }
+  }
+
   /**
    * Verify that the SortBy is set with the mapped Feature Property and a ASC sort order. In this
    * case, the incoming sort property of TEMPORAL is mapped to myTemporalFeatureProperty.
@@ -1107,4 +1171,45 @@ public void testSrsNameNotProvided() throws Exception {
 
     assertThat(queryType.getSrsName(), nullValue());
   }
+
+  /** Creates a source whose asynchronous requests are completed by the mock client. */
+  private WfsSource getAsyncWfsSource(int numFeatures) throws Exception {
+    WfsSource source =
+        spy(
+            getWfsSource(
+                ONE_TEXT_PROPERTY_SCHEMA,
+                MockWfsServer.getFilterCapabilities(),
+                GeospatialUtil.EPSG_4326_URN,
+                numFeatures,
+                false,
+                true,
+                numFeatures));
+    doAnswer(
+            invocation -> {
+              CompletableFuture<Wfs20FeatureCollection> future = new CompletableFuture<>();
+              try {
+                future.complete(mockWfs.getFeature((GetFeatureType) invocation.getArguments()[1]));
+              } catch (WfsException | RuntimeException e) {
+                future.completeExceptionally(e);
+              }
+              return future;
+            })
+        .when(source)
+        .getFeatureAsync(any(Wfs.class), any(GetFeatureType.class));
+    return source;
+  }
+
+  private QueryRequestImpl anyTextRequest() {
+    QueryImpl query = new QueryImpl(builder.attribute(Metacard.ANY_TEXT).is().like().text("*"));
+    query.setPageSize(10);
+    return new QueryRequestImpl(query);
+  }
+
+  private List<String> getIds(SourceResponse response) {
+    return response
+        .getResults()
+        .stream()
+        .map(result -> result.getMetacard().getId())
+        .collect(Collectors.toList());
+  }
 }
@@ -14,6 +14,7 @@
 
 package ddf.catalog.transformer.csv;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.AttributeDescriptor;
 import ddf.catalog.data.AttributeType;
 import ddf.catalog.data.BinaryContent;
@@ -21,13 +22,17 @@
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.Result;
 import ddf.catalog.data.impl.BinaryContentImpl;
+import ddf.catalog.data.impl.StreamingBinaryContentImpl;
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.transform.CatalogTransformerException;
 import ddf.catalog.transform.QueryResponseTransformer;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.HashSet;
@@ -39,8 +44,6 @@
 import java.util.stream.Collectors;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * An implementation of QueryResponseTransformer that produces CSV output.
@@ -48,7 +51,6 @@
  * @see ddf.catalog.transform.QueryResponseTransformer
  */
 public class CsvQueryResponseTransformer implements QueryResponseTransformer {
-  private static final Logger LOGGER = LoggerFactory.getLogger(CsvQueryResponseTransformer.class);
 
   private static final String HIDDEN_FIELDS_KEY = "hiddenFields";
 
@@ -65,7 +67,9 @@ public class CsvQueryResponseTransformer implements QueryResponseTransformer {
    *     output. 3) key: 'aliases' value: a java.util.Map whose keys are attribute names and values
    *     are the how that attribute column should be aliased in the output. For example, if the key
    *     is 'title' and the value is 'Product' then the resulting CSV will have a column name of
-   *     'Product' instead of 'title'.
+   *     'Product' instead of 'title'. When the {@link Constants#STREAMING_CONTENT_KEY} argument
+   *     is {@code true}, the CSV is written as the returned content is read instead of being
+   *     built in memory.
    * @return a BinaryContent object that contains an InputStream with the CSV content.
    * @throws CatalogTransformerException during processing, the CSV output is written to an
    *     Appendable, whose 'append()' method signature declares that it throws IOException. When
@@ -96,6 +100,22 @@ public BinaryContent transform(
     List<AttributeDescriptor> sortedAttributeDescriptors =
         sortAttributes(allAttributeDescriptors, attributeOrder);
 
+    if (Boolean.TRUE.equals(arguments.get(Constants.STREAMING_CONTENT_KEY))) {
+      return new StreamingBinaryContentImpl(
+          outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, Charset.defaultCharset());
+            CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.RFC4180);
+            try {
+              printSearchResults(
+                  csvPrinter, upstreamResponse, columnAliasMap, sortedAttributeDescriptors);
+            } catch (UncheckedIOException e) {
+              throw e.getCause();
+            }
+            csvPrinter.flush();
+          },
+          null);
+    }
+
     Appendable csv =
         writeSearchResultsToCsv(upstreamResponse, columnAliasMap, sortedAttributeDescriptors);
 
@@ -118,20 +138,30 @@ private Appendable writeSearchResultsToCsv(
 
     try {
       CSVPrinter csvPrinter = new CSVPrinter(stringBuilder, CSVFormat.RFC4180);
-      printColumnHeaders(csvPrinter, sortedAttributeDescriptors, columnAliasMap);
-
-      upstreamResponse
-          .getResults()
-          .stream()
-          .map(Result::getMetacard)
-          .forEach(mc -> printMetacard(csvPrinter, mc, sortedAttributeDescriptors));
+      printSearchResults(csvPrinter, upstreamResponse, columnAliasMap, sortedAttributeDescriptors);
 
       return csvPrinter.getOut();
     } catch (IOException ioe) {
       throw new CatalogTransformerException(ioe.getMessage(), ioe);
+    } catch (UncheckedIOException ioe) {
+      throw new CatalogTransformerException(ioe.getMessage(), ioe.getCause());
     }
   }
 
+  private void printSearchResults(
+      final CSVPrinter csvPrinter,
+      final SourceResponse upstreamResponse,
+      Map<String, String> columnAliasMap,
+      List<AttributeDescriptor> sortedAttributeDescriptors) {
+    printColumnHeaders(csvPrinter, sortedAttributeDescriptors, columnAliasMap);
+
+    upstreamResponse
+        .getResults()
+        .stream()
+        .map(Result::getMetacard)
+        .forEach(mc -> printMetacard(csvPrinter, mc, sortedAttributeDescriptors));
+  }
+
   private void printMetacard(
       final CSVPrinter csvPrinter,
       final Metacard metacard,
@@ -156,7 +186,7 @@ private void printData(final CSVPrinter csvPrinter, final Iterator iterator) {
     try {
       csvPrinter.printRecord(() -> iterator);
     } catch (IOException ioe) {
-      LOGGER.error(ioe.getMessage(), ioe);
+      throw new UncheckedIOException(ioe);
     }
   }
 
@@ -15,11 +15,13 @@
 package ddf.catalog.transformer.csv;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.Attribute;
 import ddf.catalog.data.AttributeDescriptor;
 import ddf.catalog.data.AttributeType;
@@ -27,9 +29,11 @@
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.Result;
+import ddf.catalog.data.StreamingBinaryContent;
 import ddf.catalog.data.impl.BasicTypes;
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.transform.CatalogTransformerException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -116,6 +120,23 @@ public void testCsvQueryResponseTransformer() throws CatalogTransformerException
     assertThat(scanner.hasNext(), is(false));
   }
 
+  @Test
+  public void testStreamingCsvQueryResponseTransformer()
+      throws CatalogTransformerException, IOException {
+    Map<String, Serializable> argumentsMap = new HashMap<>();
+    String[] columnOrderArray = {"attribute4", "attribute2"};
+    argumentsMap.put("columnOrder", buildList(columnOrderArray));
+    byte[] expected = transformer.transform(sourceResponse, argumentsMap).getByteArray();
+
+    argumentsMap.put(Constants.STREAMING_CONTENT_KEY, true);
+    BinaryContent bc = transformer.transform(sourceResponse, argumentsMap);
+    assertThat(bc, instanceOf(StreamingBinaryContent.class));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ((StreamingBinaryContent) bc).writeTo(outputStream);
+    assertThat(outputStream.toByteArray(), is(expected));
+  }
+
   private void validate(Scanner scanner, String[] expectedValues) {
     for (int i = 0; i < expectedValues.length; i++) {
       assertThat(scanner.hasNext(), is(true));
@@ -13,17 +13,23 @@
  */
 package ddf.catalog.transformer.queryresponse.geojson;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.Result;
 import ddf.catalog.data.impl.BinaryContentImpl;
+import ddf.catalog.data.impl.StreamingBinaryContentImpl;
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.transform.CatalogTransformerException;
 import ddf.catalog.transform.MetacardTransformer;
 import ddf.catalog.transform.QueryResponseTransformer;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import javax.activation.MimeType;
@@ -112,6 +118,11 @@ public BinaryContent transform(
           "Cannot transform null " + SourceResponse.class.getName());
     }
 
+    if (arguments != null && Boolean.TRUE.equals(arguments.get(Constants.STREAMING_CONTENT_KEY))) {
+      return new StreamingBinaryContentImpl(
+          outputStream -> writeJson(upstreamResponse, outputStream), DEFAULT_MIME_TYPE);
+    }
+
     JSONObject rootObject = new JSONObject();
 
     addNonNullObject(rootObject, "hits", upstreamResponse.getHits());
@@ -134,6 +145,39 @@ public BinaryContent transform(
         new ByteArrayInputStream(jsonText.getBytes(StandardCharsets.UTF_8)), DEFAULT_MIME_TYPE);
   }
 
+  /**
+   * Writes the same JSON as {@link #transform(SourceResponse, Map)}, one result at a time, so that
+   * the whole document is never held in memory.
+   */
+  private void writeJson(SourceResponse upstreamResponse, OutputStream outputStream)
+      throws IOException {
+    Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+    writer.write("{\"hits\":");
+    writer.write(Long.toString(upstreamResponse.getHits()));
+    writer.write(",\"results\":[");
+
+    if (upstreamResponse.getResults() != null) {
+      boolean first = true;
+      for (Result result : upstreamResponse.getResults()) {
+        if (result == null) {
+          throw new IOException("Cannot transform null " + Result.class.getName());
+        }
+        if (!first) {
+          writer.write(',');
+        }
+        first = false;
+        try {
+          JSONValue.writeJSONString(convertToJSON(result), writer);
+        } catch (CatalogTransformerException e) {
+          throw new IOException("Unable to transform result to GeoJSON", e);
+        }
+      }
+    }
+
+    writer.write("]}");
+    writer.flush();
+  }
+
   @Override
   public String toString() {
     return MetacardTransformer.class.getName()
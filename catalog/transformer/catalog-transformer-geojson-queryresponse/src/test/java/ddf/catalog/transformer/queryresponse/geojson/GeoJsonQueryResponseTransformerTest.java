@@ -13,15 +13,18 @@
  */
 package ddf.catalog.transformer.queryresponse.geojson;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.Result;
+import ddf.catalog.data.StreamingBinaryContent;
 import ddf.catalog.data.impl.BinaryContentImpl;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.data.impl.ResultImpl;
@@ -30,11 +33,13 @@
 import ddf.catalog.transform.CatalogTransformerException;
 import ddf.catalog.transform.MetacardTransformer;
 import ddf.catalog.transformer.metacard.geojson.GeoJsonMetacardTransformer;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
@@ -138,6 +143,38 @@ public void testGoodResponse() throws CatalogTransformerException, IOException,
     verifyResponse(obj, resultCount, hitCount);
   }
 
+  @Test
+  public void testStreamingResponse()
+      throws CatalogTransformerException, IOException, ParseException {
+    final int resultCount = 3;
+    final int hitCount = 12;
+    SourceResponse sourceResponse = setupResponse(resultCount, hitCount);
+
+    BinaryContent content =
+        geoJsonQueryResponseTransformer.transform(
+            sourceResponse, Collections.singletonMap(Constants.STREAMING_CONTENT_KEY, true));
+    assertThat(content, instanceOf(StreamingBinaryContent.class));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ((StreamingBinaryContent) content).writeTo(outputStream);
+    JSONObject obj =
+        (JSONObject) PARSER.parse(outputStream.toString(StandardCharsets.UTF_8.name()));
+
+    verifyResponse(obj, resultCount, hitCount);
+  }
+
+  @Test(expected = IOException.class)
+  public void testStreamingNullResult() throws CatalogTransformerException, IOException {
+    List<Result> results = new LinkedList<>();
+    results.add(null);
+    SourceResponse sourceResponse = new SourceResponseImpl(null, results, 1L);
+
+    BinaryContent content =
+        geoJsonQueryResponseTransformer.transform(
+            sourceResponse, Collections.singletonMap(Constants.STREAMING_CONTENT_KEY, true));
+    ((StreamingBinaryContent) content).writeTo(new ByteArrayOutputStream());
+  }
+
   @Test
   public void testCustomTransformerWithJsonArray()
       throws ParseException, IOException, CatalogTransformerException {
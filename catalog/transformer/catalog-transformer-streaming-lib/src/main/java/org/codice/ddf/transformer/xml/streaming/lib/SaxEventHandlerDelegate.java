@@ -18,6 +18,7 @@
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.CompactMetacard;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.data.types.Validation;
 import ddf.catalog.transform.CatalogTransformerException;
@@ -69,6 +70,8 @@ public class SaxEventHandlerDelegate extends DefaultHandler {
 
   private SaxEventHandlerUtils saxEventHandlerUtils = new SaxEventHandlerUtils();
 
+  private boolean compactMetacards = false;
+
   public SaxEventHandlerDelegate() {
     try {
       parser = XML_UTILS.getSecureXmlParser();
@@ -125,7 +128,8 @@ public Metacard getMetacard(String id) {
     /*
      * Create a new MetacardImpl with the proper MetacardType
      */
-    Metacard metacard = new MetacardImpl(metacardType);
+    Metacard metacard =
+        compactMetacards ? new CompactMetacard(metacardType) : new MetacardImpl(metacardType);
     /*
      * If any major errors occur during parsing, print them out and add them to the metacard as validation errors
      */
@@ -168,13 +172,25 @@ public Metacard getMetacard(String id) {
         if (metacard.getAttribute(attribute.getName()) == null) {
           metacard.setAttribute(attribute);
         } else if (MapUtils.getBoolean(multiValuedMap, attribute.getName(), false)) {
-          metacard.getAttribute(attribute.getName()).getValues().addAll(attribute.getValues());
+          // Sets the combined values, as the values of a metacard's attribute may not be mutable
+          List<Serializable> values =
+              new ArrayList<>(metacard.getAttribute(attribute.getName()).getValues());
+          values.addAll(attribute.getValues());
+          metacard.setAttribute(new AttributeImpl(attribute.getName(), values));
         }
       }
     }
     return metacard;
   }
 
+  /**
+   * @param compactMetacards whether the metacards created are {@link CompactMetacard}s, which use
+   *     less memory than regular metacards
+   */
+  public void setCompactMetacards(boolean compactMetacards) {
+    this.compactMetacards = compactMetacards;
+  }
+
   /**
    * Takes in a sax event from {@link SaxEventHandlerDelegate#parser} and passes it to the {@link
    * SaxEventHandlerDelegate#eventHandlers}
@@ -66,6 +66,8 @@ public class XmlInputTransformer implements InputTransformer, Describable {
    */
   private List<String> saxEventHandlerConfiguration;
 
+  private boolean compactMetacards = false;
+
   /**
    * Method to create a new {@link SaxEventHandlerDelegate}, configured to parse a metacard
    * according to {@link XmlInputTransformer#saxEventHandlerConfiguration} and {@link
@@ -88,7 +90,9 @@ SaxEventHandlerDelegate create() {
      * Pass all the new handlers to configure and create a new SaxEventHandlerDelegate and sets
      * the metacardType
      */
-    return new SaxEventHandlerDelegate(filteredSaxEventHandlers);
+    SaxEventHandlerDelegate delegate = new SaxEventHandlerDelegate(filteredSaxEventHandlers);
+    delegate.setCompactMetacards(compactMetacards);
+    return delegate;
   }
 
   /**
@@ -183,6 +187,16 @@ public void setSaxEventHandlerConfiguration(List<String> saxEventHandlerConfigur
     this.saxEventHandlerConfiguration = saxEventHandlerConfiguration;
   }
 
+  /**
+   * Setter to create {@link ddf.catalog.data.impl.CompactMetacard}s, which use less memory than
+   * regular metacards, for transformations that produce many metacards that are kept in memory
+   *
+   * @param compactMetacards whether compact metacards are created
+   */
+  public void setCompactMetacards(boolean compactMetacards) {
+    this.compactMetacards = compactMetacards;
+  }
+
   @Override
   public String getVersion() {
     return version;
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package ddf.catalog.transformer.xml;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import ddf.catalog.data.Result;
+import ddf.catalog.transform.CatalogTransformerException;
+import ddf.catalog.transformer.api.MetacardMarshaller;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xmlpull.v1.XmlPullParserException;
+
+/**
+ * Marshals the metacards of query results on a pool of worker threads and writes them to an output
+ * stream in the order of the results. The results are split into fixed-size chunks, which the
+ * workers marshal into byte buffers taken from a pool. The calling thread writes the buffers to the
+ * output stream in sequence as they complete, then returns them to the pool.
+ *
+ * <p>The number of chunks in flight is bounded, so the memory used by a transformation depends on
+ * the chunk and pool sizes rather than on the number of results, and each metacard is copied once,
+ * from its marshalled form into a buffer.
+ *
+ * <p>Each write is registered with {@link #startWrite()} before it begins and {@link
+ * #finishWrite()} once it ends, so that {@link #shutdown()} lets the writes in progress finish.
+ */
+class MetacardMarshallingPipeline {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MetacardMarshallingPipeline.class);
+
+  private static final long IDLE_TIMEOUT_SECONDS = 60;
+
+  /** Buffers that grew larger than this are not kept in the pool. */
+  private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+  private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+  private final MetacardMarshaller metacardMarshaller;
+
+  private final int chunkSize;
+
+  private final int maxChunksInFlight;
+
+  private final ThreadPoolExecutor executor;
+
+  private final BlockingQueue<ByteArrayOutputStream> buffers;
+
+  private int activeWrites;
+
+  private boolean shuttingDown;
+
+  /**
+   * @param metacardMarshaller marshals each metacard
+   * @param chunkSize the number of metacards marshalled by a worker at a time
+   * @param poolSize the number of worker threads
+   */
+  MetacardMarshallingPipeline(MetacardMarshaller metacardMarshaller, int chunkSize, int poolSize) {
+    this.metacardMarshaller = metacardMarshaller;
+    this.chunkSize = chunkSize;
+    // Keeps every worker busy while the calling thread writes a completed chunk
+    this.maxChunksInFlight = poolSize * 2;
+    this.buffers = new ArrayBlockingQueue<>(maxChunksInFlight);
+
+    LOGGER.debug(
+        "Creating metacard marshalling pool with {} threads and chunks of {} metacards",
+        poolSize,
+        chunkSize);
+    this.executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            IDLE_TIMEOUT_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("xmlMetacardMarshaller-%d")
+                .setDaemon(true)
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  int getChunkSize() {
+    return chunkSize;
+  }
+
+  int getPoolSize() {
+    return executor.getMaximumPoolSize();
+  }
+
+  /**
+   * Marshals the metacards of the results and writes them to the output stream, in order.
+   *
+   * @throws IOException if a metacard could not be marshalled or the output could not be written
+   */
+  void write(List<Result> results, OutputStream outputStream) throws IOException {
+    Deque<Future<ByteArrayOutputStream>> pending = new ArrayDeque<>(maxChunksInFlight);
+    Iterator<List<Result>> chunks = Lists.partition(results, chunkSize).iterator();
+
+    try {
+      while (chunks.hasNext() || !pending.isEmpty()) {
+        while (chunks.hasNext() && pending.size() < maxChunksInFlight) {
+          List<Result> chunk = chunks.next();
+          pending.add(executor.submit(() -> marshal(chunk)));
+        }
+
+        ByteArrayOutputStream buffer = getBuffer(pending.removeFirst());
+        try {
+          buffer.writeTo(outputStream);
+        } finally {
+          release(buffer);
+        }
+      }
+    } finally {
+      // Only left when the transformation failed
+      pending.forEach(future -> future.cancel(true));
+    }
+  }
+
+  /** Registers a write that is about to begin, which keeps the workers running until it ends. */
+  synchronized void startWrite() {
+    activeWrites++;
+  }
+
+  /** Registers the end of a write, shutting the workers down if it was the last one to end. */
+  synchronized void finishWrite() {
+    activeWrites--;
+    if (shuttingDown && activeWrites == 0) {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Shuts the workers down once the writes in progress end. Writes are not started after this is
+   * called.
+   */
+  synchronized void shutdown() {
+    shuttingDown = true;
+    if (activeWrites == 0) {
+      executor.shutdown();
+    }
+  }
+
+  private ByteArrayOutputStream marshal(List<Result> chunk)
+      throws IOException, XmlPullParserException, CatalogTransformerException {
+    Map<String, Serializable> args = new HashMap<>();
+    args.put(MetacardMarshallerImpl.OMIT_XML_DECL, Boolean.TRUE);
+
+    ByteArrayOutputStream buffer = acquire();
+    boolean marshalled = false;
+    try {
+      for (Result result : chunk) {
+        String xml = metacardMarshaller.marshal(result.getMetacard(), args);
+        buffer.write(xml.getBytes(StandardCharsets.UTF_8));
+      }
+      marshalled = true;
+      return buffer;
+    } finally {
+      if (!marshalled) {
+        release(buffer);
+      }
+    }
+  }
+
+  private ByteArrayOutputStream getBuffer(Future<ByteArrayOutputStream> future)
+      throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while marshalling metacards.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failure to marshal metacard; operation aborted", e.getCause());
+    }
+  }
+
+  private ByteArrayOutputStream acquire() {
+    ByteArrayOutputStream buffer = buffers.poll();
+    return buffer == null ? new ByteArrayOutputStream(INITIAL_BUFFER_SIZE) : buffer;
+  }
+
+  private void release(ByteArrayOutputStream buffer) {
+    if (buffer.size() <= MAX_POOLED_BUFFER_SIZE) {
+      buffer.reset();
+      buffers.offer(buffer);
+    }
+  }
+}
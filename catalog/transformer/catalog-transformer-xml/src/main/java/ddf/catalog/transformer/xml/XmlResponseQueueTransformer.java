@@ -15,24 +15,28 @@
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import ddf.catalog.Constants;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.Result;
 import ddf.catalog.data.impl.BinaryContentImpl;
+import ddf.catalog.data.impl.StreamingBinaryContentImpl;
 import ddf.catalog.operation.SourceResponse;
 import ddf.catalog.transform.CatalogTransformerException;
 import ddf.catalog.transform.QueryResponseTransformer;
 import ddf.catalog.transformer.api.MetacardMarshaller;
-import ddf.catalog.transformer.api.PrintWriter;
-import ddf.catalog.transformer.api.PrintWriterProvider;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
@@ -54,40 +58,35 @@ public class XmlResponseQueueTransformer extends AbstractXmlTransformer
 
   public static final int BUFFER_SIZE = 1024;
 
+  private static final String XML_DECLARATION =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+  /** The number of worker threads used when none is configured. */
+  private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+  private static final int DEFAULT_CHUNK_SIZE = 50;
+
   private static class MetacardForkTask extends RecursiveTask<StringWriter> {
     private static final long serialVersionUID = 1L;
 
     private final transient ImmutableList<Result> resultList;
 
-    private final transient ForkJoinPool fjp;
-
-    private final transient GeometryTransformer geometryTransformer;
-
     private final int threshold;
 
     private final AtomicBoolean cancelOperation;
 
     private final transient MetacardMarshaller metacardMarshaller;
 
-    MetacardForkTask(
-        ImmutableList<Result> resultList,
-        ForkJoinPool fjp,
-        GeometryTransformer geometryTransformer,
-        int threshold,
-        MetacardMarshaller mcm) {
-      this(resultList, fjp, geometryTransformer, threshold, new AtomicBoolean(false), mcm);
+    MetacardForkTask(ImmutableList<Result> resultList, int threshold, MetacardMarshaller mcm) {
+      this(resultList, threshold, new AtomicBoolean(false), mcm);
     }
 
     private MetacardForkTask(
         ImmutableList<Result> resultList,
-        ForkJoinPool fjp,
-        GeometryTransformer geometryTransformer,
         int threshold,
         AtomicBoolean cancelOperation,
         MetacardMarshaller mcm) {
       this.resultList = resultList;
-      this.fjp = fjp;
-      this.geometryTransformer = geometryTransformer;
       this.threshold = threshold;
       this.cancelOperation = cancelOperation;
       this.metacardMarshaller = mcm;
@@ -106,18 +105,11 @@ protected StringWriter compute() {
 
         MetacardForkTask fLeft =
             new MetacardForkTask(
-                resultList.subList(0, half),
-                fjp,
-                geometryTransformer,
-                threshold,
-                cancelOperation,
-                metacardMarshaller);
+                resultList.subList(0, half), threshold, cancelOperation, metacardMarshaller);
         fLeft.fork();
         MetacardForkTask fRight =
             new MetacardForkTask(
                 resultList.subList(half, resultList.size()),
-                fjp,
-                geometryTransformer,
                 threshold,
                 cancelOperation,
                 metacardMarshaller);
@@ -145,25 +137,19 @@ private StringWriter doCompute() {
       }
       return sw;
     }
-
-    private void writeObject(ObjectOutputStream stream) throws IOException {
-      stream.defaultWriteObject();
-    }
-
-    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
-      stream.defaultReadObject();
-    }
   } // end MetacardForkTask class
 
-  private final ForkJoinPool fjp;
+  private final MetacardMarshaller metacardMarshaller;
 
-  private final GeometryTransformer geometryTransformer;
+  private int threshold;
 
-  private final PrintWriterProvider printWriterProvider;
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
 
-  private final MetacardMarshaller metacardMarshaller;
+  private int poolSize = DEFAULT_POOL_SIZE;
 
-  private int threshold;
+  private boolean forkJoin = false;
+
+  private MetacardMarshallingPipeline pipeline;
 
   private static final Logger LOGGER = LoggerFactory.getLogger(XmlResponseQueueTransformer.class);
 
@@ -187,25 +173,12 @@ private void readObject(ObjectInputStream stream) throws IOException, ClassNotFo
   }
 
   /**
-   * Constructs a transformer that will convert query responses to XML. The {@code ForkJoinPool} is
-   * used for splitting large collections of {@link Metacard}s into smaller collections for
-   * concurrent processing. Currently injected through Blueprint, if we choose to use fork-join for
-   * other tasks in the application, we should move the construction of the pool from its current
-   * location. Conversely, if we move to Java 8 we can simply use the new {@code commonPool} static
-   * method provided on {@code ForkJoinPool}.
-   *
-   * @param fjp the {@code ForkJoinPool} to inject
+   * Constructs a transformer that will convert query responses to XML. Large collections of {@link
+   * Metacard}s are split into chunks that are marshalled concurrently by a {@link
+   * MetacardMarshallingPipeline}, or by fork/join tasks when {@link #setForkJoin(boolean)} is set.
    */
-  public XmlResponseQueueTransformer(
-      Parser parser,
-      ForkJoinPool fjp,
-      PrintWriterProvider pwp,
-      MetacardMarshaller mcm,
-      MimeType mimeType) {
+  public XmlResponseQueueTransformer(Parser parser, MetacardMarshaller mcm, MimeType mimeType) {
     super(parser);
-    this.fjp = fjp;
-    geometryTransformer = new GeometryTransformer(parser);
-    this.printWriterProvider = pwp;
     this.metacardMarshaller = mcm;
     this.mimeType = mimeType;
     try {
@@ -218,47 +191,138 @@ public XmlResponseQueueTransformer(
   }
 
   /**
-   * @param threshold the fork threshold: result lists smaller than this size will be processed
-   *     serially; larger than this size will be processed in threshold-sized chunks in parallel
+   * @param threshold the parallel threshold: result lists smaller than this size will be processed
+   *     serially; larger than this size will be processed in chunks in parallel
    */
   public void setThreshold(int threshold) {
     this.threshold = threshold <= 1 ? 2 : threshold;
   }
 
+  /** @param chunkSize the number of metacards marshalled by a worker thread at a time */
+  public synchronized void setChunkSize(int chunkSize) {
+    this.chunkSize = chunkSize < 1 ? DEFAULT_CHUNK_SIZE : chunkSize;
+  }
+
+  /**
+   * @param poolSize the number of worker threads marshalling metacards in parallel; the number of
+   *     available processors is used when it is less than 1
+   */
+  public synchronized void setPoolSize(int poolSize) {
+    this.poolSize = poolSize < 1 ? DEFAULT_POOL_SIZE : poolSize;
+  }
+
+  /**
+   * @param forkJoin {@code true} to marshal large responses with fork/join tasks on the common
+   *     {@link ForkJoinPool} instead of the pipeline, so the two can be compared
+   */
+  public void setForkJoin(boolean forkJoin) {
+    this.forkJoin = forkJoin;
+  }
+
+  /** Shuts the marshalling pipeline down once the transformations using it end. */
+  public synchronized void destroy() {
+    if (pipeline != null) {
+      pipeline.shutdown();
+      pipeline = null;
+    }
+  }
+
+  /**
+   * Transforms the response into XML. When the {@link Constants#STREAMING_CONTENT_KEY} argument is
+   * {@code true}, the metacards are marshalled as the returned content is written, a chunk of
+   * results at a time, instead of the whole document being built in memory.
+   */
   @Override
   public BinaryContent transform(SourceResponse response, Map<String, Serializable> args)
       throws CatalogTransformerException {
+    if (args != null && Boolean.TRUE.equals(args.get(Constants.STREAMING_CONTENT_KEY))) {
+      List<Result> results = response.getResults();
+      return new StreamingBinaryContentImpl(
+          outputStream -> writeXml(results, outputStream), mimeType);
+    }
+
     try {
-      PrintWriter writer = printWriterProvider.build(Metacard.class);
-      writer.setRawValue("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      writeXml(response.getResults(), outputStream);
+      return new BinaryContentImpl(
+          new ByteArrayInputStream(outputStream.toByteArray()), mimeType);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.info("Failed Query response transformation", e);
+      throw new CatalogTransformerException("Failed Query response transformation");
+    }
+  }
 
-      writer.startNode("metacards");
-      for (Map.Entry<String, String> nsRow : NAMESPACE_MAP.entrySet()) {
-        writer.addAttribute(nsRow.getKey(), nsRow.getValue());
+  private void writeXml(List<Result> results, OutputStream outputStream) throws IOException {
+    Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+    writer.write(XML_DECLARATION);
+    writer.write("<metacards");
+    for (Map.Entry<String, String> nsRow : NAMESPACE_MAP.entrySet()) {
+      writer.write(String.format(" %s=\"%s\"", nsRow.getKey(), nsRow.getValue()));
+    }
+    writer.write('>');
+
+    if (results != null && results.size() >= threshold && forkJoin) {
+      forkJoinWrite(results, writer);
+    } else if (results != null && results.size() >= threshold) {
+      // The pipeline writes to the underlying stream, after the start of the document
+      writer.flush();
+      MetacardMarshallingPipeline writePipeline = startPipelineWrite();
+      try {
+        writePipeline.write(results, outputStream);
+      } finally {
+        writePipeline.finishWrite();
+      }
+    } else if (results != null) {
+      Map<String, Serializable> args = new HashMap<>();
+      args.put(MetacardMarshallerImpl.OMIT_XML_DECL, Boolean.TRUE);
+      for (Result result : results) {
+        writer.write(marshal(result.getMetacard(), args));
       }
+    }
+
+    writer.write("</metacards>");
+    writer.flush();
+  }
 
-      if (response.getResults() != null && !response.getResults().isEmpty()) {
-        StringWriter metacardContent =
+  private void forkJoinWrite(List<Result> results, Writer writer) throws IOException {
+    // Each chunk is large enough to be split across the whole pool, and small enough for the
+    // memory used by its marshalled metacards to stay bounded
+    ForkJoinPool fjp = ForkJoinPool.commonPool();
+    int forkChunkSize = threshold * Math.max(fjp.getParallelism(), 1);
+    for (List<Result> chunk : Lists.partition(results, forkChunkSize)) {
+      StringWriter metacardContent;
+      try {
+        metacardContent =
             fjp.invoke(
-                new MetacardForkTask(
-                    ImmutableList.copyOf(response.getResults()),
-                    fjp,
-                    geometryTransformer,
-                    threshold,
-                    metacardMarshaller));
-
-        writer.setRawValue(metacardContent.getBuffer().toString());
+                new MetacardForkTask(ImmutableList.copyOf(chunk), threshold, metacardMarshaller));
+      } catch (DataBindingException e) {
+        throw new IOException("Failed Query response transformation", e);
       }
+      writer.append(metacardContent.getBuffer());
+      writer.flush();
+    }
+  }
 
-      writer.endNode(); // metacards
-
-      ByteArrayInputStream bais =
-          new ByteArrayInputStream(writer.makeString().getBytes(StandardCharsets.UTF_8));
+  private String marshal(Metacard metacard, Map<String, Serializable> args) throws IOException {
+    try {
+      return metacardMarshaller.marshal(metacard, args);
+    } catch (XmlPullParserException | CatalogTransformerException e) {
+      throw new IOException("Failure to marshal metacard; operation aborted", e);
+    }
+  }
 
-      return new BinaryContentImpl(bais, mimeType);
-    } catch (Exception e) {
-      LOGGER.info("Failed Query response transformation", e);
-      throw new CatalogTransformerException("Failed Query response transformation");
+  /**
+   * Returns the pipeline for the current chunk and pool sizes with a write registered on it. A
+   * pipeline replaced because the sizes changed is shut down once the writes using it end.
+   */
+  private synchronized MetacardMarshallingPipeline startPipelineWrite() {
+    if (pipeline == null
+        || pipeline.getChunkSize() != chunkSize
+        || pipeline.getPoolSize() != poolSize) {
+      destroy();
+      pipeline = new MetacardMarshallingPipeline(metacardMarshaller, chunkSize, poolSize);
     }
+    pipeline.startWrite();
+    return pipeline;
   }
 }
@@ -16,6 +16,8 @@
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathEvaluatesTo;
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathExists;
 import static org.custommonkey.xmlunit.XMLAssert.assertXpathNotExists;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -26,11 +28,13 @@
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import ddf.catalog.Constants;
 import ddf.catalog.data.AttributeDescriptor;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.Result;
+import ddf.catalog.data.StreamingBinaryContent;
 import ddf.catalog.data.impl.MetacardImpl;
 import ddf.catalog.data.impl.ResultImpl;
 import ddf.catalog.operation.SourceResponse;
@@ -41,12 +45,14 @@
 import ddf.catalog.transformer.xml.MetacardMarshallerImpl;
 import ddf.catalog.transformer.xml.PrintWriterProviderImpl;
 import ddf.catalog.transformer.xml.XmlResponseQueueTransformer;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -56,7 +62,6 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ForkJoinPool;
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
 import org.codice.ddf.parser.Parser;
@@ -66,6 +71,7 @@
 import org.custommonkey.xmlunit.XMLUnit;
 import org.custommonkey.xmlunit.exceptions.XpathException;
 import org.joda.time.DateTime;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -102,8 +108,6 @@ public class XmlResponseQueueTransformerTest {
 
   private static final String DEFAULT_SOURCE_ID = "mySourceId";
 
-  private static final ForkJoinPool FJP = new ForkJoinPool();
-
   private XmlResponseQueueTransformer transformer;
 
   private MimeType mimeType;
@@ -128,9 +132,12 @@ public void setup() throws MimeTypeParseException {
     PrintWriterProvider printWriterProvider = new PrintWriterProviderImpl();
     MetacardMarshaller metacardMarshaller = new MetacardMarshallerImpl(parser, printWriterProvider);
     mimeType = getMimeType();
-    transformer =
-        new XmlResponseQueueTransformer(
-            parser, FJP, printWriterProvider, metacardMarshaller, mimeType);
+    transformer = new XmlResponseQueueTransformer(parser, metacardMarshaller, mimeType);
+  }
+
+  @After
+  public void tearDown() {
+    transformer.destroy();
   }
 
   /** @throws CatalogTransformerException */
@@ -363,7 +370,7 @@ public void testMultiple()
   }
 
   @Test
-  public void testCompareSerialToFork()
+  public void testCompareSerialToPipeline()
       throws IOException, CatalogTransformerException, MimeTypeParseException {
     SourceResponse response =
         givenSourceResponse(
@@ -372,27 +379,195 @@ public void testCompareSerialToFork()
             new MetacardStub("source3", "id3"),
             new MetacardStub("source4", "id4"));
 
-    PrintWriterProvider pwp = new PrintWriterProviderImpl();
-    MetacardMarshaller mcm = new MetacardMarshallerImpl(parser, pwp);
+    assertSerialAndPipelineOutputsEqual(response, 1, 2);
+  }
 
-    XmlResponseQueueTransformer serialXform =
-        new XmlResponseQueueTransformer(parser, FJP, pwp, mcm, getMimeType());
-    serialXform.setThreshold(2);
+  @Test
+  public void testCompareSerialToPipelineManyResults()
+      throws IOException, CatalogTransformerException, MimeTypeParseException {
+    List<Metacard> metacards = new ArrayList<>();
+    for (int i = 1; i <= 1000; i++) {
+      metacards.add(new MetacardStub("source" + i, "id" + i));
+    }
+    SourceResponse response = givenSourceResponse(metacards.toArray(new Metacard[0]));
+
+    assertSerialAndPipelineOutputsEqual(response, 7, 4);
+  }
+
+  @Test
+  public void testCompareForkJoinToPipeline()
+      throws IOException, CatalogTransformerException, MimeTypeParseException {
+    List<Metacard> metacards = new ArrayList<>();
+    for (int i = 1; i <= 1000; i++) {
+      metacards.add(new MetacardStub("source" + i, "id" + i));
+    }
+    SourceResponse response = givenSourceResponse(metacards.toArray(new Metacard[0]));
+    MetacardMarshaller mcm = new MetacardMarshallerImpl(parser, new PrintWriterProviderImpl());
+
+    XmlResponseQueueTransformer forkJoinXform =
+        new XmlResponseQueueTransformer(parser, mcm, getMimeType());
+    forkJoinXform.setThreshold(2);
+    forkJoinXform.setForkJoin(true);
+
+    XmlResponseQueueTransformer pipelineXform =
+        new XmlResponseQueueTransformer(parser, mcm, getMimeType());
+    pipelineXform.setThreshold(2);
+
+    try {
+      String forkJoinOutput = new String(forkJoinXform.transform(response, null).getByteArray());
+      String pipelineOutput = new String(pipelineXform.transform(response, null).getByteArray());
+
+      assertEquals(pipelineOutput, forkJoinOutput);
+    } finally {
+      pipelineXform.destroy();
+    }
+  }
+
+  @Test(expected = CatalogTransformerException.class)
+  public void testForkJoinMetacardMarshallThrowsXmlPullParserException()
+      throws IOException, CatalogTransformerException, XmlPullParserException,
+          MimeTypeParseException {
+    SourceResponse response =
+        givenSourceResponse(
+            new MetacardStub("source1", "id1"),
+            new MetacardStub("source2", "id2"),
+            new MetacardStub("source3", "id3"));
 
-    XmlResponseQueueTransformer forkXForm =
-        new XmlResponseQueueTransformer(parser, FJP, pwp, mcm, getMimeType());
-    forkXForm.setThreshold(10);
+    MetacardMarshaller mockMetacardMarshaller = mock(MetacardMarshaller.class);
 
-    BinaryContent serialBc = serialXform.transform(response, null);
-    BinaryContent forkBc = forkXForm.transform(response, null);
+    when(mockMetacardMarshaller.marshal(any(Metacard.class), any(Map.class)))
+        .thenThrow(new XmlPullParserException(""));
 
-    String serialOutput = new String(serialBc.getByteArray());
-    String forkOutput = new String(forkBc.getByteArray());
+    XmlResponseQueueTransformer xrqt =
+        new XmlResponseQueueTransformer(parser, mockMetacardMarshaller, getMimeType());
+    xrqt.setThreshold(2);
+    xrqt.setForkJoin(true);
+
+    xrqt.transform(response, null);
 
-    // There are expected whitespace differences between the outputs.
-    // This is an overly aggressive conversion; a better test would be to unmarshal the
-    // xml metacards back into Metacard instances and compare equality.
-    assertEquals(serialOutput.replaceAll("\\s", ""), forkOutput.replaceAll("\\s", ""));
+    // then exception
+  }
+
+  @Test
+  public void testStreaming() throws Exception {
+    transformer.setThreshold(2);
+    List<Metacard> metacards = new ArrayList<>();
+    for (int i = 1; i <= 100; i++) {
+      metacards.add(new MetacardStub("source" + i, "id" + i));
+    }
+    SourceResponse response = givenSourceResponse(metacards.toArray(new Metacard[0]));
+
+    BinaryContent binaryContent =
+        transformer.transform(
+            response, Collections.singletonMap(Constants.STREAMING_CONTENT_KEY, true));
+    assertThat(binaryContent, instanceOf(StreamingBinaryContent.class));
+    assertThat(binaryContent.getMimeType(), is(mimeType));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ((StreamingBinaryContent) binaryContent).writeTo(outputStream);
+    String output = outputStream.toString(StandardCharsets.UTF_8.name());
+
+    assertXpathEvaluatesTo("100", "count(/mc:metacards/mc:metacard)", output);
+    for (int i = 1; i <= 100; i++) {
+      assertXpathEvaluatesTo("id" + i, "/mc:metacards/mc:metacard[" + i + "]/@gml:id", output);
+    }
+    verifyDefaults("100", output);
+
+    String expected = new String(transformer.transform(response, null).getByteArray());
+    assertEquals(expected.replaceAll("\\s", ""), output.replaceAll("\\s", ""));
+  }
+
+  @Test
+  public void testStreamingEmptySourceResponse() throws Exception {
+    transformer.setThreshold(2);
+    BinaryContent binaryContent =
+        transformer.transform(
+            new SourceResponseImpl(null, null),
+            Collections.singletonMap(Constants.STREAMING_CONTENT_KEY, true));
+
+    String output = new String(binaryContent.getByteArray(), StandardCharsets.UTF_8);
+
+    assertXpathExists("/mc:metacards", output);
+    assertXpathNotExists("//mc:metacard", output);
+  }
+
+  @Test(expected = IOException.class)
+  public void testStreamingMetacardMarshallThrowsXmlPullParserException() throws Exception {
+    SourceResponse response = givenSourceResponse(new MetacardStub("source1", "id1"));
+
+    MetacardMarshaller mockMetacardMarshaller = mock(MetacardMarshaller.class);
+    when(mockMetacardMarshaller.marshal(any(Metacard.class), any(Map.class)))
+        .thenThrow(new XmlPullParserException(""));
+
+    XmlResponseQueueTransformer xrqt =
+        new XmlResponseQueueTransformer(parser, mockMetacardMarshaller, getMimeType());
+    xrqt.setThreshold(2);
+
+    BinaryContent binaryContent =
+        xrqt.transform(response, Collections.singletonMap(Constants.STREAMING_CONTENT_KEY, true));
+    ((StreamingBinaryContent) binaryContent).writeTo(new ByteArrayOutputStream());
+  }
+
+  @Test(expected = IOException.class)
+  public void testStreamingPipelineMetacardMarshallThrowsXmlPullParserException()
+      throws Exception {
+    SourceResponse response =
+        givenSourceResponse(
+            new MetacardStub("source1", "id1"),
+            new MetacardStub("source2", "id2"),
+            new MetacardStub("source3", "id3"));
+
+    MetacardMarshaller mockMetacardMarshaller = mock(MetacardMarshaller.class);
+    when(mockMetacardMarshaller.marshal(any(Metacard.class), any(Map.class)))
+        .thenReturn("<metacard/>")
+        .thenThrow(new XmlPullParserException(""));
+
+    XmlResponseQueueTransformer xrqt =
+        new XmlResponseQueueTransformer(parser, mockMetacardMarshaller, getMimeType());
+    xrqt.setThreshold(2);
+    xrqt.setChunkSize(1);
+
+    try {
+      BinaryContent binaryContent =
+          xrqt.transform(
+              response, Collections.singletonMap(Constants.STREAMING_CONTENT_KEY, true));
+      ((StreamingBinaryContent) binaryContent).writeTo(new ByteArrayOutputStream());
+    } finally {
+      xrqt.destroy();
+    }
+  }
+
+  @Test
+  public void testStreamingPipelineFinishesWhenDestroyedDuringWrite() throws Exception {
+    SourceResponse response =
+        givenSourceResponse(
+            new MetacardStub("source1", "id1"),
+            new MetacardStub("source2", "id2"),
+            new MetacardStub("source3", "id3"),
+            new MetacardStub("source4", "id4"),
+            new MetacardStub("source5", "id5"));
+
+    MetacardMarshaller mockMetacardMarshaller = mock(MetacardMarshaller.class);
+    XmlResponseQueueTransformer xrqt =
+        new XmlResponseQueueTransformer(parser, mockMetacardMarshaller, getMimeType());
+    xrqt.setThreshold(2);
+    xrqt.setChunkSize(1);
+    xrqt.setPoolSize(1);
+    when(mockMetacardMarshaller.marshal(any(Metacard.class), any(Map.class)))
+        .thenAnswer(
+            invocationOnMock -> {
+              xrqt.destroy();
+              return "<metacard/>";
+            });
+
+    BinaryContent binaryContent =
+        xrqt.transform(response, Collections.singletonMap(Constants.STREAMING_CONTENT_KEY, true));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ((StreamingBinaryContent) binaryContent).writeTo(outputStream);
+
+    assertThat(
+        new String(outputStream.toByteArray(), StandardCharsets.UTF_8),
+        endsWith(String.join("", Collections.nCopies(5, "<metacard/>")) + "</metacards>"));
   }
 
   @Test
@@ -469,7 +644,6 @@ public void testMimeTypeInitException()
           MimeTypeParseException {
     SourceResponse response = givenSourceResponse(new MetacardStub("source1", "id1"));
 
-    PrintWriterProvider pwp = new PrintWriterProviderImpl();
     MetacardMarshaller mockMetacardMarshaller = mock(MetacardMarshaller.class);
 
     MimeType mockMimeType = mock(MimeType.class);
@@ -477,7 +651,7 @@ public void testMimeTypeInitException()
     doThrow(new MimeTypeParseException("")).when(mockMimeType).setSubType(anyString());
 
     XmlResponseQueueTransformer xrqt =
-        new XmlResponseQueueTransformer(parser, FJP, pwp, mockMetacardMarshaller, mockMimeType);
+        new XmlResponseQueueTransformer(parser, mockMetacardMarshaller, mockMimeType);
     xrqt.setThreshold(2);
 
     xrqt.transform(response, null);
@@ -491,14 +665,13 @@ public void testMetacardMarshallThrowsXmlPullParserException()
           MimeTypeParseException {
     SourceResponse response = givenSourceResponse(new MetacardStub("source1", "id1"));
 
-    PrintWriterProvider pwp = new PrintWriterProviderImpl();
     MetacardMarshaller mockMetacardMarshaller = mock(MetacardMarshaller.class);
 
     when(mockMetacardMarshaller.marshal(any(Metacard.class), any(Map.class)))
         .thenThrow(new XmlPullParserException(""));
 
     XmlResponseQueueTransformer xrqt =
-        new XmlResponseQueueTransformer(parser, FJP, pwp, mockMetacardMarshaller, getMimeType());
+        new XmlResponseQueueTransformer(parser, mockMetacardMarshaller, getMimeType());
     xrqt.setThreshold(2);
 
     xrqt.transform(response, null);
@@ -506,6 +679,31 @@ public void testMetacardMarshallThrowsXmlPullParserException()
     // then exception
   }
 
+  private void assertSerialAndPipelineOutputsEqual(
+      SourceResponse response, int chunkSize, int poolSize)
+      throws IOException, CatalogTransformerException, MimeTypeParseException {
+    MetacardMarshaller mcm = new MetacardMarshallerImpl(parser, new PrintWriterProviderImpl());
+
+    XmlResponseQueueTransformer serialXform =
+        new XmlResponseQueueTransformer(parser, mcm, getMimeType());
+    serialXform.setThreshold(response.getResults().size() + 1);
+
+    XmlResponseQueueTransformer pipelineXform =
+        new XmlResponseQueueTransformer(parser, mcm, getMimeType());
+    pipelineXform.setThreshold(2);
+    pipelineXform.setChunkSize(chunkSize);
+    pipelineXform.setPoolSize(poolSize);
+
+    try {
+      String serialOutput = new String(serialXform.transform(response, null).getByteArray());
+      String pipelineOutput = new String(pipelineXform.transform(response, null).getByteArray());
+
+      assertEquals(serialOutput, pipelineOutput);
+    } finally {
+      pipelineXform.destroy();
+    }
+  }
+
   /** @return */
   private MetacardType getMetacardTypeStub(String name, Set<AttributeDescriptor> descriptors) {
 
@@ -16,13 +16,38 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Checksum;
 
 public abstract class AbstractChecksumProvider implements ChecksumProvider {
 
+  private static final int BUFFER_SIZE = 8192;
+
   @Override
   public abstract String calculateChecksum(InputStream inputStream)
       throws IOException, NoSuchAlgorithmException;
 
   @Override
   public abstract String getChecksumAlgorithm();
+
+  /**
+   * Reads the stream to its end, updating the checksum with its content, and closes it.
+   *
+   * @param inputStream the content to calculate the checksum of
+   * @param checksum a new checksum
+   * @return the checksum value, formatted by {@link #getChecksumValue(Checksum)}
+   */
+  protected String calculateChecksum(InputStream inputStream, Checksum checksum)
+      throws IOException {
+    if (inputStream == null) {
+      throw new IllegalArgumentException("InputStream cannot be null");
+    }
+
+    try (CheckedInputStream cis = new CheckedInputStream(inputStream, checksum)) {
+      byte[] buf = new byte[BUFFER_SIZE];
+      while (cis.read(buf, 0, buf.length) != -1) {}
+    }
+
+    return getChecksumValue(checksum);
+  }
 }
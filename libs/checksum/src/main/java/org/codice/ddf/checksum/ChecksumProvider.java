@@ -16,6 +16,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
+import java.util.zip.Checksum;
 
 public interface ChecksumProvider {
 
@@ -33,4 +34,27 @@ public interface ChecksumProvider {
    * @return checksum algorithm identifier
    */
   String getChecksumAlgorithm();
+
+  /**
+   * Creates a {@link Checksum} of this provider's algorithm, which can be updated with content
+   * while it is read for another purpose, such as storing it, instead of reading the content again
+   * with {@link #calculateChecksum(InputStream)}.
+   *
+   * @return a new checksum, or {@code null} if the algorithm can only be calculated with {@link
+   *     #calculateChecksum(InputStream)}
+   */
+  default Checksum createChecksum() {
+    return null;
+  }
+
+  /**
+   * Returns the value of a checksum created by {@link #createChecksum()}, formatted the same way as
+   * the values returned by {@link #calculateChecksum(InputStream)}.
+   *
+   * @param checksum the checksum, updated with all of the content
+   * @return checksum value
+   */
+  default String getChecksumValue(Checksum checksum) {
+    return Long.toHexString(checksum.getValue());
+  }
 }
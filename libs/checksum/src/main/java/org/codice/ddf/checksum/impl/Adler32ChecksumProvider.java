@@ -17,7 +17,7 @@
 import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
 import java.util.zip.Adler32;
-import java.util.zip.CheckedInputStream;
+import java.util.zip.Checksum;
 import org.codice.ddf.checksum.AbstractChecksumProvider;
 
 /**
@@ -31,24 +31,16 @@ public class Adler32ChecksumProvider extends AbstractChecksumProvider {
   @Override
   public String calculateChecksum(InputStream inputStream)
       throws IOException, NoSuchAlgorithmException {
-
-    if (inputStream == null) {
-      throw new IllegalArgumentException("InputStream cannot be null");
-    }
-
-    long checksumValue = 0L;
-
-    try (CheckedInputStream cis = new CheckedInputStream(inputStream, new Adler32())) {
-      byte[] buf = new byte[4096];
-      while (cis.read(buf, 0, buf.length - 1) != -1) {}
-      checksumValue = cis.getChecksum().getValue();
-    }
-
-    return Long.toHexString(checksumValue);
+    return calculateChecksum(inputStream, createChecksum());
   }
 
   @Override
   public String getChecksumAlgorithm() {
     return DIGEST_ALGORITHM;
   }
+
+  @Override
+  public Checksum createChecksum() {
+    return new Adler32();
+  }
 }
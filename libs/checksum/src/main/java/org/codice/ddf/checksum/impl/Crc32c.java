@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.checksum.impl;
+
+import java.util.zip.Checksum;
+
+/**
+ * CRC32C (Castagnoli) checksum, as defined by RFC 3720, for versions of Java that do not include
+ * {@code java.util.zip.CRC32C}. Eight bytes are processed at a time with the slicing-by-8 method.
+ */
+final class Crc32c implements Checksum {
+
+  /** The reversed Castagnoli polynomial. */
+  private static final int POLYNOMIAL = 0x82F63B78;
+
+  private static final int[] TABLE = createTable();
+
+  private int crc = 0xFFFFFFFF;
+
+  @Override
+  public void update(int b) {
+    crc = (crc >>> 8) ^ TABLE[(crc ^ b) & 0xFF];
+  }
+
+  @Override
+  public void update(byte[] b, int off, int len) {
+    int value = crc;
+    int index = off;
+    int remaining = len;
+
+    while (remaining >= 8) {
+      int low = value ^ getInt(b, index);
+      int high = getInt(b, index + 4);
+      value =
+          TABLE[7 * 256 + (low & 0xFF)]
+              ^ TABLE[6 * 256 + ((low >>> 8) & 0xFF)]
+              ^ TABLE[5 * 256 + ((low >>> 16) & 0xFF)]
+              ^ TABLE[4 * 256 + (low >>> 24)]
+              ^ TABLE[3 * 256 + (high & 0xFF)]
+              ^ TABLE[2 * 256 + ((high >>> 8) & 0xFF)]
+              ^ TABLE[256 + ((high >>> 16) & 0xFF)]
+              ^ TABLE[high >>> 24];
+      index += 8;
+      remaining -= 8;
+    }
+
+    while (remaining > 0) {
+      value = (value >>> 8) ^ TABLE[(value ^ b[index]) & 0xFF];
+      index++;
+      remaining--;
+    }
+
+    crc = value;
+  }
+
+  @Override
+  public long getValue() {
+    return ~crc & 0xFFFFFFFFL;
+  }
+
+  @Override
+  public void reset() {
+    crc = 0xFFFFFFFF;
+  }
+
+  private static int getInt(byte[] b, int index) {
+    return (b[index] & 0xFF)
+        | (b[index + 1] & 0xFF) << 8
+        | (b[index + 2] & 0xFF) << 16
+        | (b[index + 3] & 0xFF) << 24;
+  }
+
+  /**
+   * Creates the eight lookup tables, one after another. The first table holds the CRC of each
+   * byte, and each following table holds the CRC of a byte followed by one more zero byte.
+   */
+  private static int[] createTable() {
+    int[] table = new int[8 * 256];
+    for (int n = 0; n < 256; n++) {
+      int value = n;
+      for (int k = 0; k < 8; k++) {
+        value = (value & 1) != 0 ? (value >>> 1) ^ POLYNOMIAL : value >>> 1;
+      }
+      table[n] = value;
+    }
+    for (int n = 0; n < 256; n++) {
+      int value = table[n];
+      for (int k = 1; k < 8; k++) {
+        value = table[value & 0xFF] ^ (value >>> 8);
+        table[k * 256 + n] = value;
+      }
+    }
+    return table;
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.checksum.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Checksum;
+import org.codice.ddf.checksum.AbstractChecksumProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The CRC32C (Castagnoli) checksum algorithm detects more errors than Adler32, and on Java 9 and
+ * later it is calculated with the CRC32 instructions of the processor, which makes it faster still.
+ * On earlier versions of Java a table driven implementation is used.
+ */
+public class Crc32cChecksumProvider extends AbstractChecksumProvider {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Crc32cChecksumProvider.class);
+
+  private static final String DIGEST_ALGORITHM = "CRC32C";
+
+  private static final String JDK_CRC32C_CLASS = "java.util.zip.CRC32C";
+
+  private static final Constructor<? extends Checksum> JDK_CRC32C = findJdkCrc32c();
+
+  @Override
+  public String calculateChecksum(InputStream inputStream)
+      throws IOException, NoSuchAlgorithmException {
+    return calculateChecksum(inputStream, createChecksum());
+  }
+
+  @Override
+  public String getChecksumAlgorithm() {
+    return DIGEST_ALGORITHM;
+  }
+
+  @Override
+  public Checksum createChecksum() {
+    if (JDK_CRC32C != null) {
+      try {
+        return JDK_CRC32C.newInstance();
+      } catch (ReflectiveOperationException e) {
+        LOGGER.debug("Unable to create {}, using the table driven CRC32C.", JDK_CRC32C_CLASS, e);
+      }
+    }
+    return new Crc32c();
+  }
+
+  private static Constructor<? extends Checksum> findJdkCrc32c() {
+    try {
+      return Class.forName(JDK_CRC32C_CLASS).asSubclass(Checksum.class).getConstructor();
+    } catch (ClassNotFoundException | NoSuchMethodException | ClassCastException e) {
+      LOGGER.debug("{} is not available, using the table driven CRC32C.", JDK_CRC32C_CLASS);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.checksum;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.zip.Checksum;
+import org.codice.ddf.checksum.impl.Crc32cChecksumProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+public class Crc32cChecksumProviderTest {
+
+  private ChecksumProvider checksumProvider;
+
+  @Before
+  public void initialize() {
+    checksumProvider = new Crc32cChecksumProvider();
+  }
+
+  @Test
+  public void testCalculateChecksum() throws IOException, NoSuchAlgorithmException {
+    // check value from RFC 3720
+    String checksumValue =
+        checksumProvider.calculateChecksum(
+            new ByteArrayInputStream("123456789".getBytes(StandardCharsets.US_ASCII)));
+
+    assertThat(checksumValue, is("e3069283"));
+  }
+
+  @Test
+  public void testChecksumUpdatedInPartsMatchesCalculatedChecksum()
+      throws IOException, NoSuchAlgorithmException {
+    byte[] content = new byte[100 * 1024 + 3];
+    new Random(1).nextBytes(content);
+
+    Checksum checksum = checksumProvider.createChecksum();
+    checksum.update(content, 0, 5);
+    checksum.update(content[5]);
+    checksum.update(content, 6, content.length - 6);
+
+    assertThat(
+        checksumProvider.getChecksumValue(checksum),
+        is(checksumProvider.calculateChecksum(new ByteArrayInputStream(content))));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCalculateChecksumWithNullInputStream()
+      throws IOException, NoSuchAlgorithmException {
+    checksumProvider.calculateChecksum(null);
+  }
+
+  @Test
+  public void testGetChecksumAlgorithm() {
+    assertThat(checksumProvider.getChecksumAlgorithm(), is("CRC32C"));
+  }
+}
@@ -13,6 +13,10 @@
  */
 package ddf.security.pdp.realm;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
 import ddf.security.common.audit.SecurityLogger;
 import ddf.security.pdp.realm.xacml.XacmlPdp;
 import ddf.security.pdp.realm.xacml.processor.PdpException;
@@ -23,12 +27,15 @@
 import ddf.security.policy.extension.PolicyExtension;
 import ddf.security.service.impl.AbstractAuthorizingRealm;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
@@ -60,6 +67,10 @@ public class AuthzRealm extends AbstractAuthorizingRealm {
   private static final String POLICY_EXTENSION_WARNING_MSG =
       "Policy Extension plugin did not complete correctly. This could allow access to a resource.";
 
+  private static final int DEFAULT_DECISION_CACHE_SIZE = 10000;
+
+  private static final long DEFAULT_DECISION_CACHE_TTL_SECONDS = 60;
+
   private List<PolicyExtension> policyExtensions = new ArrayList<>();
 
   private HashMap<String, String> matchAllMap = new HashMap<>();
@@ -70,6 +81,16 @@ public class AuthzRealm extends AbstractAuthorizingRealm {
 
   private XacmlPdp xacmlPdp;
 
+  private int decisionCacheSize = DEFAULT_DECISION_CACHE_SIZE;
+
+  private long decisionCacheTtlSeconds = DEFAULT_DECISION_CACHE_TTL_SECONDS;
+
+  /**
+   * Caches the decisions made for {@link KeyValueCollectionPermission}s, keyed by the subject and
+   * its permissions, the action and the resource permissions. {@code null} when disabled.
+   */
+  private volatile Cache<List<Object>, Boolean> decisionCache = createDecisionCache();
+
   public AuthzRealm(String dirPath, Parser parser) throws PdpException {
     super();
     xacmlPdp = new XacmlPdp(dirPath, parser, environmentAttributes);
@@ -181,32 +202,106 @@ public boolean isPermitted(PrincipalCollection subjectPrincipal, Permission perm
   public boolean[] isPermitted(PrincipalCollection subjectPrincipal, List<Permission> permissions) {
     boolean[] results = new boolean[permissions.size()];
     AuthorizationInfo authorizationInfo = getAuthorizationInfo(subjectPrincipal);
+    Collection<Permission> perms = getPermissions(authorizationInfo);
     List<Permission> expandedPermissions = expandPermissions(permissions);
+    Object subjectKey = null;
     int i = 0;
     for (Permission permission : expandedPermissions) {
-      results[i++] = isPermitted(subjectPrincipal, permission, authorizationInfo);
+      Cache<List<Object>, Boolean> cache = decisionCache;
+      if (cache == null || !(permission instanceof KeyValueCollectionPermission)) {
+        results[i++] = isPermitted(subjectPrincipal, permission, authorizationInfo, perms);
+        continue;
+      }
+
+      if (subjectKey == null) {
+        subjectKey = getSubjectKey(subjectPrincipal, authorizationInfo, perms);
+      }
+      List<Object> decisionKey =
+          Arrays.asList(subjectKey, getResourceKey((KeyValueCollectionPermission) permission));
+      Boolean decision = cache.getIfPresent(decisionKey);
+      if (decision == null) {
+        decision = isPermitted(subjectPrincipal, permission, authorizationInfo, perms);
+        cache.put(decisionKey, decision);
+      } else if (!decision) {
+        SecurityLogger.audit(
+            PERMISSION_FINISH_1_MSG
+                + getUser(subjectPrincipal)
+                + PERMISSION_FINISH_2_MSG
+                + permission
+                + "] is not implied (cached decision).");
+      }
+      results[i++] = decision;
     }
 
     return results;
   }
 
+  /**
+   * Returns the part of a decision cache key that identifies the subject: its name, which is sent
+   * to the XACML PDP, its roles and its permissions.
+   */
+  private Object getSubjectKey(
+      PrincipalCollection subjectPrincipal,
+      AuthorizationInfo authorizationInfo,
+      Collection<Permission> perms) {
+    ImmutableSet.Builder<Object> permissionKeys = ImmutableSet.builder();
+    for (Permission perm : perms) {
+      permissionKeys.add(getPermissionKey(perm));
+    }
+    Collection<String> roles = authorizationInfo == null ? null : authorizationInfo.getRoles();
+    return Arrays.asList(
+        getUser(subjectPrincipal),
+        roles == null ? ImmutableSet.of() : ImmutableSet.copyOf(roles),
+        permissionKeys.build());
+  }
+
+  /**
+   * Returns the part of a decision cache key that identifies the resource: the action and the
+   * security attributes, regardless of their order.
+   */
+  private Object getResourceKey(KeyValueCollectionPermission permission) {
+    ImmutableMultiset.Builder<Object> permissionKeys = ImmutableMultiset.builder();
+    for (Permission perm : permission.getPermissionList()) {
+      permissionKeys.add(getPermissionKey(perm));
+    }
+    return Arrays.asList(String.valueOf(permission.getAction()), permissionKeys.build());
+  }
+
+  /**
+   * Returns a value that is equal for equivalent permissions, since {@link Permission}s do not
+   * implement {@code equals}.
+   */
+  private Object getPermissionKey(Permission permission) {
+    if (permission instanceof KeyValuePermission) {
+      KeyValuePermission keyValuePermission = (KeyValuePermission) permission;
+      return Arrays.asList(
+          keyValuePermission.getKey(), new TreeSet<>(keyValuePermission.getValues()));
+    }
+    return Arrays.asList(permission.getClass().getName(), String.valueOf(permission));
+  }
+
+  private String getUser(PrincipalCollection subjectPrincipal) {
+    if (subjectPrincipal != null && subjectPrincipal.getPrimaryPrincipal() != null) {
+      return subjectPrincipal.getPrimaryPrincipal().toString();
+    }
+    return "<user>";
+  }
+
   /**
    * Checks if the corresponding Subject/user contained within the AuthorizationInfo object implies
    * the given Permission.
    *
    * @param permission the permission being checked.
    * @param authorizationInfo the application-specific subject/user identifier.
+   * @param perms the permissions of the subject/user
    * @return true if the user is permitted
    */
   private boolean isPermitted(
       PrincipalCollection subjectPrincipal,
       Permission permission,
-      AuthorizationInfo authorizationInfo) {
-    Collection<Permission> perms = getPermissions(authorizationInfo);
-    String curUser = "<user>";
-    if (subjectPrincipal != null && subjectPrincipal.getPrimaryPrincipal() != null) {
-      curUser = subjectPrincipal.getPrimaryPrincipal().toString();
-    }
+      AuthorizationInfo authorizationInfo,
+      Collection<Permission> perms) {
+    String curUser = getUser(subjectPrincipal);
     if (!CollectionUtils.isEmpty(perms)) {
       if (permission instanceof KeyValuePermission) {
         permission =
@@ -436,17 +531,20 @@ private Collection<Permission> resolveRolePermissions(Collection<String> roleNam
    */
   public void setPolicyExtensions(List<PolicyExtension> policyExtensions) {
     this.policyExtensions = policyExtensions;
+    invalidateDecisionCache();
   }
 
   public void addPolicyExtension(PolicyExtension policyExtension) {
     if (policyExtensions != null) {
       policyExtensions.add(policyExtension);
+      invalidateDecisionCache();
     }
   }
 
   public void removePolicyExtension(PolicyExtension policyExtension) {
     if (policyExtensions != null) {
       policyExtensions.remove(policyExtension);
+      invalidateDecisionCache();
     }
   }
 
@@ -480,6 +578,7 @@ public void setMatchAllMappings(List<String> list) {
         }
       }
     }
+    invalidateDecisionCache();
   }
 
   /**
@@ -512,10 +611,54 @@ public void setMatchOneMappings(List<String> list) {
         }
       }
     }
+    invalidateDecisionCache();
   }
 
   public void setEnvironmentAttributes(List<String> environmentAttributes) {
     this.environmentAttributes.clear();
     this.environmentAttributes.addAll(environmentAttributes);
+    invalidateDecisionCache();
+  }
+
+  /**
+   * Sets the maximum number of authorization decisions cached. Decisions are cached for each
+   * combination of subject and resource security attributes, so that the results of a query that
+   * share the same security markings are only evaluated once.
+   *
+   * @param decisionCacheSize the maximum number of decisions cached, or 0 to disable the cache
+   */
+  public void setDecisionCacheSize(int decisionCacheSize) {
+    this.decisionCacheSize = decisionCacheSize;
+    decisionCache = createDecisionCache();
+  }
+
+  /**
+   * Sets how long an authorization decision is cached. This bounds how long changes to the XACML
+   * policies take to apply to decisions already cached.
+   *
+   * @param decisionCacheTtlSeconds the number of seconds a decision is cached, or 0 to disable the
+   *     cache
+   */
+  public void setDecisionCacheTtlSeconds(long decisionCacheTtlSeconds) {
+    this.decisionCacheTtlSeconds = decisionCacheTtlSeconds;
+    decisionCache = createDecisionCache();
+  }
+
+  /** Discards all cached authorization decisions, e.g. after the policy configuration changed. */
+  public void invalidateDecisionCache() {
+    Cache<List<Object>, Boolean> cache = decisionCache;
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  private Cache<List<Object>, Boolean> createDecisionCache() {
+    if (decisionCacheSize <= 0 || decisionCacheTtlSeconds <= 0) {
+      return null;
+    }
+    return CacheBuilder.newBuilder()
+        .maximumSize(decisionCacheSize)
+        .expireAfterWrite(decisionCacheTtlSeconds, TimeUnit.SECONDS)
+        .build();
   }
 }
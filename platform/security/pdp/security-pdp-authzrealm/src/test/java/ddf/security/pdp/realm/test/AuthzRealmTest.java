@@ -25,6 +25,7 @@
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import junit.framework.Assert;
 import org.apache.shiro.authz.AuthorizationInfo;
 import org.apache.shiro.authz.Permission;
@@ -289,4 +290,70 @@ public KeyValueCollectionPermission isPermittedMatchOne(
 
     testRealm.setPolicyExtensions(Arrays.asList(policyExtension));
   }
+
+  @Test
+  public void testDecisionIsCached() {
+    AtomicInteger evaluations = addCountingPolicyExtension();
+
+    Assert.assertTrue(isPermitted(security));
+    HashMap<String, List<String>> reordered = new HashMap<>();
+    reordered.put("rule", Arrays.asList("B", "A"));
+    reordered.put("country", Arrays.asList("GBR", "CAN", "AUS"));
+    Assert.assertTrue(isPermitted(reordered));
+
+    Assert.assertEquals(1, evaluations.get());
+  }
+
+  @Test
+  public void testDecisionCacheInvalidatedByMappings() {
+    AtomicInteger evaluations = addCountingPolicyExtension();
+
+    Assert.assertTrue(isPermitted(security));
+    testRealm.setMatchAllMappings(Arrays.asList("CountryOfAffiliation=country"));
+    Assert.assertFalse(isPermitted(security));
+
+    Assert.assertEquals(2, evaluations.get());
+  }
+
+  @Test
+  public void testDecisionCacheDisabled() {
+    AtomicInteger evaluations = addCountingPolicyExtension();
+    testRealm.setDecisionCacheSize(0);
+
+    Assert.assertTrue(isPermitted(security));
+    Assert.assertTrue(isPermitted(security));
+
+    Assert.assertEquals(2, evaluations.get());
+  }
+
+  private boolean isPermitted(HashMap<String, List<String>> security) {
+    permissionList.clear();
+    permissionList.add(new KeyValueCollectionPermission("action", security));
+    return testRealm.isPermitted(mockSubjectPrincipal, permissionList)[0];
+  }
+
+  /** @return the number of times the match one permissions are evaluated */
+  private AtomicInteger addCountingPolicyExtension() {
+    AtomicInteger evaluations = new AtomicInteger();
+    testRealm.addPolicyExtension(
+        new PolicyExtension() {
+          @Override
+          public KeyValueCollectionPermission isPermittedMatchAll(
+              CollectionPermission subjectAllCollection,
+              KeyValueCollectionPermission matchAllCollection,
+              KeyValueCollectionPermission allPermissionsCollection) {
+            return matchAllCollection;
+          }
+
+          @Override
+          public KeyValueCollectionPermission isPermittedMatchOne(
+              CollectionPermission subjectAllCollection,
+              KeyValueCollectionPermission matchOneCollection,
+              KeyValueCollectionPermission allPermissionsCollection) {
+            evaluations.incrementAndGet();
+            return matchOneCollection;
+          }
+        });
+    return evaluations;
+  }
 }
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.cxf;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+import org.apache.cxf.jaxrs.client.WebClient;
+
+/**
+ * Invokes clients created by a {@link SecureCxfClientFactory} without blocking the calling thread
+ * until the response is received.
+ *
+ * <p>The requests are sent with the non-blocking HTTP conduit when the {@code cxf-http-async}
+ * feature is installed. Otherwise they are sent with the {@code URLConnection} conduit on the
+ * calling thread, which connects and writes the request before returning, and only the wait for
+ * the response moves to the work queue of the bus. Callers that must not block should invoke these
+ * methods from a thread that may.
+ *
+ * <p>The returned futures are completed on the thread that received the response, which should not
+ * be used to process it.
+ */
+public final class AsyncInvocations {
+
+  static final String USE_ASYNC_CONDUIT = "use.async.http.conduit";
+
+  private AsyncInvocations() {}
+
+  /**
+   * Sends a GET request with the current URI, query and headers of a {@link WebClient}.
+   *
+   * @return a future completed with the response, or with the reason the request failed
+   */
+  public static CompletableFuture<Response> get(WebClient client) {
+    CompletableFuture<Response> future = new CompletableFuture<>();
+    Map<String, Object> requestContext = WebClient.getConfig(client).getRequestContext();
+    requestContext.put(USE_ASYNC_CONDUIT, Boolean.TRUE);
+    releaseConnectionOnCompletion(requestContext, future);
+    try {
+      // The callback declares the type of the response, which the client reads the response as
+      client.async().get(new ResponseCallback(future));
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    } finally {
+      requestContext.remove(ConnectionLimiter.ASYNC_RELEASE_KEY);
+    }
+    return future;
+  }
+
+  /**
+   * Invokes a method of a client proxy asynchronously. The method returns immediately, usually
+   * with {@code null}, and its result is used to complete the returned future instead.
+   *
+   * @param proxy a client proxy created by a {@link SecureCxfClientFactory}
+   * @param invocation the call of one method of the proxy
+   * @return a future completed with the result of the method, or with the reason it failed
+   */
+  public static <C, R> CompletableFuture<R> invoke(C proxy, Invocation<C> invocation) {
+    CompletableFuture<R> future = new CompletableFuture<>();
+    Map<String, Object> requestContext = WebClient.getConfig(proxy).getRequestContext();
+    requestContext.put(USE_ASYNC_CONDUIT, Boolean.TRUE);
+    requestContext.put(InvocationCallback.class.getName(), new FutureCallback<>(future));
+    releaseConnectionOnCompletion(requestContext, future);
+    try {
+      invocation.invoke(proxy);
+    } catch (Exception e) {
+      future.completeExceptionally(e);
+    } finally {
+      requestContext.remove(ConnectionLimiter.ASYNC_RELEASE_KEY);
+    }
+    return future;
+  }
+
+  /**
+   * Gives the connection taken by the request back to the {@link ConnectionLimiter} of its client
+   * once the future completes, which includes the request timing out or the future being cancelled
+   * before the response is received.
+   */
+  private static void releaseConnectionOnCompletion(
+      Map<String, Object> requestContext, CompletableFuture<?> future) {
+    ConnectionLimiter.AsyncRelease release = new ConnectionLimiter.AsyncRelease();
+    requestContext.put(ConnectionLimiter.ASYNC_RELEASE_KEY, release);
+    future.whenComplete((result, throwable) -> release.release());
+  }
+
+  /** A call of one method of a client proxy. */
+  @FunctionalInterface
+  public interface Invocation<C> {
+    void invoke(C proxy) throws Exception;
+  }
+
+  private static class ResponseCallback extends FutureCallback<Response>
+      implements InvocationCallback<Response> {
+
+    private ResponseCallback(CompletableFuture<Response> future) {
+      super(future);
+    }
+  }
+
+  private static class FutureCallback<R> implements InvocationCallback<R> {
+
+    private final CompletableFuture<R> future;
+
+    FutureCallback(CompletableFuture<R> future) {
+      this.future = future;
+    }
+
+    @Override
+    public void completed(R response) {
+      future.complete(response);
+    }
+
+    @Override
+    public void failed(Throwable throwable) {
+      future.completeExceptionally(throwable);
+    }
+  }
+}
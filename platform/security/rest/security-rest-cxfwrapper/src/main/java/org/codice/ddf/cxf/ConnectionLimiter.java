@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.cxf;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingTimeWindowReservoir;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.MessageSenderInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Limits the number of requests a {@link SecureCxfClientFactory} has in progress at a time, so a
+ * single remote endpoint cannot use all the connections and threads of the system. A request holds
+ * a permit from just before its connection is opened until its response is received, or it fails.
+ *
+ * <p>The limiter provides an out interceptor that takes a permit, waiting up to the connection
+ * timeout of the client for one, and an in interceptor that gives it back once the response has
+ * been received. The permit is also given back if the request fails. The permit is not given back
+ * when the request has been sent, since the out chain of an asynchronous request completes before
+ * its response is received.
+ *
+ * <p>The in chain does not run when an asynchronous request times out or is cancelled before its
+ * response is received, so asynchronous requests also give their permit back through the {@link
+ * AsyncRelease} found in their request context under {@link #ASYNC_RELEASE_KEY} when they complete.
+ */
+class ConnectionLimiter {
+
+  static final String ASYNC_RELEASE_KEY = ConnectionLimiter.class.getName() + ".asyncRelease";
+
+  private static final String PERMIT_KEY = ConnectionLimiter.class.getName() + ".permit";
+
+  private static final Histogram WAIT_TIME =
+      SecureCxfClientFactory.METRICS.register(
+          MetricRegistry.name("Connections", "WaitTime"),
+          new Histogram(new SlidingTimeWindowReservoir(1, TimeUnit.MINUTES)));
+
+  private static final Meter REJECTED =
+      SecureCxfClientFactory.METRICS.meter(MetricRegistry.name("Connections", "Rejected"));
+
+  private static final Counter IN_USE =
+      SecureCxfClientFactory.METRICS.counter(MetricRegistry.name("Connections", "InUse"));
+
+  private volatile Semaphore permits;
+
+  private volatile long timeoutMillis;
+
+  /** @param maxConnections the maximum number of requests in progress, or 0 for no limit */
+  ConnectionLimiter(int maxConnections, long timeoutMillis) {
+    setMaxConnections(maxConnections);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Requests already in progress give their permit back to the previous limit, so changing the
+   * limit does not wait for them.
+   *
+   * @param maxConnections the maximum number of requests in progress, or 0 for no limit
+   */
+  void setMaxConnections(int maxConnections) {
+    permits = maxConnections > 0 ? new Semaphore(maxConnections, true) : null;
+  }
+
+  void setTimeoutMillis(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  AbstractPhaseInterceptor<Message> getAcquireInterceptor() {
+    return new AcquireInterceptor();
+  }
+
+  AbstractPhaseInterceptor<Message> getReleaseInterceptor() {
+    return new ReleaseInterceptor();
+  }
+
+  private void acquire(Message message) {
+    Semaphore semaphore = permits;
+    Exchange exchange = message.getExchange();
+    if (semaphore == null || exchange == null || exchange.containsKey(PERMIT_KEY)) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    try {
+      if (!semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        REJECTED.mark();
+        throw new Fault(
+            new IOException(
+                "Timed out waiting for one of the connections to "
+                    + message.get(Message.ENDPOINT_ADDRESS)));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new Fault(e);
+    } finally {
+      WAIT_TIME.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    IN_USE.inc();
+    Permit permit = new Permit(semaphore);
+    exchange.put(PERMIT_KEY, permit);
+
+    Object asyncRelease = message.getContextualProperty(ASYNC_RELEASE_KEY);
+    if (asyncRelease instanceof AsyncRelease) {
+      ((AsyncRelease) asyncRelease).bind(permit);
+    }
+  }
+
+  private void release(Message message) {
+    Exchange exchange = message.getExchange();
+    Object permit = exchange == null ? null : exchange.get(PERMIT_KEY);
+    if (permit instanceof Permit) {
+      ((Permit) permit).release();
+    }
+  }
+
+  /**
+   * Gives back the permit of an asynchronous request once the request has completed, whether it
+   * received a response, failed, timed out or was cancelled.
+   */
+  static final class AsyncRelease {
+
+    private Permit permit;
+
+    private boolean completed;
+
+    private synchronized void bind(Permit permit) {
+      if (completed) {
+        permit.release();
+      } else {
+        this.permit = permit;
+      }
+    }
+
+    /** Called when the request has completed. */
+    synchronized void release() {
+      completed = true;
+      if (permit != null) {
+        permit.release();
+      }
+    }
+  }
+
+  /** A permit taken by a request, which is given back only once. */
+  private static final class Permit {
+
+    private final Semaphore semaphore;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(Semaphore semaphore) {
+      this.semaphore = semaphore;
+    }
+
+    private void release() {
+      if (released.compareAndSet(false, true)) {
+        IN_USE.dec();
+        semaphore.release();
+      }
+    }
+  }
+
+  private class AcquireInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private AcquireInterceptor() {
+      super(Phase.PREPARE_SEND);
+      addBefore(MessageSenderInterceptor.class.getName());
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+      acquire(message);
+    }
+
+    @Override
+    public void handleFault(Message message) {
+      release(message);
+    }
+  }
+
+  private class ReleaseInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private ReleaseInterceptor() {
+      super(Phase.RECEIVE);
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+      release(message);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.cxf;
+
+import com.codahale.metrics.JmxReporter;
+import org.osgi.framework.BundleActivator;
+import org.osgi.framework.BundleContext;
+
+/**
+ * Reports the metrics of the clients created by {@link SecureCxfClientFactory}s over JMX while this
+ * bundle is started. The factories are created and discarded by their users without a lifecycle of
+ * their own, so the metrics they share are reported for the lifetime of the bundle instead.
+ */
+public class MetricsReporterActivator implements BundleActivator {
+
+  private final JmxReporter reporter =
+      JmxReporter.forRegistry(SecureCxfClientFactory.METRICS)
+          .inDomain("ddf.metrics.platform.cxf")
+          .build();
+
+  @Override
+  public void start(BundleContext context) {
+    reporter.start();
+  }
+
+  @Override
+  public void stop(BundleContext context) {
+    reporter.stop();
+  }
+}
@@ -13,6 +13,8 @@
  */
 package org.codice.ddf.cxf;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import ddf.security.SecurityConstants;
 import ddf.security.common.audit.SecurityLogger;
 import ddf.security.liberty.paos.Request;
@@ -31,6 +33,7 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -84,11 +87,30 @@
  * <ol>
  *   <li>Most non-DDF systems do not know how to handle SAML assertions in the auth header.
  * </ol>
+ *
+ * <p>The clients of a factory share its key and trust material, so they resume the TLS sessions
+ * and reuse the kept-alive connections of one another. Each client still has its own conduit and
+ * session, which is why a new client is created for each request.
  */
 public class SecureCxfClientFactory<T> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SecureCxfClientFactory.class);
 
+  /**
+   * The system property setting the maximum number of requests the clients of a factory have in
+   * progress at a time. There is no limit when it is not set or less than 1.
+   */
+  public static final String MAX_CONNECTIONS_PROPERTY = "org.codice.ddf.cxf.maxConnections";
+
+  /** Shared by all the factories, and reported by the {@link MetricsReporterActivator}. */
+  static final MetricRegistry METRICS = new MetricRegistry();
+
+  private static final Meter TLS_SETTINGS_HITS =
+      METRICS.meter(MetricRegistry.name("TlsSettings", "Hits"));
+
+  private static final Meter TLS_SETTINGS_MISSES =
+      METRICS.meter(MetricRegistry.name("TlsSettings", "Misses"));
+
   private final JAXRSClientFactoryBean clientFactory;
 
   private final boolean disableCnCheck;
@@ -111,6 +133,10 @@
 
   private String sslProtocol;
 
+  private final ConnectionLimiter connectionLimiter;
+
+  private volatile TlsSettings tlsSettings;
+
   static {
     OpenSAMLUtil.initSamlEngine();
     XMLObjectProviderRegistry xmlObjectProviderRegistry =
@@ -209,6 +235,13 @@ public SecureCxfClientFactory(
       jaxrsClientFactoryBean.getInInterceptors().add(interceptor);
     }
 
+    this.connectionLimiter =
+        new ConnectionLimiter(
+            Integer.getInteger(MAX_CONNECTIONS_PROPERTY, 0), DEFAULT_CONNECTION_TIMEOUT);
+    jaxrsClientFactoryBean.getOutInterceptors().add(connectionLimiter.getAcquireInterceptor());
+    jaxrsClientFactoryBean.getInInterceptors().add(connectionLimiter.getReleaseInterceptor());
+    jaxrsClientFactoryBean.getInFaultInterceptors().add(connectionLimiter.getReleaseInterceptor());
+
     this.clientFactory = jaxrsClientFactoryBean;
   }
 
@@ -243,6 +276,10 @@ public SecureCxfClientFactory(
     this.connectionTimeout = connectionTimeout;
 
     this.receiveTimeout = receiveTimeout;
+
+    if (connectionTimeout != null) {
+      this.connectionLimiter.setTimeoutMillis(connectionTimeout);
+    }
   }
 
   /**
@@ -281,6 +318,10 @@ public SecureCxfClientFactory(
 
     this.receiveTimeout = receiveTimeout;
 
+    if (connectionTimeout != null) {
+      this.connectionLimiter.setTimeoutMillis(connectionTimeout);
+    }
+
     this.keyInfo = keyInfo;
 
     this.sslProtocol = sslProtocol;
@@ -333,6 +374,16 @@ public SecureCxfClientFactory(
     this.basicAuth = true;
   }
 
+  /**
+   * Limits the number of requests the clients of this factory have in progress at a time. A
+   * request waits up to the connection timeout for one of the others to complete, then fails.
+   *
+   * @param maxConnections the maximum number of requests in progress, or 0 for no limit
+   */
+  public void setMaxConnections(int maxConnections) {
+    connectionLimiter.setMaxConnections(maxConnections);
+  }
+
   public T getClient() {
     return getClientForSubject(null);
   }
@@ -441,17 +492,6 @@ private void configureConduit(ClientConfiguration clientConfig) {
       tlsParams.setCipherSuites(Arrays.asList(cipherSuites.split(",")));
     }
 
-    KeyStore keyStore = null;
-    KeyStore trustStore = null;
-    try {
-      keyStore = SecurityConstants.newKeystore();
-      trustStore = SecurityConstants.newTruststore();
-    } catch (KeyStoreException e) {
-      LOGGER.debug(
-          "Unable to create keystore instance of type {}",
-          System.getProperty(SecurityConstants.KEYSTORE_TYPE),
-          e);
-    }
     Path keyStoreFile;
     if (keyInfo != null && StringUtils.isNotBlank(keyInfo.getKeystorePath())) {
       keyStoreFile = Paths.get(keyInfo.getKeystorePath());
@@ -470,8 +510,6 @@ private void configureConduit(ClientConfiguration clientConfig) {
         trustStoreFile = Paths.get(ddfHomePath.toString(), trustStoreFile.toString());
       }
     }
-    String keyStorePassword = SecurityConstants.getKeystorePassword();
-    String trustStorePassword = SecurityConstants.getTruststorePassword();
     if (!Files.isReadable(keyStoreFile) || !Files.isReadable(trustStoreFile)) {
       LOGGER.debug(
           "Unable to read system key/trust store files: [ {} ] [ {} ]",
@@ -479,6 +517,71 @@ private void configureConduit(ClientConfiguration clientConfig) {
           trustStoreFile);
       return;
     }
+
+    TlsSettings settings = getTlsSettings(keyStoreFile, trustStoreFile);
+    if (settings.keyManagers != null) {
+      tlsParams.setKeyManagers(settings.keyManagers);
+    }
+    if (settings.trustManagers != null) {
+      tlsParams.setTrustManagers(settings.trustManagers);
+    }
+
+    if (keyInfo != null) {
+      LOGGER.trace("Using keystore file: {}, alias: {}", keyStoreFile, keyInfo.getAlias());
+      tlsParams.setUseHttpsURLConnectionDefaultSslSocketFactory(false);
+      tlsParams.setCertAlias(keyInfo.getAlias());
+      if (settings.sslSocketFactory != null) {
+        tlsParams.setSSLSocketFactory(settings.sslSocketFactory);
+      }
+    } else {
+      tlsParams.setUseHttpsURLConnectionDefaultSslSocketFactory(true);
+      tlsParams.setCertAlias(SystemBaseUrl.getHost());
+    }
+
+    httpConduit.setTlsClientParameters(tlsParams);
+  }
+
+  /**
+   * Returns the key and trust material of the clients, which is loaded once and shared by every
+   * client of this factory until the key or trust store file changes. Sharing the socket factory
+   * lets the clients resume TLS sessions and reuse the kept-alive connections of one another.
+   */
+  private TlsSettings getTlsSettings(Path keyStoreFile, Path trustStoreFile) {
+    TlsSettings settings = tlsSettings;
+    if (settings != null && settings.isCurrent(keyStoreFile, trustStoreFile)) {
+      TLS_SETTINGS_HITS.mark();
+      return settings;
+    }
+
+    synchronized (this) {
+      settings = tlsSettings;
+      if (settings != null && settings.isCurrent(keyStoreFile, trustStoreFile)) {
+        TLS_SETTINGS_HITS.mark();
+        return settings;
+      }
+      TLS_SETTINGS_MISSES.mark();
+      settings = loadTlsSettings(keyStoreFile, trustStoreFile);
+      tlsSettings = settings;
+      return settings;
+    }
+  }
+
+  private TlsSettings loadTlsSettings(Path keyStoreFile, Path trustStoreFile) {
+    KeyStore keyStore = null;
+    KeyStore trustStore = null;
+    try {
+      keyStore = SecurityConstants.newKeystore();
+      trustStore = SecurityConstants.newTruststore();
+    } catch (KeyStoreException e) {
+      LOGGER.debug(
+          "Unable to create keystore instance of type {}",
+          System.getProperty(SecurityConstants.KEYSTORE_TYPE),
+          e);
+    }
+    String keyStorePassword = SecurityConstants.getKeystorePassword();
+    String trustStorePassword = SecurityConstants.getTruststorePassword();
+    FileTime keyStoreModified = getLastModifiedTime(keyStoreFile);
+    FileTime trustStoreModified = getLastModifiedTime(trustStoreFile);
     try (InputStream kfis = Files.newInputStream(keyStoreFile)) {
       if (keyStore != null) {
         keyStore.load(kfis, keyStorePassword.toCharArray());
@@ -500,7 +603,6 @@ private void configureConduit(ClientConfiguration clientConfig) {
           KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
       keyManagerFactory.init(keyStore, keyStorePassword.toCharArray());
       keyManagers = keyManagerFactory.getKeyManagers();
-      tlsParams.setKeyManagers(keyManagers);
     } catch (NoSuchAlgorithmException | KeyStoreException | UnrecoverableKeyException e) {
       LOGGER.debug("Unable to initialize KeyManagerFactory.", e);
     }
@@ -511,15 +613,12 @@ private void configureConduit(ClientConfiguration clientConfig) {
           TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
       trustManagerFactory.init(trustStore);
       trustManagers = trustManagerFactory.getTrustManagers();
-      tlsParams.setTrustManagers(trustManagers);
     } catch (NoSuchAlgorithmException | KeyStoreException e) {
       LOGGER.debug("Unable to initialize TrustManagerFactory.", e);
     }
 
+    SSLSocketFactory sslSocketFactory = null;
     if (keyInfo != null) {
-      LOGGER.trace("Using keystore file: {}, alias: {}", keyStoreFile, keyInfo.getAlias());
-      tlsParams.setUseHttpsURLConnectionDefaultSslSocketFactory(false);
-      tlsParams.setCertAlias(keyInfo.getAlias());
       try {
         boolean validProtocolFound = false;
         String validProtocolsStr = System.getProperty("jdk.tls.client.protocols");
@@ -540,18 +639,31 @@ private void configureConduit(ClientConfiguration clientConfig) {
           validProtocolFound = true;
         }
         if (validProtocolFound) {
-          tlsParams.setSSLSocketFactory(
-              getSSLSocketFactory(sslProtocol, keyInfo.getAlias(), keyManagers, trustManagers));
+          sslSocketFactory =
+              getSSLSocketFactory(sslProtocol, keyInfo.getAlias(), keyManagers, trustManagers);
         }
       } catch (KeyManagementException | NoSuchAlgorithmException e) {
         LOGGER.debug("Unable to override default SSL Socket Factory", e);
       }
-    } else {
-      tlsParams.setUseHttpsURLConnectionDefaultSslSocketFactory(true);
-      tlsParams.setCertAlias(SystemBaseUrl.getHost());
     }
 
-    httpConduit.setTlsClientParameters(tlsParams);
+    return new TlsSettings(
+        keyStoreFile,
+        keyStoreModified,
+        trustStoreFile,
+        trustStoreModified,
+        keyManagers,
+        trustManagers,
+        sslSocketFactory);
+  }
+
+  private static FileTime getLastModifiedTime(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      LOGGER.debug("Unable to read the modification time of {}", file, e);
+      return null;
+    }
   }
 
   /**
@@ -624,6 +736,53 @@ private SSLSocketFactory getSSLSocketFactory(
     return context.getSocketFactory();
   }
 
+  /**
+   * The key and trust material shared by the clients of a factory, with the modification times of
+   * the files it was loaded from.
+   */
+  private static final class TlsSettings {
+
+    private final Path keyStoreFile;
+
+    private final FileTime keyStoreModified;
+
+    private final Path trustStoreFile;
+
+    private final FileTime trustStoreModified;
+
+    private final KeyManager[] keyManagers;
+
+    private final TrustManager[] trustManagers;
+
+    private final SSLSocketFactory sslSocketFactory;
+
+    private TlsSettings(
+        Path keyStoreFile,
+        FileTime keyStoreModified,
+        Path trustStoreFile,
+        FileTime trustStoreModified,
+        KeyManager[] keyManagers,
+        TrustManager[] trustManagers,
+        SSLSocketFactory sslSocketFactory) {
+      this.keyStoreFile = keyStoreFile;
+      this.keyStoreModified = keyStoreModified;
+      this.trustStoreFile = trustStoreFile;
+      this.trustStoreModified = trustStoreModified;
+      this.keyManagers = keyManagers;
+      this.trustManagers = trustManagers;
+      this.sslSocketFactory = sslSocketFactory;
+    }
+
+    private boolean isCurrent(Path keyStore, Path trustStore) {
+      return keyStoreFile.equals(keyStore)
+          && trustStoreFile.equals(trustStore)
+          && keyStoreModified != null
+          && trustStoreModified != null
+          && keyStoreModified.equals(getLastModifiedTime(keyStore))
+          && trustStoreModified.equals(getLastModifiedTime(trustStore));
+    }
+  }
+
   /**
    * X509 certificate selector for retrieving certificate for a specific alias. Based off of code
    * from
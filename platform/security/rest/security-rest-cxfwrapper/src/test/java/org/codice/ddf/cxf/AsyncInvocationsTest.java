@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.cxf;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactory;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Sends requests with real CXF clients to a local HTTP server. */
+public class AsyncInvocationsTest {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private static final String BODY = "response body";
+
+  private HttpServer server;
+
+  private int status = Response.Status.OK.getStatusCode();
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("Content-Type", MediaType.TEXT_PLAIN);
+          exchange.sendResponseHeaders(status, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testGet() throws Exception {
+    Response response =
+        AsyncInvocations.get(WebClient.create(getAddress()))
+            .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertThat(response.getStatus(), is(Response.Status.OK.getStatusCode()));
+    assertThat(response.readEntity(String.class), is(BODY));
+  }
+
+  @Test
+  public void testGetErrorStatus() throws Exception {
+    status = Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+
+    Response response =
+        AsyncInvocations.get(WebClient.create(getAddress()))
+            .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertThat(response.getStatus(), is(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()));
+  }
+
+  @Test
+  public void testGetConnectionRefused() throws Exception {
+    String address;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      address = "http://localhost:" + socket.getLocalPort() + "/";
+    }
+
+    try {
+      AsyncInvocations.get(WebClient.create(address)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      fail("The request should have failed.");
+    } catch (ExecutionException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testInvoke() throws Exception {
+    TextService proxy = JAXRSClientFactory.create(getAddress(), TextService.class);
+
+    String text =
+        AsyncInvocations.<TextService, String>invoke(proxy, TextService::getText)
+            .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertThat(text, is(BODY));
+  }
+
+  @Test
+  public void testInvokeErrorStatus() throws Exception {
+    status = Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+    TextService proxy = JAXRSClientFactory.create(getAddress(), TextService.class);
+
+    try {
+      AsyncInvocations.<TextService, String>invoke(proxy, TextService::getText)
+          .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      fail("The invocation should have failed.");
+    } catch (ExecutionException e) {
+      // expected
+    }
+  }
+
+  private String getAddress() {
+    return "http://localhost:" + server.getAddress().getPort() + "/";
+  }
+
+  @Path("/")
+  public interface TextService {
+
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    String getText();
+  }
+}
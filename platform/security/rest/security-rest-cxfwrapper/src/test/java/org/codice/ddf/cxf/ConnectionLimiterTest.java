@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.ddf.cxf;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConnectionLimiterTest {
+
+  private static final long TIMEOUT_MILLIS = 10;
+
+  private ConnectionLimiter limiter;
+
+  private AbstractPhaseInterceptor<Message> acquireInterceptor;
+
+  private AbstractPhaseInterceptor<Message> releaseInterceptor;
+
+  @Before
+  public void setUp() {
+    limiter = new ConnectionLimiter(1, TIMEOUT_MILLIS);
+    acquireInterceptor = limiter.getAcquireInterceptor();
+    releaseInterceptor = limiter.getReleaseInterceptor();
+  }
+
+  @Test
+  public void testConnectionReleasedWhenResponseReceived() {
+    Message message = message();
+    acquireInterceptor.handleMessage(message);
+    releaseInterceptor.handleMessage(message);
+
+    acquireInterceptor.handleMessage(message());
+  }
+
+  @Test
+  public void testConnectionReleasedInResponseChain() {
+    assertThat(releaseInterceptor.getPhase(), is(Phase.RECEIVE));
+  }
+
+  @Test
+  public void testAsyncRequestHoldsConnectionUntilResponseReceived() {
+    Message request = message();
+    acquireInterceptor.handleMessage(request);
+
+    // The out chain of an asynchronous request has completed, but its response has not arrived
+    try {
+      acquireInterceptor.handleMessage(message());
+      fail("The connection was released before the response was received.");
+    } catch (Fault e) {
+      // expected
+    }
+
+    Message response = new MessageImpl();
+    response.setExchange(request.getExchange());
+    releaseInterceptor.handleMessage(response);
+
+    acquireInterceptor.handleMessage(message());
+  }
+
+  @Test(expected = Fault.class)
+  public void testRequestFailsWhenNoConnectionAvailable() {
+    acquireInterceptor.handleMessage(message());
+    acquireInterceptor.handleMessage(message());
+  }
+
+  @Test(expected = Fault.class)
+  public void testConnectionReleasedOnceWhenRequestFails() {
+    Message message = message();
+    acquireInterceptor.handleMessage(message);
+    acquireInterceptor.handleFault(message);
+    releaseInterceptor.handleMessage(message);
+
+    acquireInterceptor.handleMessage(message());
+    acquireInterceptor.handleMessage(message());
+  }
+
+  @Test
+  public void testAsyncRequestReleasedWhenCompletedWithoutResponse() {
+    ConnectionLimiter.AsyncRelease release = new ConnectionLimiter.AsyncRelease();
+    Message request = message();
+    request.put(ConnectionLimiter.ASYNC_RELEASE_KEY, release);
+    acquireInterceptor.handleMessage(request);
+
+    // The request timed out or was cancelled, so no response reaches the in chain
+    release.release();
+
+    acquireInterceptor.handleMessage(message());
+  }
+
+  @Test
+  public void testAsyncRequestCompletedBeforeAcquiringIsReleased() {
+    ConnectionLimiter.AsyncRelease release = new ConnectionLimiter.AsyncRelease();
+    release.release();
+
+    Message request = message();
+    request.put(ConnectionLimiter.ASYNC_RELEASE_KEY, release);
+    acquireInterceptor.handleMessage(request);
+
+    acquireInterceptor.handleMessage(message());
+  }
+
+  @Test(expected = Fault.class)
+  public void testAsyncRequestReleasedOnce() {
+    ConnectionLimiter.AsyncRelease release = new ConnectionLimiter.AsyncRelease();
+    Message request = message();
+    request.put(ConnectionLimiter.ASYNC_RELEASE_KEY, release);
+    acquireInterceptor.handleMessage(request);
+
+    Message response = new MessageImpl();
+    response.setExchange(request.getExchange());
+    releaseInterceptor.handleMessage(response);
+    release.release();
+
+    acquireInterceptor.handleMessage(message());
+    acquireInterceptor.handleMessage(message());
+  }
+
+  @Test
+  public void testNoLimit() {
+    limiter.setMaxConnections(0);
+
+    for (int i = 0; i < 10; i++) {
+      acquireInterceptor.handleMessage(message());
+    }
+  }
+
+  private Message message() {
+    Message message = new MessageImpl();
+    message.setExchange(new ExchangeImpl());
+    return message;
+  }
+}
@@ -14,6 +14,7 @@
 package org.codice.ddf.cxf;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -34,6 +35,7 @@
 import javax.ws.rs.GET;
 import javax.ws.rs.core.Response;
 import org.apache.commons.io.IOUtils;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
 import org.apache.cxf.jaxrs.client.Client;
 import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.cxf.transport.http.HTTPConduit;
@@ -261,6 +263,35 @@ public void testWebClient() {
     assertThat(client, notNullValue());
   }
 
+  @Test
+  public void testClientsShareTlsSettings() {
+    SecureCxfClientFactory<IDummy> secureCxfClientFactory =
+        new SecureCxfClientFactory<>(
+            SECURE_ENDPOINT,
+            IDummy.class,
+            null,
+            null,
+            false,
+            false,
+            null,
+            null,
+            new ClientKeyInfo("alias", systemKeystoreFile.getAbsolutePath()),
+            "TLSv1.2");
+
+    TLSClientParameters first =
+        WebClient.getConfig(WebClient.client(secureCxfClientFactory.getClient()))
+            .getHttpConduit()
+            .getTlsClientParameters();
+    TLSClientParameters second =
+        WebClient.getConfig(WebClient.client(secureCxfClientFactory.getClient()))
+            .getHttpConduit()
+            .getTlsClientParameters();
+
+    assertThat(first.getSSLSocketFactory(), notNullValue());
+    assertThat(second.getSSLSocketFactory(), sameInstance(first.getSSLSocketFactory()));
+    assertThat(second.getKeyManagers(), sameInstance(first.getKeyManagers()));
+  }
+
   @Test
   public void testKeyInfo() {
     String alias = "alias";
@@ -29,6 +29,14 @@ public class ConfigurationStore {
 
   private boolean disableTextPath;
 
+  private int commitWindowMillis;
+
+  private boolean commitWaitForVisibility = true;
+
+  private int textPathMaxMetadataSize;
+
+  private int indexingParallelism = 1;
+
   private boolean inMemory;
 
   private Double nearestNeighborDistanceLimit;
@@ -59,6 +67,32 @@ public void setDisableTextPath(boolean disableTextPath) {
     this.disableTextPath = disableTextPath;
   }
 
+  /** @return the size in characters above which metadata is not text path indexed, 0 if none */
+  public int getTextPathMaxMetadataSize() {
+    return textPathMaxMetadataSize;
+  }
+
+  /**
+   * @param textPathMaxMetadataSize metadata larger than this number of characters will not be text
+   *     path indexed on every subsequent update or insert. 0 or less indexes all metadata.
+   */
+  public void setTextPathMaxMetadataSize(int textPathMaxMetadataSize) {
+    this.textPathMaxMetadataSize = textPathMaxMetadataSize;
+  }
+
+  /** @return the number of threads used to convert the metacards of a batch to Solr documents */
+  public int getIndexingParallelism() {
+    return indexingParallelism;
+  }
+
+  /**
+   * @param indexingParallelism the number of threads used to convert the metacards of an update or
+   *     insert to Solr documents. 1 or less converts them on the calling thread.
+   */
+  public void setIndexingParallelism(int indexingParallelism) {
+    this.indexingParallelism = indexingParallelism;
+  }
+
   public String getDataDirectoryPath() {
     return dataDirectoryPath;
   }
@@ -80,6 +114,36 @@ public boolean isForceAutoCommit() {
     return forceAutoCommit;
   }
 
+  /**
+   * @return the time in milliseconds during which commit requests are coalesced into a single soft
+   *     commit, 0 if every request commits on its own
+   */
+  public int getCommitWindowMillis() {
+    return commitWindowMillis;
+  }
+
+  /**
+   * @param commitWindowMillis the time in milliseconds during which the commits requested by
+   *     concurrent inserts, updates and deletes are coalesced into a single soft commit. 0 or less
+   *     commits every request on its own.
+   */
+  public void setCommitWindowMillis(int commitWindowMillis) {
+    this.commitWindowMillis = commitWindowMillis;
+  }
+
+  /** @return true, if requests wait for their coalesced commit to make their changes visible */
+  public boolean isCommitWaitForVisibility() {
+    return commitWaitForVisibility;
+  }
+
+  /**
+   * @param commitWaitForVisibility When set to true, inserts, updates and deletes that requested a
+   *     coalesced commit return once the commit has made their changes visible.
+   */
+  public void setCommitWaitForVisibility(boolean commitWaitForVisibility) {
+    this.commitWaitForVisibility = commitWaitForVisibility;
+  }
+
   /** @return true, if index stored in memory */
   public boolean isInMemory() {
     return inMemory;